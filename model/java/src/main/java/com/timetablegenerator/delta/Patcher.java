@@ -0,0 +1,324 @@
+package com.timetablegenerator.delta;
+
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.OneTimePeriod;
+import com.timetablegenerator.model.period.Period;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import lombok.NonNull;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Applies the structural deltas produced by {@link TimeTable#findDifferences(TimeTable)} to the timetable they were
+ * computed from. Only the courses, section types, sections and periods named in a delta are rebuilt; everything else
+ * is shared with the base timetable, which is left unmodified.
+ *
+ * Notes are matched by value, so a patched note list holds the same notes as the target but may be ordered
+ * differently if notes were reordered rather than added or removed.
+ */
+public final class Patcher {
+
+    private static final List<PropertyType> COURSE_RELATIONS = Arrays.asList(
+            PropertyType.CROSS_LISTING, PropertyType.PRE_REQUISITE,
+            PropertyType.ANTI_REQUISITE, PropertyType.CO_REQUISITE);
+
+    private Patcher() {
+    }
+
+    /**
+     * Applies a timetable delta to a base timetable.
+     *
+     * @param base The timetable the delta was computed from.
+     * @param delta The delta to apply.
+     * @return A new timetable equal to the one the delta was computed against.
+     * @throws IllegalArgumentException If the delta does not apply to the base timetable.
+     */
+    public static TimeTable apply(@NonNull TimeTable base, @NonNull StructureDelta delta) {
+
+        checkDelta(delta, PropertyType.TIMETABLE, base.getDeltaId());
+        checkTypes(delta, EnumSet.of(PropertyType.COURSE), EnumSet.of(PropertyType.COURSE));
+
+        Map<String, Course> courses = new TreeMap<>();
+        base.getCourses().forEach(x -> courses.put(x.getUniqueId(), x));
+
+        patchMembers(delta, PropertyType.COURSE, courses, Course::getUniqueId);
+
+        // Rebuild changed courses first and link up their relations once every course has been rebuilt, so that
+        // relations refer to the patched courses rather than the originals.
+        Map<Course, Map<PropertyType, Map<String, Course>>> relations = new LinkedHashMap<>();
+
+        for (StructureDelta courseDelta : delta.getSubstructureChanges(PropertyType.COURSE)) {
+            Course course = getMember(courses, courseDelta);
+            Map<PropertyType, Map<String, Course>> courseRelations = new EnumMap<>(PropertyType.class);
+            Course patched = patchCourse(course, courseDelta, courseRelations);
+            courses.put(course.getUniqueId(), patched);
+            relations.put(patched, courseRelations);
+        }
+
+        relations.forEach((course, courseRelations) -> courseRelations.forEach((type, related) ->
+                related.forEach((id, original) -> {
+                    Course c = courses.getOrDefault(id, original);
+                    switch (type) {
+                        case CROSS_LISTING:
+                            course.addCrossListing(c);
+                            break;
+                        case PRE_REQUISITE:
+                            course.addPrerequisite(c);
+                            break;
+                        case ANTI_REQUISITE:
+                            course.addAntirequisite(c);
+                            break;
+                        default:
+                            course.addCorequesite(c);
+                    }
+                })));
+
+        TimeTable patched = TimeTable.of(base.getSchool(), base.getTerm());
+        courses.values().forEach(patched::addCourse);
+
+        return patched;
+    }
+
+    private static Course patchCourse(Course base, StructureDelta delta,
+                                      Map<PropertyType, Map<String, Course>> relations) {
+
+        Set<PropertyType> valueTypes = EnumSet.of(PropertyType.NAME, PropertyType.DESCRIPTION,
+                PropertyType.CREDITS, PropertyType.NOTE, PropertyType.SECTION_TYPE);
+        valueTypes.addAll(COURSE_RELATIONS);
+        checkTypes(delta, valueTypes, EnumSet.of(PropertyType.SECTION_TYPE));
+
+        Course course = Course.of(base.getSchool(), base.getTerm(), base.getDepartment(), base.getCode(),
+                patchValue(delta, PropertyType.NAME, base.getName()));
+
+        Optional.ofNullable(patchValue(delta, PropertyType.DESCRIPTION, base.getDescription().orElse(null)))
+                .ifPresent(course::setDescription);
+        Optional.ofNullable(patchValue(delta, PropertyType.CREDITS, base.getCredits().orElse(null)))
+                .ifPresent(course::setCredits);
+        course.addNotes(patchNotes(delta, base.getNotes()));
+
+        relations.put(PropertyType.CROSS_LISTING, new TreeMap<>(base.getCrossListings()));
+        relations.put(PropertyType.PRE_REQUISITE, new TreeMap<>(base.getPrerequisites()));
+        relations.put(PropertyType.ANTI_REQUISITE, new TreeMap<>(base.getAntirequisites()));
+        relations.put(PropertyType.CO_REQUISITE, new TreeMap<>(base.getCorequisites()));
+        relations.forEach((type, related) -> patchMembers(delta, type, related, Course::getUniqueId));
+
+        Map<String, SectionType> sectionTypes = new TreeMap<>();
+        base.getSectionTypes().forEach(x -> sectionTypes.put(x, base.getSectionType(x).orElse(null)));
+
+        patchMembers(delta, PropertyType.SECTION_TYPE, sectionTypes, SectionType::getCode);
+        delta.getSubstructureChanges(PropertyType.SECTION_TYPE).forEach(x ->
+                sectionTypes.put(x.getIdentifier(), patchSectionType(getMember(sectionTypes, x), x)));
+
+        sectionTypes.values().forEach(course::addSections);
+
+        return course;
+    }
+
+    private static SectionType patchSectionType(SectionType base, StructureDelta delta) {
+
+        checkTypes(delta, EnumSet.of(PropertyType.SECTION), EnumSet.of(PropertyType.SECTION));
+
+        Map<String, Section> sections = new TreeMap<>();
+        base.getSections().forEach(x -> sections.put(x.getId(), x));
+
+        patchMembers(delta, PropertyType.SECTION, sections, Section::getId);
+        delta.getSubstructureChanges(PropertyType.SECTION).forEach(x ->
+                sections.put(x.getIdentifier(), patchSection(getMember(sections, x), x)));
+
+        SectionType sectionType = SectionType.of(base.getSchool(), base.getTerm(), base.getCode());
+        sections.values().forEach(sectionType::addSection);
+
+        return sectionType;
+    }
+
+    private static Section patchSection(Section base, StructureDelta delta) {
+
+        checkTypes(delta,
+                EnumSet.of(PropertyType.SERIAL_NUMBER, PropertyType.WAITING_LIST, PropertyType.NUM_WAITING,
+                        PropertyType.MAX_WAITING, PropertyType.IS_FULL, PropertyType.NUM_ENROLLED,
+                        PropertyType.MAX_ENROLLED, PropertyType.IS_CANCELLED, PropertyType.IS_ONLINE,
+                        PropertyType.NOTE, PropertyType.REPEATING_PERIOD, PropertyType.ONE_TIME_PERIOD),
+                EnumSet.of(PropertyType.REPEATING_PERIOD, PropertyType.ONE_TIME_PERIOD));
+
+        Section section = Section.of(base.getTerm(), base.getId());
+
+        Optional.ofNullable(patchValue(delta, PropertyType.SERIAL_NUMBER, base.getSerialNumber().orElse(null)))
+                .ifPresent(section::setSerialNumber);
+        base.getGroupId().ifPresent(section::setGroupId);
+
+        // The setters for enrollment and waiting numbers update each other, so they are replayed in an order that
+        // leaves each with the value it was patched to.
+        Optional.ofNullable(patchValue(delta, PropertyType.IS_FULL, base.isFull().orElse(null)))
+                .ifPresent(section::setFull);
+        Optional.ofNullable(patchValue(delta, PropertyType.MAX_ENROLLED, base.getMaxEnrollment().orElse(null)))
+                .ifPresent(section::setMaximumEnrollment);
+        Optional.ofNullable(patchValue(delta, PropertyType.NUM_ENROLLED, base.getEnrollment().orElse(null)))
+                .ifPresent(section::setEnrollment);
+        Optional.ofNullable(patchValue(delta, PropertyType.WAITING_LIST, base.hasWaitingList().orElse(null)))
+                .ifPresent(section::setWaitingList);
+        Optional.ofNullable(patchValue(delta, PropertyType.MAX_WAITING, base.getMaxWaiting().orElse(null)))
+                .ifPresent(section::setMaximumWaiting);
+        Optional.ofNullable(patchValue(delta, PropertyType.NUM_WAITING, base.getWaiting().orElse(null)))
+                .ifPresent(section::setWaiting);
+
+        Optional.ofNullable(patchValue(delta, PropertyType.IS_CANCELLED, base.isCancelled().orElse(null)))
+                .ifPresent(section::setCancelled);
+        Optional.ofNullable(patchValue(delta, PropertyType.IS_ONLINE, base.isOnline().orElse(null)))
+                .ifPresent(section::setOnline);
+
+        section.addNotes(patchNotes(delta, base.getNotes()));
+
+        Map<String, RepeatingPeriod> repeatingPeriods = new TreeMap<>();
+        base.getRepeatingPeriods().forEach(x -> repeatingPeriods.put(x.getUniqueId(), x));
+
+        patchMembers(delta, PropertyType.REPEATING_PERIOD, repeatingPeriods, RepeatingPeriod::getUniqueId);
+        delta.getSubstructureChanges(PropertyType.REPEATING_PERIOD).forEach(x -> {
+            RepeatingPeriod period = getMember(repeatingPeriods, x);
+            RepeatingPeriod patched = RepeatingPeriod.of(period.getTerm());
+            period.getDayTimeRange().ifPresent(patched::setDayTimeRange);
+            period.getActiveDateRange().ifPresent(patched::setActiveDateRange);
+            repeatingPeriods.put(x.getIdentifier(), patchPeriod(period, patched, x));
+        });
+
+        Map<String, OneTimePeriod> oneTimePeriods = new TreeMap<>();
+        base.getOneTimePeriods().forEach(x -> oneTimePeriods.put(x.getUniqueId(), x));
+
+        patchMembers(delta, PropertyType.ONE_TIME_PERIOD, oneTimePeriods, OneTimePeriod::getUniqueId);
+        delta.getSubstructureChanges(PropertyType.ONE_TIME_PERIOD).forEach(x -> {
+            OneTimePeriod period = getMember(oneTimePeriods, x);
+            OneTimePeriod patched = OneTimePeriod.of(period.getTerm());
+            period.getDateTimeRange().ifPresent(patched::setDateTimeRange);
+            oneTimePeriods.put(x.getIdentifier(), patchPeriod(period, patched, x));
+        });
+
+        repeatingPeriods.values().forEach(section::addPeriod);
+        oneTimePeriods.values().forEach(section::addPeriod);
+
+        return section;
+    }
+
+    private static <T extends Period> T patchPeriod(Period base, T period, StructureDelta delta) {
+
+        checkTypes(delta, EnumSet.of(PropertyType.ROOM, PropertyType.CAMPUS, PropertyType.IS_ONLINE,
+                PropertyType.NOTE, PropertyType.SUPERVISOR), EnumSet.noneOf(PropertyType.class));
+
+        Optional.ofNullable(patchValue(delta, PropertyType.ROOM, base.getRoom().orElse(null)))
+                .ifPresent(period::setRoom);
+        Optional.ofNullable(patchValue(delta, PropertyType.CAMPUS, base.getCampus().orElse(null)))
+                .ifPresent(period::setCampus);
+        Optional.ofNullable(patchValue(delta, PropertyType.IS_ONLINE, base.isOnline().orElse(null)))
+                .ifPresent(period::setOnline);
+
+        Map<String, String> supervisors = new TreeMap<>();
+        base.getSupervisors().forEach(x -> supervisors.put(x, x));
+        patchMembers(delta, PropertyType.SUPERVISOR, supervisors, Function.identity());
+
+        period.addSupervisors(supervisors.keySet());
+        period.addNotes(patchNotes(delta, base.getNotes()));
+
+        return period;
+    }
+
+    private static void checkDelta(StructureDelta delta, PropertyType propertyType, String id) {
+        if (delta.getPropertyType() != propertyType || !delta.getIdentifier().equals(id)) {
+            throw new IllegalArgumentException("Delta [" + delta.getPropertyType().getFieldName() + "] (id = "
+                    + delta.getIdentifier() + ") does not apply to [" + propertyType.getFieldName()
+                    + "] (id = " + id + ")");
+        }
+    }
+
+    private static void checkTypes(StructureDelta delta, Set<PropertyType> valueTypes,
+                                   Set<PropertyType> substructureTypes) {
+
+        for (Delta d : delta.getValueChanges()) {
+            if (!valueTypes.contains(d.getPropertyType())) {
+                throw new IllegalArgumentException("Cannot apply a value change of type ["
+                        + d.getPropertyType().getFieldName() + "] to [" + delta.getPropertyType().getFieldName()
+                        + "] (id = " + delta.getIdentifier() + ")");
+            }
+        }
+        for (StructureDelta d : delta.getSubstructureChanges()) {
+            if (!substructureTypes.contains(d.getPropertyType())) {
+                throw new IllegalArgumentException("Cannot apply a substructure change of type ["
+                        + d.getPropertyType().getFieldName() + "] to [" + delta.getPropertyType().getFieldName()
+                        + "] (id = " + delta.getIdentifier() + ")");
+            }
+        }
+    }
+
+    private static <T> T getMember(Map<String, T> members, StructureDelta delta) {
+        T member = members.get(delta.getIdentifier());
+        if (member == null) {
+            throw new IllegalArgumentException("Cannot apply a change to the missing ["
+                    + delta.getPropertyType().getFieldName() + "] (id = " + delta.getIdentifier() + ")");
+        }
+        return member;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T patchValue(StructureDelta delta, PropertyType propertyType, T value) {
+
+        for (Delta d : delta.getValueChanges(propertyType)) {
+
+            Object expected = null;
+            Object patched = null;
+
+            if (d instanceof ReplaceDelta) {
+                expected = ((ReplaceDelta) d).getOldValue();
+                patched = ((ReplaceDelta) d).getNewValue();
+            } else if (d instanceof RemovalDelta) {
+                expected = ((RemovalDelta) d).getOldValue();
+            } else {
+                patched = ((AdditionDelta) d).getNewValue();
+            }
+
+            if (!Objects.equals(expected, value)) {
+                throw new IllegalArgumentException("Cannot apply " + d.toString().replace('\n', ' ')
+                        + " to the value \"" + value + "\"");
+            }
+            value = (T) patched;
+        }
+        return value;
+    }
+
+    // Removes and adds the members of a collection keyed by ID as recorded in a delta.
+    @SuppressWarnings("unchecked")
+    private static <T> void patchMembers(StructureDelta delta, PropertyType propertyType, Map<String, T> members,
+                                         Function<T, String> getId) {
+
+        for (Delta d : delta.getValueChanges(propertyType)) {
+            if (d instanceof RemovalDelta) {
+                if (members.remove(getId.apply((T) ((RemovalDelta) d).getOldValue())) == null) {
+                    throw new IllegalArgumentException("Cannot apply " + d + ", the value is missing");
+                }
+            } else if (d instanceof AdditionDelta) {
+                T value = (T) ((AdditionDelta) d).getNewValue();
+                if (members.putIfAbsent(getId.apply(value), value) != null) {
+                    throw new IllegalArgumentException("Cannot apply " + d + ", the value is already present");
+                }
+            } else {
+                throw new IllegalArgumentException("Cannot apply " + d.toString().replace('\n', ' '));
+            }
+        }
+    }
+
+    private static List<String> patchNotes(StructureDelta delta, List<String> notes) {
+
+        List<String> patched = new ArrayList<>(notes);
+
+        for (Delta d : delta.getValueChanges(PropertyType.NOTE)) {
+            if (d instanceof RemovalDelta) {
+                Object note = ((RemovalDelta) d).getOldValue();
+                if (!patched.removeIf(note::equals)) {
+                    throw new IllegalArgumentException("Cannot apply " + d + ", the note is missing");
+                }
+            } else if (d instanceof AdditionDelta) {
+                patched.add((String) ((AdditionDelta) d).getNewValue());
+            } else {
+                throw new IllegalArgumentException("Cannot apply " + d.toString().replace('\n', ' '));
+            }
+        }
+        return patched;
+    }
+}
@@ -14,8 +14,11 @@ public class StructureDelta extends Delta {
 
     private static String I = Settings.getIndent();
 
-    private final Collection<Delta> valueDeltas = new HashSet<>();
-    private final Collection<StructureDelta> substructureDeltas = new HashSet<>();
+    // Indexed by property type, and by identifier for substructures, so that duplicates are rejected in constant
+    // time. Iteration is in property type order, then in insertion order.
+    private final Map<PropertyType, Set<Delta>> valueDeltas = new EnumMap<>(PropertyType.class);
+    private final Map<PropertyType, Map<String, StructureDelta>> substructureDeltas =
+            new EnumMap<>(PropertyType.class);
 
     @Getter private final String identifier;
 
@@ -29,20 +32,30 @@ public class StructureDelta extends Delta {
         return new StructureDelta(propertyType, diffable.getDeltaId());
     }
 
+    /**
+     * Creates an empty delta for a structure identified only by its delta ID, as when reading a delta back from a
+     * serialized form without the structure itself.
+     *
+     * @param propertyType The type of the structure.
+     * @param identifier The delta ID of the structure.
+     * @return An empty structure delta.
+     */
+    public static StructureDelta of(@NonNull PropertyType propertyType, @NonNull String identifier) {
+        return new StructureDelta(propertyType, identifier);
+    }
+
     private StructureDelta addValueDelta(Delta delta){
 
         PropertyType propertyType = delta.getPropertyType();
 
+        Set<Delta> deltas = this.valueDeltas.computeIfAbsent(propertyType, x -> new LinkedHashSet<>());
+
         // Check to ensure we are not producing an ambiguity.
-        if (propertyType.isSingular()) {
-            for (Delta existing : this.valueDeltas) {
-                if (existing.getPropertyType() == propertyType) {
-                    throw new IllegalArgumentException(
-                            String.format("Value delta of type \"%s\" is defined multiple times", propertyType));
-                }
-            }
+        if (propertyType.isSingular() && !deltas.isEmpty()) {
+            throw new IllegalArgumentException(
+                    String.format("Value delta of type \"%s\" is defined multiple times", propertyType));
         }
-        this.valueDeltas.add(delta);
+        deltas.add(delta);
         return this;
     }
 
@@ -97,7 +110,7 @@ public class StructureDelta extends Delta {
             } else {
                 propertyType.validateType(oldValue.getClass());
                 propertyType.validateType(newValue.getClass());
-                newDelta = new ReplaceDelta(propertyType, newValue, oldValue);
+                newDelta = new ReplaceDelta(propertyType, oldValue, newValue);
             }
         }
         if (newDelta != null) {
@@ -131,14 +144,14 @@ public class StructureDelta extends Delta {
         PropertyType propertyType = delta.getPropertyType();
         String id = delta.getIdentifier();
 
-        for (StructureDelta existing : this.substructureDeltas) {
-            if (existing.getPropertyType() == propertyType && existing.getIdentifier().equals(id)){
-                throw new IllegalArgumentException(
-                        String.format("Substructure change of type \"%s\" for ID \"%s\" is defined multiple times",
-                                propertyType, id));
-            }
+        Map<String, StructureDelta> deltas =
+                this.substructureDeltas.computeIfAbsent(propertyType, x -> new LinkedHashMap<>());
+
+        if (deltas.putIfAbsent(id, delta) != null) {
+            throw new IllegalArgumentException(
+                    String.format("Substructure change of type \"%s\" for ID \"%s\" is defined multiple times",
+                            propertyType, id));
         }
-        this.substructureDeltas.add(delta);
         return this;
     }
 
@@ -155,11 +168,30 @@ public class StructureDelta extends Delta {
     }
 
     public Collection<Delta> getValueChanges() {
-        return Collections.unmodifiableCollection(this.valueDeltas);
+        List<Delta> deltas = new ArrayList<>();
+        this.valueDeltas.values().forEach(deltas::addAll);
+        return Collections.unmodifiableList(deltas);
+    }
+
+    public Collection<Delta> getValueChanges(@NonNull PropertyType propertyType) {
+        Set<Delta> deltas = this.valueDeltas.get(propertyType);
+        return deltas == null ? Collections.emptySet() : Collections.unmodifiableSet(deltas);
     }
 
     public Collection<StructureDelta> getSubstructureChanges() {
-        return Collections.unmodifiableCollection(this.substructureDeltas);
+        List<StructureDelta> deltas = new ArrayList<>();
+        this.substructureDeltas.values().forEach(x -> deltas.addAll(x.values()));
+        return Collections.unmodifiableList(deltas);
+    }
+
+    public Collection<StructureDelta> getSubstructureChanges(@NonNull PropertyType propertyType) {
+        Map<String, StructureDelta> deltas = this.substructureDeltas.get(propertyType);
+        return deltas == null ? Collections.emptyList() : Collections.unmodifiableCollection(deltas.values());
+    }
+
+    public Optional<StructureDelta> getSubstructureChange(@NonNull PropertyType propertyType, @NonNull String id) {
+        Map<String, StructureDelta> deltas = this.substructureDeltas.get(propertyType);
+        return deltas == null ? Optional.empty() : Optional.ofNullable(deltas.get(id));
     }
 
     public String toString() {
@@ -173,7 +205,7 @@ public class StructureDelta extends Delta {
 
             sb.append("\n\n").append(I).append("Value changes:\n");
 
-            this.valueDeltas.stream().sorted()
+            this.getValueChanges().stream().sorted()
                     .forEach(d -> sb.append('\n').append(StringUtilities.indent(2, d.toString())));
         }
 
@@ -181,7 +213,7 @@ public class StructureDelta extends Delta {
 
             sb.append("\n\n").append(I).append("Substructure changes:");
 
-            this.substructureDeltas.stream().sorted()
+            this.getSubstructureChanges().stream().sorted()
                     .forEach(d -> sb.append("\n\n").append(StringUtilities.indent(2, d.toString())));
         }
 
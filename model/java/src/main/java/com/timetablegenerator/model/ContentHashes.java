@@ -0,0 +1,265 @@
+package com.timetablegenerator.model;
+
+import com.timetablegenerator.model.period.OneTimePeriod;
+import com.timetablegenerator.model.period.Period;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DateRange;
+import com.timetablegenerator.model.range.DateTimeRange;
+import com.timetablegenerator.model.range.DayTimeRange;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes 64-bit structural hashes of courses, section types and sections, Merkle style: the hash of a structure is
+ * built from the hashes of its substructures, so two structures with different hashes can be treated as changed
+ * without comparing them field by field. Related courses, such as prerequisites, are hashed by their unique IDs only,
+ * as courses may refer to each other. Equal structures always hash the same, and structures whose hashes match are
+ * compared with {@code equals} before being treated as unchanged, so a collision never hides a change.
+ *
+ * Hashes are cached per instance for the lifetime of this object and instances may be shared between threads. The
+ * model is mutable and has no way of invalidating a cached hash, so an instance should only be used for a single
+ * comparison of structures that are not being modified.
+ */
+final class ContentHashes {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long MULTIPLIER = 0xC2B2AE3D27D4EB4FL;
+    private static final long NULL = 0x165667B19E3779F9L;
+
+    // Keyed by identity: the Lombok hash codes of the model walk the whole structure, which is what we want to avoid.
+    private final Map<Identity, Long> hashes = new ConcurrentHashMap<>();
+
+    boolean unchanged(Object a, Object b) {
+        return a == b || (this.hash(a) == this.hash(b) && a.equals(b));
+    }
+
+    private long hash(Object o) {
+
+        Identity key = new Identity(o);
+        Long hash = this.hashes.get(key);
+
+        if (hash == null) {
+            if (o instanceof Course) {
+                hash = this.hashCourse((Course) o);
+            } else if (o instanceof SectionType) {
+                hash = this.hashSectionType((SectionType) o);
+            } else if (o instanceof Section) {
+                hash = this.hashSection((Section) o);
+            } else {
+                throw new IllegalArgumentException("No content hash for type " + o.getClass().getName());
+            }
+            this.hashes.putIfAbsent(key, hash);
+        }
+        return hash;
+    }
+
+    private long hashCourse(Course course) {
+
+        Hasher h = new Hasher()
+                .put(course.getSchool())
+                .put(course.getTerm())
+                .put(course.getDepartment().getCode()).put(course.getDepartment().getName())
+                .put(course.getCode())
+                .put(course.getName())
+                .put(course.getDescription().orElse(null))
+                .put(course.getCredits().map(Double::doubleToLongBits).orElse(null))
+                .putStrings(course.getNotes());
+
+        putCourses(h, course.getCrossListings());
+        putCourses(h, course.getPrerequisites());
+        putCourses(h, course.getAntirequisites());
+        putCourses(h, course.getCorequisites());
+
+        Map<String, SectionType> sectionTypes = new TreeMap<>();
+        course.getSectionTypes().forEach(x -> sectionTypes.put(x, course.getSectionType(x).orElse(null)));
+
+        h.put(sectionTypes.size());
+        sectionTypes.forEach((code, sectionType) -> h.put(code).put(this.hash(sectionType)));
+
+        return h.finish();
+    }
+
+    private static void putCourses(Hasher h, Map<String, Course> courses) {
+        h.put(courses.size());
+        new TreeMap<>(courses).keySet().forEach(h::put);
+    }
+
+    private long hashSectionType(SectionType sectionType) {
+
+        Hasher h = new Hasher()
+                .put(sectionType.getSchool())
+                .put(sectionType.getTerm())
+                .put(sectionType.getCode())
+                .put(sectionType.getName());
+
+        Collection<Section> sections = sectionType.getSections();
+        h.put(sections.size());
+        sections.forEach(x -> h.put(this.hash(x)));
+
+        return h.finish();
+    }
+
+    private long hashSection(Section section) {
+
+        Hasher h = new Hasher()
+                .put(section.getTerm())
+                .put(section.getId())
+                .put(section.getSerialNumber().orElse(null))
+                .put(section.getGroupId().orElse(null))
+                .put(section.hasWaitingList())
+                .putCount(section.getWaitingOrDefault(-1))
+                .putCount(section.getMaxWaitingOrDefault(-1))
+                .put(section.isFull())
+                .putCount(section.getEnrollmentOrDefault(-1))
+                .putCount(section.getMaxEnrollmentOrDefault(-1))
+                .put(section.isCancelled())
+                .put(section.isOnline())
+                .putStrings(section.getNotes());
+
+        // Periods are keyed by their unique IDs within a section, which gives an order consistent with equals.
+        Map<String, RepeatingPeriod> repeatingPeriods = new TreeMap<>();
+        section.getRepeatingPeriods().forEach(x -> repeatingPeriods.put(x.getUniqueId(), x));
+
+        h.put(repeatingPeriods.size());
+        for (RepeatingPeriod period : repeatingPeriods.values()) {
+            putPeriod(h, period);
+            h.put(period.getDayTimeRange().orElse(null)).put(period.getActiveDateRange().orElse(null));
+        }
+
+        Map<String, OneTimePeriod> oneTimePeriods = new TreeMap<>();
+        section.getOneTimePeriods().forEach(x -> oneTimePeriods.put(x.getUniqueId(), x));
+
+        h.put(oneTimePeriods.size());
+        for (OneTimePeriod period : oneTimePeriods.values()) {
+            putPeriod(h, period);
+            h.put(period.getDateTimeRange().orElse(null));
+        }
+
+        return h.finish();
+    }
+
+    private static void putPeriod(Hasher h, Period period) {
+        h.put(period.getTerm())
+                .put(period.getCampus().orElse(null))
+                .put(period.getRoom().orElse(null))
+                .put(period.isOnline())
+                .putStrings(period.getSupervisors())
+                .putStrings(period.getNotes());
+    }
+
+    private static final class Hasher {
+
+        private long hash = SEED;
+
+        private Hasher mix(long value) {
+            this.hash = Long.rotateLeft(this.hash ^ (value * MULTIPLIER), 31) * SEED;
+            return this;
+        }
+
+        Hasher put(long value) {
+            return this.mix(value);
+        }
+
+        Hasher put(Long value) {
+            return value == null ? this.mix(NULL) : this.mix(value);
+        }
+
+        Hasher putCount(int value) {
+            return value < 0 ? this.mix(NULL) : this.mix(value);
+        }
+
+        Hasher put(Optional<Boolean> value) {
+            return this.mix(value.map(x -> x ? 1L : 0L).orElse(NULL));
+        }
+
+        Hasher put(String value) {
+            if (value == null) {
+                return this.mix(NULL);
+            }
+            this.mix(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                this.mix(value.charAt(i));
+            }
+            return this;
+        }
+
+        Hasher putStrings(Collection<String> values) {
+            this.mix(values.size());
+            values.forEach(this::put);
+            return this;
+        }
+
+        Hasher put(School school) {
+            return this.put(school.getId()).put(school.getName());
+        }
+
+        Hasher put(Term term) {
+            return this.put(term.getUniqueId())
+                    .put(term.getKey().orElse(null))
+                    .put(term.getDateRange().orElse(null))
+                    .put(term.getExamDateRange().orElse(null));
+        }
+
+        Hasher put(LocalDate date) {
+            return this.mix(date.toEpochDay());
+        }
+
+        Hasher put(LocalTime time) {
+            return this.mix(time.toNanoOfDay());
+        }
+
+        Hasher put(LocalDateTime dateTime) {
+            return this.put(dateTime.toLocalDate()).put(dateTime.toLocalTime());
+        }
+
+        Hasher put(DateRange range) {
+            return range == null ? this.mix(NULL) : this.put(range.getStartDate()).put(range.getEndDate());
+        }
+
+        Hasher put(DayTimeRange range) {
+            return range == null ? this.mix(NULL) : this.mix(range.getDayOfWeek().getValue())
+                    .put(range.getStartTime()).put(range.getEndTime());
+        }
+
+        Hasher put(DateTimeRange range) {
+            return range == null ? this.mix(NULL) : this.put(range.getStartDateTime()).put(range.getEndDateTime());
+        }
+
+        long finish() {
+            // The MurmurHash3 finalizer, so that every input bit affects every output bit.
+            long h = this.hash;
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB93FE53D2EC1L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    private static final class Identity {
+
+        private final Object object;
+
+        private Identity(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Identity && ((Identity) o).object == this.object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.object);
+        }
+    }
+}
@@ -8,11 +8,13 @@ import com.timetablegenerator.delta.StructureDelta;
 import lombok.*;
 import lombok.experimental.Accessors;
 
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import java.util.*;
 
-@EqualsAndHashCode
+// Compare fields directly, getSectionTypes() only exposes the section type codes.
+@EqualsAndHashCode(doNotUseGetters = true)
 @RequiredArgsConstructor(staticName = "of")
 @Accessors(chain = true)
 public class Course implements Diffable<Course> {
@@ -211,6 +213,10 @@ public class Course implements Diffable<Course> {
 
     @Override
     public StructureDelta findDifferences(@NonNull Course that) {
+        return this.findDifferences(that, Objects::equals);
+    }
+
+    StructureDelta findDifferences(@NonNull Course that, BiPredicate<Object, Object> unchanged) {
 
         if (!this.getUniqueId().equals(that.getUniqueId()) || !Objects.equals(this.school, that.school)) {
             throw new IllegalArgumentException("Courses are not related: \"" + this.getUniqueId()
@@ -254,9 +260,9 @@ public class Course implements Diffable<Course> {
         // Add changed section types.
         sectionTypeKeys.stream()
                 .filter(x -> this.sectionTypes.containsKey(x) && that.sectionTypes.containsKey(x))
-                .filter(x -> !this.sectionTypes.get(x).equals(that.sectionTypes.get(x)))
+                .filter(x -> !unchanged.test(this.sectionTypes.get(x), that.sectionTypes.get(x)))
                 .forEach(x -> delta.addSubstructureChange(
-                        this.sectionTypes.get(x).findDifferences(that.sectionTypes.get(x)))
+                        this.sectionTypes.get(x).findDifferences(that.sectionTypes.get(x), unchanged))
                 );
 
         return delta;
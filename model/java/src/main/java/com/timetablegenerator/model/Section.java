@@ -13,36 +13,52 @@ import lombok.experimental.Accessors;
 import javax.annotation.Nonnull;
 import java.util.*;
 
+/**
+ * A section of a course. Schools list tens of thousands of these per term, so the enrollment and waiting numbers are
+ * held as primitives alongside a byte of bits recording which are known, the yes/no properties are packed into a
+ * single byte, and periods and notes share empty collections until the first is added. The {@code ...OrDefault}
+ * accessors read the numbers and properties without allocating, for callers that visit every section.
+ */
 @EqualsAndHashCode()
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
 @RequiredArgsConstructor(staticName = "of")
 @Accessors(chain = true)
 public class Section implements Diffable<Section> {
 
     private static final String I = Settings.getIndent();
 
+    // Bits of the counts byte, set when the number is known.
+    private static final int WAITING = 1;
+    private static final int MAX_WAITING = 1 << 1;
+    private static final int ENROLLMENT = 1 << 2;
+    private static final int MAX_ENROLLMENT = 1 << 3;
+
+    // Shifts into the flags byte, which holds two bits per property: whether it is known, then its value.
+    private static final int WAITING_LIST = 0;
+    private static final int FULL = 2;
+    private static final int CANCELLED = 4;
+    private static final int ONLINE = 6;
+
+    private static final int KNOWN = 1;
+    private static final int TRUE = 2;
+
     @NonNull @Setter private String serialNumber = null;
     @NonNull @Setter private String groupId = null;
     @NonNull @Getter private final Term term;
     @NonNull @Getter private final String id;
 
-    private Boolean waitingList;
-
-    private Integer waiting;
-    private Integer maxWaiting;
+    // Numbers that are not known are left at 0, so that equal sections have equal fields.
+    private int waiting;
+    private int maxWaiting;
+    private int enrollment;
+    private int maxEnrollment;
+    private byte counts;
 
-    private Boolean full;
+    private byte flags;
 
-    private Integer enrollment;
-    private Integer maxEnrollment;
+    private Map<String, RepeatingPeriod> repeatingPeriods = Collections.emptyMap();
+    private Map<String, OneTimePeriod> oneTimePeriods = Collections.emptyMap();
 
-    private final Map<String, RepeatingPeriod> repeatingPeriods = new HashMap<>();
-    private final Map<String, OneTimePeriod> oneTimePeriods = new HashMap<>();
-
-    private final List<String> notes = new ArrayList<>();
-
-    @NonNull @Setter private Boolean cancelled = null;
-    @NonNull @Setter private Boolean online = null;
+    private List<String> notes = Collections.emptyList();
 
     public Optional<String> getSerialNumber() {
         return Optional.ofNullable(this.serialNumber);
@@ -53,12 +69,16 @@ public class Section implements Diffable<Section> {
     }
 
     public Section addNotes(@NonNull Collection<String> notes) {
-        this.notes.addAll(notes);
+        if (!notes.isEmpty()) {
+            this.mutableNotes().addAll(notes);
+        }
         return this;
     }
 
     public Section addNotes(@NonNull String... notes) {
-        Collections.addAll(this.notes, notes);
+        if (notes.length > 0) {
+            Collections.addAll(this.mutableNotes(), notes);
+        }
         return this;
     }
 
@@ -67,120 +87,159 @@ public class Section implements Diffable<Section> {
     }
 
     public Optional<Boolean> isOnline() {
-        return Optional.ofNullable(this.online);
+        return Optional.ofNullable(this.getFlag(ONLINE));
+    }
+
+    public boolean isOnlineOrDefault(boolean absent) {
+        return this.getFlag(ONLINE, absent);
+    }
+
+    public Section setOnline(@NonNull Boolean online) {
+        this.setFlag(ONLINE, online);
+        return this;
     }
 
     public Optional<Boolean> isCancelled() {
-        return Optional.ofNullable(this.cancelled);
+        return Optional.ofNullable(this.getFlag(CANCELLED));
+    }
+
+    public boolean isCancelledOrDefault(boolean absent) {
+        return this.getFlag(CANCELLED, absent);
+    }
+
+    public Section setCancelled(@NonNull Boolean cancelled) {
+        this.setFlag(CANCELLED, cancelled);
+        return this;
     }
 
     public Section setWaitingList(boolean waitingList) {
 
-        this.waitingList = waitingList;
+        this.setFlag(WAITING_LIST, waitingList);
 
-        if (!this.waitingList) {
-            this.waiting = null;
-            this.maxWaiting = null;
+        if (!waitingList) {
+            this.waiting = this.clearCount(WAITING);
+            this.maxWaiting = this.clearCount(MAX_WAITING);
         }
         return this;
     }
 
     public Optional<Boolean> hasWaitingList() {
-        return Optional.ofNullable(this.waitingList);
+        return Optional.ofNullable(this.getFlag(WAITING_LIST));
+    }
+
+    public boolean hasWaitingListOrDefault(boolean absent) {
+        return this.getFlag(WAITING_LIST, absent);
     }
 
     public Optional<Integer> getWaiting() {
-        return Optional.ofNullable(this.waiting);
+        return Optional.ofNullable(this.getCount(WAITING, this.waiting));
+    }
+
+    public int getWaitingOrDefault(int absent) {
+        return this.hasCount(WAITING) ? this.waiting : absent;
     }
 
     public Section setWaiting(int waiting) {
         if (waiting < 0) {
             throw new IllegalArgumentException("Waiting number must be greater than or equal to 0 (" + waiting + ")");
-        } else if (this.maxWaiting != null && waiting > this.maxWaiting) {
+        } else if (this.hasCount(MAX_WAITING) && waiting > this.maxWaiting) {
             throw new IllegalArgumentException("Waiting number must be less than the maximum ("
                     + waiting + "/" + this.maxWaiting + ")");
         }
-        this.waiting = waiting;
-        this.waitingList = true;
+        this.waiting = this.setCount(WAITING, waiting);
+        this.setFlag(WAITING_LIST, true);
         return this;
     }
 
     public Optional<Integer> getMaxWaiting() {
-        return Optional.ofNullable(this.maxWaiting);
+        return Optional.ofNullable(this.getCount(MAX_WAITING, this.maxWaiting));
+    }
+
+    public int getMaxWaitingOrDefault(int absent) {
+        return this.hasCount(MAX_WAITING) ? this.maxWaiting : absent;
     }
 
     public Section setMaximumWaiting(int maxWaiting) {
         if (maxWaiting < 0) {
             throw new IllegalArgumentException("Maximum number of people waiting must be greater than or equal to 0 ("
                     + maxWaiting + ")");
-        } else if (this.waiting != null && this.waiting > maxWaiting) {
+        } else if (this.hasCount(WAITING) && this.waiting > maxWaiting) {
             throw new IllegalArgumentException("Number of people waiting must be less than or equal to the maximum ("
                     + this.waiting + "/" + maxWaiting + ")");
         }
-        this.maxWaiting = maxWaiting;
+        this.maxWaiting = this.setCount(MAX_WAITING, maxWaiting);
         return this;
     }
 
     public Section setFull(boolean full) {
 
-        this.full = full;
+        this.setFlag(FULL, full);
 
-        if (!this.full) {
-            this.enrollment = null;
-        } else {
-            if (this.maxEnrollment != null) {
-                this.enrollment = this.maxEnrollment;
-            }
-            if (this.maxEnrollment == null && this.enrollment != null) {
-                this.maxEnrollment = this.enrollment;
-            }
+        if (!full) {
+            this.enrollment = this.clearCount(ENROLLMENT);
+        } else if (this.hasCount(MAX_ENROLLMENT)) {
+            this.enrollment = this.setCount(ENROLLMENT, this.maxEnrollment);
+        } else if (this.hasCount(ENROLLMENT)) {
+            this.maxEnrollment = this.setCount(MAX_ENROLLMENT, this.enrollment);
         }
 
         return this;
     }
 
     public Optional<Boolean> isFull() {
-        return Optional.ofNullable(this.full);
+        return Optional.ofNullable(this.getFlag(FULL));
+    }
+
+    public boolean isFullOrDefault(boolean absent) {
+        return this.getFlag(FULL, absent);
     }
 
     public Optional<Integer> getEnrollment() {
-        return Optional.ofNullable(this.enrollment);
+        return Optional.ofNullable(this.getCount(ENROLLMENT, this.enrollment));
+    }
+
+    public int getEnrollmentOrDefault(int absent) {
+        return this.hasCount(ENROLLMENT) ? this.enrollment : absent;
     }
 
     public Section setEnrollment(int enrollment) {
 
         if (enrollment < 0) {
             throw new IllegalArgumentException("Enrollment must be greater than or equal to 0 (" + enrollment + ")");
-        } else if (this.maxEnrollment != null && enrollment > this.maxEnrollment) {
+        } else if (this.hasCount(MAX_ENROLLMENT) && enrollment > this.maxEnrollment) {
             throw new IllegalArgumentException("Number of people enrolled must be less than the maximum ("
                     + enrollment + "/" + this.maxEnrollment + ")");
         }
-        this.enrollment = enrollment;
+        this.enrollment = this.setCount(ENROLLMENT, enrollment);
 
-        if (this.maxEnrollment != null) {
-            this.full = this.enrollment.equals(this.maxEnrollment);
+        if (this.hasCount(MAX_ENROLLMENT)) {
+            this.setFlag(FULL, this.enrollment == this.maxEnrollment);
         }
         return this;
     }
 
     public Optional<Integer> getMaxEnrollment() {
-        return Optional.ofNullable(this.maxEnrollment);
+        return Optional.ofNullable(this.getCount(MAX_ENROLLMENT, this.maxEnrollment));
+    }
+
+    public int getMaxEnrollmentOrDefault(int absent) {
+        return this.hasCount(MAX_ENROLLMENT) ? this.maxEnrollment : absent;
     }
 
     public Section setMaximumEnrollment(int maxEnrollment) {
 
         if (maxEnrollment < 0) {
             throw new IllegalArgumentException("Maximum number of people enrolled must be greater than or equal to 0 ("
-                    + maxWaiting + ")");
-        } else if (this.enrollment != null && this.enrollment > maxEnrollment) {
+                    + maxEnrollment + ")");
+        } else if (this.hasCount(ENROLLMENT) && this.enrollment > maxEnrollment) {
             throw new IllegalArgumentException("Number of people enrolled must be less than the maximum ("
                     + this.enrollment + "/" + maxEnrollment + ")");
         }
 
-        this.maxEnrollment = maxEnrollment;
+        this.maxEnrollment = this.setCount(MAX_ENROLLMENT, maxEnrollment);
 
-        if (this.enrollment != null) {
-            this.full = this.enrollment.equals(this.maxEnrollment);
+        if (this.hasCount(ENROLLMENT)) {
+            this.setFlag(FULL, this.enrollment == this.maxEnrollment);
         }
 
         return this;
@@ -188,6 +247,9 @@ public class Section implements Diffable<Section> {
 
     public Section addPeriod(OneTimePeriod period){
         period.getTerm().assertFallsWithin(this.term);
+        if (this.oneTimePeriods.isEmpty()) {
+            this.oneTimePeriods = new HashMap<>(4);
+        }
         if (this.oneTimePeriods.putIfAbsent(period.getUniqueId(), period) != null) {
             throw new IllegalArgumentException("A one-time period '" + period.getUniqueId()
                     + "' is already part of this section.");
@@ -197,6 +259,9 @@ public class Section implements Diffable<Section> {
 
     public Section addPeriod(RepeatingPeriod period){
         period.getTerm().assertFallsWithin(this.term);
+        if (this.repeatingPeriods.isEmpty()) {
+            this.repeatingPeriods = new HashMap<>(4);
+        }
         if (this.repeatingPeriods.putIfAbsent(period.getUniqueId(), period) != null) {
             throw new IllegalArgumentException("A repeating period '" + period.getUniqueId()
                     + "' is already part of this section.");
@@ -212,6 +277,44 @@ public class Section implements Diffable<Section> {
         return new TreeSet<>(this.oneTimePeriods.values());
     }
 
+    private List<String> mutableNotes() {
+        if (this.notes.isEmpty()) {
+            this.notes = new ArrayList<>();
+        }
+        return this.notes;
+    }
+
+    private boolean hasCount(int bit) {
+        return (this.counts & bit) != 0;
+    }
+
+    // Boxes the number if it is known, for the Optional accessors and deltas.
+    private Integer getCount(int bit, int value) {
+        return this.hasCount(bit) ? value : null;
+    }
+
+    private int setCount(int bit, int value) {
+        this.counts |= bit;
+        return value;
+    }
+
+    private int clearCount(int bit) {
+        this.counts &= ~bit;
+        return 0;
+    }
+
+    private Boolean getFlag(int shift) {
+        return ((this.flags >> shift) & KNOWN) == 0 ? null : ((this.flags >> shift) & TRUE) != 0;
+    }
+
+    private boolean getFlag(int shift, boolean absent) {
+        return ((this.flags >> shift) & KNOWN) == 0 ? absent : ((this.flags >> shift) & TRUE) != 0;
+    }
+
+    private void setFlag(int shift, boolean value) {
+        this.flags = (byte) ((this.flags & ~((KNOWN | TRUE) << shift)) | ((value ? KNOWN | TRUE : KNOWN) << shift));
+    }
+
     @Override
     public String toString() {
 
@@ -220,8 +323,8 @@ public class Section implements Diffable<Section> {
         sb.append(this.id);
 
         this.getSerialNumber().ifPresent(x -> sb.append(" {").append(this.serialNumber).append('}'));
-        this.isCancelled().ifPresent(x -> sb.append(x ? " [CANCELLED]" : ""));
-        this.isOnline().ifPresent(x -> sb.append(x ? " [ONLINE]" : ""));
+        sb.append(this.isCancelledOrDefault(false) ? " [CANCELLED]" : "");
+        sb.append(this.isOnlineOrDefault(false) ? " [ONLINE]" : "");
         this.isFull().ifPresent(x -> sb.append(x ? " [FULL]" : " [AVAILABLE]"));
 
         if (this.getEnrollment().isPresent() || this.getMaxEnrollment().isPresent()) {
@@ -278,21 +381,21 @@ public class Section implements Diffable<Section> {
 
         delta.addValueIfChanged(PropertyType.SERIAL_NUMBER, this.serialNumber, that.serialNumber);
 
-        delta.addValueIfChanged(PropertyType.WAITING_LIST, this.waitingList, that.waitingList);
+        delta.addValueIfChanged(PropertyType.WAITING_LIST, this.getFlag(WAITING_LIST), that.getFlag(WAITING_LIST));
         delta.addValueIfChanged(PropertyType.NUM_WAITING,
-                this.getWaiting().orElse(null), that.getWaiting().orElse(null));
+                this.getCount(WAITING, this.waiting), that.getCount(WAITING, that.waiting));
         delta.addValueIfChanged(PropertyType.MAX_WAITING,
-                this.getMaxWaiting().orElse(null), that.getMaxWaiting().orElse(null));
+                this.getCount(MAX_WAITING, this.maxWaiting), that.getCount(MAX_WAITING, that.maxWaiting));
 
-        delta.addValueIfChanged(PropertyType.IS_FULL, this.full, that.full);
+        delta.addValueIfChanged(PropertyType.IS_FULL, this.getFlag(FULL), that.getFlag(FULL));
         delta.addValueIfChanged(PropertyType.NUM_ENROLLED,
-                this.getEnrollment().orElse(null), that.getEnrollment().orElse(null));
+                this.getCount(ENROLLMENT, this.enrollment), that.getCount(ENROLLMENT, that.enrollment));
         delta.addValueIfChanged(PropertyType.MAX_ENROLLED,
-                this.getMaxEnrollment().orElse(null), that.getMaxEnrollment().orElse(null));
+                this.getCount(MAX_ENROLLMENT, this.maxEnrollment), that.getCount(MAX_ENROLLMENT, that.maxEnrollment));
 
-        delta.addValueIfChanged(PropertyType.IS_CANCELLED, this.cancelled, that.cancelled);
+        delta.addValueIfChanged(PropertyType.IS_CANCELLED, this.getFlag(CANCELLED), that.getFlag(CANCELLED));
 
-        delta.addValueIfChanged(PropertyType.IS_ONLINE, this.online, that.online);
+        delta.addValueIfChanged(PropertyType.IS_ONLINE, this.getFlag(ONLINE), that.getFlag(ONLINE));
 
         // Add added notes.
         that.notes.stream()
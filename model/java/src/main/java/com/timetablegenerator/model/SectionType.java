@@ -9,6 +9,7 @@ import lombok.*;
 
 import javax.annotation.Nonnull;
 import java.util.*;
+import java.util.function.BiPredicate;
 
 @EqualsAndHashCode
 public class SectionType implements Diffable<SectionType> {
@@ -89,6 +90,10 @@ public class SectionType implements Diffable<SectionType> {
 
     @Override
     public StructureDelta findDifferences(@NonNull SectionType that) {
+        return this.findDifferences(that, Objects::equals);
+    }
+
+    StructureDelta findDifferences(@NonNull SectionType that, BiPredicate<Object, Object> unchanged) {
 
         if (!this.code.equals(that.code)) {
             throw new IllegalArgumentException("Section types are not related: \"" + this.code
@@ -117,7 +122,7 @@ public class SectionType implements Diffable<SectionType> {
         // Add changed sections.
         sectionKeys.stream()
                 .filter(x -> that.sections.containsKey(x) && this.sections.containsKey(x))
-                .filter(x -> !that.sections.get(x).equals(this.sections.get(x)))
+                .filter(x -> !unchanged.test(this.sections.get(x), that.sections.get(x)))
                 .forEach(x -> delta.addSubstructureChange(this.sections.get(x).findDifferences(that.sections.get(x))));
 
         return delta;
@@ -3,6 +3,8 @@ package com.timetablegenerator.model;
 import com.timetablegenerator.delta.Diffable;
 import com.timetablegenerator.delta.PropertyType;
 import com.timetablegenerator.delta.StructureDelta;
+import com.timetablegenerator.jfr.FlightEvent;
+import com.timetablegenerator.jfr.FlightEventType;
 import lombok.*;
 
 import javax.annotation.Nonnull;
@@ -19,6 +21,18 @@ import java.util.stream.Collectors;
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class TimeTable implements Diffable<TimeTable> {
 
+    private static final FlightEventType DIFF_EVENT = FlightEventType
+            .builder("com.timetablegenerator.Diff", "Timetable Diff")
+            .withDescription("Finding the differences between two timetables of a term")
+            .withSubcategory("Model")
+            .withStringField("school", "School")
+            .withStringField("term", "Term")
+            .withLongField("courses", "Courses")
+            .withLongField("otherCourses", "Courses Compared Against")
+            .withLongField("changedCourses", "Courses Added, Removed or Changed")
+            .withBooleanField("parallel", "Parallel")
+            .build();
+
     @Getter private final School school;
     @Getter private final Term term;
     @Getter private final ZonedDateTime lastUpdate;
@@ -80,6 +94,19 @@ public class TimeTable implements Diffable<TimeTable> {
 
     @Override
     public StructureDelta findDifferences(@NonNull TimeTable that) {
+        return this.findDifferences(that, false);
+    }
+
+    /**
+     * Finds the differences between two timetables, optionally comparing courses in parallel. A parallel comparison
+     * hashes the content of every course, section type and section once and only descends into those whose hashes
+     * differ, rather than comparing each pair of courses field by field. Both produce the same delta.
+     *
+     * @param that The timetable being mapped to.
+     * @param parallel Whether to compare courses in parallel by content hash.
+     * @return A structural mapping from this timetable to the argument timetable.
+     */
+    public StructureDelta findDifferences(@NonNull TimeTable that, boolean parallel) {
 
         if (!this.term.equals(that.term)) {
             throw new IllegalArgumentException("Timetables are not from the same term: \""
@@ -91,6 +118,7 @@ public class TimeTable implements Diffable<TimeTable> {
                     + this.school.getId() + "\" and \"" + that.school.getId() + "\"");
         }
 
+        final FlightEvent event = DIFF_EVENT.begin();
         final StructureDelta delta = StructureDelta.of(PropertyType.TIMETABLE, this);
 
         // Record courses that were added.
@@ -104,12 +132,34 @@ public class TimeTable implements Diffable<TimeTable> {
                 .forEach(x -> delta.addRemoved(PropertyType.COURSE, x));
 
         // Record courses that changed.
-        this.courses.values().stream()
-                .map(Course::getUniqueId)
-                .filter(x -> that.courses.keySet().contains(x))
-                .filter(x -> !this.courses.get(x).equals(that.courses.get(x)))
-                .forEach(x -> delta.addSubstructureChange(this.courses.get(x).findDifferences(that.courses.get(x))));
+        if (parallel) {
+            ContentHashes hashes = new ContentHashes();
+            this.courses.keySet().parallelStream()
+                    .filter(x -> that.courses.keySet().contains(x))
+                    .filter(x -> !hashes.unchanged(this.courses.get(x), that.courses.get(x)))
+                    .map(x -> this.courses.get(x).findDifferences(that.courses.get(x), hashes::unchanged))
+                    .collect(Collectors.toList())
+                    .forEach(delta::addSubstructureChange);
+        } else {
+            this.courses.values().stream()
+                    .map(Course::getUniqueId)
+                    .filter(x -> that.courses.keySet().contains(x))
+                    .filter(x -> !this.courses.get(x).equals(that.courses.get(x)))
+                    .forEach(x -> delta.addSubstructureChange(
+                            this.courses.get(x).findDifferences(that.courses.get(x))));
+        }
+
+        if (event.isRecorded()) {
+            event.set("school", this.school.getId())
+                    .set("term", this.term.getUniqueId())
+                    .set("courses", this.courses.size())
+                    .set("otherCourses", that.courses.size())
+                    .set("changedCourses", delta.getValueChanges(PropertyType.COURSE).size()
+                            + delta.getSubstructureChanges(PropertyType.COURSE).size())
+                    .set("parallel", parallel)
+                    .commit();
+        }
 
         return delta;
     }
-}
\ No newline at end of file
+}
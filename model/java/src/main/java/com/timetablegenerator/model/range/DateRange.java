@@ -49,6 +49,16 @@ public class DateRange implements Comparable<DateRange> {
         return this.endDate;
     }
 
+    /**
+     * Checks whether two date ranges share at least one day. Both ends of a date range are inclusive.
+     *
+     * @param that The range to check against.
+     * @return {@code true} if the ranges overlap, otherwise {@code false}.
+     */
+    public boolean overlaps(@NonNull DateRange that) {
+        return !this.startDate.isAfter(that.endDate) && !that.startDate.isAfter(this.endDate);
+    }
+
     @Override
     public int compareTo(@Nonnull DateRange that) {
         if (!this.startDate.equals(that.startDate)){
@@ -55,6 +55,19 @@ public class DayTimeRange implements Comparable<DayTimeRange> {
                 startTime.truncatedTo(ChronoUnit.MINUTES), endTime.truncatedTo(ChronoUnit.MINUTES));
     }
 
+    /**
+     * Checks whether two day time ranges share any time on the same day of the week. Ranges are treated as
+     * half-open, so a range ending at the same time another begins does not overlap it.
+     *
+     * @param that The range to check against.
+     * @return {@code true} if the ranges overlap, otherwise {@code false}.
+     */
+    public boolean overlaps(@NonNull DayTimeRange that) {
+        return this.dayOfWeek == that.dayOfWeek
+                && this.startTime.isBefore(that.endTime)
+                && that.startTime.isBefore(this.endTime);
+    }
+
     @Override
     public int compareTo(@Nonnull DayTimeRange that) {
 
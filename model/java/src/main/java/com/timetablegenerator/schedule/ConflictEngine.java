@@ -0,0 +1,223 @@
+package com.timetablegenerator.schedule;
+
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.Section;
+import com.timetablegenerator.model.SectionType;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import lombok.NonNull;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles the sections of a set of courses into week bitmasks and precomputes which pairs of sections clash, so
+ * that clash-free schedules can be enumerated with bitwise operations rather than by comparing period times.
+ *
+ * Only scheduled repeating periods are considered. One-time periods (e.g. exams) and periods with times to be
+ * announced never cause a clash.
+ */
+public final class ConflictEngine {
+
+    private final SlotTable slotTable = new SlotTable();
+
+    // Every compiled section, and the index of each section into that array.
+    private final SectionMask[] sections;
+    private final Map<Section, Integer> sectionIndices = new IdentityHashMap<>();
+
+    // One group of interchangeable sections per course section type, smallest groups first to prune early.
+    private final int[][] choices;
+
+    // A bitset per section of the sections it clashes with.
+    private final long[][] conflicts;
+    private final int words;
+
+    private ConflictEngine(List<Course> courses) {
+
+        List<SectionMask> sections = new ArrayList<>();
+        List<int[]> choices = new ArrayList<>();
+
+        for (Course course : courses) {
+
+            // Section type codes come out of a hash map, so sort them to keep enumeration order stable.
+            for (String sectionTypeCode : new TreeSet<>(course.getSectionTypes())) {
+
+                SectionType sectionType = course.getSectionType(sectionTypeCode)
+                        .orElseThrow(IllegalStateException::new);
+                Collection<Section> typeSections = sectionType.getSections();
+
+                int[] choice = new int[typeSections.size()];
+                int i = 0;
+
+                for (Section section : typeSections) {
+                    if (this.sectionIndices.putIfAbsent(section, sections.size()) != null) {
+                        throw new IllegalArgumentException("Section \"" + section.getId()
+                                + "\" is included more than once");
+                    }
+                    choice[i++] = sections.size();
+                    sections.add(this.compile(course, sectionTypeCode, section));
+                }
+                choices.add(choice);
+            }
+        }
+
+        this.slotTable.build();
+
+        this.sections = sections.toArray(new SectionMask[sections.size()]);
+        this.choices = choices.toArray(new int[choices.size()][]);
+        Arrays.sort(this.choices, Comparator.comparingInt(x -> x.length));
+
+        this.words = (this.sections.length + Long.SIZE - 1) / Long.SIZE;
+        this.conflicts = new long[this.sections.length][this.words];
+
+        for (int i = 0; i < this.sections.length; i++) {
+            for (int j = i + 1; j < this.sections.length; j++) {
+                if (this.sections[i].conflictsWith(this.sections[j], this.slotTable)) {
+                    this.conflicts[i][j >>> 6] |= 1L << j;
+                    this.conflicts[j][i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    public static ConflictEngine of(@NonNull Collection<Course> courses) {
+        return new ConflictEngine(new ArrayList<>(courses));
+    }
+
+    private SectionMask compile(Course course, String sectionType, Section section) {
+
+        Map<Integer, List<RepeatingPeriod>> periodsBySlot = new TreeMap<>();
+
+        for (RepeatingPeriod period : section.getRepeatingPeriods()) {
+            if (period.isScheduled()) {
+                periodsBySlot.computeIfAbsent(this.slotTable.getSlot(period), x -> new ArrayList<>()).add(period);
+            }
+        }
+
+        int[] slots = new int[periodsBySlot.size()];
+        WeekMask[] masks = new WeekMask[periodsBySlot.size()];
+        int i = 0;
+
+        for (Map.Entry<Integer, List<RepeatingPeriod>> entry : periodsBySlot.entrySet()) {
+            slots[i] = entry.getKey();
+            masks[i++] = WeekMask.of(entry.getValue().stream()
+                    .map(x -> x.getDayTimeRange().orElseThrow(IllegalStateException::new))
+                    .collect(Collectors.toList()));
+        }
+
+        return new SectionMask(course, sectionType, section, slots, masks);
+    }
+
+    private int indexOf(Section section) {
+        Integer index = this.sectionIndices.get(section);
+        if (index == null) {
+            throw new IllegalArgumentException("Section \"" + section.getId() + "\" is not known to this engine");
+        }
+        return index;
+    }
+
+    /**
+     * Checks whether two sections known to this engine meet at the same time.
+     *
+     * @param a The first section.
+     * @param b The second section.
+     * @return {@code true} if the sections clash, otherwise {@code false}.
+     */
+    public boolean conflicts(@NonNull Section a, @NonNull Section b) {
+        int i = this.indexOf(a);
+        int j = this.indexOf(b);
+        return (this.conflicts[i][j >>> 6] & (1L << j)) != 0;
+    }
+
+    /**
+     * Enumerates every clash-free selection of one section per section type of each course, passing each to the
+     * consumer as it is found.
+     *
+     * @param consumer The consumer of schedules.
+     */
+    public void forEachSchedule(@NonNull Consumer<Schedule> consumer) {
+        long[][] forbidden = new long[this.choices.length + 1][this.words];
+        this.search(0, forbidden, new int[this.choices.length], consumer);
+    }
+
+    public List<Schedule> findSchedules() {
+        List<Schedule> schedules = new ArrayList<>();
+        this.forEachSchedule(schedules::add);
+        return schedules;
+    }
+
+    private void search(int depth, long[][] forbidden, int[] selected, Consumer<Schedule> consumer) {
+
+        if (depth == this.choices.length) {
+            consumer.accept(this.toSchedule(selected));
+            return;
+        }
+
+        long[] current = forbidden[depth];
+        long[] next = forbidden[depth + 1];
+
+        for (int candidate : this.choices[depth]) {
+            if (this.select(candidate, depth, current, next)) {
+                selected[depth] = candidate;
+                this.search(depth + 1, forbidden, selected, consumer);
+            }
+        }
+    }
+
+    /**
+     * Attempts to add a candidate section to a partial schedule.
+     *
+     * @param candidate The index of the candidate section.
+     * @param depth The choice the candidate is being selected for.
+     * @param current The sections ruled out by the partial schedule so far.
+     * @param next Populated with the sections ruled out once the candidate is added.
+     * @return {@code false} if the candidate clashes with the partial schedule or leaves a later choice without any
+     *         viable section, otherwise {@code true}.
+     */
+    boolean select(int candidate, int depth, long[] current, long[] next) {
+
+        if ((current[candidate >>> 6] & (1L << candidate)) != 0) {
+            return false;
+        }
+
+        long[] candidateConflicts = this.conflicts[candidate];
+        for (int w = 0; w < this.words; w++) {
+            next[w] = current[w] | candidateConflicts[w];
+        }
+
+        // Prune as soon as any remaining choice has been emptied out rather than discovering it further down.
+        for (int d = depth + 1; d < this.choices.length; d++) {
+            boolean viable = false;
+            for (int section : this.choices[d]) {
+                if ((next[section >>> 6] & (1L << section)) == 0) {
+                    viable = true;
+                    break;
+                }
+            }
+            if (!viable) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int getChoiceCount() {
+        return this.choices.length;
+    }
+
+    int[] getChoice(int depth) {
+        return this.choices[depth];
+    }
+
+    int getWordCount() {
+        return this.words;
+    }
+
+    Schedule toSchedule(int[] selected) {
+        SectionMask[] selections = new SectionMask[selected.length];
+        for (int i = 0; i < selected.length; i++) {
+            selections[i] = this.sections[selected[i]];
+        }
+        return new Schedule(selections);
+    }
+}
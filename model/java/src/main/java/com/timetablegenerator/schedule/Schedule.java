@@ -0,0 +1,82 @@
+package com.timetablegenerator.schedule;
+
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.Section;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A clash-free selection of one section for every section type of a set of courses.
+ */
+public final class Schedule {
+
+    private final SectionMask[] selections;
+
+    private WeekMask weekMask = null;
+
+    Schedule(SectionMask[] selections) {
+        this.selections = selections;
+    }
+
+    public List<Section> getSections() {
+        List<Section> sections = new ArrayList<>(this.selections.length);
+        for (SectionMask selection : this.selections) {
+            sections.add(selection.getSection());
+        }
+        return Collections.unmodifiableList(sections);
+    }
+
+    public Optional<Section> getSection(@NonNull Course course, @NonNull String sectionType) {
+        String courseId = course.getUniqueId();
+        for (SectionMask selection : this.selections) {
+            if (selection.getSectionType().equals(sectionType)
+                    && selection.getCourse().getUniqueId().equals(courseId)) {
+                return Optional.of(selection.getSection());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return Every minute of the week taken up by the selected sections, regardless of term.
+     */
+    public WeekMask getWeekMask() {
+        if (this.weekMask == null) {
+            WeekMask weekMask = WeekMask.EMPTY;
+            for (SectionMask selection : this.selections) {
+                weekMask = weekMask.union(selection.getWeekMask());
+            }
+            this.weekMask = weekMask;
+        }
+        return this.weekMask;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Schedule && Arrays.equals(this.selections, ((Schedule) o).selections));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.selections);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (SectionMask selection : this.selections) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append(selection.getCourse().getUniqueId()).append('/')
+                    .append(selection.getSectionType()).append('/')
+                    .append(selection.getSection().getId());
+        }
+        return "[" + sb + "]";
+    }
+}
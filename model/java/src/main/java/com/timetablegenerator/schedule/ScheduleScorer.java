@@ -0,0 +1,82 @@
+package com.timetablegenerator.schedule;
+
+import lombok.NonNull;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Ranks schedules found by a {@link ScheduleSearch}. Scores are penalties: the lower the score, the better the
+ * schedule.
+ */
+@FunctionalInterface
+public interface ScheduleScorer {
+
+    /**
+     * Scores a schedule. Implementations are called concurrently from multiple threads.
+     *
+     * @param schedule The schedule to score.
+     * @return The score of the schedule, lower being better.
+     */
+    double score(Schedule schedule);
+
+    default ScheduleScorer weighted(double weight) {
+        return schedule -> weight * this.score(schedule);
+    }
+
+    default ScheduleScorer plus(@NonNull ScheduleScorer that) {
+        return schedule -> this.score(schedule) + that.score(schedule);
+    }
+
+    /**
+     * @return A scorer penalizing each day of the week with at least one class.
+     */
+    static ScheduleScorer daysOnCampus() {
+        return schedule -> {
+            WeekMask mask = schedule.getWeekMask();
+            int days = 0;
+            for (DayOfWeek day : DayOfWeek.values()) {
+                if (mask.getFirstMinute(day) >= 0) {
+                    days++;
+                }
+            }
+            return days;
+        };
+    }
+
+    /**
+     * @param time The time before which a class is considered early.
+     * @return A scorer penalizing each day of the week whose first class starts before the given time.
+     */
+    static ScheduleScorer startsBefore(@NonNull LocalTime time) {
+        int minuteOfDay = time.toSecondOfDay() / 60;
+        return schedule -> {
+            WeekMask mask = schedule.getWeekMask();
+            int days = 0;
+            for (DayOfWeek day : DayOfWeek.values()) {
+                int first = mask.getFirstMinute(day);
+                if (first >= 0 && first < minuteOfDay) {
+                    days++;
+                }
+            }
+            return days;
+        };
+    }
+
+    /**
+     * @return A scorer penalizing each idle minute between the first and last class of every day.
+     */
+    static ScheduleScorer gaps() {
+        return schedule -> {
+            WeekMask mask = schedule.getWeekMask();
+            int idle = 0;
+            for (DayOfWeek day : DayOfWeek.values()) {
+                int first = mask.getFirstMinute(day);
+                if (first >= 0) {
+                    idle += mask.getLastMinute(day) - first + 1 - mask.getMinutes(day);
+                }
+            }
+            return idle;
+        };
+    }
+}
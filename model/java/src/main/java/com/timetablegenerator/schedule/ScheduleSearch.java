@@ -0,0 +1,167 @@
+package com.timetablegenerator.schedule;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Searches the clash-free schedules of a {@link ConflictEngine} for the best few according to a scorer. The search
+ * tree is split across a fork/join pool by the section chosen at each of the top levels, and each worker keeps only
+ * its own best schedules in a bounded heap which are merged as the tasks join. Branches that clash, or that leave a
+ * later section type without any viable section, are pruned as soon as they are entered.
+ */
+public final class ScheduleSearch {
+
+    // Subtrees with at most this many unpruned combinations left are searched sequentially by a single task.
+    private static final long SEQUENTIAL_THRESHOLD = 1 << 12;
+
+    private final ConflictEngine engine;
+    private final ScheduleScorer scorer;
+    private final int limit;
+    private final ForkJoinPool pool;
+
+    // The number of combinations below each depth of the search tree before pruning, saturating at Long.MAX_VALUE.
+    private final long[] remaining;
+
+    public static class Builder {
+
+        private final ConflictEngine engine;
+        private ScheduleScorer scorer = schedule -> 0;
+        private int limit = 10;
+        private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        private Builder(@NonNull ConflictEngine engine) {
+            this.engine = engine;
+        }
+
+        public Builder withScorer(@NonNull ScheduleScorer scorer) {
+            this.scorer = scorer;
+            return this;
+        }
+
+        public Builder withLimit(int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Schedule limit must be positive (" + limit + ")");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public Builder withPool(@NonNull ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
+        public ScheduleSearch build() {
+            return new ScheduleSearch(this);
+        }
+    }
+
+    private ScheduleSearch(Builder builder) {
+        this.engine = builder.engine;
+        this.scorer = builder.scorer;
+        this.limit = builder.limit;
+        this.pool = builder.pool;
+
+        int choices = this.engine.getChoiceCount();
+        this.remaining = new long[choices + 1];
+        this.remaining[choices] = 1;
+
+        for (int depth = choices - 1; depth >= 0; depth--) {
+            long size = this.engine.getChoice(depth).length;
+            long below = this.remaining[depth + 1];
+            this.remaining[depth] = size != 0 && below > Long.MAX_VALUE / size ? Long.MAX_VALUE : size * below;
+        }
+    }
+
+    public static Builder builder(@NonNull ConflictEngine engine) {
+        return new Builder(engine);
+    }
+
+    /**
+     * @return The best scoring clash-free schedules, best first, up to the limit of this search. Schedules with
+     *         equal scores are ordered the same way between runs.
+     */
+    public List<ScoredSchedule> findBest() {
+        int choices = this.engine.getChoiceCount();
+        return this.pool.invoke(new SearchTask(0, new long[this.engine.getWordCount()], new int[choices]))
+                .toSortedList();
+    }
+
+    private class SearchTask extends RecursiveTask<TopSchedules> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int depth;
+        private final long[] forbidden;
+        private final int[] selected;
+
+        private SearchTask(int depth, long[] forbidden, int[] selected) {
+            this.depth = depth;
+            this.forbidden = forbidden;
+            this.selected = selected;
+        }
+
+        @Override
+        protected TopSchedules compute() {
+
+            if (remaining[this.depth] <= SEQUENTIAL_THRESHOLD) {
+                return this.searchSequentially();
+            }
+
+            List<SearchTask> tasks = new ArrayList<>();
+
+            for (int candidate : engine.getChoice(this.depth)) {
+                long[] next = new long[engine.getWordCount()];
+                if (engine.select(candidate, this.depth, this.forbidden, next)) {
+                    int[] selected = this.selected.clone();
+                    selected[this.depth] = candidate;
+                    tasks.add(new SearchTask(this.depth + 1, next, selected));
+                }
+            }
+
+            TopSchedules best = new TopSchedules(limit);
+            for (SearchTask task : invokeAll(tasks)) {
+                best.merge(task.join());
+            }
+            return best;
+        }
+
+        private TopSchedules searchSequentially() {
+
+            int choices = engine.getChoiceCount();
+            long[][] forbidden = new long[choices + 1][];
+
+            for (int d = this.depth; d <= choices; d++) {
+                forbidden[d] = new long[engine.getWordCount()];
+            }
+            System.arraycopy(this.forbidden, 0, forbidden[this.depth], 0, this.forbidden.length);
+
+            TopSchedules best = new TopSchedules(limit);
+            this.search(this.depth, forbidden, this.selected, best);
+            return best;
+        }
+
+        private void search(int depth, long[][] forbidden, int[] selected, TopSchedules best) {
+
+            if (depth == selected.length) {
+                Schedule schedule = engine.toSchedule(selected);
+                double score = scorer.score(schedule);
+                if (best.accepts(score)) {
+                    best.offer(new ScoredSchedule(schedule, score, selected.clone()));
+                }
+                return;
+            }
+
+            for (int candidate : engine.getChoice(depth)) {
+                if (engine.select(candidate, depth, forbidden[depth], forbidden[depth + 1])) {
+                    selected[depth] = candidate;
+                    this.search(depth + 1, forbidden, selected, best);
+                }
+            }
+        }
+    }
+}
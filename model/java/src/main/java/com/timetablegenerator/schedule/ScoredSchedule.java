@@ -0,0 +1,42 @@
+package com.timetablegenerator.schedule;
+
+import lombok.Getter;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A schedule paired with the score it was ranked by.
+ */
+public final class ScoredSchedule implements Comparable<ScoredSchedule> {
+
+    @Getter private final Schedule schedule;
+    @Getter private final double score;
+
+    // The selected section indices, used to break ties so that rankings do not depend on thread scheduling.
+    private final int[] selected;
+
+    ScoredSchedule(Schedule schedule, double score, int[] selected) {
+        this.schedule = schedule;
+        this.score = score;
+        this.selected = selected;
+    }
+
+    @Override
+    public int compareTo(@Nonnull ScoredSchedule that) {
+        int scoreCompare = Double.compare(this.score, that.score);
+        if (scoreCompare != 0) {
+            return scoreCompare;
+        }
+        for (int i = 0; i < Math.min(this.selected.length, that.selected.length); i++) {
+            if (this.selected[i] != that.selected[i]) {
+                return Integer.compare(this.selected[i], that.selected[i]);
+            }
+        }
+        return Integer.compare(this.selected.length, that.selected.length);
+    }
+
+    @Override
+    public String toString() {
+        return this.score + " " + this.schedule;
+    }
+}
@@ -0,0 +1,53 @@
+package com.timetablegenerator.schedule;
+
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.Section;
+import lombok.Getter;
+
+/**
+ * A section compiled down to the weekly minutes it occupies, split by the time slots (term and active dates) its
+ * repeating periods fall under.
+ */
+final class SectionMask {
+
+    @Getter private final Course course;
+    @Getter private final String sectionType;
+    @Getter private final Section section;
+
+    // Parallel arrays of slot indices (see SlotTable) and the minutes occupied within each.
+    private final int[] slots;
+    private final WeekMask[] masks;
+
+    @Getter private final WeekMask weekMask;
+
+    SectionMask(Course course, String sectionType, Section section, int[] slots, WeekMask[] masks) {
+        this.course = course;
+        this.sectionType = sectionType;
+        this.section = section;
+        this.slots = slots;
+        this.masks = masks;
+
+        WeekMask weekMask = WeekMask.EMPTY;
+        for (WeekMask mask : masks) {
+            weekMask = weekMask.union(mask);
+        }
+        this.weekMask = weekMask;
+    }
+
+    boolean conflictsWith(SectionMask that, SlotTable slotTable) {
+
+        // Cheap rejection when the two sections never meet at the same time of the week at all.
+        if (!this.weekMask.intersects(that.weekMask)) {
+            return false;
+        }
+
+        for (int i = 0; i < this.slots.length; i++) {
+            for (int j = 0; j < that.slots.length; j++) {
+                if (slotTable.overlaps(this.slots[i], that.slots[j]) && this.masks[i].intersects(that.masks[j])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package com.timetablegenerator.schedule;
+
+import com.timetablegenerator.model.Term;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DateRange;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns an index to every distinct (term, active date range) pair that repeating periods are scheduled under and
+ * records which of them run at the same time of year. Two periods only clash if their slots overlap: a period in the
+ * first quarter of a term never clashes with one in the second quarter, but both can clash with one running for the
+ * whole term.
+ */
+final class SlotTable {
+
+    private final Map<String, Integer> slotIds = new HashMap<>();
+    private final List<Term> terms = new ArrayList<>();
+    private final List<DateRange> dateRanges = new ArrayList<>();
+
+    private boolean[][] overlaps = null;
+
+    int getSlot(RepeatingPeriod period) {
+
+        if (this.overlaps != null) {
+            throw new IllegalStateException("No slots can be added after the slot table has been built");
+        }
+
+        DateRange dateRange = period.getActiveDateRange().orElse(null);
+        String key = period.getTerm().getUniqueId() + "|" + dateRange;
+
+        return this.slotIds.computeIfAbsent(key, x -> {
+            this.terms.add(period.getTerm());
+            this.dateRanges.add(dateRange);
+            return this.terms.size() - 1;
+        });
+    }
+
+    void build() {
+
+        int size = this.terms.size();
+        this.overlaps = new boolean[size][size];
+
+        for (int i = 0; i < size; i++) {
+            for (int j = i; j < size; j++) {
+
+                Term a = this.terms.get(i);
+                Term b = this.terms.get(j);
+                DateRange ar = this.dateRanges.get(i);
+                DateRange br = this.dateRanges.get(j);
+
+                boolean overlap = (a.fallsWithin(b) || b.fallsWithin(a))
+                        && (ar == null || br == null || ar.overlaps(br));
+
+                this.overlaps[i][j] = overlap;
+                this.overlaps[j][i] = overlap;
+            }
+        }
+    }
+
+    boolean overlaps(int slotA, int slotB) {
+        return this.overlaps[slotA][slotB];
+    }
+}
@@ -0,0 +1,49 @@
+package com.timetablegenerator.schedule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A bounded heap retaining the best scored schedules offered to it. The worst retained schedule sits at the head so
+ * that it can be evicted in logarithmic time.
+ */
+final class TopSchedules {
+
+    private final int limit;
+    private final PriorityQueue<ScoredSchedule> heap;
+
+    TopSchedules(int limit) {
+        this.limit = limit;
+        this.heap = new PriorityQueue<>(limit, Collections.reverseOrder());
+    }
+
+    /**
+     * @param score A score about to be offered.
+     * @return {@code true} if a schedule with the given score could be retained.
+     */
+    boolean accepts(double score) {
+        return this.heap.size() < this.limit || score <= this.heap.peek().getScore();
+    }
+
+    void offer(ScoredSchedule schedule) {
+        if (this.heap.size() < this.limit) {
+            this.heap.add(schedule);
+        } else if (schedule.compareTo(this.heap.peek()) < 0) {
+            this.heap.poll();
+            this.heap.add(schedule);
+        }
+    }
+
+    TopSchedules merge(TopSchedules that) {
+        that.heap.forEach(this::offer);
+        return this;
+    }
+
+    List<ScoredSchedule> toSortedList() {
+        List<ScoredSchedule> schedules = new ArrayList<>(this.heap);
+        Collections.sort(schedules);
+        return schedules;
+    }
+}
@@ -0,0 +1,253 @@
+package com.timetablegenerator.schedule;
+
+import com.timetablegenerator.model.range.DayTimeRange;
+import lombok.NonNull;
+
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable set of the minutes of a week, stored as a bitmask with one bit per minute. Only the 64-bit words
+ * that have at least one minute set are kept, so a section meeting a few times a week costs a handful of words and
+ * two masks can be tested for overlap by AND-ing the words they have in common.
+ */
+public final class WeekMask {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private static final int WORD_COUNT = (MINUTES_PER_WEEK + Long.SIZE - 1) / Long.SIZE;
+
+    public static final WeekMask EMPTY = new WeekMask(new int[0], new long[0]);
+
+    // Indices of the non-empty words in ascending order, and the words themselves.
+    private final int[] indices;
+    private final long[] words;
+
+    private WeekMask(int[] indices, long[] words) {
+        this.indices = indices;
+        this.words = words;
+    }
+
+    public static WeekMask of(@NonNull DayTimeRange... ranges) {
+        return of(Arrays.asList(ranges));
+    }
+
+    public static WeekMask of(@NonNull Collection<DayTimeRange> ranges) {
+
+        long[] dense = new long[WORD_COUNT];
+
+        for (DayTimeRange range : ranges) {
+            int dayOffset = (range.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY;
+            setRange(dense,
+                    dayOffset + range.getStartTime().toSecondOfDay() / 60,
+                    dayOffset + range.getEndTime().toSecondOfDay() / 60);
+        }
+
+        return fromDense(dense);
+    }
+
+    private static void setRange(long[] dense, int fromMinute, int toMinute) {
+
+        if (fromMinute >= toMinute) {
+            return;
+        }
+
+        int firstWord = fromMinute >>> 6;
+        int lastWord = (toMinute - 1) >>> 6;
+
+        long firstMask = -1L << fromMinute;
+        long lastMask = -1L >>> -toMinute;
+
+        if (firstWord == lastWord) {
+            dense[firstWord] |= firstMask & lastMask;
+        } else {
+            dense[firstWord] |= firstMask;
+            for (int i = firstWord + 1; i < lastWord; i++) {
+                dense[i] = -1L;
+            }
+            dense[lastWord] |= lastMask;
+        }
+    }
+
+    private static WeekMask fromDense(long[] dense) {
+
+        int size = 0;
+        for (long word : dense) {
+            if (word != 0) {
+                size++;
+            }
+        }
+
+        if (size == 0) {
+            return EMPTY;
+        }
+
+        int[] indices = new int[size];
+        long[] words = new long[size];
+
+        for (int i = 0, j = 0; i < dense.length; i++) {
+            if (dense[i] != 0) {
+                indices[j] = i;
+                words[j++] = dense[i];
+            }
+        }
+
+        return new WeekMask(indices, words);
+    }
+
+    public boolean isEmpty() {
+        return this.words.length == 0;
+    }
+
+    /**
+     * Checks whether the two masks have any minute in common.
+     *
+     * @param that The mask to check against.
+     * @return {@code true} if there is at least one shared minute, otherwise {@code false}.
+     */
+    public boolean intersects(@NonNull WeekMask that) {
+
+        int i = 0, j = 0;
+
+        while (i < this.indices.length && j < that.indices.length) {
+            if (this.indices[i] < that.indices[j]) {
+                i++;
+            } else if (this.indices[i] > that.indices[j]) {
+                j++;
+            } else if ((this.words[i++] & that.words[j++]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public WeekMask union(@NonNull WeekMask that) {
+
+        if (that.isEmpty()) {
+            return this;
+        } else if (this.isEmpty()) {
+            return that;
+        }
+
+        long[] dense = new long[WORD_COUNT];
+
+        for (int i = 0; i < this.indices.length; i++) {
+            dense[this.indices[i]] |= this.words[i];
+        }
+        for (int i = 0; i < that.indices.length; i++) {
+            dense[that.indices[i]] |= that.words[i];
+        }
+
+        return fromDense(dense);
+    }
+
+    public boolean contains(@NonNull DayOfWeek day, int minuteOfDay) {
+
+        if (minuteOfDay < 0 || minuteOfDay >= MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Minute of day must be within [0, " + MINUTES_PER_DAY + ") ("
+                    + minuteOfDay + ")");
+        }
+
+        int minute = (day.getValue() - 1) * MINUTES_PER_DAY + minuteOfDay;
+        int position = Arrays.binarySearch(this.indices, minute >>> 6);
+
+        return position >= 0 && (this.words[position] & (1L << minute)) != 0;
+    }
+
+    /**
+     * @param day The day of the week.
+     * @return The number of minutes set on the given day.
+     */
+    public int getMinutes(@NonNull DayOfWeek day) {
+
+        int from = (day.getValue() - 1) * MINUTES_PER_DAY;
+        int to = from + MINUTES_PER_DAY;
+        int minutes = 0;
+
+        for (int i = 0; i < this.indices.length; i++) {
+            minutes += Long.bitCount(this.wordWithin(i, from, to));
+        }
+        return minutes;
+    }
+
+    /**
+     * @param day The day of the week.
+     * @return The first minute of the day that is set, or {@code -1} if none are.
+     */
+    public int getFirstMinute(@NonNull DayOfWeek day) {
+
+        int from = (day.getValue() - 1) * MINUTES_PER_DAY;
+        int to = from + MINUTES_PER_DAY;
+
+        for (int i = 0; i < this.indices.length; i++) {
+            long word = this.wordWithin(i, from, to);
+            if (word != 0) {
+                return (this.indices[i] << 6) + Long.numberOfTrailingZeros(word) - from;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param day The day of the week.
+     * @return The last minute of the day that is set, or {@code -1} if none are.
+     */
+    public int getLastMinute(@NonNull DayOfWeek day) {
+
+        int from = (day.getValue() - 1) * MINUTES_PER_DAY;
+        int to = from + MINUTES_PER_DAY;
+
+        for (int i = this.indices.length - 1; i >= 0; i--) {
+            long word = this.wordWithin(i, from, to);
+            if (word != 0) {
+                return (this.indices[i] << 6) + Long.SIZE - 1 - Long.numberOfLeadingZeros(word) - from;
+            }
+        }
+        return -1;
+    }
+
+    // Returns the i-th stored word with every bit outside of the minutes [from, to) cleared.
+    private long wordWithin(int i, int from, int to) {
+
+        int firstMinute = this.indices[i] << 6;
+
+        if (firstMinute + Long.SIZE <= from || firstMinute >= to) {
+            return 0;
+        }
+
+        long word = this.words[i];
+        if (from > firstMinute) {
+            word &= -1L << from;
+        }
+        if (to < firstMinute + Long.SIZE) {
+            word &= -1L >>> -to;
+        }
+        return word;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof WeekMask)) {
+            return false;
+        }
+
+        WeekMask that = (WeekMask) o;
+        return Arrays.equals(this.indices, that.indices) && Arrays.equals(this.words, that.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(this.indices) + Arrays.hashCode(this.words);
+    }
+
+    @Override
+    public String toString() {
+        return "[minutes set: " + Arrays.stream(this.words).mapToInt(Long::bitCount).sum() + "]";
+    }
+}
@@ -0,0 +1,95 @@
+package com.timetablegenerator.serializer.binary;
+
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.Section;
+import com.timetablegenerator.model.SectionType;
+import com.timetablegenerator.model.period.OneTimePeriod;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.serializer.model.CourseSerializer;
+import com.timetablegenerator.serializer.model.SectionSerializer;
+import com.timetablegenerator.serializer.model.SectionTypeSerializer;
+import com.timetablegenerator.serializer.model.Serializer;
+import com.timetablegenerator.serializer.model.period.OneTimePeriodSerializer;
+import com.timetablegenerator.serializer.model.period.RepeatingPeriodSerializer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Constants and primitives shared by {@link DeltaWriter} and {@link DeltaReader}.
+ *
+ * A stream starts with a header and is followed by any number of structure deltas, each encoded as:
+ *
+ * <pre>
+ * structure := varint(property type ordinal) string(identifier)
+ *              varint(value count) value*
+ *              varint(substructure count) structure*
+ * value     := varint(property type ordinal &lt;&lt; 2 | kind) payload [payload]
+ * string    := varint(0) varint(length) utf-8 bytes | varint(index + 1)
+ * </pre>
+ *
+ * The payload type is implied by the property type: booleans are a single byte, integers a zig-zag varint, doubles
+ * eight bytes, strings a string reference and structures the length prefixed JSON of their model serializer.
+ * Strings are written out in full the first time they appear in a stream and referred to by index afterwards.
+ */
+final class DeltaFormat {
+
+    static final byte[] MAGIC = {'T', 'T', 'G', 'D'};
+    static final int VERSION = 1;
+
+    static final int ADDED = 0;
+    static final int REMOVED = 1;
+    static final int REPLACED = 2;
+
+    static final Map<Class<?>, Supplier<Serializer<?>>> SERIALIZERS = new HashMap<>();
+
+    static {
+        SERIALIZERS.put(Course.class, CourseSerializer::new);
+        SERIALIZERS.put(SectionType.class, SectionTypeSerializer::new);
+        SERIALIZERS.put(Section.class, SectionSerializer::new);
+        SERIALIZERS.put(RepeatingPeriod.class, RepeatingPeriodSerializer::new);
+        SERIALIZERS.put(OneTimePeriod.class, OneTimePeriodSerializer::new);
+    }
+
+    private DeltaFormat() {
+    }
+
+    static void writeVarint(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    static long readVarint(DataInput in, int firstByte) throws IOException {
+
+        long value = firstByte & 0x7F;
+        int b = firstByte;
+
+        for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+            if (shift >= Long.SIZE) {
+                throw new IOException("Malformed varint");
+            }
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+        }
+        return value;
+    }
+
+    static long readVarint(DataInput in) throws IOException {
+        return readVarint(in, in.readUnsignedByte());
+    }
+
+    static int readLength(DataInput in) throws IOException {
+        long value = readVarint(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Length out of range (" + value + ")");
+        }
+        return (int) value;
+    }
+}
@@ -0,0 +1,209 @@
+package com.timetablegenerator.serializer.binary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.timetablegenerator.delta.Diffable;
+import com.timetablegenerator.delta.PropertyType;
+import com.timetablegenerator.delta.StructureDelta;
+import com.timetablegenerator.serializer.model.Serializer;
+import com.timetablegenerator.serializer.model.SerializerContext;
+import lombok.NonNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static com.timetablegenerator.serializer.binary.DeltaFormat.*;
+
+/**
+ * Reads structure deltas written by a {@link DeltaWriter}. Structures added or removed by a delta are rebuilt with
+ * the model serializers and the given context; as when deserializing courses on their own, the relations of an added
+ * course are not restored.
+ */
+public final class DeltaReader implements Closeable {
+
+    private static final PropertyType[] PROPERTY_TYPES = PropertyType.values();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DataInputStream in;
+    private final SerializerContext context;
+    private final List<String> strings = new ArrayList<>();
+
+    private DeltaReader(InputStream in, SerializerContext context) throws IOException {
+
+        this.in = new DataInputStream(new BufferedInputStream(in));
+        this.context = context;
+
+        byte[] magic = new byte[MAGIC.length];
+        this.in.readFully(magic);
+
+        if (!Arrays.equals(MAGIC, magic)) {
+            throw new IOException("Not a structure delta stream");
+        }
+        int version = this.in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported structure delta stream version " + version);
+        }
+    }
+
+    public static DeltaReader of(@NonNull InputStream in, @NonNull SerializerContext context) throws IOException {
+        return new DeltaReader(in, context);
+    }
+
+    /**
+     * @return The next delta in the stream, or nothing if the end of the stream has been reached.
+     * @throws IOException If the stream could not be read or is malformed.
+     */
+    public Optional<StructureDelta> read() throws IOException {
+        return this.read(null);
+    }
+
+    /**
+     * Reads the next delta in the stream, handing each of its immediate substructure changes to a consumer as soon
+     * as it has been read instead of adding it to the delta. A timetable delta can then be processed course by course
+     * without holding every course change in memory.
+     *
+     * @param substructures The consumer of substructure changes.
+     * @return The next delta in the stream without its substructure changes, or nothing if the end of the stream has
+     *         been reached.
+     * @throws IOException If the stream could not be read or is malformed.
+     */
+    public Optional<StructureDelta> read(Consumer<StructureDelta> substructures) throws IOException {
+        int first = this.in.read();
+        return first < 0 ? Optional.empty() : Optional.of(this.readStructure(first, substructures));
+    }
+
+    private StructureDelta readStructure(int first, Consumer<StructureDelta> substructures) throws IOException {
+
+        StructureDelta delta = StructureDelta.of(this.readPropertyType(readVarint(this.in, first)), this.readString());
+
+        for (int i = readLength(this.in); i > 0; i--) {
+            this.readValue(delta);
+        }
+
+        for (int i = readLength(this.in); i > 0; i--) {
+            StructureDelta substructure = this.readStructure(this.in.readUnsignedByte(), null);
+            if (substructures == null) {
+                delta.addSubstructureChange(substructure);
+            } else {
+                substructures.accept(substructure);
+            }
+        }
+
+        return delta;
+    }
+
+    private PropertyType readPropertyType(long ordinal) throws IOException {
+        if (ordinal >= PROPERTY_TYPES.length) {
+            throw new IOException("Unknown property type " + ordinal);
+        }
+        return PROPERTY_TYPES[(int) ordinal];
+    }
+
+    private void readValue(StructureDelta delta) throws IOException {
+
+        long header = readVarint(this.in);
+        PropertyType propertyType = this.readPropertyType(header >>> 2);
+        int kind = (int) (header & 3);
+
+        if (kind == ADDED) {
+            Object value = this.readPayload(propertyType);
+            if (value instanceof Boolean) {
+                delta.addAdded(propertyType, (Boolean) value);
+            } else if (value instanceof Integer) {
+                delta.addAdded(propertyType, (Integer) value);
+            } else if (value instanceof Double) {
+                delta.addAdded(propertyType, (Double) value);
+            } else if (value instanceof String) {
+                delta.addAdded(propertyType, (String) value);
+            } else {
+                delta.addAdded(propertyType, (Diffable<?>) value);
+            }
+        } else if (kind == REMOVED) {
+            Object value = this.readPayload(propertyType);
+            if (value instanceof Boolean) {
+                delta.addRemoved(propertyType, (Boolean) value);
+            } else if (value instanceof Integer) {
+                delta.addRemoved(propertyType, (Integer) value);
+            } else if (value instanceof Double) {
+                delta.addRemoved(propertyType, (Double) value);
+            } else if (value instanceof String) {
+                delta.addRemoved(propertyType, (String) value);
+            } else {
+                delta.addRemoved(propertyType, (Diffable<?>) value);
+            }
+        } else if (kind == REPLACED) {
+            Object oldValue = this.readPayload(propertyType);
+            Object newValue = this.readPayload(propertyType);
+            if (oldValue instanceof Boolean) {
+                delta.addValueIfChanged(propertyType, (Boolean) oldValue, (Boolean) newValue);
+            } else if (oldValue instanceof Integer) {
+                delta.addValueIfChanged(propertyType, (Integer) oldValue, (Integer) newValue);
+            } else if (oldValue instanceof Double) {
+                delta.addValueIfChanged(propertyType, (Double) oldValue, (Double) newValue);
+            } else if (oldValue instanceof String) {
+                delta.addValueIfChanged(propertyType, (String) oldValue, (String) newValue);
+            } else {
+                throw new IOException("Replaced values of property type [" + propertyType.getFieldName()
+                        + "] are not supported");
+            }
+        } else {
+            throw new IOException("Unknown value delta kind " + kind);
+        }
+    }
+
+    private Object readPayload(PropertyType propertyType) throws IOException {
+
+        Class<?> type = propertyType.getExpectedType();
+
+        if (type == Boolean.class) {
+            return this.in.readBoolean();
+        } else if (type == Integer.class) {
+            int n = (int) readVarint(this.in);
+            return (n >>> 1) ^ -(n & 1);
+        } else if (type == Double.class) {
+            return this.in.readDouble();
+        } else if (type == String.class) {
+            return this.readString();
+        }
+
+        Supplier<Serializer<?>> serializer = SERIALIZERS.get(type);
+        if (serializer == null) {
+            throw new IOException("Values of property type [" + propertyType.getFieldName()
+                    + "] are not supported");
+        }
+
+        byte[] json = new byte[readLength(this.in)];
+        this.in.readFully(json);
+
+        return this.objectMapper.readValue(json, serializer.get().getClass()).toInstance(this.context);
+    }
+
+    private String readString() throws IOException {
+
+        int index = readLength(this.in);
+
+        if (index > 0) {
+            if (index > this.strings.size()) {
+                throw new IOException("Unknown string reference " + index);
+            }
+            return this.strings.get(index - 1);
+        }
+
+        byte[] bytes = new byte[readLength(this.in)];
+        this.in.readFully(bytes);
+
+        String s = new String(bytes, StandardCharsets.UTF_8);
+        this.strings.add(s);
+        return s;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+}
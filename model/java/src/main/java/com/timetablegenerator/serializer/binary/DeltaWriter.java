@@ -0,0 +1,128 @@
+package com.timetablegenerator.serializer.binary;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.timetablegenerator.delta.*;
+import com.timetablegenerator.serializer.model.Serializer;
+import lombok.NonNull;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.timetablegenerator.serializer.binary.DeltaFormat.*;
+
+/**
+ * Writes structure deltas to a stream in a compact binary form (see {@link DeltaFormat}), to be read back by a
+ * {@link DeltaReader}. Any number of deltas can be written to the same stream and share its string table, so the
+ * IDs, names and notes repeated across a delta are only written out once.
+ */
+public final class DeltaWriter implements Closeable, Flushable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DataOutputStream out;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    private DeltaWriter(OutputStream out) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+    }
+
+    public static DeltaWriter of(@NonNull OutputStream out) throws IOException {
+        return new DeltaWriter(out);
+    }
+
+    public DeltaWriter write(@NonNull StructureDelta delta) throws IOException {
+
+        writeVarint(this.out, delta.getPropertyType().ordinal());
+        this.writeString(delta.getIdentifier());
+
+        Collection<Delta> values = delta.getValueChanges();
+        writeVarint(this.out, values.size());
+        for (Delta value : values) {
+            this.writeValue(value);
+        }
+
+        Collection<StructureDelta> substructures = delta.getSubstructureChanges();
+        writeVarint(this.out, substructures.size());
+        for (StructureDelta substructure : substructures) {
+            this.write(substructure);
+        }
+
+        return this;
+    }
+
+    private void writeValue(Delta delta) throws IOException {
+
+        PropertyType propertyType = delta.getPropertyType();
+
+        if (delta instanceof AdditionDelta) {
+            writeVarint(this.out, propertyType.ordinal() << 2 | ADDED);
+            this.writePayload(propertyType, ((AdditionDelta) delta).getNewValue());
+        } else if (delta instanceof RemovalDelta) {
+            writeVarint(this.out, propertyType.ordinal() << 2 | REMOVED);
+            this.writePayload(propertyType, ((RemovalDelta) delta).getOldValue());
+        } else if (delta instanceof ReplaceDelta) {
+            writeVarint(this.out, propertyType.ordinal() << 2 | REPLACED);
+            this.writePayload(propertyType, ((ReplaceDelta) delta).getOldValue());
+            this.writePayload(propertyType, ((ReplaceDelta) delta).getNewValue());
+        } else {
+            throw new IllegalArgumentException("Unsupported value delta type " + delta.getClass().getName());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writePayload(PropertyType propertyType, Object value) throws IOException {
+
+        Class<?> type = propertyType.getExpectedType();
+
+        if (type == Boolean.class) {
+            this.out.writeBoolean((Boolean) value);
+        } else if (type == Integer.class) {
+            int i = (Integer) value;
+            writeVarint(this.out, ((i << 1) ^ (i >> 31)) & 0xFFFFFFFFL);
+        } else if (type == Double.class) {
+            this.out.writeDouble((Double) value);
+        } else if (type == String.class) {
+            this.writeString((String) value);
+        } else {
+            Supplier<Serializer<?>> serializer = SERIALIZERS.get(type);
+            if (serializer == null) {
+                throw new IllegalArgumentException("Values of property type [" + propertyType.getFieldName()
+                        + "] cannot be written");
+            }
+            byte[] json = this.objectMapper.writeValueAsBytes(
+                    ((Serializer<Object>) serializer.get()).fromInstance(value));
+            writeVarint(this.out, json.length);
+            this.out.write(json);
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+
+        Integer index = this.strings.get(s);
+
+        if (index != null) {
+            writeVarint(this.out, index + 1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(this.out, 0);
+            writeVarint(this.out, bytes.length);
+            this.out.write(bytes);
+            this.strings.put(s, this.strings.size());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        this.out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.out.close();
+    }
+}
@@ -0,0 +1,314 @@
+package com.timetablegenerator.serializer.binary;
+
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.OneTimePeriod;
+import com.timetablegenerator.model.period.Period;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DateRange;
+import com.timetablegenerator.model.range.DateTimeRange;
+import com.timetablegenerator.model.range.DayTimeRange;
+import com.timetablegenerator.serializer.model.Interner;
+import com.timetablegenerator.serializer.model.SerializerContext;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.*;
+import java.util.*;
+
+import static com.timetablegenerator.serializer.binary.SnapshotFormat.*;
+
+/**
+ * A timetable snapshot written by a {@link SnapshotWriter}, memory mapped rather than read into the heap. Opening a
+ * snapshot only reads its header and course index; a course is decoded when it is asked for, so memory use depends
+ * on the courses queried rather than on the size of the timetable.
+ *
+ * Courses are decoded afresh on every call, along with the courses they are related to. Repeated strings and ranges
+ * are interned through the serializer context, so courses decoded by separate calls still share them. Snapshots may
+ * be shared between threads.
+ */
+public final class Snapshot {
+
+    private final ByteBuffer buffer;
+    private final SerializerContext context;
+    private final Interner interner;
+
+    @Getter private final Term term;
+    @Getter private final ZonedDateTime lastUpdate;
+
+    // Sorted course IDs and the offsets of their records.
+    private final String[] courseIds;
+    private final int[] offsets;
+
+    private Snapshot(ByteBuffer buffer, SerializerContext context) throws IOException {
+
+        this.buffer = buffer;
+        this.context = context;
+        this.interner = context.getInterner();
+
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+
+            if (!Arrays.equals(MAGIC, magic)) {
+                throw new IOException("Not a timetable snapshot");
+            }
+            int version = buffer.get() & 0xFF;
+            if (version != VERSION) {
+                throw new IOException("Unsupported timetable snapshot version " + version);
+            }
+
+            this.term = context.getTerm(readString(buffer));
+            this.lastUpdate = ZonedDateTime.ofInstant(Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()),
+                    ZoneId.of(readString(buffer)));
+
+            int indexOffset = checkOffset(buffer.getLong(buffer.limit() - FOOTER_SIZE));
+            ByteBuffer index = buffer.duplicate();
+            index.position(indexOffset);
+
+            int count = index.getInt();
+            this.courseIds = new String[count];
+            this.offsets = new int[count];
+
+            for (int i = 0; i < count; i++) {
+                this.courseIds[i] = readString(index);
+                this.offsets[i] = checkOffset(index.getLong());
+                if (i > 0 && this.courseIds[i - 1].compareTo(this.courseIds[i]) >= 0) {
+                    throw new IOException("Timetable snapshot index is not sorted");
+                }
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Malformed timetable snapshot", e);
+        }
+    }
+
+    /**
+     * Opens a snapshot file. The file is mapped read-only and its channel closed straight away; the mapping remains
+     * valid until the snapshot is garbage collected.
+     *
+     * @param path The path of the snapshot file.
+     * @param context The context to resolve the school, terms and departments of courses against.
+     * @return The snapshot.
+     * @throws IOException If the file could not be read or is not a valid snapshot.
+     */
+    public static Snapshot open(@NonNull Path path, @NonNull SerializerContext context) throws IOException {
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Timetable snapshot is too large to map (" + size + " bytes)");
+            } else if (size < HEADER_SIZE + FOOTER_SIZE) {
+                throw new IOException("Not a timetable snapshot");
+            }
+
+            return new Snapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), context);
+        }
+    }
+
+    private int checkOffset(long offset) throws IOException {
+        if (offset < HEADER_SIZE || offset > this.buffer.limit() - FOOTER_SIZE) {
+            throw new IOException("Timetable snapshot offset out of range (" + offset + ")");
+        }
+        return (int) offset;
+    }
+
+    /**
+     * @return The IDs of every course in the snapshot, in ascending order.
+     */
+    public List<String> getCourseIds() {
+        return Collections.unmodifiableList(Arrays.asList(this.courseIds));
+    }
+
+    public Optional<Course> getCourse(@NonNull String id) {
+        return Arrays.binarySearch(this.courseIds, id) < 0
+                ? Optional.empty()
+                : Optional.of(this.decode(Collections.singleton(id)).get(id));
+    }
+
+    /**
+     * Decodes every course in the snapshot.
+     *
+     * @return The timetable the snapshot was written from.
+     */
+    public TimeTable toTimeTable() {
+        TimeTable timeTable = TimeTable.of(this.context.getSchool(), this.term, this.lastUpdate);
+        this.decode(Arrays.asList(this.courseIds)).values().forEach(timeTable::addCourse);
+        return timeTable;
+    }
+
+    // Decodes the given courses and every course related to them, directly or not.
+    private Map<String, Course> decode(Collection<String> ids) {
+
+        Map<String, Course> courses = new HashMap<>();
+        Map<Course, List<List<String>>> relations = new LinkedHashMap<>();
+        Deque<String> pending = new ArrayDeque<>(ids);
+
+        while (!pending.isEmpty()) {
+
+            String id = pending.pop();
+            if (courses.containsKey(id)) {
+                continue;
+            }
+
+            int i = Arrays.binarySearch(this.courseIds, id);
+            if (i < 0) {
+                throw new IllegalStateException("Timetable snapshot refers to an unknown course \"" + id + "\"");
+            }
+
+            ByteBuffer record = this.buffer.duplicate();
+            record.position(this.offsets[i]);
+
+            List<List<String>> courseRelations = new ArrayList<>();
+            Course course = this.readCourse(record, courseRelations);
+
+            if (!id.equals(course.getUniqueId())) {
+                throw new IllegalStateException("Timetable snapshot has an invalid course ID -> course mapping: "
+                        + id + " to " + course.getUniqueId());
+            }
+
+            courses.put(id, course);
+            relations.put(course, courseRelations);
+            courseRelations.forEach(pending::addAll);
+        }
+
+        relations.forEach((course, courseRelations) -> {
+            courseRelations.get(0).forEach(x -> course.addCrossListing(courses.get(x)));
+            courseRelations.get(1).forEach(x -> course.addPrerequisite(courses.get(x)));
+            courseRelations.get(2).forEach(x -> course.addAntirequisite(courses.get(x)));
+            courseRelations.get(3).forEach(x -> course.addCorequesite(courses.get(x)));
+        });
+
+        return courses;
+    }
+
+    private Course readCourse(ByteBuffer in, List<List<String>> relations) {
+
+        Term term = this.context.getTerm(readString(in));
+        Department department = this.context.getDepartment(readString(in));
+
+        Course course = Course.of(this.context.getSchool(), term, department, readString(in), readString(in));
+
+        Optional.ofNullable(readString(in)).ifPresent(course::setDescription);
+        if (in.get() != 0) {
+            course.setCredits(in.getDouble());
+        }
+        course.addNotes(this.interner.internAll(readStrings(in)));
+
+        // Cross-listings, prerequisites, antirequisites and corequisites.
+        for (int i = 0; i < 4; i++) {
+            relations.add(readStrings(in));
+        }
+
+        for (int i = in.getInt(); i > 0; i--) {
+
+            String code = readString(in);
+            SectionType sectionType = SectionType.of(this.context.getSchool(), this.context.getTerm(readString(in)),
+                    code);
+            for (int j = in.getInt(); j > 0; j--) {
+                sectionType.addSection(this.readSection(in));
+            }
+            course.addSections(sectionType);
+        }
+
+        return course;
+    }
+
+    private Section readSection(ByteBuffer in) {
+
+        Section section = Section.of(this.context.getTerm(readString(in)), readString(in));
+
+        Optional.ofNullable(readString(in)).ifPresent(section::setSerialNumber);
+        Optional.ofNullable(readString(in)).ifPresent(section::setGroupId);
+
+        // The setters for enrollment and waiting numbers update each other, so they are replayed in an order that
+        // leaves each with the value it was written with.
+        readBoolean(in).ifPresent(section::setFull);
+        readInteger(in).ifPresent(section::setMaximumEnrollment);
+        readInteger(in).ifPresent(section::setEnrollment);
+        readBoolean(in).ifPresent(section::setWaitingList);
+        readInteger(in).ifPresent(section::setMaximumWaiting);
+        readInteger(in).ifPresent(section::setWaiting);
+        readBoolean(in).ifPresent(section::setCancelled);
+        readBoolean(in).ifPresent(section::setOnline);
+
+        section.addNotes(this.interner.internAll(readStrings(in)));
+
+        for (int i = in.getInt(); i > 0; i--) {
+
+            RepeatingPeriod period = RepeatingPeriod.of(this.context.getTerm(readString(in)));
+            this.readPeriod(in, period);
+
+            if (in.get() != 0) {
+                period.setDayTimeRange(this.interner.intern(DayTimeRange.of(DayOfWeek.of(in.get()),
+                        LocalTime.ofNanoOfDay(in.getLong()), LocalTime.ofNanoOfDay(in.getLong()))));
+            }
+            if (in.get() != 0) {
+                period.setActiveDateRange(this.interner.intern(DateRange.of(LocalDate.ofEpochDay(in.getLong()),
+                        LocalDate.ofEpochDay(in.getLong()))));
+            }
+            section.addPeriod(period);
+        }
+
+        for (int i = in.getInt(); i > 0; i--) {
+
+            OneTimePeriod period = OneTimePeriod.of(this.context.getTerm(readString(in)));
+            this.readPeriod(in, period);
+
+            if (in.get() != 0) {
+                period.setDateTimeRange(this.interner.intern(DateTimeRange.of(readDateTime(in), readDateTime(in))));
+            }
+            section.addPeriod(period);
+        }
+
+        return section;
+    }
+
+    private void readPeriod(ByteBuffer in, Period period) {
+        Optional.ofNullable(readString(in)).map(this.interner::intern).ifPresent(period::setCampus);
+        Optional.ofNullable(readString(in)).map(this.interner::intern).ifPresent(period::setRoom);
+        readBoolean(in).ifPresent(period::setOnline);
+        period.addSupervisors(this.interner.internAll(readStrings(in)));
+        period.addNotes(this.interner.internAll(readStrings(in)));
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        return LocalDateTime.of(LocalDate.ofEpochDay(in.getLong()), LocalTime.ofNanoOfDay(in.getLong()));
+    }
+
+    private static Optional<Boolean> readBoolean(ByteBuffer in) {
+        byte value = in.get();
+        return value == ABSENT ? Optional.empty() : Optional.of(value == TRUE);
+    }
+
+    private static Optional<Integer> readInteger(ByteBuffer in) {
+        return in.get() != 0 ? Optional.of(in.getInt()) : Optional.empty();
+    }
+
+    private static List<String> readStrings(ByteBuffer in) {
+        int size = in.getInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static String readString(ByteBuffer in) {
+
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
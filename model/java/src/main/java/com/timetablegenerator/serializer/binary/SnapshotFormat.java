@@ -0,0 +1,34 @@
+package com.timetablegenerator.serializer.binary;
+
+/**
+ * Constants shared by {@link SnapshotWriter} and {@link Snapshot}.
+ *
+ * A snapshot is made up of a header, the course records and an index of the records, in that order:
+ *
+ * <pre>
+ * snapshot    := magic version string(term) last update course* index int64(index offset)
+ * last update := int64(epoch second) int32(nanosecond) string(zone ID)
+ * index       := int32(count) (string(course ID) int64(offset))*
+ * string      := int32(length) utf-8 bytes | int32(-1)
+ * </pre>
+ *
+ * Index entries are sorted by course ID so that they can be searched without building a map. Course records are
+ * self-contained, so any one of them can be decoded without reading the others; related courses are referred to by
+ * ID. Optional values are preceded by a presence byte and optional booleans are a single byte holding
+ * {@link #ABSENT}, {@link #FALSE} or {@link #TRUE}.
+ */
+final class SnapshotFormat {
+
+    static final byte[] MAGIC = {'T', 'T', 'G', 'S'};
+    static final int VERSION = 1;
+
+    static final int HEADER_SIZE = MAGIC.length + 1;
+    static final int FOOTER_SIZE = Long.BYTES;
+
+    static final byte ABSENT = 0;
+    static final byte FALSE = 1;
+    static final byte TRUE = 2;
+
+    private SnapshotFormat() {
+    }
+}
@@ -0,0 +1,244 @@
+package com.timetablegenerator.serializer.binary;
+
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.Section;
+import com.timetablegenerator.model.SectionType;
+import com.timetablegenerator.model.TimeTable;
+import com.timetablegenerator.model.period.OneTimePeriod;
+import com.timetablegenerator.model.period.Period;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DateRange;
+import com.timetablegenerator.model.range.DateTimeRange;
+import com.timetablegenerator.model.range.DayTimeRange;
+import lombok.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static com.timetablegenerator.serializer.binary.SnapshotFormat.*;
+
+/**
+ * Writes a timetable to a snapshot file (see {@link SnapshotFormat}) to be opened as a {@link Snapshot}. Course
+ * records are encoded one at a time into a reused buffer and written straight to the file.
+ */
+public final class SnapshotWriter {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(this.buffer);
+
+    private SnapshotWriter() {
+    }
+
+    /**
+     * Writes a timetable to a snapshot file. The snapshot is written to a temporary file alongside the target first
+     * and moved into place once complete, so a snapshot that is open elsewhere is never seen half-written.
+     *
+     * @param timeTable The timetable to write.
+     * @param path The path of the snapshot file, which is replaced if it already exists.
+     * @throws IOException If the file could not be written.
+     */
+    public static void write(@NonNull TimeTable timeTable, @NonNull Path path) throws IOException {
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            new SnapshotWriter().write(timeTable, channel);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void write(TimeTable timeTable, FileChannel channel) throws IOException {
+
+        this.out.write(MAGIC);
+        this.out.writeByte(VERSION);
+        this.writeString(timeTable.getTerm().getUniqueId());
+        this.out.writeLong(timeTable.getLastUpdate().toEpochSecond());
+        this.out.writeInt(timeTable.getLastUpdate().getNano());
+        this.writeString(timeTable.getLastUpdate().getZone().getId());
+        long position = this.flush(channel, 0);
+
+        // Courses are held in a sorted map, so the index comes out sorted by ID.
+        Map<String, Long> index = new LinkedHashMap<>();
+
+        for (Course course : timeTable.getCourses()) {
+            index.put(course.getUniqueId(), position);
+            this.writeCourse(course);
+            position = this.flush(channel, position);
+        }
+
+        this.out.writeInt(index.size());
+        for (Map.Entry<String, Long> entry : index.entrySet()) {
+            this.writeString(entry.getKey());
+            this.out.writeLong(entry.getValue());
+        }
+        this.out.writeLong(position);
+        this.flush(channel, position);
+
+        channel.force(false);
+    }
+
+    // Writes out the buffered bytes and returns the position in the file that follows them.
+    private long flush(FileChannel channel, long position) throws IOException {
+
+        ByteBuffer bytes = ByteBuffer.wrap(this.buffer.toByteArray());
+        this.buffer.reset();
+
+        long end = position + bytes.remaining();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        return end;
+    }
+
+    private void writeCourse(Course course) throws IOException {
+
+        this.writeString(course.getTerm().getUniqueId());
+        this.writeString(course.getDepartment().getCode());
+        this.writeString(course.getCode());
+        this.writeString(course.getName());
+        this.writeString(course.getDescription().orElse(null));
+
+        this.out.writeBoolean(course.getCredits().isPresent());
+        if (course.getCredits().isPresent()) {
+            this.out.writeDouble(course.getCredits().get());
+        }
+
+        this.writeStrings(course.getNotes());
+
+        this.writeStrings(course.getCrossListings().keySet());
+        this.writeStrings(course.getPrerequisites().keySet());
+        this.writeStrings(course.getAntirequisites().keySet());
+        this.writeStrings(course.getCorequisites().keySet());
+
+        Collection<String> sectionTypes = new TreeSet<>(course.getSectionTypes());
+        this.out.writeInt(sectionTypes.size());
+
+        for (String code : sectionTypes) {
+
+            SectionType sectionType = course.getSectionType(code).orElseThrow(IllegalStateException::new);
+            this.writeString(code);
+            this.writeString(sectionType.getTerm().getUniqueId());
+
+            Collection<Section> sections = sectionType.getSections();
+            this.out.writeInt(sections.size());
+            for (Section section : sections) {
+                this.writeSection(section);
+            }
+        }
+    }
+
+    private void writeSection(Section section) throws IOException {
+
+        this.writeString(section.getTerm().getUniqueId());
+        this.writeString(section.getId());
+        this.writeString(section.getSerialNumber().orElse(null));
+        this.writeString(section.getGroupId().orElse(null));
+
+        this.writeBoolean(section.isFull());
+        this.writeCount(section.getMaxEnrollmentOrDefault(-1));
+        this.writeCount(section.getEnrollmentOrDefault(-1));
+        this.writeBoolean(section.hasWaitingList());
+        this.writeCount(section.getMaxWaitingOrDefault(-1));
+        this.writeCount(section.getWaitingOrDefault(-1));
+        this.writeBoolean(section.isCancelled());
+        this.writeBoolean(section.isOnline());
+
+        this.writeStrings(section.getNotes());
+
+        Collection<RepeatingPeriod> repeatingPeriods = section.getRepeatingPeriods();
+        this.out.writeInt(repeatingPeriods.size());
+
+        for (RepeatingPeriod period : repeatingPeriods) {
+
+            this.writePeriod(period);
+
+            Optional<DayTimeRange> times = period.getDayTimeRange();
+            this.out.writeBoolean(times.isPresent());
+            if (times.isPresent()) {
+                this.out.writeByte(times.get().getDayOfWeek().getValue());
+                this.out.writeLong(times.get().getStartTime().toNanoOfDay());
+                this.out.writeLong(times.get().getEndTime().toNanoOfDay());
+            }
+
+            Optional<DateRange> dates = period.getActiveDateRange();
+            this.out.writeBoolean(dates.isPresent());
+            if (dates.isPresent()) {
+                this.out.writeLong(dates.get().getStartDate().toEpochDay());
+                this.out.writeLong(dates.get().getEndDate().toEpochDay());
+            }
+        }
+
+        Collection<OneTimePeriod> oneTimePeriods = section.getOneTimePeriods();
+        this.out.writeInt(oneTimePeriods.size());
+
+        for (OneTimePeriod period : oneTimePeriods) {
+
+            this.writePeriod(period);
+
+            Optional<DateTimeRange> times = period.getDateTimeRange();
+            this.out.writeBoolean(times.isPresent());
+            if (times.isPresent()) {
+                this.writeDateTime(times.get().getStartDateTime());
+                this.writeDateTime(times.get().getEndDateTime());
+            }
+        }
+    }
+
+    private void writePeriod(Period period) throws IOException {
+        this.writeString(period.getTerm().getUniqueId());
+        this.writeString(period.getCampus().orElse(null));
+        this.writeString(period.getRoom().orElse(null));
+        this.writeBoolean(period.isOnline());
+        this.writeStrings(period.getSupervisors());
+        this.writeStrings(period.getNotes());
+    }
+
+    private void writeDateTime(LocalDateTime dateTime) throws IOException {
+        this.out.writeLong(dateTime.toLocalDate().toEpochDay());
+        this.out.writeLong(dateTime.toLocalTime().toNanoOfDay());
+    }
+
+    private void writeBoolean(Optional<Boolean> value) throws IOException {
+        this.out.writeByte(value.map(x -> x ? TRUE : FALSE).orElse(ABSENT));
+    }
+
+    // Counts are never negative, so a negative count is one that is not known.
+    private void writeCount(int value) throws IOException {
+        this.out.writeBoolean(value >= 0);
+        if (value >= 0) {
+            this.out.writeInt(value);
+        }
+    }
+
+    private void writeStrings(Collection<String> values) throws IOException {
+        this.out.writeInt(values.size());
+        for (String value : values) {
+            this.writeString(value);
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        if (s == null) {
+            this.out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            this.out.writeInt(bytes.length);
+            this.out.write(bytes);
+        }
+    }
+}
@@ -72,7 +72,7 @@ public class CourseSerializer implements Serializer<Course> {
 
         Optional.ofNullable(this.description).ifPresent(course::setDescription);
         Optional.ofNullable(this.credits).ifPresent(course::setCredits);
-        Optional.ofNullable(this.notes).ifPresent(course::addNotes);
+        Optional.ofNullable(this.notes).map(context.getInterner()::internAll).ifPresent(course::addNotes);
 
         if (this.sectionTypes != null) {
 
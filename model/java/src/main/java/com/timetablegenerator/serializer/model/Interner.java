@@ -0,0 +1,56 @@
+package com.timetablegenerator.serializer.model;
+
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * A pool of canonical instances of immutable values such as strings and date and time ranges. Rooms, campuses,
+ * supervisors, notes and period times repeat throughout a school's timetable; interning them as they are read means
+ * every repeat shares a single instance, and comparing two of them for equality stops at the identity check.
+ *
+ * Values are only weakly held, so a value is dropped from the pool once nothing else refers to it.
+ */
+public final class Interner {
+
+    private final Map<Object, WeakReference<Object>> pool = new WeakHashMap<>();
+
+    /**
+     * @param value The value to intern, which must be immutable.
+     * @param <T> The type of the value.
+     * @return The canonical instance equal to the value, or the value itself if it is the first of its kind or is
+     *         {@code null}.
+     */
+    public synchronized <T> T intern(T value) {
+
+        if (value == null) {
+            return null;
+        }
+
+        WeakReference<Object> reference = this.pool.get(value);
+        Object canonical = reference == null ? null : reference.get();
+
+        if (canonical != null && canonical.getClass() == value.getClass()) {
+            @SuppressWarnings("unchecked")
+            T t = (T) canonical;
+            return t;
+        }
+
+        this.pool.put(value, new WeakReference<>(value));
+        return value;
+    }
+
+    public <T> List<T> internAll(Collection<T> values) {
+        return values.stream().map(this::intern).collect(Collectors.toList());
+    }
+
+    /**
+     * @return The number of values in the pool, some of which may have been garbage collected but not yet removed.
+     */
+    public synchronized int size() {
+        return this.pool.size();
+    }
+}
@@ -95,7 +95,7 @@ public class SectionSerializer implements Serializer<Section> {
         Optional.ofNullable(this.online).ifPresent(instance::setOnline);
         Optional.ofNullable(this.cancelled).ifPresent(instance::setCancelled);
 
-        Optional.ofNullable(this.notes).ifPresent(instance::addNotes);
+        Optional.ofNullable(this.notes).map(context.getInterner()::internAll).ifPresent(instance::addNotes);
 
         Optional.ofNullable(this.repeatingPeriods)
                 .ifPresent(rps -> rps.stream()
@@ -16,6 +16,7 @@ public class SerializerContext {
     @Getter private final School school;
     private final Map<String, Term> termMap = new HashMap<>();
     private final Map<String, Department> departmentMap = new HashMap<>();
+    @Getter private final Interner interner = new Interner();
 
     public static SerializerContext of(School school, Term[] terms, Department[] departments){
         return new SerializerContext(school, terms, departments);
@@ -27,9 +27,10 @@ public class OneTimePeriodSerializer extends PeriodSerializer implements Seriali
     public OneTimePeriod toInstance(SerializerContext context){
 
         OneTimePeriod instance = OneTimePeriod.of(context.getTerm(this.termId));
-        super.populateInstance(instance);
+        super.populateInstance(instance, context.getInterner());
 
-        Optional.ofNullable(this.dateTimeRange).ifPresent(instance::setDateTimeRange);
+        Optional.ofNullable(this.dateTimeRange).map(context.getInterner()::intern)
+                .ifPresent(instance::setDateTimeRange);
 
         return instance;
     }
@@ -3,6 +3,7 @@ package com.timetablegenerator.serializer.model.period;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.timetablegenerator.model.period.Period;
+import com.timetablegenerator.serializer.model.Interner;
 
 import java.util.List;
 import java.util.Optional;
@@ -26,13 +27,13 @@ class PeriodSerializer {
         this.online = instance.isOnline().orElse(null);
     }
 
-    void populateInstance(Period period){
+    void populateInstance(Period period, Interner interner){
 
-        Optional.ofNullable(this.supervisors).ifPresent(period::addSupervisors);
-        Optional.ofNullable(this.notes).ifPresent(period::addNotes);
+        Optional.ofNullable(this.supervisors).map(interner::internAll).ifPresent(period::addSupervisors);
+        Optional.ofNullable(this.notes).map(interner::internAll).ifPresent(period::addNotes);
 
-        Optional.ofNullable(this.campus).ifPresent(period::setCampus);
-        Optional.ofNullable(this.room).ifPresent(period::setRoom);
+        Optional.ofNullable(this.campus).map(interner::intern).ifPresent(period::setCampus);
+        Optional.ofNullable(this.room).map(interner::intern).ifPresent(period::setRoom);
         Optional.ofNullable(this.online).ifPresent(period::setOnline);
     }
 }
\ No newline at end of file
@@ -30,10 +30,12 @@ public class RepeatingPeriodSerializer extends PeriodSerializer implements Seria
     public RepeatingPeriod toInstance(SerializerContext context){
 
         RepeatingPeriod instance = RepeatingPeriod.of(context.getTerm(this.termId));
-        super.populateInstance(instance);
+        super.populateInstance(instance, context.getInterner());
 
-        Optional.ofNullable(this.dayTimeRange).ifPresent(instance::setDayTimeRange);
-        Optional.ofNullable(this.activeDateRange).ifPresent(instance::setActiveDateRange);
+        Optional.ofNullable(this.dayTimeRange).map(context.getInterner()::intern)
+                .ifPresent(instance::setDayTimeRange);
+        Optional.ofNullable(this.activeDateRange).map(context.getInterner()::intern)
+                .ifPresent(instance::setActiveDateRange);
 
         return instance;
     }
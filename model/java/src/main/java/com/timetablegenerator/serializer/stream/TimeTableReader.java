@@ -0,0 +1,238 @@
+package com.timetablegenerator.serializer.stream;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.SectionType;
+import com.timetablegenerator.model.Term;
+import com.timetablegenerator.serializer.model.SectionTypeSerializer;
+import com.timetablegenerator.serializer.model.SerializerContext;
+import com.timetablegenerator.serializer.model.TimeTableSerializer;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Reads the courses of a serialized timetable one at a time, handing each to a consumer as soon as its JSON object
+ * has been read, rather than deserializing the whole timetable into model serializers first as
+ * {@link TimeTableSerializer} does. Only a single course is held in memory at any time.
+ *
+ * Courses are read as {@link com.timetablegenerator.serializer.model.CourseSerializer} would read them and so do not
+ * have their cross-listings or requisites, which may refer to courses that have not been read yet.
+ */
+public final class TimeTableReader {
+
+    private final ObjectMapper objectMapper;
+    private final SerializerContext context;
+
+    private TimeTableReader(ObjectMapper objectMapper, SerializerContext context) {
+        this.objectMapper = objectMapper;
+        this.context = context;
+    }
+
+    public static TimeTableReader of(@NonNull SerializerContext context) {
+        return of(new ObjectMapper(), context);
+    }
+
+    public static TimeTableReader of(@NonNull ObjectMapper objectMapper, @NonNull SerializerContext context) {
+        return new TimeTableReader(objectMapper, context);
+    }
+
+    /**
+     * Reads every course of a serialized timetable. The stream is closed afterwards.
+     *
+     * @param in The stream to read from.
+     * @param consumer The consumer of courses, in the order they appear in the stream.
+     * @throws IOException If the stream could not be read or is not valid JSON.
+     * @throws IllegalStateException If a course is stored under an ID other than its own.
+     */
+    public void read(@NonNull InputStream in, @NonNull Consumer<Course> consumer) throws IOException {
+        this.read(in, x -> true, consumer);
+    }
+
+    /**
+     * Reads the courses of a serialized timetable that belong to the departments accepted by a filter. The rest of a
+     * course is skipped over without being deserialized as soon as its department is known to be filtered out. The
+     * stream is closed afterwards.
+     *
+     * @param in The stream to read from.
+     * @param departments The filter on department codes.
+     * @param consumer The consumer of courses, in the order they appear in the stream.
+     * @throws IOException If the stream could not be read or is not valid JSON.
+     * @throws IllegalStateException If a course is stored under an ID other than its own.
+     */
+    public void read(@NonNull InputStream in, @NonNull Predicate<String> departments,
+                     @NonNull Consumer<Course> consumer) throws IOException {
+
+        try (JsonParser parser = this.objectMapper.getFactory().createParser(in)) {
+
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if (!field.equals("courses") || value == JsonToken.VALUE_NULL) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                expect(parser, value, JsonToken.START_OBJECT);
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+                    String courseId = parser.getCurrentName();
+                    expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+                    Course course = this.readCourse(parser, departments);
+
+                    if (course != null) {
+                        if (!courseId.equals(course.getUniqueId())) {
+                            throw new IllegalStateException(
+                                    "Serialized time table has an invalid course ID -> course mapping: " +
+                                            courseId + " to " + course.getUniqueId());
+                        }
+                        consumer.accept(course);
+                    }
+                }
+            }
+        }
+    }
+
+    // Reads a course from its opening brace up to and including its closing brace, or returns null if it belongs to
+    // a department that is filtered out.
+    private Course readCourse(JsonParser parser, Predicate<String> departments) throws IOException {
+
+        String termId = null;
+        String departmentCode = null;
+        String code = null;
+        String name = null;
+        String description = null;
+        Double credits = null;
+        List<String> notes = null;
+        List<SectionType> sectionTypes = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                case "term":
+                    termId = parser.getText();
+                    break;
+                case "department":
+                    departmentCode = parser.getText();
+                    if (!departments.test(departmentCode)) {
+                        skipRemainder(parser);
+                        return null;
+                    }
+                    break;
+                case "code":
+                    code = parser.getText();
+                    break;
+                case "name":
+                    name = parser.getText();
+                    break;
+                case "description":
+                    description = parser.getText();
+                    break;
+                case "credits":
+                    credits = parser.getDoubleValue();
+                    break;
+                case "notes":
+                    notes = readStrings(parser);
+                    break;
+                case "sectionTypes":
+                    sectionTypes = this.readSectionTypes(parser);
+                    break;
+                default:
+                    // Relations can not be resolved until every course has been read.
+                    parser.skipChildren();
+            }
+        }
+
+        Term term = this.context.getTerm(termId);
+        Course course = Course.of(this.context.getSchool(), term, this.context.getDepartment(departmentCode),
+                code, name);
+
+        if (description != null) {
+            course.setDescription(description);
+        }
+        if (credits != null) {
+            course.setCredits(credits);
+        }
+        if (notes != null) {
+            course.addNotes(this.context.getInterner().internAll(notes));
+        }
+        if (sectionTypes != null) {
+            for (SectionType sectionType : sectionTypes) {
+                sectionType.getTerm().assertFallsWithin(term);
+                course.addSections(sectionType);
+            }
+        }
+
+        return course;
+    }
+
+    private List<SectionType> readSectionTypes(JsonParser parser) throws IOException {
+
+        expect(parser, parser.getCurrentToken(), JsonToken.START_OBJECT);
+        List<SectionType> sectionTypes = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+
+            String code = parser.getCurrentName();
+            parser.nextToken();
+
+            SectionType sectionType = this.objectMapper.readValue(parser, SectionTypeSerializer.class)
+                    .toInstance(this.context);
+
+            if (!code.equals(sectionType.getCode())) {
+                throw new IllegalStateException(
+                        "Serialized course has an invalid section type code -> section type: " +
+                                code + " to " + sectionType.getCode());
+            }
+            sectionTypes.add(sectionType);
+        }
+
+        return sectionTypes;
+    }
+
+    private static List<String> readStrings(JsonParser parser) throws IOException {
+
+        expect(parser, parser.getCurrentToken(), JsonToken.START_ARRAY);
+        List<String> values = new ArrayList<>();
+
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(parser.getText());
+        }
+        return values;
+    }
+
+    // Skips the rest of the object the parser is in, up to and including its closing brace.
+    private static void skipRemainder(JsonParser parser) throws IOException {
+        while (parser.nextToken() != JsonToken.END_OBJECT) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new JsonParseException(parser, "Expected " + expected + " but found " + actual);
+        }
+    }
+}
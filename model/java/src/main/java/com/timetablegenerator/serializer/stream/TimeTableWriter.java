@@ -0,0 +1,281 @@
+package com.timetablegenerator.serializer.stream;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.timetablegenerator.jfr.FlightEvent;
+import com.timetablegenerator.jfr.FlightEventType;
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.OneTimePeriod;
+import com.timetablegenerator.model.period.Period;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.serializer.model.TimeTableSerializer;
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Writes a timetable as JSON by walking the model directly, rather than first building a tree of model serializers
+ * for the whole timetable as {@link TimeTableSerializer} does. Memory use does not grow with the number of courses.
+ *
+ * The output is byte for byte what the object mapper writes for a {@link TimeTableSerializer} of the same
+ * timetable with properties and map entries sorted ({@link MapperFeature#SORT_PROPERTIES_ALPHABETICALLY} and
+ * {@link SerializationFeature#ORDER_MAP_ENTRIES_BY_KEYS}), which this writer always enables. Like the model
+ * serializers, course notes are not written.
+ */
+public final class TimeTableWriter {
+
+    private static final DateTimeFormatter TIME_STAMP_FORMAT = DateTimeFormatter.ISO_INSTANT;
+
+    private static final FlightEventType WRITE_EVENT = FlightEventType
+            .builder("com.timetablegenerator.TimeTableWrite", "Timetable Write")
+            .withDescription("Writing a timetable as JSON")
+            .withSubcategory("Model")
+            .withStringField("school", "School")
+            .withStringField("term", "Term")
+            .withLongField("courses", "Courses")
+            .build();
+
+    private final ObjectMapper objectMapper;
+
+    private TimeTableWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public static TimeTableWriter of() {
+        return of(new ObjectMapper());
+    }
+
+    /**
+     * @param objectMapper The object mapper to take the output configuration (e.g. indentation) from. The mapper is
+     *                     copied and left unmodified.
+     * @return A writer using the object mapper's configuration.
+     */
+    public static TimeTableWriter of(@NonNull ObjectMapper objectMapper) {
+        return new TimeTableWriter(objectMapper.copy()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true)
+                .configure(SerializationFeature.FLUSH_AFTER_WRITE_VALUE, false));
+    }
+
+    /**
+     * Writes a timetable to a stream, which is closed afterwards as {@link ObjectMapper#writeValue(OutputStream,
+     * Object)} would.
+     *
+     * @param timeTable The timetable to write.
+     * @param out The stream to write to.
+     * @throws IOException If the stream could not be written to.
+     */
+    public void write(@NonNull TimeTable timeTable, @NonNull OutputStream out) throws IOException {
+        try (JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            this.objectMapper.getSerializationConfig().initialize(generator);
+            this.write(timeTable, generator);
+        }
+    }
+
+    /**
+     * Writes a timetable to a generator, which is left open.
+     *
+     * @param timeTable The timetable to write.
+     * @param generator The generator to write to.
+     * @throws IOException If the generator could not be written to.
+     */
+    public void write(@NonNull TimeTable timeTable, @NonNull JsonGenerator generator) throws IOException {
+
+        FlightEvent event = WRITE_EVENT.begin();
+
+        generator.writeStartObject();
+
+        // Courses are held in a sorted map, so they already come out in key order.
+        generator.writeObjectFieldStart("courses");
+        for (Course course : timeTable.getCourses()) {
+            generator.writeFieldName(course.getUniqueId());
+            this.writeCourse(course, generator);
+        }
+        generator.writeEndObject();
+
+        generator.writeStringField("lastUpdate", timeTable.getLastUpdate().format(TIME_STAMP_FORMAT));
+        generator.writeStringField("term", timeTable.getTerm().getUniqueId());
+
+        generator.writeEndObject();
+
+        if (event.isRecorded()) {
+            event.set("school", timeTable.getSchool().getId())
+                    .set("term", timeTable.getTerm().getUniqueId())
+                    .set("courses", timeTable.getCourses().size())
+                    .commit();
+        }
+    }
+
+    private void writeCourse(Course course, JsonGenerator generator) throws IOException {
+
+        generator.writeStartObject();
+
+        writeCourseIds(generator, "antirequisites", course.getAntirequisites());
+        writeNonEmpty(generator, "code", course.getCode());
+        writeCourseIds(generator, "corequisites", course.getCorequisites());
+        if (course.getCredits().isPresent()) {
+            generator.writeNumberField("credits", course.getCredits().get());
+        }
+        writeCourseIds(generator, "crossListings", course.getCrossListings());
+        writeNonEmpty(generator, "department", course.getDepartment().getCode());
+        writeNonEmpty(generator, "description", course.getDescription().orElse(null));
+        writeNonEmpty(generator, "name", course.getName());
+        writeCourseIds(generator, "prerequisites", course.getPrerequisites());
+
+        Collection<String> sectionTypes = course.getSectionTypes();
+        if (!sectionTypes.isEmpty()) {
+            generator.writeObjectFieldStart("sectionTypes");
+            for (String code : new TreeSet<>(sectionTypes)) {
+                generator.writeFieldName(code);
+                this.writeSectionType(course.getSectionType(code).orElseThrow(IllegalStateException::new),
+                        generator);
+            }
+            generator.writeEndObject();
+        }
+
+        writeNonEmpty(generator, "term", course.getTerm().getUniqueId());
+
+        generator.writeEndObject();
+    }
+
+    private void writeSectionType(SectionType sectionType, JsonGenerator generator) throws IOException {
+
+        generator.writeStartObject();
+
+        if (sectionType.getCode() != null) {
+            generator.writeStringField("code", sectionType.getCode());
+        }
+        if (sectionType.getName() != null) {
+            generator.writeStringField("name", sectionType.getName());
+        }
+
+        // Sections are held in a sorted map, so they already come out in key order.
+        generator.writeObjectFieldStart("sections");
+        for (Section section : sectionType.getSections()) {
+            generator.writeFieldName(section.getId());
+            this.writeSection(section, generator);
+        }
+        generator.writeEndObject();
+
+        generator.writeStringField("term", sectionType.getTerm().getUniqueId());
+
+        generator.writeEndObject();
+    }
+
+    private void writeSection(Section section, JsonGenerator generator) throws IOException {
+
+        generator.writeStartObject();
+
+        writeBoolean(generator, "cancelled", section.isCancelled().orElse(null));
+        writeCount(generator, "enrolled", section.getEnrollmentOrDefault(-1));
+        writeBoolean(generator, "full", section.isFull().orElse(null));
+        writeNonEmpty(generator, "groupId", section.getGroupId().orElse(null));
+        writeNonEmpty(generator, "id", section.getId());
+        writeCount(generator, "maxEnrollment", section.getMaxEnrollmentOrDefault(-1));
+        writeCount(generator, "maxWaitingNum", section.getMaxWaitingOrDefault(-1));
+        writeStrings(generator, "notes", section.getNotes());
+
+        Collection<OneTimePeriod> oneTimePeriods = section.getOneTimePeriods();
+        if (!oneTimePeriods.isEmpty()) {
+            generator.writeArrayFieldStart("oneTimePeriods");
+            for (OneTimePeriod period : oneTimePeriods) {
+                generator.writeStartObject();
+                this.writePeriod(period, generator);
+                writeNonEmpty(generator, "term", period.getTerm().getUniqueId());
+                this.writeRange(generator, "times", period.getDateTimeRange().orElse(null));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+
+        writeBoolean(generator, "online", section.isOnline().orElse(null));
+
+        Collection<RepeatingPeriod> repeatingPeriods = section.getRepeatingPeriods();
+        if (!repeatingPeriods.isEmpty()) {
+            generator.writeArrayFieldStart("repeatingPeriods");
+            for (RepeatingPeriod period : repeatingPeriods) {
+                generator.writeStartObject();
+                this.writeRange(generator, "activeDates", period.getActiveDateRange().orElse(null));
+                this.writePeriod(period, generator);
+                writeNonEmpty(generator, "term", period.getTerm().getUniqueId());
+                this.writeRange(generator, "times", period.getDayTimeRange().orElse(null));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+
+        writeNonEmpty(generator, "serial", section.getSerialNumber().orElse(null));
+        writeNonEmpty(generator, "term", section.getTerm().getUniqueId());
+        writeBoolean(generator, "waitingList", section.hasWaitingList().orElse(null));
+        writeCount(generator, "waitingNum", section.getWaitingOrDefault(-1));
+
+        generator.writeEndObject();
+    }
+
+    // Writes the properties common to all periods up to, but not including, the term.
+    private void writePeriod(Period period, JsonGenerator generator) throws IOException {
+        writeNonEmpty(generator, "campus", period.getCampus().orElse(null));
+        writeStrings(generator, "notes", period.getNotes());
+        writeBoolean(generator, "online", period.isOnline().orElse(null));
+        writeNonEmpty(generator, "room", period.getRoom().orElse(null));
+        writeStrings(generator, "supervisors", period.getSupervisors());
+    }
+
+    // Ranges are small, fixed-size values and are left to the object mapper so that their format is defined in one
+    // place only.
+    private void writeRange(JsonGenerator generator, String name, Object range) throws IOException {
+        if (range != null) {
+            generator.writeFieldName(name);
+            this.objectMapper.writeValue(generator, range);
+        }
+    }
+
+    private static void writeCourseIds(JsonGenerator generator, String name, Map<String, Course> courses)
+            throws IOException {
+        if (!courses.isEmpty()) {
+            generator.writeArrayFieldStart(name);
+            for (Course course : courses.values()) {
+                generator.writeString(course.getUniqueId());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void writeStrings(JsonGenerator generator, String name, Collection<String> values)
+            throws IOException {
+        if (!values.isEmpty()) {
+            generator.writeArrayFieldStart(name);
+            for (String value : values) {
+                generator.writeString(value);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static void writeNonEmpty(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            generator.writeStringField(name, value);
+        }
+    }
+
+    private static void writeBoolean(JsonGenerator generator, String name, Boolean value) throws IOException {
+        if (value != null) {
+            generator.writeBooleanField(name, value);
+        }
+    }
+
+    // Counts are never negative, so a negative count is one that is not known.
+    private static void writeCount(JsonGenerator generator, String name, int value) throws IOException {
+        if (value >= 0) {
+            generator.writeNumberField(name, value);
+        }
+    }
+}
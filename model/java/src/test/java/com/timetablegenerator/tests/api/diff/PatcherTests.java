@@ -0,0 +1,169 @@
+package com.timetablegenerator.tests.api.diff;
+
+import com.timetablegenerator.delta.Patcher;
+import com.timetablegenerator.delta.PropertyType;
+import com.timetablegenerator.delta.StructureDelta;
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.OneTimePeriod;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DateTimeRange;
+import com.timetablegenerator.model.range.DayTimeRange;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class PatcherTests {
+
+    private Term term = TermDefinition.builder("fall", "Fall", 1)
+            .withSubterm(TermDefinition.builder("fall_fq", "Fall First Quarter", 1).build())
+            .build().createForYear(2016);
+    private Term term_fq = term.getSubterm("fall_fq");
+
+    private School school;
+    private Department department = Department.of("DA", "Department A");
+
+    @Before
+    public void setUp() {
+        school = School.builder("test_id", "test_name")
+                .withSection("LEC", "Lecture")
+                .withSection("TUT", "Tutorial")
+                .withSection("LAB", "Laboratory").build();
+    }
+
+    private Section section(String id, int enrollment, String room, DayOfWeek day) {
+        return Section.of(this.term, id)
+                .setMaximumEnrollment(100)
+                .setEnrollment(enrollment)
+                .addPeriod(RepeatingPeriod.of(this.term)
+                        .setDayTimeRange(DayTimeRange.of(day, LocalTime.of(9, 0), LocalTime.of(10, 0)))
+                        .setRoom(room)
+                        .addSupervisors("Supervisor " + room));
+    }
+
+    private TimeTable base() {
+
+        TimeTable tt = TimeTable.of(this.school, this.term);
+
+        Course c1 = Course.of(this.school, this.term, this.department, "C1", "Course 1")
+                .setDescription("Description").setCredits(3.0).addNotes("Note A", "Note B")
+                .addSection("LEC", section("L1", 50, "R1", DayOfWeek.MONDAY))
+                .addSection("LEC", section("L2", 60, "R2", DayOfWeek.TUESDAY))
+                .addSection("TUT", section("T1", 20, "R3", DayOfWeek.WEDNESDAY));
+        Course c2 = Course.of(this.school, this.term, this.department, "C2", "Course 2")
+                .addSection("LEC", section("L1", 10, "R4", DayOfWeek.MONDAY));
+        Course c3 = Course.of(this.school, this.term_fq, this.department, "C3", "Course 3")
+                .addSection("LEC", Section.of(this.term_fq, "L1")
+                        .addPeriod(OneTimePeriod.of(this.term_fq)
+                                .setDateTimeRange(DateTimeRange.of(LocalDateTime.of(2016, 12, 1, 9, 0),
+                                        LocalDateTime.of(2016, 12, 1, 12, 0)))));
+
+        c1.addPrerequisite(c2);
+
+        return tt.addCourse(c1).addCourse(c2).addCourse(c3);
+    }
+
+    private static void assertSameCourses(TimeTable expected, TimeTable actual) {
+        assertEquals(new ArrayList<>(expected.getCourses()), new ArrayList<>(actual.getCourses()));
+    }
+
+    @Test
+    public void roundTrip() {
+
+        TimeTable tt1 = this.base();
+        TimeTable tt2 = this.base();
+
+        Course c1 = tt2.getCourse("DAC1fall").get();
+        c1.setDescription("New description").setCredits(4.0).addNotes("Note C");
+        c1.getSectionType("LEC").get().getSection("L1").get()
+                .setEnrollment(100)
+                .setCancelled(true)
+                .addNotes("Section note");
+        c1.getSectionType("LEC").get().getSection("L2").get().getRepeatingPeriods()
+                .forEach(x -> x.setCampus("Campus").addSupervisors("Supervisor 2"));
+        c1.addSection("LAB", section("B1", 5, "R5", DayOfWeek.FRIDAY));
+        c1.getSectionType("TUT").get().addSection(section("T2", 0, "R6", DayOfWeek.THURSDAY));
+
+        tt2.getCourse("DAC3fall_fq").get().getSectionType("LEC").get().getSection("L1").get()
+                .getOneTimePeriods().forEach(x -> x.setRoom("Exam hall"));
+        tt2.addCourse(Course.of(this.school, this.term, this.department, "C4", "Course 4"));
+
+        StructureDelta delta = tt1.findDifferences(tt2);
+        TimeTable patched = Patcher.apply(tt1, delta);
+
+        assertSameCourses(tt2, patched);
+        assertFalse(patched.findDifferences(tt2).hasChanges());
+
+        // Only courses named in the delta are rebuilt.
+        assertSame(tt1.getCourse("DAC2fall").get(), patched.getCourse("DAC2fall").get());
+        assertNotSame(tt1.getCourse("DAC1fall").get(), patched.getCourse("DAC1fall").get());
+        assertSame(patched.getCourse("DAC2fall").get(),
+                patched.getCourse("DAC1fall").get().getPrerequisites().get("DAC2fall"));
+        assertSame(tt1.getCourse("DAC1fall").get().getSectionType("TUT").get().getSection("T1").get(),
+                patched.getCourse("DAC1fall").get().getSectionType("TUT").get().getSection("T1").get());
+
+        // The base timetable is left untouched.
+        assertSameCourses(this.base(), tt1);
+    }
+
+    @Test
+    public void removals() {
+
+        TimeTable tt1 = this.base();
+        TimeTable tt2 = TimeTable.of(this.school, this.term);
+
+        Course c1 = Course.of(this.school, this.term, this.department, "C1", "Renamed")
+                .addNotes("Note A")
+                .addSection("LEC", section("L1", 50, "R1", DayOfWeek.MONDAY));
+        tt2.addCourse(c1).addCourse(tt1.getCourse("DAC3fall_fq").get());
+
+        assertSameCourses(tt2, Patcher.apply(tt1, tt1.findDifferences(tt2)));
+        assertSameCourses(tt1, Patcher.apply(tt2, tt2.findDifferences(tt1)));
+    }
+
+    @Test
+    public void parallelDelta() {
+
+        TimeTable tt1 = this.base();
+        TimeTable tt2 = this.base();
+
+        tt2.getCourse("DAC2fall").get().getSectionType("LEC").get().getSection("L1").get().setEnrollment(11);
+
+        assertSameCourses(tt2, Patcher.apply(tt1, tt1.findDifferences(tt2, true)));
+    }
+
+    @Test
+    public void emptyDelta() {
+        TimeTable tt = this.base();
+        assertSameCourses(tt, Patcher.apply(tt, StructureDelta.of(PropertyType.TIMETABLE, tt)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void wrongTimeTable() {
+        TimeTable tt = this.base();
+        TimeTable other = TimeTable.of(this.school, this.term_fq);
+        Patcher.apply(tt, StructureDelta.of(PropertyType.TIMETABLE, other));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingCourse() {
+        TimeTable tt = this.base();
+        Course course = Course.of(this.school, this.term, this.department, "C9", "Course 9");
+        Patcher.apply(tt, StructureDelta.of(PropertyType.TIMETABLE, tt).addRemoved(PropertyType.COURSE, course));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void conflictingValue() {
+
+        TimeTable tt = this.base();
+        StructureDelta courseDelta = StructureDelta.of(PropertyType.COURSE, tt.getCourse("DAC1fall").get())
+                .addValueIfChanged(PropertyType.CREDITS, 1.0, 2.0);
+
+        Patcher.apply(tt, StructureDelta.of(PropertyType.TIMETABLE, tt).addSubstructureChange(courseDelta));
+    }
+}
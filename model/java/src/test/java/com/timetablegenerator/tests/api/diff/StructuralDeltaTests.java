@@ -7,6 +7,10 @@ import com.timetablegenerator.model.period.RepeatingPeriod;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Optional;
+
 import static org.junit.Assert.*;
 import static org.hamcrest.Matchers.*;
 
@@ -234,6 +238,43 @@ public class StructuralDeltaTests {
         );
     }
 
+    @Test
+    public void indexedChanges() {
+
+        StructureDelta a = StructureDelta.of(PropertyType.SECTION, Section.of(this.term, "A"));
+        StructureDelta b = StructureDelta.of(PropertyType.SECTION, Section.of(this.term, "B"));
+        StructureDelta p = StructureDelta.of(PropertyType.REPEATING_PERIOD, this.rp2);
+
+        this.scd.addSubstructureChange(b).addSubstructureChange(p).addSubstructureChange(a);
+        this.scd.addAdded(PropertyType.NOTE, "B").addAdded(PropertyType.NAME, "Name").addAdded(PropertyType.NOTE, "A");
+
+        assertEquals(Arrays.asList(b, a), new ArrayList<>(this.scd.getSubstructureChanges(PropertyType.SECTION)));
+        assertEquals(Arrays.asList(b, a, p), new ArrayList<>(this.scd.getSubstructureChanges()));
+        assertEquals(Optional.of(a), this.scd.getSubstructureChange(PropertyType.SECTION, "A"));
+        assertEquals(Optional.empty(), this.scd.getSubstructureChange(PropertyType.SECTION, "C"));
+        assertEquals(Optional.empty(), this.scd.getSubstructureChange(PropertyType.COURSE, "A"));
+        assertTrue(this.scd.getSubstructureChanges(PropertyType.COURSE).isEmpty());
+
+        assertEquals(Arrays.asList(AdditionDelta.of(PropertyType.NOTE, "B"), AdditionDelta.of(PropertyType.NOTE, "A")),
+                new ArrayList<>(this.scd.getValueChanges(PropertyType.NOTE)));
+        assertEquals(AdditionDelta.of(PropertyType.NAME, "Name"), this.scd.getValueChanges().iterator().next());
+        assertTrue(this.scd.getValueChanges(PropertyType.CREDITS).isEmpty());
+
+        // Equality does not depend on the order changes were recorded in.
+        StructureDelta other = StructureDelta.of(PropertyType.REPEATING_PERIOD, this.rp1)
+                .addSubstructureChange(p).addSubstructureChange(a).addSubstructureChange(b)
+                .addAdded(PropertyType.NOTE, "A").addAdded(PropertyType.NOTE, "B").addAdded(PropertyType.NAME, "Name");
+
+        assertEquals(other, this.scd);
+        assertEquals(other.hashCode(), this.scd.hashCode());
+    }
+
+    @Test
+    public void duplicateValueChanges() {
+        this.scd.addAdded(PropertyType.NOTE, "A").addAdded(PropertyType.NOTE, "A");
+        assertEquals(1, this.scd.getValueChanges().size());
+    }
+
     @Test
     public void anyChanges(){
         assertFalse(this.scd.hasChanges());
@@ -304,8 +345,8 @@ public class StructuralDeltaTests {
                 "        ADDED [SUPERVISOR] (value = My Supervisor 2)\n" +
                 "        REMOVED [NOTE] (value = My Note)\n" +
                 "        REPLACED [CREDITS]\n" +
-                "            Old value : \"4.343\"\n" +
-                "            New value : \"2.32\"\n" +
+                "            Old value : \"2.32\"\n" +
+                "            New value : \"4.343\"\n" +
                 "\n" +
                 "    Substructure changes:\n" +
                 "\n" +
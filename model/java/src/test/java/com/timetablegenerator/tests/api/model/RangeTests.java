@@ -12,6 +12,8 @@ import java.time.LocalTime;
 import java.time.temporal.ChronoUnit;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertThat;
 
@@ -47,6 +49,19 @@ public class RangeTests {
         assertThat(dr3.compareTo(dr1), lessThan(0));
     }
 
+    @Test
+    public void dateRangeOverlap() {
+        DateRange dr1 = DateRange.of(LocalDate.of(2016, 9, 1), LocalDate.of(2016, 10, 15));
+        DateRange dr2 = DateRange.of(LocalDate.of(2016, 10, 15), LocalDate.of(2016, 12, 1));
+        DateRange dr3 = DateRange.of(LocalDate.of(2016, 10, 16), LocalDate.of(2016, 12, 1));
+
+        assertTrue(dr1.overlaps(dr1));
+        assertTrue(dr1.overlaps(dr2));
+        assertTrue(dr2.overlaps(dr1));
+        assertFalse(dr1.overlaps(dr3));
+        assertFalse(dr3.overlaps(dr1));
+    }
+
     @Test
     public void dateRangeString() {
         DateRange dr = DateRange.of(LocalDate.of(2015, 8, 9), LocalDate.of(2016, 9, 12));
@@ -117,6 +132,26 @@ public class RangeTests {
         assertThat(dtr4.compareTo(dtr1), greaterThan(0));
     }
 
+    @Test
+    public void dayTimeRangeOverlap() {
+        DayTimeRange dtr1 = DayTimeRange.of(DayOfWeek.MONDAY, LocalTime.of(10, 30), LocalTime.of(11, 20));
+        DayTimeRange dtr2 = DayTimeRange.of(DayOfWeek.MONDAY, LocalTime.of(11, 0), LocalTime.of(12, 0));
+        DayTimeRange dtr3 = DayTimeRange.of(DayOfWeek.MONDAY, LocalTime.of(11, 20), LocalTime.of(12, 0));
+        DayTimeRange dtr4 = DayTimeRange.of(DayOfWeek.TUESDAY, LocalTime.of(10, 30), LocalTime.of(11, 20));
+
+        assertTrue(dtr1.overlaps(dtr1));
+        assertTrue(dtr1.overlaps(dtr2));
+        assertTrue(dtr2.overlaps(dtr1));
+        assertTrue(dtr2.overlaps(dtr3));
+
+        // Back to back periods do not overlap.
+        assertFalse(dtr1.overlaps(dtr3));
+        assertFalse(dtr3.overlaps(dtr1));
+
+        // Same time on different days.
+        assertFalse(dtr1.overlaps(dtr4));
+    }
+
     @Test
     public void dayTimeRangeString() {
         DayTimeRange dr = DayTimeRange.of(DayOfWeek.MONDAY, LocalTime.of(11, 25), LocalTime.of(23, 42));
@@ -184,6 +184,45 @@ public class SectionTests {
         assertThat(s1.getMaxWaiting().orElse(-1), greaterThan(s1.getWaiting().orElse(-1)));
     }
 
+    @Test
+    public void defaultAccessors() {
+
+        // Nothing is known yet, so the defaults come back.
+        assertEquals(-1, s1.getEnrollmentOrDefault(-1));
+        assertEquals(-1, s1.getMaxEnrollmentOrDefault(-1));
+        assertEquals(-1, s1.getWaitingOrDefault(-1));
+        assertEquals(-1, s1.getMaxWaitingOrDefault(-1));
+        assertTrue(s1.isFullOrDefault(true));
+        assertTrue(s1.hasWaitingListOrDefault(true));
+        assertTrue(s1.isCancelledOrDefault(true));
+        assertTrue(s1.isOnlineOrDefault(true));
+
+        s1.setMaximumEnrollment(30).setEnrollment(0).setMaximumWaiting(10).setWaiting(5)
+                .setCancelled(false).setOnline(true);
+
+        assertEquals(0, s1.getEnrollmentOrDefault(-1));
+        assertEquals(30, s1.getMaxEnrollmentOrDefault(-1));
+        assertEquals(5, s1.getWaitingOrDefault(-1));
+        assertEquals(10, s1.getMaxWaitingOrDefault(-1));
+        assertFalse(s1.isFullOrDefault(true));
+        assertTrue(s1.hasWaitingListOrDefault(false));
+        assertFalse(s1.isCancelledOrDefault(true));
+        assertTrue(s1.isOnlineOrDefault(false));
+    }
+
+    @Test
+    public void clearedNumbersAreForgotten() {
+
+        s1.setWaitingList(false);
+        s2.setMaximumWaiting(10).setWaiting(5).setWaitingList(false);
+
+        assertFalse(s2.getWaiting().isPresent());
+        assertFalse(s2.getMaxWaiting().isPresent());
+        assertEquals(s1, s2);
+        assertEquals(s1.hashCode(), s2.hashCode());
+        assertFalse(s1.findDifferences(s2).hasChanges());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void waitingListOverflow() {
 
@@ -187,6 +187,89 @@ public class TimeTableTests {
                         .addAdded(PropertyType.COURSE, c1b)
                         .addSubstructureChange(c3a.findDifferences(c3b)),
                 tt1.findDifferences(tt2));
+        assertEquals(tt1.findDifferences(tt2), tt1.findDifferences(tt2, true));
+    }
+
+    private Course parallelDiffCourse(Department d, int i, int variant) {
+
+        Course c = Course.of(this.school, this.term, d, "C" + i, "Course " + i);
+
+        for (int j = 0; j < 3; j++) {
+            Section s = Section.of(this.term, "S" + j)
+                    .setMaximumEnrollment(100)
+                    .setEnrollment(i % 7 == 0 && j == 1 ? 50 + variant : 50)
+                    .addPeriod(RepeatingPeriod.of(this.term)
+                            .setDayTimeRange(DayTimeRange.of(DayOfWeek.of(j + 1),
+                                    LocalTime.of(i % 11 == 0 ? 9 + variant : 9, 0), LocalTime.of(12, 0)))
+                            .setRoom("R" + j));
+            if (i % 13 == 0 && variant == 1) {
+                s.addNotes("Note");
+            }
+            c.addSection(j == 2 ? "B" : "A", s);
+        }
+        if (i % 17 == 0 && variant == 1) {
+            c.setDescription("Description");
+        }
+        return c;
+    }
+
+    @Test
+    public void parallelDiff() {
+
+        Department d = Department.of("DA", "Department A");
+
+        TimeTable tt1 = TimeTable.of(this.school, this.term);
+        TimeTable tt2 = TimeTable.of(this.school, this.term);
+
+        for (int i = 1; i < 200; i++) {
+            if (i % 19 != 0) {
+                tt1.addCourse(this.parallelDiffCourse(d, i, 0));
+            }
+            if (i % 23 != 0) {
+                tt2.addCourse(this.parallelDiffCourse(d, i, 1));
+            }
+        }
+
+        // Relations only compare courses by ID, but a changed related course still makes a course unequal.
+        tt1.getCourse("DAC1fall").get().addPrerequisite(tt1.getCourse("DAC7fall").get());
+        tt2.getCourse("DAC1fall").get().addPrerequisite(tt2.getCourse("DAC7fall").get());
+
+        StructureDelta expected = tt1.findDifferences(tt2);
+
+        assertTrue(expected.getSubstructureChanges().stream()
+                .anyMatch(x -> x.getIdentifier().equals("DAC7fall") && x.hasSubstructureChanges()));
+        assertTrue(expected.getSubstructureChanges().stream()
+                .anyMatch(x -> x.getIdentifier().equals("DAC1fall") && !x.hasChanges()));
+        assertEquals(expected, tt1.findDifferences(tt2, true));
+        assertEquals(tt2.findDifferences(tt1), tt2.findDifferences(tt1, true));
+        assertFalse(tt1.findDifferences(tt1, true).hasChanges());
+    }
+
+    @Test
+    public void parallelDiffMutualRelations() {
+
+        Department d = Department.of("DA", "Department A");
+
+        TimeTable tt1 = TimeTable.of(this.school, this.term);
+        TimeTable tt2 = TimeTable.of(this.school, this.term);
+
+        for (TimeTable tt : Arrays.asList(tt1, tt2)) {
+
+            int variant = tt == tt1 ? 0 : 1;
+
+            Course c1 = this.parallelDiffCourse(d, 17, variant);
+            Course c2 = this.parallelDiffCourse(d, 34, variant);
+            Course c3 = this.parallelDiffCourse(d, 1, variant);
+
+            c1.addAntirequisite(c2);
+            c2.addAntirequisite(c1);
+            tt.addCourse(c1).addCourse(c2).addCourse(c3);
+        }
+
+        StructureDelta expected = tt1.findDifferences(tt2);
+
+        assertEquals(2, expected.getSubstructureChanges().size());
+        assertEquals(expected, tt1.findDifferences(tt2, true));
     }
 
     @Test
@@ -0,0 +1,202 @@
+package com.timetablegenerator.tests.api.schedule;
+
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.OneTimePeriod;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DateRange;
+import com.timetablegenerator.model.range.DateTimeRange;
+import com.timetablegenerator.model.range.DayTimeRange;
+import com.timetablegenerator.schedule.ConflictEngine;
+import com.timetablegenerator.schedule.Schedule;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ConflictEngineTests {
+
+    private Term term = TermDefinition.builder("fall", "Fall", 1)
+            .withSubterm(TermDefinition.builder("fall_fq", "Fall First Quarter", 1).build())
+            .withSubterm(TermDefinition.builder("fall_sq", "Fall Second Quarter", 1).build())
+            .build().createForYear(2016);
+    private Term term_fq = term.getSubterm("fall_fq");
+    private Term term_sq = term.getSubterm("fall_sq");
+
+    private School school;
+    private Department department = Department.of("DEP", "Department");
+
+    @Before
+    public void setUp() {
+        school = School.builder("test_id", "test_name")
+                .withSection("LEC", "Lecture")
+                .withSection("TUT", "Tutorial").build();
+    }
+
+    private Section section(Term term, String id, DayOfWeek day, int startHour, int endHour) {
+        return Section.of(term, id).addPeriod(RepeatingPeriod.of(term)
+                .setDayTimeRange(DayTimeRange.of(day, LocalTime.of(startHour, 0), LocalTime.of(endHour, 0))));
+    }
+
+    @Test
+    public void conflicts() {
+
+        Section a = section(this.term, "A", DayOfWeek.MONDAY, 9, 11);
+        Section b = section(this.term, "B", DayOfWeek.MONDAY, 10, 12);
+        Section c = section(this.term, "C", DayOfWeek.MONDAY, 11, 12);
+        Section d = section(this.term, "D", DayOfWeek.TUESDAY, 9, 11);
+
+        Course c1 = Course.of(this.school, this.term, this.department, "C1", "Course 1")
+                .addSection("LEC", a).addSection("LEC", b);
+        Course c2 = Course.of(this.school, this.term, this.department, "C2", "Course 2")
+                .addSection("LEC", c).addSection("LEC", d);
+
+        ConflictEngine engine = ConflictEngine.of(Arrays.asList(c1, c2));
+
+        assertTrue(engine.conflicts(a, b));
+        assertTrue(engine.conflicts(b, a));
+        assertTrue(engine.conflicts(b, c));
+        assertFalse(engine.conflicts(a, c));
+        assertFalse(engine.conflicts(a, d));
+        assertFalse(engine.conflicts(a, a));
+    }
+
+    @Test
+    public void subtermConflicts() {
+
+        Section full = section(this.term, "FULL", DayOfWeek.MONDAY, 9, 10);
+        Section first = section(this.term_fq, "FIRST", DayOfWeek.MONDAY, 9, 10);
+        Section second = section(this.term_sq, "SECOND", DayOfWeek.MONDAY, 9, 10);
+
+        Course c1 = Course.of(this.school, this.term, this.department, "C1", "Course 1").addSection("LEC", full);
+        Course c2 = Course.of(this.school, this.term_fq, this.department, "C2", "Course 2").addSection("LEC", first);
+        Course c3 = Course.of(this.school, this.term_sq, this.department, "C3", "Course 3").addSection("LEC", second);
+
+        ConflictEngine engine = ConflictEngine.of(Arrays.asList(c1, c2, c3));
+
+        assertTrue(engine.conflicts(full, first));
+        assertTrue(engine.conflicts(full, second));
+        assertFalse(engine.conflicts(first, second));
+    }
+
+    @Test
+    public void activeDateRangeConflicts() {
+
+        DateRange september = DateRange.of(LocalDate.of(2016, 9, 1), LocalDate.of(2016, 9, 30));
+        DateRange october = DateRange.of(LocalDate.of(2016, 10, 1), LocalDate.of(2016, 10, 31));
+
+        Section a = Section.of(this.term, "A").addPeriod(RepeatingPeriod.of(this.term)
+                .setDayTimeRange(DayTimeRange.of(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0)))
+                .setActiveDateRange(september));
+        Section b = Section.of(this.term, "B").addPeriod(RepeatingPeriod.of(this.term)
+                .setDayTimeRange(DayTimeRange.of(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0)))
+                .setActiveDateRange(october));
+        Section c = section(this.term, "C", DayOfWeek.MONDAY, 9, 10);
+
+        Course c1 = Course.of(this.school, this.term, this.department, "C1", "Course 1")
+                .addSection("LEC", a).addSection("TUT", b);
+        Course c2 = Course.of(this.school, this.term, this.department, "C2", "Course 2").addSection("LEC", c);
+
+        ConflictEngine engine = ConflictEngine.of(Arrays.asList(c1, c2));
+
+        assertFalse(engine.conflicts(a, b));
+        assertTrue(engine.conflicts(a, c));
+        assertTrue(engine.conflicts(b, c));
+    }
+
+    @Test
+    public void unscheduledPeriodsNeverConflict() {
+
+        Section a = Section.of(this.term, "A")
+                .addPeriod(RepeatingPeriod.of(this.term))
+                .addPeriod(OneTimePeriod.of(this.term).setDateTimeRange(
+                        DateTimeRange.of(LocalDateTime.of(2016, 12, 1, 9, 0), LocalDateTime.of(2016, 12, 1, 12, 0))));
+        Section b = Section.of(this.term, "B")
+                .addPeriod(RepeatingPeriod.of(this.term))
+                .addPeriod(OneTimePeriod.of(this.term).setDateTimeRange(
+                        DateTimeRange.of(LocalDateTime.of(2016, 12, 1, 9, 0), LocalDateTime.of(2016, 12, 1, 12, 0))));
+
+        Course c1 = Course.of(this.school, this.term, this.department, "C1", "Course 1").addSection("LEC", a);
+        Course c2 = Course.of(this.school, this.term, this.department, "C2", "Course 2").addSection("LEC", b);
+
+        ConflictEngine engine = ConflictEngine.of(Arrays.asList(c1, c2));
+
+        assertFalse(engine.conflicts(a, b));
+        assertEquals(1, engine.findSchedules().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownSection() {
+        Section a = section(this.term, "A", DayOfWeek.MONDAY, 9, 11);
+        Course c1 = Course.of(this.school, this.term, this.department, "C1", "Course 1").addSection("LEC", a);
+        ConflictEngine.of(Collections.singletonList(c1)).conflicts(a, section(this.term, "A", DayOfWeek.MONDAY, 9, 11));
+    }
+
+    @Test
+    public void schedules() {
+
+        Section c1l1 = section(this.term, "L1", DayOfWeek.MONDAY, 9, 10);
+        Section c1l2 = section(this.term, "L2", DayOfWeek.MONDAY, 10, 11);
+        Section c1t1 = section(this.term, "T1", DayOfWeek.TUESDAY, 9, 10);
+        Section c1t2 = section(this.term, "T2", DayOfWeek.WEDNESDAY, 9, 10);
+        Section c2l1 = section(this.term, "L1", DayOfWeek.MONDAY, 9, 10);
+        Section c2t1 = section(this.term, "T1", DayOfWeek.WEDNESDAY, 9, 10);
+
+        Course c1 = Course.of(this.school, this.term, this.department, "C1", "Course 1")
+                .addSection("LEC", c1l1).addSection("LEC", c1l2)
+                .addSection("TUT", c1t1).addSection("TUT", c1t2);
+        Course c2 = Course.of(this.school, this.term, this.department, "C2", "Course 2")
+                .addSection("LEC", c2l1).addSection("TUT", c2t1);
+
+        List<Schedule> schedules = ConflictEngine.of(Arrays.asList(c1, c2)).findSchedules();
+
+        assertEquals(1, schedules.size());
+
+        Schedule schedule = schedules.get(0);
+
+        assertEquals(4, schedule.getSections().size());
+        assertSame(c1l2, schedule.getSection(c1, "LEC").orElse(null));
+        assertSame(c1t1, schedule.getSection(c1, "TUT").orElse(null));
+        assertSame(c2l1, schedule.getSection(c2, "LEC").orElse(null));
+        assertSame(c2t1, schedule.getSection(c2, "TUT").orElse(null));
+        assertFalse(schedule.getSection(c2, "LAB").isPresent());
+
+        assertTrue(schedule.getWeekMask().contains(DayOfWeek.MONDAY, 9 * 60));
+        assertTrue(schedule.getWeekMask().contains(DayOfWeek.MONDAY, 10 * 60));
+        assertFalse(schedule.getWeekMask().contains(DayOfWeek.WEDNESDAY, 10 * 60));
+    }
+
+    @Test
+    public void allCombinations() {
+
+        Course c1 = Course.of(this.school, this.term, this.department, "C1", "Course 1");
+        Course c2 = Course.of(this.school, this.term, this.department, "C2", "Course 2");
+
+        for (int i = 0; i < 3; i++) {
+            c1.addSection("LEC", section(this.term, "L" + i, DayOfWeek.MONDAY, 9 + i, 10 + i));
+            c1.addSection("TUT", section(this.term, "T" + i, DayOfWeek.TUESDAY, 9 + i, 10 + i));
+            c2.addSection("LEC", section(this.term, "L" + i, DayOfWeek.WEDNESDAY, 9 + i, 10 + i));
+        }
+
+        List<Schedule> schedules = ConflictEngine.of(Arrays.asList(c1, c2)).findSchedules();
+
+        assertEquals(27, schedules.size());
+        assertEquals(27, new HashSet<>(schedules).size());
+    }
+
+    @Test
+    public void noSchedules() {
+
+        Course c1 = Course.of(this.school, this.term, this.department, "C1", "Course 1")
+                .addSection("LEC", section(this.term, "L1", DayOfWeek.MONDAY, 9, 10));
+        Course c2 = Course.of(this.school, this.term, this.department, "C2", "Course 2")
+                .addSection("LEC", section(this.term, "L1", DayOfWeek.MONDAY, 9, 11));
+
+        assertTrue(ConflictEngine.of(Arrays.asList(c1, c2)).findSchedules().isEmpty());
+    }
+}
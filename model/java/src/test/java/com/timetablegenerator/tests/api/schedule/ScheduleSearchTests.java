@@ -0,0 +1,174 @@
+package com.timetablegenerator.tests.api.schedule;
+
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DayTimeRange;
+import com.timetablegenerator.schedule.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ScheduleSearchTests {
+
+    private Term term = TermDefinition.builder("fall", "Fall", 1).build().createForYear(2016);
+
+    private School school;
+    private Department department = Department.of("DEP", "Department");
+
+    @Before
+    public void setUp() {
+        school = School.builder("test_id", "test_name")
+                .withSection("LEC", "Lecture")
+                .withSection("TUT", "Tutorial").build();
+    }
+
+    private Section section(String id, DayOfWeek day, int startHour, int endHour) {
+        return Section.of(this.term, id).addPeriod(RepeatingPeriod.of(this.term)
+                .setDayTimeRange(DayTimeRange.of(day, LocalTime.of(startHour, 0), LocalTime.of(endHour, 0))));
+    }
+
+    private Course course(String code) {
+        return Course.of(this.school, this.term, this.department, code, code);
+    }
+
+    @Test
+    public void fewestDays() {
+
+        Section monday = section("MON", DayOfWeek.MONDAY, 9, 10);
+        Section tuesday = section("TUE", DayOfWeek.TUESDAY, 9, 10);
+
+        Course c1 = course("C1").addSection("LEC", section("L1", DayOfWeek.MONDAY, 11, 12));
+        Course c2 = course("C2").addSection("LEC", monday).addSection("LEC", tuesday);
+
+        List<ScoredSchedule> best = ScheduleSearch.builder(ConflictEngine.of(Arrays.asList(c1, c2)))
+                .withScorer(ScheduleScorer.daysOnCampus())
+                .withLimit(1)
+                .build().findBest();
+
+        assertEquals(1, best.size());
+        assertEquals(1, best.get(0).getScore(), 0);
+        assertEquals(Optional.of(monday), best.get(0).getSchedule().getSection(c2, "LEC"));
+    }
+
+    @Test
+    public void earlyStarts() {
+
+        Section early = section("EARLY", DayOfWeek.MONDAY, 8, 9);
+        Section late = section("LATE", DayOfWeek.MONDAY, 10, 11);
+
+        Course c1 = course("C1").addSection("LEC", early).addSection("LEC", late);
+
+        List<ScoredSchedule> best = ScheduleSearch.builder(ConflictEngine.of(Collections.singleton(c1)))
+                .withScorer(ScheduleScorer.startsBefore(LocalTime.of(9, 0)))
+                .build().findBest();
+
+        assertEquals(2, best.size());
+        assertEquals(Collections.singletonList(late), best.get(0).getSchedule().getSections());
+        assertEquals(0, best.get(0).getScore(), 0);
+        assertEquals(1, best.get(1).getScore(), 0);
+    }
+
+    @Test
+    public void gaps() {
+
+        Section adjacent = section("ADJ", DayOfWeek.MONDAY, 10, 11);
+        Section apart = section("APART", DayOfWeek.MONDAY, 13, 14);
+
+        Course c1 = course("C1").addSection("LEC", section("L1", DayOfWeek.MONDAY, 9, 10));
+        Course c2 = course("C2").addSection("LEC", apart).addSection("LEC", adjacent);
+
+        List<ScoredSchedule> best = ScheduleSearch.builder(ConflictEngine.of(Arrays.asList(c1, c2)))
+                .withScorer(ScheduleScorer.gaps())
+                .build().findBest();
+
+        assertEquals(2, best.size());
+        assertEquals(Optional.of(adjacent), best.get(0).getSchedule().getSection(c2, "LEC"));
+        assertEquals(0, best.get(0).getScore(), 0);
+        assertEquals(3 * 60, best.get(1).getScore(), 0);
+    }
+
+    @Test
+    public void combinedScorers() {
+
+        Section early = section("EARLY", DayOfWeek.MONDAY, 8, 9);
+        Section tuesday = section("TUE", DayOfWeek.TUESDAY, 10, 11);
+
+        Course c1 = course("C1").addSection("LEC", section("L1", DayOfWeek.MONDAY, 9, 10));
+        Course c2 = course("C2").addSection("LEC", early).addSection("LEC", tuesday);
+
+        ScheduleScorer scorer = ScheduleScorer.daysOnCampus()
+                .plus(ScheduleScorer.startsBefore(LocalTime.of(9, 0)).weighted(5));
+
+        List<ScoredSchedule> best = ScheduleSearch.builder(ConflictEngine.of(Arrays.asList(c1, c2)))
+                .withScorer(scorer)
+                .build().findBest();
+
+        assertEquals(Optional.of(tuesday), best.get(0).getSchedule().getSection(c2, "LEC"));
+        assertEquals(2, best.get(0).getScore(), 0);
+        assertEquals(6, best.get(1).getScore(), 0);
+    }
+
+    @Test
+    public void matchesExhaustiveSearch() {
+
+        List<Course> courses = new ArrayList<>();
+        DayOfWeek[] days = {DayOfWeek.MONDAY, DayOfWeek.TUESDAY, DayOfWeek.WEDNESDAY};
+
+        // Enough combinations for the search to be split across tasks, with some of them clashing.
+        for (int c = 0; c < 5; c++) {
+            Course course = course("C" + c);
+            for (int s = 0; s < 6; s++) {
+                course.addSection("LEC", section("L" + s, days[(c + s) % days.length], 8 + c + s, 10 + c + s));
+            }
+            courses.add(course);
+        }
+
+        ConflictEngine engine = ConflictEngine.of(courses);
+        ScheduleScorer scorer = ScheduleScorer.gaps().plus(ScheduleScorer.daysOnCampus().weighted(60));
+
+        List<Double> expected = engine.findSchedules().stream()
+                .map(scorer::score)
+                .sorted()
+                .limit(20)
+                .collect(Collectors.toList());
+
+        List<ScoredSchedule> best = ScheduleSearch.builder(engine)
+                .withScorer(scorer)
+                .withLimit(20)
+                .withPool(new ForkJoinPool(4))
+                .build().findBest();
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, best.stream().map(ScoredSchedule::getScore).collect(Collectors.toList()));
+
+        List<Schedule> again = ScheduleSearch.builder(engine)
+                .withScorer(scorer)
+                .withLimit(20)
+                .build().findBest().stream()
+                .map(ScoredSchedule::getSchedule)
+                .collect(Collectors.toList());
+
+        assertEquals(best.stream().map(ScoredSchedule::getSchedule).collect(Collectors.toList()), again);
+    }
+
+    @Test
+    public void noSchedules() {
+
+        Course c1 = course("C1").addSection("LEC", section("L1", DayOfWeek.MONDAY, 9, 10));
+        Course c2 = course("C2").addSection("LEC", section("L1", DayOfWeek.MONDAY, 9, 11));
+
+        assertTrue(ScheduleSearch.builder(ConflictEngine.of(Arrays.asList(c1, c2))).build().findBest().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void badLimit() {
+        ScheduleSearch.builder(ConflictEngine.of(Collections.emptyList())).withLimit(0);
+    }
+}
@@ -0,0 +1,110 @@
+package com.timetablegenerator.tests.api.schedule;
+
+import com.timetablegenerator.model.range.DayTimeRange;
+import com.timetablegenerator.schedule.WeekMask;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+import static org.junit.Assert.*;
+
+public class WeekMaskTests {
+
+    private static DayTimeRange range(DayOfWeek day, int startHour, int startMinute, int endHour, int endMinute) {
+        return DayTimeRange.of(day, LocalTime.of(startHour, startMinute), LocalTime.of(endHour, endMinute));
+    }
+
+    @Test
+    public void empty() {
+        assertTrue(WeekMask.EMPTY.isEmpty());
+        assertTrue(WeekMask.of().isEmpty());
+        assertFalse(WeekMask.EMPTY.intersects(WeekMask.EMPTY));
+        assertEquals(WeekMask.EMPTY, WeekMask.of());
+    }
+
+    @Test
+    public void contains() {
+
+        WeekMask mask = WeekMask.of(range(DayOfWeek.WEDNESDAY, 10, 30, 11, 20));
+
+        assertFalse(mask.isEmpty());
+        assertFalse(mask.contains(DayOfWeek.WEDNESDAY, 10 * 60 + 29));
+        assertTrue(mask.contains(DayOfWeek.WEDNESDAY, 10 * 60 + 30));
+        assertTrue(mask.contains(DayOfWeek.WEDNESDAY, 11 * 60 + 19));
+        assertFalse(mask.contains(DayOfWeek.WEDNESDAY, 11 * 60 + 20));
+        assertFalse(mask.contains(DayOfWeek.TUESDAY, 10 * 60 + 30));
+        assertFalse(mask.contains(DayOfWeek.THURSDAY, 10 * 60 + 30));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void badMinute() {
+        WeekMask.EMPTY.contains(DayOfWeek.MONDAY, 24 * 60);
+    }
+
+    @Test
+    public void intersection() {
+
+        WeekMask a = WeekMask.of(range(DayOfWeek.MONDAY, 8, 30, 9, 20),
+                range(DayOfWeek.WEDNESDAY, 8, 30, 9, 20));
+        WeekMask b = WeekMask.of(range(DayOfWeek.WEDNESDAY, 9, 0, 10, 0));
+        WeekMask c = WeekMask.of(range(DayOfWeek.WEDNESDAY, 9, 20, 10, 0));
+        WeekMask d = WeekMask.of(range(DayOfWeek.TUESDAY, 8, 30, 9, 20));
+
+        assertTrue(a.intersects(a));
+        assertTrue(a.intersects(b));
+        assertTrue(b.intersects(a));
+        assertFalse(a.intersects(c));
+        assertFalse(a.intersects(d));
+        assertTrue(b.intersects(c));
+        assertFalse(a.intersects(WeekMask.EMPTY));
+    }
+
+    @Test
+    public void wholeDays() {
+
+        WeekMask sunday = WeekMask.of(DayTimeRange.of(DayOfWeek.SUNDAY, LocalTime.MIN, LocalTime.MAX));
+        WeekMask monday = WeekMask.of(DayTimeRange.of(DayOfWeek.MONDAY, LocalTime.MIN, LocalTime.MAX));
+
+        assertTrue(sunday.contains(DayOfWeek.SUNDAY, 0));
+        assertTrue(sunday.contains(DayOfWeek.SUNDAY, 23 * 60 + 58));
+        assertFalse(sunday.intersects(monday));
+        assertTrue(sunday.intersects(WeekMask.of(range(DayOfWeek.SUNDAY, 12, 0, 12, 1))));
+    }
+
+    @Test
+    public void union() {
+
+        WeekMask a = WeekMask.of(range(DayOfWeek.MONDAY, 8, 30, 9, 20));
+        WeekMask b = WeekMask.of(range(DayOfWeek.FRIDAY, 14, 30, 17, 20));
+
+        WeekMask union = a.union(b);
+
+        assertEquals(WeekMask.of(range(DayOfWeek.MONDAY, 8, 30, 9, 20),
+                range(DayOfWeek.FRIDAY, 14, 30, 17, 20)), union);
+        assertTrue(union.intersects(a));
+        assertTrue(union.intersects(b));
+        assertSame(a, a.union(WeekMask.EMPTY));
+        assertSame(b, WeekMask.EMPTY.union(b));
+    }
+
+    @Test
+    public void dayQueries() {
+
+        WeekMask mask = WeekMask.of(range(DayOfWeek.MONDAY, 8, 30, 9, 20),
+                range(DayOfWeek.MONDAY, 14, 0, 15, 0),
+                range(DayOfWeek.SUNDAY, 23, 0, 23, 59));
+
+        assertEquals(50 + 60, mask.getMinutes(DayOfWeek.MONDAY));
+        assertEquals(8 * 60 + 30, mask.getFirstMinute(DayOfWeek.MONDAY));
+        assertEquals(15 * 60 - 1, mask.getLastMinute(DayOfWeek.MONDAY));
+
+        assertEquals(59, mask.getMinutes(DayOfWeek.SUNDAY));
+        assertEquals(23 * 60, mask.getFirstMinute(DayOfWeek.SUNDAY));
+        assertEquals(23 * 60 + 58, mask.getLastMinute(DayOfWeek.SUNDAY));
+
+        assertEquals(0, mask.getMinutes(DayOfWeek.TUESDAY));
+        assertEquals(-1, mask.getFirstMinute(DayOfWeek.TUESDAY));
+        assertEquals(-1, mask.getLastMinute(DayOfWeek.TUESDAY));
+    }
+}
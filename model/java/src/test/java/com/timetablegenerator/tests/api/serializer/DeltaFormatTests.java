@@ -0,0 +1,168 @@
+package com.timetablegenerator.tests.api.serializer;
+
+import com.timetablegenerator.delta.Patcher;
+import com.timetablegenerator.delta.PropertyType;
+import com.timetablegenerator.delta.StructureDelta;
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DayTimeRange;
+import com.timetablegenerator.serializer.binary.DeltaReader;
+import com.timetablegenerator.serializer.binary.DeltaWriter;
+import com.timetablegenerator.serializer.model.SerializerContext;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class DeltaFormatTests {
+
+    private Term term = TermDefinition.builder("fall", "Fall", 1).build().createForYear(2016);
+    private Department department = Department.of("DA", "Department A");
+
+    private School school;
+    private SerializerContext context;
+
+    @Before
+    public void setUp() {
+        this.school = School.builder("test_id", "test_name")
+                .withSection("LEC", "Lecture")
+                .withSection("TUT", "Tutorial").build();
+        this.context = SerializerContext.of(this.school, new Term[]{this.term}, new Department[]{this.department});
+    }
+
+    private Section section(String id, int enrollment, DayOfWeek day) {
+        return Section.of(this.term, id)
+                .setMaximumEnrollment(100)
+                .setEnrollment(enrollment)
+                .addPeriod(RepeatingPeriod.of(this.term)
+                        .setDayTimeRange(DayTimeRange.of(day, LocalTime.of(9, 0), LocalTime.of(10, 0)))
+                        .setRoom("Room " + id));
+    }
+
+    private TimeTable timeTable(int courses) {
+        TimeTable tt = TimeTable.of(this.school, this.term);
+        for (int i = 0; i < courses; i++) {
+            tt.addCourse(Course.of(this.school, this.term, this.department, "C" + i, "Course " + i)
+                    .setCredits(3.0)
+                    .addSection("LEC", section("L1", 50, DayOfWeek.MONDAY))
+                    .addSection("TUT", section("T1", 20, DayOfWeek.TUESDAY)));
+        }
+        return tt;
+    }
+
+    private StructureDelta delta(TimeTable tt1, TimeTable tt2) {
+
+        tt2.getCourse("DAC0fall").get()
+                .setDescription("Description")
+                .setCredits(4.0)
+                .addNotes("Note")
+                .addSection("TUT", section("T2", 0, DayOfWeek.FRIDAY));
+        tt2.getCourse("DAC1fall").get().getSectionType("LEC").get().getSection("L1").get()
+                .setEnrollment(90)
+                .setCancelled(true)
+                .getRepeatingPeriods().forEach(x -> x.setRoom("Moved"));
+        tt2.addCourse(Course.of(this.school, this.term, this.department, "NEW", "New course")
+                .addSection("LEC", section("L1", 10, DayOfWeek.THURSDAY)));
+
+        return tt1.findDifferences(tt2);
+    }
+
+    private byte[] write(StructureDelta... deltas) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeltaWriter writer = DeltaWriter.of(out)) {
+            for (StructureDelta delta : deltas) {
+                writer.write(delta);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+
+        TimeTable tt1 = this.timeTable(3);
+        TimeTable tt2 = this.timeTable(3);
+        StructureDelta delta = this.delta(tt1, tt2);
+
+        try (DeltaReader reader = DeltaReader.of(new ByteArrayInputStream(this.write(delta)), this.context)) {
+
+            StructureDelta read = reader.read().get();
+
+            assertEquals(delta, read);
+            assertEquals(delta.toString(), read.toString());
+            assertFalse(reader.read().isPresent());
+
+            TimeTable patched = Patcher.apply(tt1, read);
+            assertEquals(new ArrayList<>(tt2.getCourses()), new ArrayList<>(patched.getCourses()));
+        }
+    }
+
+    @Test
+    public void multipleDeltas() throws IOException {
+
+        StructureDelta first = this.delta(this.timeTable(2), this.timeTable(2));
+        StructureDelta second = StructureDelta.of(PropertyType.TIMETABLE, "empty");
+        StructureDelta third = this.delta(this.timeTable(4), this.timeTable(4));
+
+        try (DeltaReader reader = DeltaReader.of(new ByteArrayInputStream(this.write(first, second, third)),
+                this.context)) {
+            assertEquals(Optional.of(first), reader.read());
+            assertEquals(Optional.of(second), reader.read());
+            assertEquals(Optional.of(third), reader.read());
+            assertEquals(Optional.empty(), reader.read());
+        }
+    }
+
+    @Test
+    public void streamedSubstructures() throws IOException {
+
+        StructureDelta delta = this.delta(this.timeTable(3), this.timeTable(3));
+        List<StructureDelta> substructures = new ArrayList<>();
+
+        try (DeltaReader reader = DeltaReader.of(new ByteArrayInputStream(this.write(delta)), this.context)) {
+
+            StructureDelta read = reader.read(substructures::add).get();
+
+            assertEquals(delta.getIdentifier(), read.getIdentifier());
+            assertEquals(delta.getValueChanges(), read.getValueChanges());
+            assertTrue(read.getSubstructureChanges().isEmpty());
+            assertEquals(delta.getSubstructureChanges(), substructures);
+        }
+    }
+
+    @Test
+    public void compact() throws IOException {
+
+        StructureDelta delta = this.delta(this.timeTable(50), this.timeTable(50));
+
+        int text = delta.toString().getBytes(StandardCharsets.UTF_8).length;
+        int binary = this.write(delta).length;
+
+        assertTrue(binary + " >= " + text, binary < text / 2);
+    }
+
+    @Test(expected = IOException.class)
+    public void badMagic() throws IOException {
+        DeltaReader.of(new ByteArrayInputStream(new byte[]{'J', 'U', 'N', 'K', 1}), this.context);
+    }
+
+    @Test(expected = IOException.class)
+    public void truncated() throws IOException {
+
+        byte[] bytes = this.write(this.delta(this.timeTable(2), this.timeTable(2)));
+        byte[] truncated = new byte[bytes.length - 3];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+
+        DeltaReader.of(new ByteArrayInputStream(truncated), this.context).read();
+    }
+}
@@ -0,0 +1,104 @@
+package com.timetablegenerator.tests.api.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DayTimeRange;
+import com.timetablegenerator.serializer.model.Interner;
+import com.timetablegenerator.serializer.model.SectionSerializer;
+import com.timetablegenerator.serializer.model.SerializerContext;
+import com.timetablegenerator.serializer.model.period.RepeatingPeriodSerializer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class InternerTests {
+
+    private Term term = TermDefinition.builder("fall", "Fall", 1).build().createForYear(2016);
+    private SerializerContext context;
+
+    @Before
+    public void setUp() {
+        this.context = SerializerContext.of(School.builder("id", "name").build(),
+                new Term[]{this.term}, new Department[]{});
+    }
+
+    @Test
+    public void intern() {
+
+        Interner interner = new Interner();
+
+        String a = new String(new char[]{'a'});
+        String b = new String(new char[]{'a'});
+        assertNotSame(a, b);
+
+        assertSame(a, interner.intern(a));
+        assertSame(a, interner.intern(b));
+        assertNull(interner.intern(null));
+
+        DayTimeRange range = DayTimeRange.of(DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0));
+        assertSame(range, interner.intern(range));
+        assertSame(range, interner.intern(DayTimeRange.of(DayOfWeek.MONDAY, LocalTime.of(9, 0),
+                LocalTime.of(10, 0))));
+
+        List<String> interned = interner.internAll(Arrays.asList(b, new String(b)));
+        assertSame(a, interned.get(0));
+        assertSame(a, interned.get(1));
+
+        assertEquals(2, interner.size());
+    }
+
+    @Test
+    public void deserializedSection() throws IOException {
+
+        String raw = "{\"id\":\"L1\",\"term\":\"2016/fall\",\"notes\":[\"Note\"],\"repeatingPeriods\":[" +
+                "{\"term\":\"2016/fall\",\"room\":\"Room\",\"campus\":\"Campus\",\"supervisors\":[\"A\"]," +
+                "\"notes\":[\"Note\"],\"times\":{\"dayOfWeek\":1,\"startTime\":\"09:00\",\"endTime\":\"10:00\"}}," +
+                "{\"term\":\"2016/fall\",\"room\":\"Room\",\"campus\":\"Campus\",\"supervisors\":[\"A\"]," +
+                "\"notes\":[\"Note\"],\"times\":{\"dayOfWeek\":3,\"startTime\":\"09:00\",\"endTime\":\"10:00\"}}]}";
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Section s1 = objectMapper.readValue(raw, SectionSerializer.class).toInstance(this.context);
+        Section s2 = objectMapper.readValue(raw, SectionSerializer.class).toInstance(this.context);
+
+        assertEquals(s1, s2);
+        assertSame(s1.getNotes().get(0), s2.getNotes().get(0));
+
+        Iterator<RepeatingPeriod> p1 = s1.getRepeatingPeriods().iterator();
+        Iterator<RepeatingPeriod> p2 = s2.getRepeatingPeriods().iterator();
+
+        RepeatingPeriod monday1 = p1.next();
+        RepeatingPeriod wednesday1 = p1.next();
+        RepeatingPeriod monday2 = p2.next();
+
+        assertSame(monday1.getRoom().get(), wednesday1.getRoom().get());
+        assertSame(monday1.getCampus().get(), monday2.getCampus().get());
+        assertSame(monday1.getSupervisors().iterator().next(), monday2.getSupervisors().iterator().next());
+        assertSame(monday1.getNotes().get(0), s1.getNotes().get(0));
+        assertSame(monday1.getDayTimeRange().get(), monday2.getDayTimeRange().get());
+        assertNotSame(monday1.getDayTimeRange().get(), wednesday1.getDayTimeRange().get());
+    }
+
+    @Test
+    public void scopedPerContext() throws IOException {
+
+        String raw = "{\"term\":\"2016/fall\",\"room\":\"Room\"}";
+        SerializerContext other = SerializerContext.of(this.context.getSchool(), new Term[]{this.term},
+                new Department[]{});
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        RepeatingPeriod p1 = objectMapper.readValue(raw, RepeatingPeriodSerializer.class).toInstance(this.context);
+        RepeatingPeriod p2 = objectMapper.readValue(raw, RepeatingPeriodSerializer.class).toInstance(other);
+
+        assertEquals(p1.getRoom(), p2.getRoom());
+        assertNotSame(p1.getRoom().get(), p2.getRoom().get());
+    }
+}
@@ -0,0 +1,172 @@
+package com.timetablegenerator.tests.api.serializer;
+
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.OneTimePeriod;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DateRange;
+import com.timetablegenerator.model.range.DateTimeRange;
+import com.timetablegenerator.model.range.DayTimeRange;
+import com.timetablegenerator.serializer.binary.Snapshot;
+import com.timetablegenerator.serializer.binary.SnapshotWriter;
+import com.timetablegenerator.serializer.model.SerializerContext;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class SnapshotTests {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Term term = TermDefinition.builder("fall", "Fall", 1)
+            .withSubterm(TermDefinition.builder("fall_fq", "Fall First Quarter", 1).build())
+            .build().createForYear(2016);
+    private Term term_fq = term.getSubterm("fall_fq");
+
+    private Department da = Department.of("DA", "Department A");
+    private Department db = Department.of("DB", "Department B");
+
+    private School school;
+    private SerializerContext context;
+    private TimeTable timeTable;
+
+    @Before
+    public void setUp() {
+
+        this.school = School.builder("test_id", "test_name")
+                .withSection("LEC", "Lecture")
+                .withSection("TUT", "Tutorial").build();
+        this.context = SerializerContext.of(this.school, new Term[]{this.term, this.term_fq},
+                new Department[]{this.da, this.db});
+        this.timeTable = TimeTable.of(this.school, this.term, ZonedDateTime.of(2016, 9, 1, 12, 30, 15, 0,
+                ZoneOffset.UTC));
+
+        Course c1 = Course.of(this.school, this.term, this.da, "C1", "Course 1")
+                .setDescription("D\u00e9scription").setCredits(3.5).addNotes("Note A", "Note B")
+                .addSection("TUT", Section.of(this.term, "T1").setFull(false).setGroupId("G").setOnline(true))
+                .addSection("TUT", Section.of(this.term, "T2").setMaximumEnrollment(30).setEnrollment(30))
+                .addSection("LEC", Section.of(this.term, "L1")
+                        .setSerialNumber("12345")
+                        .setMaximumEnrollment(50).setEnrollment(40)
+                        .setMaximumWaiting(10).setWaiting(3)
+                        .setCancelled(false)
+                        .addNotes("Section note")
+                        .addPeriod(RepeatingPeriod.of(this.term)
+                                .setDayTimeRange(DayTimeRange.of(DayOfWeek.MONDAY,
+                                        LocalTime.of(9, 30), LocalTime.of(10, 20)))
+                                .setActiveDateRange(DateRange.of(LocalDate.of(2016, 9, 5),
+                                        LocalDate.of(2016, 12, 5)))
+                                .setCampus("Main").setRoom("R1").setOnline(false)
+                                .addSupervisors("B", "A")
+                                .addNotes("Period note"))
+                        .addPeriod(RepeatingPeriod.of(this.term).setRoom("TBA"))
+                        .addPeriod(OneTimePeriod.of(this.term)
+                                .setDateTimeRange(DateTimeRange.of(LocalDateTime.of(2016, 12, 10, 9, 0),
+                                        LocalDateTime.of(2016, 12, 10, 12, 0)))
+                                .setRoom("Gym")));
+        Course c2 = Course.of(this.school, this.term, this.db, "C2", "Course 2")
+                .addSection("LEC", Section.of(this.term, "L1").setWaitingList(false));
+        Course c3 = Course.of(this.school, this.term_fq, this.da, "C3", "Course 3")
+                .addSection("LEC", Section.of(this.term_fq, "L1"));
+        Course c4 = Course.of(this.school, this.term, this.db, "C4", "Course 4");
+        Course c5 = Course.of(this.school, this.term, this.db, "C5", "Course 5");
+
+        c1.addPrerequisite(c2).addCrossListing(c3).addAntirequisite(c4);
+        c2.addCorequesite(c4);
+
+        this.timeTable.addCourse(c1).addCourse(c2).addCourse(c3).addCourse(c4).addCourse(c5);
+    }
+
+    private Snapshot snapshot() throws IOException {
+        Path path = this.folder.getRoot().toPath().resolve("snapshot.bin");
+        SnapshotWriter.write(this.timeTable, path);
+        return Snapshot.open(path, this.context);
+    }
+
+    @Test
+    public void roundTrip() throws IOException {
+
+        Snapshot snapshot = this.snapshot();
+
+        assertEquals(this.term, snapshot.getTerm());
+        assertEquals(this.timeTable.getLastUpdate(), snapshot.getLastUpdate());
+        assertEquals(Arrays.asList("DAC1fall", "DAC3fall_fq", "DBC2fall", "DBC4fall", "DBC5fall"),
+                snapshot.getCourseIds());
+
+        TimeTable read = snapshot.toTimeTable();
+        assertEquals(new ArrayList<>(this.timeTable.getCourses()), new ArrayList<>(read.getCourses()));
+        assertFalse(this.timeTable.findDifferences(read).hasChanges());
+    }
+
+    @Test
+    public void lazyCourse() throws IOException {
+
+        Snapshot snapshot = this.snapshot();
+
+        Course c1 = snapshot.getCourse("DAC1fall").get();
+        assertEquals(this.timeTable.getCourse("DAC1fall").get(), c1);
+
+        // Related courses are decoded along with the course.
+        assertEquals(this.timeTable.getCourse("DBC4fall").get(),
+                c1.getPrerequisites().get("DBC2fall").getCorequisites().get("DBC4fall"));
+
+        assertEquals(this.timeTable.getCourse("DBC5fall"), snapshot.getCourse("DBC5fall"));
+        assertEquals(Optional.empty(), snapshot.getCourse("DBC6fall"));
+    }
+
+    @Test
+    public void cyclicRelations() throws IOException {
+
+        // Course equality does not terminate on cyclic relations, so only check the links themselves.
+        this.timeTable.getCourse("DAC3fall_fq").get().addCrossListing(this.timeTable.getCourse("DAC1fall").get());
+
+        Course c1 = this.snapshot().getCourse("DAC1fall").get();
+        Course c3 = c1.getCrossListings().get("DAC3fall_fq");
+
+        assertEquals("DAC3fall_fq", c3.getUniqueId());
+        assertSame(c1, c3.getCrossListings().get("DAC1fall"));
+    }
+
+    @Test
+    public void replace() throws IOException {
+
+        Snapshot before = this.snapshot();
+
+        this.timeTable = TimeTable.of(this.school, this.term);
+        Snapshot after = this.snapshot();
+
+        assertEquals(5, before.getCourseIds().size());
+        assertTrue(after.getCourseIds().isEmpty());
+        assertTrue(after.toTimeTable().getCourses().isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void notASnapshot() throws IOException {
+        Path path = this.folder.newFile().toPath();
+        Files.write(path, "{\"courses\":{}, \"term\":\"2016/fall\"}".getBytes("UTF-8"));
+        Snapshot.open(path, this.context);
+    }
+
+    @Test(expected = IOException.class)
+    public void truncated() throws IOException {
+
+        Path path = this.folder.getRoot().toPath().resolve("snapshot.bin");
+        SnapshotWriter.write(this.timeTable, path);
+
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 12));
+
+        Snapshot.open(path, this.context);
+    }
+}
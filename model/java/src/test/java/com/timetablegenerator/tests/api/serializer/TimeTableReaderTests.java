@@ -0,0 +1,180 @@
+package com.timetablegenerator.tests.api.serializer;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DayTimeRange;
+import com.timetablegenerator.serializer.model.SerializerContext;
+import com.timetablegenerator.serializer.model.TimeTableSerializer;
+import com.timetablegenerator.serializer.stream.TimeTableReader;
+import com.timetablegenerator.serializer.stream.TimeTableWriter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class TimeTableReaderTests {
+
+    private Term term = TermDefinition.builder("fall", "Fall", 1)
+            .withSubterm(TermDefinition.builder("fall_fq", "Fall First Quarter", 1).build())
+            .build().createForYear(2016);
+    private Term term_fq = term.getSubterm("fall_fq");
+
+    private Department da = Department.of("DA", "Department A");
+    private Department db = Department.of("DB", "Department B");
+
+    private School school;
+    private SerializerContext context;
+
+    @Before
+    public void setUp() {
+        this.school = School.builder("test_id", "test_name")
+                .withSection("LEC", "Lecture")
+                .withSection("TUT", "Tutorial").build();
+        this.context = SerializerContext.of(this.school, new Term[]{this.term, this.term_fq},
+                new Department[]{this.da, this.db});
+    }
+
+    private TimeTable timeTable(int courses) {
+
+        TimeTable tt = TimeTable.of(this.school, this.term);
+
+        for (int i = 0; i < courses; i++) {
+            Term courseTerm = i % 3 == 0 ? this.term_fq : this.term;
+            tt.addCourse(Course.of(this.school, courseTerm, i % 2 == 0 ? this.da : this.db, "C" + i, "Course " + i)
+                    .setDescription("Description " + i).setCredits(i / 2.0).addNotes("Note " + i)
+                    .addSection("LEC", Section.of(courseTerm, "L1").setEnrollment(i).addNotes("Section note")
+                            .addPeriod(RepeatingPeriod.of(courseTerm)
+                                    .setDayTimeRange(DayTimeRange.of(DayOfWeek.MONDAY,
+                                            LocalTime.of(9, 0), LocalTime.of(10, 0)))
+                                    .setRoom("Room " + i)))
+                    .addSection("TUT", Section.of(courseTerm, "T1")));
+        }
+        return tt;
+    }
+
+    private static byte[] write(TimeTable tt) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TimeTableWriter.of().write(tt, out);
+        return out.toByteArray();
+    }
+
+    // The writers leave out course notes, so only compare courses as they would have been written.
+    private static List<Course> withoutNotes(TimeTable tt) {
+        return tt.getCourses().stream()
+                .map(x -> {
+                    Course course = Course.of(x.getSchool(), x.getTerm(), x.getDepartment(), x.getCode(),
+                            x.getName());
+                    x.getDescription().ifPresent(course::setDescription);
+                    x.getCredits().ifPresent(course::setCredits);
+                    x.getSectionTypes().forEach(y -> course.addSections(x.getSectionType(y).get()));
+                    return course;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void readCourses() throws IOException {
+
+        TimeTable tt = this.timeTable(10);
+        List<Course> courses = new ArrayList<>();
+
+        TimeTableReader.of(this.context).read(new ByteArrayInputStream(write(tt)), courses::add);
+
+        assertEquals(withoutNotes(tt), courses);
+    }
+
+    @Test
+    public void readSerializerOutput() throws IOException {
+
+        TimeTable tt = this.timeTable(10);
+        ObjectMapper objectMapper = new ObjectMapper();
+        byte[] json = objectMapper.writeValueAsBytes(new TimeTableSerializer().fromInstance(tt));
+
+        List<Course> courses = new ArrayList<>();
+        TimeTableReader.of(objectMapper, this.context).read(new ByteArrayInputStream(json), courses::add);
+
+        // The serializer writes courses out of a hash map, so their order is not defined.
+        courses.sort(Course::compareTo);
+        List<Course> expected = withoutNotes(tt);
+        expected.sort(Course::compareTo);
+
+        assertEquals(expected, courses);
+    }
+
+    @Test
+    public void courseNotes() throws IOException {
+
+        String json = "{\"term\":\"2016/fall\",\"courses\":{\"DAC1fall\":{\"code\":\"C1\",\"department\":\"DA\"," +
+                "\"name\":\"Course 1\",\"notes\":[\"A\",\"B\"],\"prerequisites\":[\"DAC2fall\"],\"term\":\"2016/fall\"}}," +
+                "\"lastUpdate\":\"2016-09-01T00:00:00Z\"}";
+
+        List<Course> courses = new ArrayList<>();
+        TimeTableReader.of(this.context)
+                .read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), courses::add);
+
+        assertEquals(1, courses.size());
+        assertEquals(Arrays.asList("A", "B"), courses.get(0).getNotes());
+        assertTrue(courses.get(0).getPrerequisites().isEmpty());
+    }
+
+    @Test
+    public void departmentFilter() throws IOException {
+
+        TimeTable tt = this.timeTable(10);
+        List<Course> courses = new ArrayList<>();
+
+        TimeTableReader.of(this.context).read(new ByteArrayInputStream(write(tt)), "DB"::equals, courses::add);
+
+        assertEquals(withoutNotes(tt).stream()
+                .filter(x -> x.getDepartment().getCode().equals("DB"))
+                .collect(Collectors.toList()), courses);
+    }
+
+    @Test
+    public void incremental() throws IOException {
+
+        byte[] json = write(this.timeTable(500));
+        int[] position = {0};
+        List<Integer> positions = new ArrayList<>();
+
+        TimeTableReader.of(this.context).read(new FilterInputStream(new ByteArrayInputStream(json)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                position[0] += Math.max(read, 0);
+                return read;
+            }
+        }, x -> positions.add(position[0]));
+
+        assertEquals(500, positions.size());
+        assertTrue(positions.get(0) < json.length / 10);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidCourseId() throws IOException {
+        String json = "{\"courses\":{\"DAC2fall\":{\"code\":\"C1\",\"department\":\"DA\",\"name\":\"Course 1\"," +
+                "\"term\":\"2016/fall\"}}}";
+        TimeTableReader.of(this.context).read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                x -> {});
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void notAnObject() throws IOException {
+        TimeTableReader.of(this.context).read(new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)),
+                x -> {});
+    }
+}
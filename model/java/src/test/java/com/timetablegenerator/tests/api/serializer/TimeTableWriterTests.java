@@ -0,0 +1,132 @@
+package com.timetablegenerator.tests.api.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.OneTimePeriod;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DateRange;
+import com.timetablegenerator.model.range.DateTimeRange;
+import com.timetablegenerator.model.range.DayTimeRange;
+import com.timetablegenerator.serializer.model.TimeTableSerializer;
+import com.timetablegenerator.serializer.stream.TimeTableWriter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class TimeTableWriterTests {
+
+    private Term term = TermDefinition.builder("fall", "Fall", 1)
+            .withSubterm(TermDefinition.builder("fall_fq", "Fall First Quarter", 1).build())
+            .build().createForYear(2016);
+    private Term term_fq = term.getSubterm("fall_fq");
+
+    private School school;
+    private TimeTable timeTable;
+
+    @Before
+    public void setUp() {
+
+        this.school = School.builder("test_id", "test_name")
+                .withSection("LEC", "Lecture")
+                .withSection("TUT", "Tutorial")
+                .withSection("LAB", "Laboratory").build();
+        this.timeTable = TimeTable.of(this.school, this.term, ZonedDateTime.of(2016, 9, 1, 12, 30, 0, 0,
+                ZoneOffset.UTC));
+
+        Department da = Department.of("DA", "Department A");
+        Department db = Department.of("DB", "Department B");
+
+        Course c1 = Course.of(this.school, this.term, da, "C1", "Course \"1\"")
+                .setDescription("Description").setCredits(3.5).addNotes("Not written")
+                .addSection("TUT", Section.of(this.term, "T2").setOnline(true))
+                .addSection("TUT", Section.of(this.term, "T1").setFull(false).setGroupId("G"))
+                .addSection("LEC", Section.of(this.term, "L1")
+                        .setSerialNumber("12345")
+                        .setEnrollment(50).setMaximumEnrollment(50)
+                        .setWaiting(3).setMaximumWaiting(10)
+                        .setCancelled(false)
+                        .addNotes("Note 1", "Note 2")
+                        .addPeriod(RepeatingPeriod.of(this.term)
+                                .setDayTimeRange(DayTimeRange.of(DayOfWeek.MONDAY,
+                                        LocalTime.of(9, 30), LocalTime.of(10, 20)))
+                                .setActiveDateRange(DateRange.of(LocalDate.of(2016, 9, 5),
+                                        LocalDate.of(2016, 12, 5)))
+                                .setCampus("Main").setRoom("R1").setOnline(false)
+                                .addSupervisors("B", "A")
+                                .addNotes("Period note"))
+                        .addPeriod(RepeatingPeriod.of(this.term)
+                                .setDayTimeRange(DayTimeRange.of(DayOfWeek.WEDNESDAY,
+                                        LocalTime.of(9, 30), LocalTime.of(10, 20))))
+                        .addPeriod(OneTimePeriod.of(this.term)
+                                .setDateTimeRange(DateTimeRange.of(LocalDateTime.of(2016, 12, 10, 9, 0),
+                                        LocalDateTime.of(2016, 12, 10, 12, 0)))
+                                .setRoom("Gym")));
+        Course c2 = Course.of(this.school, this.term, db, "C2", "Course 2");
+        Course c3 = Course.of(this.school, this.term_fq, da, "C3", "Course 3")
+                .addSection("LAB", Section.of(this.term_fq, "B1"));
+        Course c4 = Course.of(this.school, this.term, db, "C4", "Course 4");
+        Course c5 = Course.of(this.school, this.term, db, "C5", "");
+
+        c1.addPrerequisite(c2).addPrerequisite(c3).addCorequesite(c4).addCrossListing(c5);
+        c2.addAntirequisite(c4);
+
+        this.timeTable.addCourse(c5).addCourse(c4).addCourse(c3).addCourse(c2).addCourse(c1);
+    }
+
+    private static ObjectMapper sorted() {
+        return new ObjectMapper()
+                .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+                .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+    }
+
+    private String expected(ObjectMapper objectMapper) throws IOException {
+        return objectMapper.writeValueAsString(new TimeTableSerializer().fromInstance(this.timeTable));
+    }
+
+    private String actual(TimeTableWriter writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(this.timeTable, out);
+        return out.toString("UTF-8");
+    }
+
+    @Test
+    public void matchesSerializer() throws IOException {
+        assertEquals(this.expected(sorted()), this.actual(TimeTableWriter.of()));
+    }
+
+    @Test
+    public void matchesIndentedSerializer() throws IOException {
+        ObjectMapper objectMapper = sorted().configure(SerializationFeature.INDENT_OUTPUT, true);
+        assertEquals(this.expected(objectMapper), this.actual(TimeTableWriter.of(objectMapper)));
+    }
+
+    @Test
+    public void emptyTimeTable() throws IOException {
+        this.timeTable = TimeTable.of(this.school, this.term);
+        assertEquals(this.expected(sorted()), this.actual(TimeTableWriter.of()));
+    }
+
+    @Test
+    public void generator() throws IOException {
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        StringWriter out = new StringWriter();
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            TimeTableWriter.of(objectMapper).write(this.timeTable, generator);
+            generator.writeEndArray();
+        }
+
+        assertEquals("[" + this.expected(sorted()) + "]", out.toString());
+    }
+}
@@ -0,0 +1,85 @@
+package com.timetablegenerator.jfr;
+
+/**
+ * An event of a {@link FlightEventType}, timed from when it was begun until it is committed.
+ *
+ * Events begun while their type is not being recorded are all the same {@link #DISABLED} event, which does nothing.
+ */
+public final class FlightEvent {
+
+    /**
+     * The event begun by every type that is not being recorded.
+     */
+    public static final FlightEvent DISABLED = new FlightEvent(null, null);
+
+    private final FlightEventType type;
+
+    // The jdk.jfr.Event, or null if the event is not being recorded.
+    private final Object event;
+
+    FlightEvent(FlightEventType type, Object event) {
+        this.type = type;
+        this.event = event;
+    }
+
+    /**
+     * @return Whether the event is being recorded. Fields that are costly to work out need only be set if it is.
+     */
+    public boolean isRecorded() {
+        return this.event != null;
+    }
+
+    /**
+     * @param field The name of the field.
+     * @param value The value of the field. Numbers are converted to the type of the field, and null is left unset.
+     * @return This event.
+     */
+    public FlightEvent set(String field, Object value) {
+
+        if (this.event == null || value == null) {
+            return this;
+        }
+
+        int index = this.type.getFieldIndex(field);
+
+        if (this.type.getFieldType(index) == long.class) {
+            value = ((Number) value).longValue();
+        }
+
+        try {
+            FlightEventType.SET.invoke(this.event, index, value);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+
+        return this;
+    }
+
+    /**
+     * Ends the event and writes it to the recordings taking it. An event that is not being recorded is ignored.
+     */
+    public void commit() {
+
+        if (this.event == null) {
+            return;
+        }
+
+        try {
+            FlightEventType.COMMIT.invoke(this.event);
+        } catch (Throwable e) {
+            throw propagate(e);
+        }
+    }
+
+    static RuntimeException propagate(Throwable e) {
+
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+
+        return new IllegalStateException(e);
+    }
+}
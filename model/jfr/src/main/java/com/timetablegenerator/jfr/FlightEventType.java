@@ -0,0 +1,300 @@
+package com.timetablegenerator.jfr;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A type of event recorded by the JVM's Flight Recorder, so that the work of the scrapers and the model shows up by
+ * name in a recording, alongside the allocations and garbage collections it causes.
+ *
+ * Event types are defined while the JVM runs, through <code>jdk.jfr.EventFactory</code>, as the scrapers and the
+ * model are built for Java 8, which has no Flight Recorder API to build against. On a JVM without a Flight Recorder,
+ * and whenever no recording takes events of a type, {@link #begin()} hands back an event that does nothing:
+ *
+ * <pre>
+ * FlightEvent event = REQUEST.begin();
+ * ...
+ * event.set("host", host).set("bytes", length).commit();
+ * </pre>
+ *
+ * Events are recorded with <code>java -XX:StartFlightRecording=filename=scrape.jfr ...</code>, or by starting a
+ * recording with <code>jcmd</code>, and are listed under "Timetable Generator" in Mission Control.
+ *
+ * This module is built on its own under <code>model/jfr</code>, so that both the model and the scrapers can use it.
+ */
+public final class FlightEventType {
+
+    private static final String CATEGORY = "Timetable Generator";
+
+    // The parts of the Flight Recorder API used, all of which are null if the JVM has none.
+    private static final Class<?> NAME;
+    private static final Class<?> LABEL;
+    private static final Class<?> DESCRIPTION;
+    private static final Class<?> CATEGORY_ANNOTATION;
+    private static final Class<?> DATA_AMOUNT;
+    private static final MethodHandle NEW_ANNOTATION_ELEMENT;
+    private static final MethodHandle NEW_VALUE_DESCRIPTOR;
+    private static final MethodHandle CREATE_FACTORY;
+    private static final MethodHandle GET_EVENT_TYPE;
+    private static final MethodHandle IS_ENABLED;
+    private static final MethodHandle NEW_EVENT;
+    private static final MethodHandle BEGIN;
+    static final MethodHandle SET;
+    static final MethodHandle COMMIT;
+
+    static {
+
+        Class<?>[] annotations = new Class<?>[5];
+        MethodHandle[] handles = new MethodHandle[9];
+
+        try {
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+            Class<?> annotationElement = Class.forName("jdk.jfr.AnnotationElement");
+            Class<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor");
+            Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory");
+            Class<?> eventType = Class.forName("jdk.jfr.EventType");
+            Class<?> event = Class.forName("jdk.jfr.Event");
+
+            annotations[0] = Class.forName("jdk.jfr.Name");
+            annotations[1] = Class.forName("jdk.jfr.Label");
+            annotations[2] = Class.forName("jdk.jfr.Description");
+            annotations[3] = Class.forName("jdk.jfr.Category");
+            annotations[4] = Class.forName("jdk.jfr.DataAmount");
+
+            handles[0] = lookup.findConstructor(annotationElement,
+                    MethodType.methodType(void.class, Class.class, Object.class));
+            handles[1] = lookup.findConstructor(valueDescriptor,
+                    MethodType.methodType(void.class, Class.class, String.class, List.class));
+            handles[2] = lookup.findStatic(eventFactory, "create",
+                    MethodType.methodType(eventFactory, List.class, List.class));
+            handles[3] = lookup.findVirtual(eventFactory, "getEventType", MethodType.methodType(eventType));
+            handles[4] = lookup.findVirtual(eventType, "isEnabled", MethodType.methodType(boolean.class));
+            handles[5] = lookup.findVirtual(eventFactory, "newEvent", MethodType.methodType(event));
+            handles[6] = lookup.findVirtual(event, "begin", MethodType.methodType(void.class));
+            handles[7] = lookup.findVirtual(event, "set",
+                    MethodType.methodType(void.class, int.class, Object.class));
+            handles[8] = lookup.findVirtual(event, "commit", MethodType.methodType(void.class));
+
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            annotations = new Class<?>[annotations.length];
+            handles = new MethodHandle[handles.length];
+        }
+
+        NAME = annotations[0];
+        LABEL = annotations[1];
+        DESCRIPTION = annotations[2];
+        CATEGORY_ANNOTATION = annotations[3];
+        DATA_AMOUNT = annotations[4];
+
+        NEW_ANNOTATION_ELEMENT = handles[0];
+        NEW_VALUE_DESCRIPTOR = handles[1];
+        CREATE_FACTORY = handles[2];
+        GET_EVENT_TYPE = handles[3];
+        IS_ENABLED = handles[4];
+        NEW_EVENT = handles[5];
+        BEGIN = handles[6];
+        SET = handles[7];
+        COMMIT = handles[8];
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private final String label;
+        private String description = null;
+        private String[] category = {CATEGORY};
+
+        private final List<String> fieldNames = new ArrayList<>();
+        private final List<String> fieldLabels = new ArrayList<>();
+        private final List<Class<?>> fieldTypes = new ArrayList<>();
+        private final List<Boolean> fieldBytes = new ArrayList<>();
+
+        private Builder(String name, String label) {
+            this.name = name;
+            this.label = label;
+        }
+
+        public Builder withDescription(String description) {
+            this.description = description;
+            return this;
+        }
+
+        /**
+         * @param subcategory The category the type is listed under within "Timetable Generator", e.g. "Scraper".
+         * @return This builder.
+         */
+        public Builder withSubcategory(String subcategory) {
+            this.category = new String[] {CATEGORY, subcategory};
+            return this;
+        }
+
+        public Builder withStringField(String name, String label) {
+            return this.withField(name, label, String.class, false);
+        }
+
+        public Builder withLongField(String name, String label) {
+            return this.withField(name, label, long.class, false);
+        }
+
+        public Builder withBooleanField(String name, String label) {
+            return this.withField(name, label, boolean.class, false);
+        }
+
+        /**
+         * Adds a field holding a number of bytes, which recordings show as an amount of data.
+         */
+        public Builder withBytesField(String name, String label) {
+            return this.withField(name, label, long.class, true);
+        }
+
+        private Builder withField(String name, String label, Class<?> type, boolean bytes) {
+
+            if (this.fieldNames.contains(name)) {
+                throw new IllegalArgumentException("The field \"" + name + "\" already exists");
+            }
+
+            this.fieldNames.add(name);
+            this.fieldLabels.add(label);
+            this.fieldTypes.add(type);
+            this.fieldBytes.add(bytes);
+            return this;
+        }
+
+        public FlightEventType build() {
+            return new FlightEventType(this);
+        }
+    }
+
+    private final String name;
+    private final Map<String, Integer> fieldIndices = new HashMap<>();
+    private final List<Class<?>> fieldTypes;
+
+    // The jdk.jfr.EventFactory and jdk.jfr.EventType of the events, or null if there is no Flight Recorder.
+    private final Object factory;
+    private final Object type;
+
+    private FlightEventType(Builder builder) {
+
+        this.name = builder.name;
+        this.fieldTypes = Collections.unmodifiableList(new ArrayList<>(builder.fieldTypes));
+
+        for (int i = 0; i < builder.fieldNames.size(); i++) {
+            this.fieldIndices.put(builder.fieldNames.get(i), i);
+        }
+
+        Object factory = null;
+        Object type = null;
+
+        if (CREATE_FACTORY != null) {
+            try {
+
+                List<Object> annotations = new ArrayList<>();
+                annotations.add(NEW_ANNOTATION_ELEMENT.invoke(NAME, builder.name));
+                annotations.add(NEW_ANNOTATION_ELEMENT.invoke(LABEL, builder.label));
+                annotations.add(NEW_ANNOTATION_ELEMENT.invoke(CATEGORY_ANNOTATION, builder.category));
+
+                if (builder.description != null) {
+                    annotations.add(NEW_ANNOTATION_ELEMENT.invoke(DESCRIPTION, builder.description));
+                }
+
+                List<Object> fields = new ArrayList<>();
+
+                for (int i = 0; i < builder.fieldNames.size(); i++) {
+
+                    List<Object> fieldAnnotations = new ArrayList<>();
+                    fieldAnnotations.add(NEW_ANNOTATION_ELEMENT.invoke(LABEL, builder.fieldLabels.get(i)));
+
+                    if (builder.fieldBytes.get(i)) {
+                        fieldAnnotations.add(NEW_ANNOTATION_ELEMENT.invoke(DATA_AMOUNT, "BYTES"));
+                    }
+
+                    fields.add(NEW_VALUE_DESCRIPTOR.invoke(builder.fieldTypes.get(i), builder.fieldNames.get(i),
+                            fieldAnnotations));
+                }
+
+                factory = CREATE_FACTORY.invoke(annotations, fields);
+                type = GET_EVENT_TYPE.invoke(factory);
+
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to define the flight recorder event \"" + builder.name
+                        + "\"", e);
+            }
+        }
+
+        this.factory = factory;
+        this.type = type;
+    }
+
+    /**
+     * @param name The name of the type, which is how recordings refer to it, e.g.
+     *             <code>com.timetablegenerator.Request</code>.
+     * @param label The name of the type for display.
+     * @return A builder of the type.
+     */
+    public static Builder builder(String name, String label) {
+        return new Builder(name, label);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return Whether a recording is taking events of this type.
+     */
+    public boolean isEnabled() {
+
+        if (this.type == null) {
+            return false;
+        }
+
+        try {
+            return (boolean) IS_ENABLED.invoke(this.type);
+        } catch (Throwable e) {
+            throw FlightEvent.propagate(e);
+        }
+    }
+
+    /**
+     * Starts timing an event, which ends when it is committed.
+     *
+     * @return The event, which does nothing if no recording is taking events of this type.
+     */
+    public FlightEvent begin() {
+
+        if (!this.isEnabled()) {
+            return FlightEvent.DISABLED;
+        }
+
+        try {
+            Object event = NEW_EVENT.invoke(this.factory);
+            BEGIN.invoke(event);
+            return new FlightEvent(this, event);
+        } catch (Throwable e) {
+            throw FlightEvent.propagate(e);
+        }
+    }
+
+    int getFieldIndex(String field) {
+
+        Integer index = this.fieldIndices.get(field);
+
+        if (index == null) {
+            throw new IllegalArgumentException("The event \"" + this.name + "\" has no field \"" + field + "\"");
+        }
+
+        return index;
+    }
+
+    Class<?> getFieldType(int index) {
+        return this.fieldTypes.get(index);
+    }
+}
@@ -0,0 +1,103 @@
+package com.timetablegenerator.benchmarks;
+
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.model.range.DateRange;
+import com.timetablegenerator.model.range.DayTimeRange;
+import com.timetablegenerator.serializer.model.SerializerContext;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Random;
+
+/**
+ * Generates synthetic timetables shaped like a scraped catalogue, for the benchmarks to work on.
+ *
+ * The structure of a catalogue, its course codes, section IDs and period times, depends only on its size, so two
+ * catalogues of the same size describe the same courses. What varies with the seed is the serial number, enrollment,
+ * rooms and supervisors of the sections of one course in ten, so that comparing two catalogues finds differences as a re-scrape
+ * would.
+ */
+final class Catalogue {
+
+    static final School SCHOOL = School.builder("bench", "Benchmark University")
+            .withSection("LEC", "Lecture")
+            .withSection("TUT", "Tutorial")
+            .withSection("LAB", "Laboratory").build();
+
+    static final Term TERM = TermDefinition.builder("fall", "Fall", 1).build().createForYear(2016);
+
+    private static final String[] SECTION_TYPES = {"LEC", "TUT", "LAB"};
+    private static final int DEPARTMENT_COUNT = 20;
+
+    static final Department[] DEPARTMENTS = new Department[DEPARTMENT_COUNT];
+
+    static {
+        for (int i = 0; i < DEPARTMENT_COUNT; i++)
+            DEPARTMENTS[i] = Department.of("D" + i, "Department " + i);
+    }
+
+    private static final DateRange ACTIVE_DATES = DateRange.of(LocalDate.of(2016, 9, 6), LocalDate.of(2016, 12, 7));
+
+    private Catalogue() {
+    }
+
+    static SerializerContext context() {
+        return SerializerContext.of(SCHOOL, new Term[]{TERM}, DEPARTMENTS);
+    }
+
+    /**
+     * @param courses The number of courses.
+     * @param sectionsPerType The number of sections of each of the lecture, tutorial and lab types of every course.
+     * @param periodsPerSection The number of weekly periods of every section, up to 60.
+     * @param seed What the sections of one course in ten are drawn from.
+     * @return The catalogue.
+     */
+    static TimeTable generate(int courses, int sectionsPerType, int periodsPerSection, long seed) {
+
+        // Each period of a section needs a time of its own, and there are 12 hours across 5 days to go around.
+        if (periodsPerSection > 60)
+            throw new IllegalArgumentException("Invalid periods per section: " + periodsPerSection);
+
+        TimeTable timeTable = TimeTable.of(SCHOOL, TERM);
+
+        int sections = 0;
+
+        for (int i = 0; i < courses; i++) {
+
+            Course course = Course.of(SCHOOL, TERM, DEPARTMENTS[i % DEPARTMENT_COUNT], "C" + i, "Course " + i)
+                    .setDescription("An introduction to the topics of course " + i + ".")
+                    .setCredits((i % 4 + 1) * 0.5);
+
+            for (String type : SECTION_TYPES)
+                for (int j = 0; j < sectionsPerType; j++, sections++)
+                    course.addSection(type, section(type.charAt(0) + String.valueOf(j), periodsPerSection,
+                            new Random(i % 10 == 0 ? sections ^ seed << 32 : sections)));
+
+            timeTable.addCourse(course);
+        }
+
+        return timeTable;
+    }
+
+    private static Section section(String id, int periods, Random random) {
+
+        int maximum = 20 + random.nextInt(8) * 10;
+
+        Section section = Section.of(TERM, id)
+                .setSerialNumber(String.valueOf(random.nextInt(100000)))
+                .setMaximumEnrollment(maximum)
+                .setEnrollment(random.nextInt(maximum + 1));
+
+        for (int k = 0; k < periods; k++)
+            section.addPeriod(RepeatingPeriod.of(TERM)
+                    .setDayTimeRange(DayTimeRange.of(DayOfWeek.of(k % 5 + 1), LocalTime.of(8 + (k / 5) % 12, 0),
+                            LocalTime.of(8 + (k / 5) % 12, 50)))
+                    .setActiveDateRange(ACTIVE_DATES)
+                    .setRoom("Room " + random.nextInt(40))
+                    .addSupervisors("Instructor " + random.nextInt(200)));
+
+        return section;
+    }
+}
@@ -0,0 +1,34 @@
+package com.timetablegenerator.benchmarks;
+
+import com.timetablegenerator.model.TimeTable;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A catalogue of a given size, along with an equal copy of it and a re-scrape of it that differs in some sections.
+ */
+@State(Scope.Benchmark)
+public class CatalogueState {
+
+    @Param({"100", "1000"})
+    public int courseCount;
+
+    @Param({"1", "4"})
+    public int sectionsPerType;
+
+    @Param({"2"})
+    public int periodsPerSection;
+
+    TimeTable timeTable;
+    TimeTable copy;
+    TimeTable rescrape;
+
+    @Setup
+    public void setUp() {
+        this.timeTable = Catalogue.generate(this.courseCount, this.sectionsPerType, this.periodsPerSection, 1);
+        this.copy = Catalogue.generate(this.courseCount, this.sectionsPerType, this.periodsPerSection, 1);
+        this.rescrape = Catalogue.generate(this.courseCount, this.sectionsPerType, this.periodsPerSection, 2);
+    }
+}
@@ -0,0 +1,32 @@
+package com.timetablegenerator.benchmarks;
+
+import com.timetablegenerator.delta.StructureDelta;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finding the differences between a catalogue and a re-scrape of it, and between a catalogue and an equal copy.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiffBenchmarks {
+
+    @Benchmark
+    public StructureDelta unchanged(CatalogueState state) {
+        return state.timeTable.findDifferences(state.copy);
+    }
+
+    @Benchmark
+    public StructureDelta changed(CatalogueState state) {
+        return state.timeTable.findDifferences(state.rescrape);
+    }
+
+    @Benchmark
+    public StructureDelta changedParallel(CatalogueState state) {
+        return state.timeTable.findDifferences(state.rescrape, true);
+    }
+}
@@ -0,0 +1,65 @@
+package com.timetablegenerator.benchmarks;
+
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.TimeTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building catalogues and the object methods every collection of them leans on.
+ *
+ * The object methods are measured over every course of a catalogue rather than on the timetable itself, as a
+ * timetable's own only compare its course collection by identity and only print a summary.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmarks {
+
+    @Benchmark
+    public TimeTable build(CatalogueState state) {
+        return Catalogue.generate(state.courseCount, state.sectionsPerType, state.periodsPerSection, 1);
+    }
+
+    @Benchmark
+    public int equalsCopy(CatalogueState state) {
+        return countEqual(state.timeTable, state.copy);
+    }
+
+    @Benchmark
+    public int equalsRescrape(CatalogueState state) {
+        return countEqual(state.timeTable, state.rescrape);
+    }
+
+    private static int countEqual(TimeTable timeTable, TimeTable other) {
+
+        int equal = 0;
+
+        for (Course course : timeTable.getCourses())
+            if (course.equals(other.getCourse(course.getUniqueId()).orElse(null)))
+                equal++;
+
+        return equal;
+    }
+
+    @Benchmark
+    public int hashCode(CatalogueState state) {
+
+        int hash = 0;
+
+        for (Course course : state.timeTable.getCourses())
+            hash = 31 * hash + course.hashCode();
+
+        return hash;
+    }
+
+    @Benchmark
+    public void toString(CatalogueState state, Blackhole blackhole) {
+        for (Course course : state.timeTable.getCourses())
+            blackhole.consume(course.toString());
+    }
+}
@@ -0,0 +1,85 @@
+package com.timetablegenerator.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.TimeTable;
+import com.timetablegenerator.serializer.model.CourseSerializer;
+import com.timetablegenerator.serializer.model.SerializerContext;
+import com.timetablegenerator.serializer.stream.TimeTableReader;
+import com.timetablegenerator.serializer.stream.TimeTableWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing catalogues out as JSON and reading them back in, both as a whole through the streaming writer and reader and
+ * one course at a time through the course serializer.
+ *
+ * The round trip is taken through {@link TimeTableReader} rather than the timetable serializer, as the latter's course
+ * ID check currently rejects every timetable that has courses in it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmarks {
+
+    @State(Scope.Benchmark)
+    public static class Written {
+
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final TimeTableWriter writer = TimeTableWriter.of(this.objectMapper);
+
+        SerializerContext context;
+        TimeTableReader reader;
+        byte[] json;
+
+        @Setup
+        public void setUp(CatalogueState state) throws IOException {
+            this.context = Catalogue.context();
+            this.reader = TimeTableReader.of(this.objectMapper, this.context);
+            this.json = write(this.writer, state.timeTable);
+        }
+    }
+
+    private static byte[] write(TimeTableWriter writer, TimeTable timeTable) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(timeTable, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] write(CatalogueState state, Written written) throws IOException {
+        return write(written.writer, state.timeTable);
+    }
+
+    @Benchmark
+    public void read(Written written, Blackhole blackhole) throws IOException {
+        written.reader.read(new ByteArrayInputStream(written.json), blackhole::consume);
+    }
+
+    @Benchmark
+    public TimeTable roundTrip(CatalogueState state, Written written) throws IOException {
+
+        TimeTable timeTable = TimeTable.of(Catalogue.SCHOOL, Catalogue.TERM);
+        written.reader.read(new ByteArrayInputStream(write(written.writer, state.timeTable)), timeTable::addCourse);
+
+        return timeTable;
+    }
+
+    @Benchmark
+    public void courseRoundTrip(CatalogueState state, Written written, Blackhole blackhole) throws IOException {
+
+        for (Course course : state.timeTable.getCourses()) {
+
+            byte[] json = written.objectMapper.writeValueAsBytes(new CourseSerializer().fromInstance(course));
+            blackhole.consume(written.objectMapper.readValue(json, CourseSerializer.class)
+                    .toInstance(written.context));
+        }
+    }
+}
@@ -3,7 +3,8 @@ set -e -u
 
 code_dir="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
 
-docker run --volume "${code_dir}:/code" \
-           -e "GRADLE_USER_HOME=/code/.gradle" \
-           -w "/code" --rm java:8 ./gradlew clean jar
+# The whole repository is mounted, as the scrapers build the Flight Recorder events from the model's directory.
+docker run --volume "${code_dir}/..:/code" \
+           -e "GRADLE_USER_HOME=/code/scrapers/.gradle" \
+           -w "/code/scrapers" --rm java:8 ./gradlew clean jar
 
@@ -5,6 +5,7 @@ import com.timetablegenerator.model.School;
 import com.timetablegenerator.model.Term;
 import com.timetablegenerator.model.TimeTable;
 import com.timetablegenerator.scraper.annotation.LegacySchool;
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
 import com.timetablegenerator.scraper.serialize.JsonGenerator;
 import com.timetablegenerator.scraper.serialize.LegacyJsonGenerator;
 import org.apache.logging.log4j.LogManager;
@@ -13,6 +14,7 @@ import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.Option;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -28,21 +30,45 @@ public class Console {
     private String legacyJsonOutput;
 
     @SuppressWarnings("unused")
-    @Option(name="-jo", aliases = "-json-output", required = true,
+    @Option(name="-jo", aliases = "-json-output", required = false,
             usage = "The path of the V2 JSON file to write.")
     private String jsonOutput;
 
     @SuppressWarnings("unused")
-    @Option(name="-s", aliases = "-school", required = true,
-            usage = "The school to scrape data for.")
-    private String school;
+    @Option(name="-s", aliases = "-school", required = false,
+            usage = "The school to scrape data for. May be given more than once with -output-directory.")
+    private List<String> schools = new ArrayList<>();
+
+    @SuppressWarnings("unused")
+    @Option(name="-a", aliases = "-all-schools", required = false,
+            usage = "Scrape data for every school, with -output-directory.")
+    private boolean allSchools;
+
+    @SuppressWarnings("unused")
+    @Option(name="-od", aliases = "-output-directory", required = false,
+            usage = "The directory to write a V2 JSON file for each school and term to, as each is scraped.")
+    private String outputDirectory;
+
+    @SuppressWarnings("unused")
+    @Option(name="-p", aliases = "-parallelism", required = false,
+            usage = "The number of schools and terms to scrape at once, with -output-directory.")
+    private int parallelism = DEFAULT_PARALLELISM;
+
+    @SuppressWarnings("unused")
+    @Option(name="-mo", aliases = "-metrics-output", required = false,
+            usage = "The directory to write the timings, bytes and counts of the scrape to once it is done. This "
+                    + "defaults to the -output-directory, if there is one.")
+    private String metricsOutputDirectory;
 
     @SuppressWarnings("unused")
     @Option(name="-h", aliases = "--help", help = true)
     private boolean help;
 
+    private static final int DEFAULT_PARALLELISM = 4;
+
     private static final String USAGE =
-            "Usage: java -jar <jar name>.jar -s SCHOOL_NAME -jo|--json-output PATH_TO_JSON_FILE [-jlo|--json-legacy-output PATH_TO_JSON_FILE";
+            "Usage: java -jar <jar name>.jar -s SCHOOL_NAME -jo|--json-output PATH_TO_JSON_FILE [-jlo|--json-legacy-output PATH_TO_JSON_FILE [-mo|--metrics-output PATH_TO_DIRECTORY]\n" +
+            "       java -jar <jar name>.jar -s SCHOOL_NAME [-s SCHOOL_NAME ...]|-a -od|--output-directory PATH_TO_DIRECTORY [-p|--parallelism N] [-mo|--metrics-output PATH_TO_DIRECTORY]";
 
     public static void main(String[] args) throws Throwable {
 
@@ -72,6 +98,16 @@ public class Console {
             return;
         }
 
+        if (consoleArguments.outputDirectory != null) {
+            orchestrate(scraperFactory, consoleArguments);
+            return;
+        }
+
+        if (consoleArguments.schools.size() != 1)
+            throw new IllegalArgumentException("Exactly one school must be specified [-s] without an output directory [-od]");
+
+        String schoolId = consoleArguments.schools.get(0);
+
         boolean doLegacy = consoleArguments.legacyJsonOutput != null;
         boolean doModern = consoleArguments.jsonOutput != null;
 
@@ -79,12 +115,12 @@ public class Console {
             throw new IllegalArgumentException("At least one output must be specified [-jo,-jlo]");
         }
 
-        Scraper scraper = scraperFactory.getScraper(consoleArguments.school)
-                .orElseThrow(() -> new IllegalArgumentException("Unknown school \"" + consoleArguments.school + "\""));
+        Scraper scraper = scraperFactory.getScraper(schoolId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown school \"" + schoolId + "\""));
 
         School school = scraper.getSchool();
 
-        Optional<LegacySchool> optionalLegacyConfig = scraperFactory.getLegacyConfig(consoleArguments.school);
+        Optional<LegacySchool> optionalLegacyConfig = scraperFactory.getLegacyConfig(schoolId);
         LegacySchool legacyConfig;
 
         if (doLegacy) {
@@ -117,19 +153,40 @@ public class Console {
         System.out.println("Beginning content extraction for the school \"" + school.getSchoolName() + "\"...");
         System.out.println();
 
-        Set<Term> availableTerms = scraper.findAvailableTerms();
+        Map<Term, TimeTable> timeTables = new HashMap<>();
 
-        if (doLegacy && !availableTerms.contains(legacyConfig.getTerm())) {
-            throw new IllegalStateException("Expected legacy term " + legacyConfig.getTerm()
-                    + " is not available for school \"" + school.getSchoolId() + "\"");
-        }
+        try {
 
-        Map<Term, TimeTable> timeTables = new HashMap<>();
+            Set<Term> availableTerms;
+
+            ScrapeMetrics.Binding schoolBinding = ScrapeMetrics.school(schoolId);
+
+            try {
+                availableTerms = scraper.findAvailableTerms();
+            } finally {
+                schoolBinding.close();
+            }
+
+            if (doLegacy && !availableTerms.contains(legacyConfig.getTerm())) {
+                throw new IllegalStateException("Expected legacy term " + legacyConfig.getTerm()
+                        + " is not available for school \"" + school.getSchoolId() + "\"");
+            }
+
+            for (Term term : availableTerms) {
+
+                LOGGER.info("Retrieving timetable for term: " + term);
 
-        for (Term term : availableTerms) {
+                ScrapeMetrics.Binding termBinding = ScrapeMetrics.scrape(schoolId, term);
 
-            LOGGER.info("Retrieving timetable for term: " + term);
-            timeTables.put(term, scraper.retrieveTimetable(term));
+                try {
+                    timeTables.put(term, scraper.retrieveTimetable(term));
+                } finally {
+                    termBinding.close();
+                }
+            }
+
+        } finally {
+            writeMetrics(consoleArguments.metricsOutputDirectory);
         }
 
         if (doLegacy) {
@@ -148,6 +205,59 @@ public class Console {
         }
     }
 
+    private static void orchestrate(ScraperFactory scraperFactory, Console consoleArguments) throws Throwable {
+
+        if (consoleArguments.legacyJsonOutput != null || consoleArguments.jsonOutput != null)
+            throw new IllegalArgumentException("An output directory [-od] cannot be combined with output files [-jo,-jlo]");
+
+        Collection<String> schoolIds = consoleArguments.allSchools
+                ? scraperFactory.getSchoolIds()
+                : new LinkedHashSet<>(consoleArguments.schools);
+
+        if (schoolIds.isEmpty())
+            throw new IllegalArgumentException("At least one school must be specified [-s,-a]");
+
+        Path outputDirectory = Paths.get(consoleArguments.outputDirectory);
+        Files.createDirectories(outputDirectory);
+
+        System.out.println("Beginning content extraction for the schools " + schoolIds + " into directory ["
+                + outputDirectory.toAbsolutePath() + "]...");
+        System.out.println();
+
+        int failures;
+
+        try {
+            failures = new ScrapeOrchestrator(scraperFactory, outputDirectory, consoleArguments.parallelism)
+                    .run(schoolIds);
+        } finally {
+            writeMetrics(consoleArguments.metricsOutputDirectory != null
+                    ? consoleArguments.metricsOutputDirectory
+                    : consoleArguments.outputDirectory);
+        }
+
+        if (failures > 0) {
+            System.err.println(failures + " school(s) or term(s) failed to be scraped.");
+            System.exit(2);
+        }
+    }
+
+    // Metrics are written even when the scrape fails, as they are most wanted then. Failing to write them only logs.
+    private static void writeMetrics(String directory) {
+
+        if (directory == null)
+            return;
+
+        Path path = Paths.get(directory);
+
+        System.out.println("Writing the scrape metrics to directory [" + path.toAbsolutePath() + "]...");
+
+        try {
+            ScrapeMetrics.write(path);
+        } catch (IOException e) {
+            LOGGER.error("Failed to write the scrape metrics to directory [" + path.toAbsolutePath() + "]", e);
+        }
+    }
+
     private static void setupAndCheckValidity(Path p) throws Throwable {
 
         if (Files.isDirectory(p)) {
@@ -0,0 +1,27 @@
+package com.timetablegenerator.scraper;
+
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.Department;
+import com.timetablegenerator.model.Term;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A scraper that can read the courses of a department from its pages as the school served them, without going to
+ * the network. The pages go through the same parsing as they do in a scrape.
+ */
+public interface DepartmentPageParser {
+
+    /**
+     * @param term The term the pages were served for.
+     * @param department The department the pages list.
+     * @param pages The bodies of the department's pages, in the order the scraper requests them.
+     * @return The courses listed.
+     * @throws IOException If a page could not be read.
+     */
+    Collection<Course> parseDepartmentPages(Term term, Department department, List<InputStream> pages)
+            throws IOException;
+}
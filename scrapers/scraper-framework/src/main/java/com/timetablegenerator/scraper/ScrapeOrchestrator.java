@@ -0,0 +1,144 @@
+package com.timetablegenerator.scraper;
+
+import com.google.gson.JsonObject;
+import com.timetablegenerator.model.School;
+import com.timetablegenerator.model.Term;
+import com.timetablegenerator.model.TimeTable;
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
+import com.timetablegenerator.scraper.serialize.JsonGenerator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scrapes every available term of a number of schools at once. The terms of every school are found first, and then
+ * each term is scraped on its own, with no more than a set number of schools and terms being worked on at any time.
+ *
+ * The JSON for each term is written as soon as the term has been scraped, to
+ * <code>&lt;output directory&gt;/&lt;school ID&gt;/&lt;year&gt;_&lt;term&gt;.json</code>, after which its timetable is
+ * no longer held on to. A school or term that fails is logged and does not stop the others.
+ *
+ * Each school and term is scraped under its labels in {@link ScrapeMetrics}, which also times every term and counts
+ * the failures of each school.
+ */
+final class ScrapeOrchestrator {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final ScraperFactory scraperFactory;
+    private final Path outputDirectory;
+    private final int parallelism;
+
+    private final AtomicInteger failures = new AtomicInteger();
+
+    ScrapeOrchestrator(ScraperFactory scraperFactory, Path outputDirectory, int parallelism) {
+
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+
+        this.scraperFactory = scraperFactory;
+        this.outputDirectory = outputDirectory;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Scrapes the schools, returning once all of them are done.
+     *
+     * @param schoolIds The IDs of the schools to scrape.
+     * @return The number of schools and terms that failed.
+     * @throws IllegalArgumentException If any of the schools is unknown.
+     */
+    int run(Collection<String> schoolIds) {
+
+        for (String schoolId : schoolIds)
+            if (!this.scraperFactory.getScraper(schoolId).isPresent())
+                throw new IllegalArgumentException("Unknown school \"" + schoolId + "\"");
+
+        ExecutorService executor = Executors.newFixedThreadPool(this.parallelism);
+
+        try {
+            CompletableFuture.allOf(schoolIds.stream()
+                    .map(x -> CompletableFuture.supplyAsync(() -> this.findTerms(x), executor)
+                            .thenCompose(y -> CompletableFuture.allOf(y.stream()
+                                    .map(z -> CompletableFuture.runAsync(() -> this.scrape(x, z), executor))
+                                    .toArray(CompletableFuture[]::new))))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+        } finally {
+            executor.shutdown();
+        }
+
+        return this.failures.get();
+    }
+
+    private Set<Term> findTerms(String schoolId) {
+
+        ScrapeMetrics.Binding binding = ScrapeMetrics.school(schoolId);
+
+        try {
+
+            Set<Term> terms = this.newScraper(schoolId).findAvailableTerms();
+            LOGGER.info("Found " + terms.size() + " terms for school \"" + schoolId + "\": " + terms);
+
+            return terms;
+
+        } catch (IOException | RuntimeException e) {
+
+            LOGGER.error("Failed to find the terms of school \"" + schoolId + "\"", e);
+            this.failures.incrementAndGet();
+            ScrapeMetrics.SCRAPE_FAILURES.labels(schoolId).increment();
+
+            return Collections.emptySet();
+        } finally {
+            binding.close();
+        }
+    }
+
+    private void scrape(String schoolId, Term term) {
+
+        ScrapeMetrics.Binding binding = ScrapeMetrics.scrape(schoolId, term);
+
+        try {
+
+            // Scrapers are not made to scrape several terms at once, so every term gets one of its own.
+            Scraper scraper = this.newScraper(schoolId);
+            School school = scraper.getSchool();
+
+            LOGGER.info("Retrieving timetable for school \"" + schoolId + "\", term: " + term);
+            TimeTable timeTable = scraper.retrieveTimetable(term);
+
+            Path path = this.outputDirectory.resolve(schoolId)
+                    .resolve(term.getYear() + "_" + term.getTermId().name().toLowerCase() + ".json");
+            Files.createDirectories(path.getParent());
+
+            JsonObject rootJson = JsonGenerator.INSTANCE.toJson(school, Collections.singletonList(timeTable));
+            Files.write(path, rootJson.toString().getBytes(StandardCharsets.UTF_8));
+
+            LOGGER.info("Wrote " + timeTable.getCourses().size() + " courses for school \"" + schoolId + "\", term "
+                    + term + " to path [" + path.toAbsolutePath() + "]");
+
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Failed to scrape school \"" + schoolId + "\", term " + term, e);
+            this.failures.incrementAndGet();
+            ScrapeMetrics.SCRAPE_FAILURES.labels(schoolId).increment();
+        } finally {
+            binding.close();
+        }
+    }
+
+    private Scraper newScraper(String schoolId) {
+        return this.scraperFactory.getScraper(schoolId)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown school \"" + schoolId + "\""));
+    }
+}
@@ -3,9 +3,11 @@ package com.timetablegenerator.scraper;
 import com.timetablegenerator.scraper.annotation.LegacySchool;
 
 import java.util.Optional;
+import java.util.Set;
 
 public interface ScraperFactory {
 
     Optional<Scraper> getScraper(String schoolId);
     Optional<LegacySchool> getLegacyConfig(String schoolId);
+    Set<String> getSchoolIds();
 }
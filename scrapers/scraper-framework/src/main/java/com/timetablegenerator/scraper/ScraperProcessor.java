@@ -214,6 +214,15 @@ public class ScraperProcessor extends AbstractProcessor {
                                         Optional.class, Optional.class)
                                 .build()
                 )
+                .addMethod(
+                        MethodSpec.methodBuilder("getSchoolIds")
+                                .addModifiers(Modifier.PUBLIC)
+                                .addAnnotation(Override.class)
+                                .returns(ParameterizedTypeName.get(Set.class, String.class))
+                                .addStatement("return $T.unmodifiableSet(new $T<>(this.schoolMap.keySet()))",
+                                        Collections.class, TreeSet.class)
+                                .build()
+                )
                 .build();
 
         JavaFile javaFile = JavaFile.builder(
@@ -0,0 +1,352 @@
+package com.timetablegenerator.scraper.checkpoint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.Department;
+import com.timetablegenerator.model.School;
+import com.timetablegenerator.model.Term;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A journal of the departments of a term that have been scraped so far, along with their courses, so that a scrape
+ * that dies part of the way through can pick up where it left off instead of starting over.
+ *
+ * Each department is appended to the journal as soon as it is done, and the journal is deleted once the whole term
+ * is. A scrape that finds a journal left behind by an earlier one skips the departments in it and takes their courses
+ * from it instead, so long as the journal is recent enough for them to still be current:
+ *
+ * <pre>
+ * try (CheckpointJournal journal = CheckpointJournal.open(getSchool(), term)) {
+ *
+ *     for (Department department : departments) {
+ *
+ *         if (journal.restore(department, timeTable::addCourse))
+ *             continue;
+ *
+ *         Collection&lt;Course&gt; courses = scrapeDepartment(department);
+ *         courses.forEach(timeTable::addCourse);
+ *
+ *         journal.complete(department, courses);
+ *     }
+ *
+ *     journal.finish();
+ * }
+ * </pre>
+ *
+ * Journals are kept under <code>&lt;directory&gt;/&lt;school ID&gt;/</code>, where the directory defaults to
+ * <code>.scrape-checkpoints</code>, and are used for twelve hours by default. Both can be set with
+ * {@link #configure(Path, long, TimeUnit)} or the system properties <code>ttg.checkpoint.directory</code> and
+ * <code>ttg.checkpoint.max-age-minutes</code>. A maximum age of zero turns checkpoints off.
+ *
+ * A journal holds one JSON object per line: a header naming the school and term and when the scrape started, followed
+ * by one line per department done. A line cut short by the scrape dying as it was written is dropped, along with any
+ * after it, while a journal whose header cannot be read is refused rather than overwritten.
+ */
+public final class CheckpointJournal implements Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final String DEFAULT_DIRECTORY = ".scrape-checkpoints";
+    private static final long DEFAULT_MAX_AGE_MINUTES = TimeUnit.HOURS.toMinutes(12);
+
+    private static volatile Path directory =
+            Paths.get(System.getProperty("ttg.checkpoint.directory", DEFAULT_DIRECTORY));
+    private static volatile long maxAgeMillis = TimeUnit.MINUTES.toMillis(
+            Long.getLong("ttg.checkpoint.max-age-minutes", DEFAULT_MAX_AGE_MINUTES));
+
+    private final Path path;
+    private final CourseCodec codec;
+    private final Map<String, Collection<Course>> restored;
+
+    private FileChannel channel;
+
+    private CheckpointJournal(Path path, CourseCodec codec, Map<String, Collection<Course>> restored) {
+        this.path = path;
+        this.codec = codec;
+        this.restored = restored;
+    }
+
+    /**
+     * Sets where journals are kept and for how long they are used, for every journal opened from now on.
+     *
+     * @param directory The directory journals are kept in.
+     * @param maxAge How long after a scrape started its journal is still used by the scrapes after it.
+     * @param unit The unit of the maximum age.
+     */
+    public static void configure(Path directory, long maxAge, TimeUnit unit) {
+
+        if (maxAge < 0)
+            throw new IllegalArgumentException("Invalid maximum age: " + maxAge);
+
+        CheckpointJournal.directory = directory;
+        CheckpointJournal.maxAgeMillis = unit.toMillis(maxAge);
+    }
+
+    /**
+     * Opens the journal of a term, reading back whatever an earlier scrape of it left behind.
+     *
+     * @param school The school being scraped.
+     * @param term The term being scraped.
+     * @return The journal.
+     * @throws IOException If the journal could not be read or started.
+     */
+    public static CheckpointJournal open(School school, Term term) throws IOException {
+        return open(school, term, name(term) + ".journal");
+    }
+
+    /**
+     * Opens the journal of a term scraped as part of a larger one, such as either half of a full year, which is kept
+     * apart from the journal of the same term scraped on its own.
+     *
+     * @param school The school being scraped.
+     * @param term The term being scraped.
+     * @param parent The term it is being scraped as part of.
+     * @return The journal.
+     * @throws IOException If the journal could not be read or started.
+     */
+    public static CheckpointJournal open(School school, Term term, Term parent) throws IOException {
+        return open(school, term, name(term) + "_of_" + name(parent) + ".journal");
+    }
+
+    private static String name(Term term) {
+        return term.getYear() + "_" + term.getTermId().name().toLowerCase()
+                + (term.getKey() == null ? "" : "_" + term.getKey().replaceAll("[^A-Za-z0-9]", "-"));
+    }
+
+    private static CheckpointJournal open(School school, Term term, String name) throws IOException {
+
+        Path path = directory.resolve(school.getSchoolId()).resolve(name);
+        CourseCodec codec = new CourseCodec(school);
+
+        if (maxAgeMillis == 0)
+            return new CheckpointJournal(null, codec, Collections.emptyMap());
+
+        Map<String, Collection<Course>> restored = read(path, codec);
+
+        if (restored == null) {
+
+            JsonObject header = new JsonObject();
+            header.addProperty("school", school.getSchoolId());
+            header.addProperty("term", term.toString());
+            header.addProperty("started", System.currentTimeMillis());
+
+            Files.createDirectories(path.getParent());
+            Files.deleteIfExists(path);
+
+            CheckpointJournal journal = new CheckpointJournal(path, codec, Collections.emptyMap());
+            journal.append(header);
+
+            return journal;
+        }
+
+        LOGGER.info("Resuming from checkpoint [" + path + "] with " + restored.size() + " departments done.");
+
+        return new CheckpointJournal(path, codec, restored);
+    }
+
+    // Reads back the departments of a journal, or returns null if there is no journal recent enough to use.
+    private static Map<String, Collection<Course>> read(Path path, CourseCodec codec) throws IOException {
+
+        byte[] bytes;
+
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        // Every line written is ended, so whatever follows the last line break was cut short. Lines are decoded one
+        // at a time, as the part of a character that was cut short cannot be decoded.
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        List<JsonObject> entries = new ArrayList<>();
+        int kept = 0;
+
+        for (int end = 0; end < bytes.length; end++) {
+
+            if (bytes[end] != '\n')
+                continue;
+
+            JsonObject entry = parse(decoder, bytes, kept, end);
+
+            if (entries.isEmpty() && !isHeader(entry))
+                throw new IOException("Checkpoint [" + path + "] does not start with a valid header, and must be "
+                        + "deleted before the term can be scraped again");
+
+            if (!entries.isEmpty() && !isDepartment(entry))
+                break;
+
+            entries.add(entry);
+            kept = end + 1;
+        }
+
+        if (kept < bytes.length)
+            LOGGER.warn("Dropping the unreadable end of checkpoint [" + path + "]");
+
+        if (entries.isEmpty() || entries.get(0).get("started").getAsLong() + maxAgeMillis < System.currentTimeMillis())
+            return null;
+
+        // The courses of every department are read back together, so that requisites and cross-listings between
+        // departments are linked up again, and are then handed back out to their departments.
+        List<JsonObject> coursesJson = new ArrayList<>();
+
+        for (JsonObject entry : entries.subList(1, entries.size()))
+            for (JsonElement courseJson : entry.getAsJsonArray("courses"))
+                coursesJson.add(courseJson.getAsJsonObject());
+
+        List<Course> courses = codec.decode(coursesJson);
+        Map<String, Collection<Course>> restored = new HashMap<>();
+        int start = 0;
+
+        for (JsonObject entry : entries.subList(1, entries.size())) {
+
+            int end = start + entry.getAsJsonArray("courses").size();
+
+            restored.put(entry.get("department").getAsString(), new ArrayList<>(courses.subList(start, end)));
+            start = end;
+        }
+
+        // The file is written back without whatever was cut short, and with every line ended, so that what is
+        // appended next starts on a line of its own.
+        Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+        try {
+            Files.write(temporary, Arrays.copyOf(bytes, kept));
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+
+        return restored;
+    }
+
+    // Parses the line between two offsets, or returns null if it is not a JSON object.
+    private static JsonObject parse(CharsetDecoder decoder, byte[] bytes, int from, int to) {
+
+        try {
+            JsonElement element = JsonParser.parseString(decoder.decode(ByteBuffer.wrap(bytes, from, to - from))
+                    .toString());
+
+            return element.isJsonObject() ? element.getAsJsonObject() : null;
+        } catch (CharacterCodingException | JsonParseException e) {
+            return null;
+        }
+    }
+
+    private static boolean isHeader(JsonObject entry) {
+        return entry != null && entry.get("started") instanceof JsonPrimitive
+                && entry.getAsJsonPrimitive("started").isNumber();
+    }
+
+    private static boolean isDepartment(JsonObject entry) {
+        return entry != null && entry.get("department") instanceof JsonPrimitive
+                && entry.get("courses") instanceof JsonArray;
+    }
+
+    /**
+     * Hands over the courses of a department if an earlier scrape already did it.
+     *
+     * @param department The department.
+     * @param consumer What to do with each of the department's courses.
+     * @return Whether the department was done, in which case it does not need to be scraped again.
+     */
+    public boolean restore(Department department, Consumer<Course> consumer) {
+
+        Collection<Course> courses = this.restored.get(department.getCode());
+
+        if (courses == null)
+            return false;
+
+        courses.forEach(consumer);
+        LOGGER.info("-> Restored " + courses.size() + " courses under \"" + department.getName()
+                + "\" (" + department.getCode() + ") from checkpoint");
+
+        return true;
+    }
+
+    /**
+     * Records a department as done. The record is on disk by the time this returns.
+     *
+     * @param department The department.
+     * @param courses The courses of the department.
+     * @throws IOException If the record could not be written.
+     */
+    public synchronized void complete(Department department, Collection<Course> courses) throws IOException {
+
+        if (this.path == null)
+            return;
+
+        JsonArray coursesJson = new JsonArray();
+        courses.forEach(x -> coursesJson.add(this.codec.encode(x)));
+
+        JsonObject entry = new JsonObject();
+        entry.addProperty("department", department.getCode());
+        entry.add("courses", coursesJson);
+
+        this.append(entry);
+    }
+
+    private void append(JsonObject entry) throws IOException {
+
+        if (this.channel == null)
+            this.channel = FileChannel.open(this.path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+
+        ByteBuffer buffer = ByteBuffer.wrap((entry.toString() + "\n").getBytes(StandardCharsets.UTF_8));
+
+        while (buffer.hasRemaining())
+            this.channel.write(buffer);
+
+        this.channel.force(false);
+    }
+
+    /**
+     * Deletes the journal once the whole term has been scraped, so that the next scrape of it starts afresh.
+     *
+     * @throws IOException If the journal could not be deleted.
+     */
+    public synchronized void finish() throws IOException {
+
+        this.close();
+
+        if (this.path != null)
+            Files.deleteIfExists(this.path);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+
+        if (this.channel != null)
+            this.channel.close();
+
+        this.channel = null;
+    }
+}
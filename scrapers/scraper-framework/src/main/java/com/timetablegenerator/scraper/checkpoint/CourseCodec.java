@@ -0,0 +1,313 @@
+package com.timetablegenerator.scraper.checkpoint;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.timetablegenerator.model.*;
+import com.timetablegenerator.model.period.OneTimePeriod;
+import com.timetablegenerator.model.period.Period;
+import com.timetablegenerator.model.period.RepeatingPeriod;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Turns courses into JSON and back without losing anything, unlike the output of the JSON generators, which drops
+ * what the site does not show. Requisites and cross-listings are written as the unique IDs of the courses they refer
+ * to, and are linked back up once every course they could refer to has been read.
+ */
+final class CourseCodec {
+
+    private final School school;
+
+    CourseCodec(School school) {
+        this.school = school;
+    }
+
+    JsonObject encode(Course course) {
+
+        JsonObject courseJson = new JsonObject();
+
+        courseJson.addProperty("term", course.getTerm().getId());
+        courseJson.addProperty("department", course.getDepartment().getCode());
+        courseJson.addProperty("department_name", course.getDepartment().getName());
+        courseJson.addProperty("code", course.getCode());
+        courseJson.addProperty("name", course.getName());
+        courseJson.addProperty("credits", course.getCredits());
+        courseJson.addProperty("description", course.getDescription());
+
+        courseJson.add("notes", strings(course.getNotes()));
+        courseJson.add("cross_listings", ids(course.getCrossListings()));
+        courseJson.add("prerequisites", ids(course.getPrerequisites()));
+        courseJson.add("antirequisites", ids(course.getAntirequisites()));
+
+        JsonObject sectionTypesJson = new JsonObject();
+        courseJson.add("sections", sectionTypesJson);
+
+        for (String sectionTypeKey : course.getSectionTypes()) {
+
+            JsonArray sectionsJson = new JsonArray();
+            sectionTypesJson.add(sectionTypeKey, sectionsJson);
+
+            SectionType sectionType = course.getSectionType(sectionTypeKey);
+
+            for (String sectionKey : sectionType.getSectionKeys())
+                sectionsJson.add(this.encode(sectionType.getSection(sectionKey)));
+        }
+
+        return courseJson;
+    }
+
+    private JsonObject encode(Section section) {
+
+        JsonObject sectionJson = new JsonObject();
+
+        sectionJson.addProperty("id", section.getId());
+        sectionJson.addProperty("serial", section.getSerialNumber().orElse(null));
+
+        sectionJson.addProperty("online", section.isOnline().orElse(null));
+        sectionJson.addProperty("cancelled", section.isCancelled().orElse(null));
+        sectionJson.addProperty("alternating", section.isAlternating().orElse(null));
+
+        sectionJson.addProperty("full", section.isFull().orElse(null));
+        sectionJson.addProperty("enrollment", section.getEnrollment().orElse(null));
+        sectionJson.addProperty("max_enrollment", section.getMaxEnrollment().orElse(null));
+
+        sectionJson.addProperty("waiting_list", section.hasWaitingList().orElse(null));
+        sectionJson.addProperty("waiting", section.getWaiting().orElse(null));
+        sectionJson.addProperty("max_waiting", section.getMaxWaiting().orElse(null));
+
+        JsonArray periodsJson = new JsonArray();
+        sectionJson.add("periods", periodsJson);
+
+        section.getRepeatingPeriods().forEach(x -> periodsJson.add(this.encode(x)));
+        section.getOneTimePeriods().forEach(x -> periodsJson.add(this.encode(x)));
+
+        sectionJson.add("notes", strings(section.getNotes()));
+
+        return sectionJson;
+    }
+
+    private JsonObject encode(Period period) {
+
+        JsonObject periodJson = new JsonObject();
+
+        periodJson.addProperty("term", period.getTerm().getId());
+        periodJson.addProperty("online", period.isOnline().orElse(null));
+        periodJson.addProperty("room", period.getRoom().orElse(null));
+        periodJson.addProperty("campus", period.getCampus().orElse(null));
+
+        if (period instanceof OneTimePeriod) {
+
+            OneTimePeriod otp = (OneTimePeriod) period;
+            periodJson.addProperty("one_time", true);
+
+            if (otp.isScheduled()) {
+                periodJson.addProperty("start", otp.getStartDateTime().toString());
+                periodJson.addProperty("end", otp.getEndDateTime().toString());
+            }
+
+        } else {
+
+            RepeatingPeriod rp = (RepeatingPeriod) period;
+
+            if (rp.isScheduled()) {
+                periodJson.addProperty("day", rp.getDayOfWeek().getValue());
+                periodJson.addProperty("start", rp.getStartTime().toString());
+                periodJson.addProperty("end", rp.getEndTime().toString());
+            }
+        }
+
+        periodJson.add("supervisors", strings(period.getSupervisors()));
+        periodJson.add("notes", strings(period.getNotes()));
+
+        return periodJson;
+    }
+
+    /**
+     * Reads courses back, linking their requisites and cross-listings to each other. References to courses that are
+     * not among them are dropped.
+     *
+     * @return The courses, in the order they were given.
+     */
+    List<Course> decode(Collection<JsonObject> coursesJson) {
+
+        Map<String, Course> courses = new HashMap<>();
+        List<Course> decoded = new ArrayList<>();
+        List<Runnable> links = new ArrayList<>();
+
+        for (JsonObject courseJson : coursesJson) {
+
+            Course course = new Course(this.school,
+                    TermClassifier.getTermClassifier(courseJson.get("term").getAsInt()),
+                    new Department(courseJson.get("department").getAsString(),
+                            courseJson.get("department_name").getAsString()),
+                    courseJson.get("code").getAsString(), string(courseJson, "name"),
+                    courseJson.get("credits").getAsDouble());
+
+            course.setDescription(string(courseJson, "description"));
+
+            for (JsonElement note : courseJson.getAsJsonArray("notes"))
+                course.addNote(note.getAsString());
+
+            JsonObject sectionTypesJson = courseJson.getAsJsonObject("sections");
+
+            for (Map.Entry<String, JsonElement> sectionType : sectionTypesJson.entrySet())
+                for (JsonElement sectionJson : sectionType.getValue().getAsJsonArray())
+                    course.addSection(sectionType.getKey(), this.decodeSection(sectionJson.getAsJsonObject()));
+
+            courses.put(course.getUniqueId(), course);
+            decoded.add(course);
+
+            links.add(() -> {
+                link(courses, courseJson.getAsJsonArray("cross_listings"), course::addCrossListing);
+                link(courses, courseJson.getAsJsonArray("prerequisites"), course::addPrerequisite);
+                link(courses, courseJson.getAsJsonArray("antirequisites"), course::addAntirequisite);
+            });
+        }
+
+        links.forEach(Runnable::run);
+
+        return decoded;
+    }
+
+    private Section decodeSection(JsonObject sectionJson) {
+
+        Section section = Section.fromName(sectionJson.get("id").getAsString());
+
+        String serial = string(sectionJson, "serial");
+
+        if (serial != null)
+            section.setSerialNumber(serial);
+
+        section.setOnline(bool(sectionJson, "online"));
+        section.setCancelled(bool(sectionJson, "cancelled"));
+        section.setAlternating(bool(sectionJson, "alternating"));
+
+        // Setting an enrollment works out whether the section is full, and marking a section as not full clears its
+        // enrollment, so they are set in the order that ends in the state that was written.
+        Boolean full = bool(sectionJson, "full");
+        section.setFull(full);
+
+        Integer maxEnrollment = integer(sectionJson, "max_enrollment");
+        Integer enrollment = integer(sectionJson, "enrollment");
+
+        if (maxEnrollment != null)
+            section.setMaximumEnrollment(maxEnrollment);
+        if (enrollment != null)
+            section.setEnrollment(enrollment);
+        if (full != null && full && !section.isFull().orElse(false))
+            section.setFull(true);
+
+        section.setWaitingList(bool(sectionJson, "waiting_list"));
+
+        Integer maxWaiting = integer(sectionJson, "max_waiting");
+        Integer waiting = integer(sectionJson, "waiting");
+
+        if (maxWaiting != null)
+            section.setMaximumWaiting(maxWaiting);
+        if (waiting != null)
+            section.setWaiting(waiting);
+
+        for (JsonElement periodJson : sectionJson.getAsJsonArray("periods"))
+            section.addPeriod(this.decodePeriod(periodJson.getAsJsonObject()));
+
+        for (JsonElement note : sectionJson.getAsJsonArray("notes"))
+            section.addNotes(note.getAsString());
+
+        return section;
+    }
+
+    private Period decodePeriod(JsonObject periodJson) {
+
+        TermClassifier term = TermClassifier.getTermClassifier(periodJson.get("term").getAsInt());
+        Period period;
+
+        if (periodJson.has("one_time")) {
+
+            OneTimePeriod otp = new OneTimePeriod(term);
+
+            if (periodJson.has("start"))
+                otp.setDateTimes(LocalDateTime.parse(periodJson.get("start").getAsString()),
+                        LocalDateTime.parse(periodJson.get("end").getAsString()));
+
+            period = otp;
+
+        } else {
+
+            RepeatingPeriod rp = new RepeatingPeriod(term);
+
+            if (periodJson.has("day"))
+                rp.setTime(DayOfWeek.of(periodJson.get("day").getAsInt()),
+                        LocalTime.parse(periodJson.get("start").getAsString()),
+                        LocalTime.parse(periodJson.get("end").getAsString()));
+
+            period = rp;
+        }
+
+        Boolean online = bool(periodJson, "online");
+
+        if (online != null)
+            period.setOnline(online);
+
+        period.setRoom(string(periodJson, "room"));
+        period.setCampus(string(periodJson, "campus"));
+
+        for (JsonElement supervisor : periodJson.getAsJsonArray("supervisors"))
+            period.addSupervisors(supervisor.getAsString());
+        for (JsonElement note : periodJson.getAsJsonArray("notes"))
+            period.addNotes(note.getAsString());
+
+        return period;
+    }
+
+    private static void link(Map<String, Course> courses, JsonArray idsJson, Consumer<Course> adder) {
+
+        for (JsonElement id : idsJson) {
+
+            Course course = courses.get(id.getAsString());
+
+            if (course != null)
+                adder.accept(course);
+        }
+    }
+
+    private static JsonArray strings(Collection<String> values) {
+
+        JsonArray valuesJson = new JsonArray();
+        values.forEach(x -> valuesJson.add(new JsonPrimitive(x)));
+
+        return valuesJson;
+    }
+
+    private static JsonArray ids(Collection<Course> courses) {
+
+        JsonArray idsJson = new JsonArray();
+        courses.forEach(x -> idsJson.add(new JsonPrimitive(x.getUniqueId())));
+
+        return idsJson;
+    }
+
+    private static String string(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private static Integer integer(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        return value == null || value.isJsonNull() ? null : value.getAsInt();
+    }
+
+    private static Boolean bool(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        return value == null || value.isJsonNull() ? null : value.getAsBoolean();
+    }
+}
@@ -0,0 +1,243 @@
+package com.timetablegenerator.scraper.concurrent;
+
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the per-department work of a scrape in parallel while staying polite to the servers being scraped.
+ *
+ * Every task is submitted along with the host it sends its requests to, and no more than a set number of tasks run
+ * against a host at once. How fast requests are sent to the host is up to the connection pool they are sent through,
+ * which holds each request, rather than each task, to a rate. Tasks commonly add their courses straight to a shared
+ * timetable, which is safe as timetables accept courses from any thread.
+ *
+ * The limit of a host is shared by every executor in the process, so that terms of a school scraped at the same time
+ * are together held to it rather than each getting a limit of its own. It is set by the first executor to submit a
+ * task against the host, and stays for as long as the process runs.
+ *
+ * Tasks are submitted and waited on from the thread running the scrape:
+ *
+ * <pre>
+ * try (DepartmentExecutor executor = DepartmentExecutor.builder().build()) {
+ *     for (Department department : departments)
+ *         executor.submit(HOST, () -&gt; scrapeDepartment(department, timeTable));
+ *     executor.await();
+ * }
+ * </pre>
+ *
+ * Departments scraped asynchronously need no executor, as the requests they wait on take up no thread. Their futures
+ * are waited on in the same way with {@link #awaitAll(Collection)}.
+ */
+public final class DepartmentExecutor implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int DEFAULT_MAX_CONCURRENT_TASKS_PER_HOST = 2;
+
+    @FunctionalInterface
+    public interface Task {
+        void run() throws IOException;
+    }
+
+    public static class Builder {
+
+        private int threads = 0;
+        private int maxConcurrentTasksPerHost = DEFAULT_MAX_CONCURRENT_TASKS_PER_HOST;
+
+        private Builder() {
+        }
+
+        /**
+         * @param threads The number of threads to run tasks on. This defaults to the number of tasks allowed to run
+         *                against a single host at once.
+         * @return This builder.
+         */
+        public Builder withThreads(int threads) {
+
+            if (threads < 1)
+                throw new IllegalArgumentException("Invalid number of threads: " + threads);
+
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder withMaxConcurrentTasksPerHost(int maxConcurrentTasksPerHost) {
+
+            if (maxConcurrentTasksPerHost < 1)
+                throw new IllegalArgumentException("Invalid maximum number of concurrent tasks per host: "
+                        + maxConcurrentTasksPerHost);
+
+            this.maxConcurrentTasksPerHost = maxConcurrentTasksPerHost;
+            return this;
+        }
+
+        public DepartmentExecutor build() {
+            return new DepartmentExecutor(this.threads > 0 ? this.threads : this.maxConcurrentTasksPerHost,
+                    this.maxConcurrentTasksPerHost);
+        }
+    }
+
+    private final ExecutorService executor;
+
+    private final int maxConcurrentTasksPerHost;
+
+    private static final Map<String, HostLimit> HOST_LIMITS = new ConcurrentHashMap<>();
+
+    // The hosts tasks have been submitted against, whose limits have been checked against this executor's.
+    private final Set<String> hosts = ConcurrentHashMap.newKeySet();
+
+    private final List<Future<?>> futures = new ArrayList<>();
+
+    private DepartmentExecutor(int threads, int maxConcurrentTasksPerHost) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        this.executor = Executors.newFixedThreadPool(threads, x -> {
+            Thread thread = new Thread(x, "department-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.maxConcurrentTasksPerHost = maxConcurrentTasksPerHost;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Submits a task to be run once its host has a free slot.
+     *
+     * @param host The host the task sends its requests to.
+     * @param task The task.
+     */
+    public void submit(String host, Task task) {
+
+        HostLimit limit = HOST_LIMITS.computeIfAbsent(host, x -> new HostLimit(this.maxConcurrentTasksPerHost));
+
+        if (this.hosts.add(host) && limit.maxConcurrentTasks != this.maxConcurrentTasksPerHost)
+            LOGGER.warn("Tasks against " + host + " are limited to " + limit.maxConcurrentTasks
+                    + " at once as set by an earlier executor.");
+
+        Semaphore slots = limit.slots;
+
+        // Tasks are recorded under the school and term being scraped by the thread submitting them.
+        ScrapeMetrics.Context context = ScrapeMetrics.Context.current();
+
+        this.futures.add(this.executor.submit(() -> {
+
+            slots.acquire();
+
+            ScrapeMetrics.Binding binding = context.bind();
+
+            try {
+                task.run();
+            } finally {
+                binding.close();
+                slots.release();
+            }
+
+            return null;
+        }));
+    }
+
+    /**
+     * Waits for every task submitted to finish. As soon as a task is found to have failed, those that have not
+     * finished yet are cancelled.
+     *
+     * @throws IOException If a task failed with an I/O error, or the wait was interrupted. Any further failures are
+     *                     suppressed by the first.
+     * @throws RuntimeException If a task failed with one.
+     */
+    public void await() throws IOException {
+        try {
+            awaitAll(this.futures);
+        } finally {
+            this.futures.clear();
+        }
+    }
+
+    /**
+     * Waits for the futures of departments scraped asynchronously. As soon as one is found to have failed, those that
+     * have not completed yet are cancelled.
+     *
+     * @param futures The futures of the departments.
+     * @throws IOException If a department failed with an I/O error, or the wait was interrupted. Any further failures
+     *                     are suppressed by the first.
+     * @throws RuntimeException If a department failed with one.
+     */
+    public static void awaitAll(Collection<? extends Future<?>> futures) throws IOException {
+
+        Throwable failure = null;
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (CancellationException e) {
+                // Cancelled on account of an earlier failure.
+            } catch (InterruptedException e) {
+
+                Thread.currentThread().interrupt();
+                cancel(futures);
+
+                throw new InterruptedIOException("Interrupted while waiting for department tasks.");
+
+            } catch (ExecutionException e) {
+
+                if (failure == null) {
+                    failure = e.getCause();
+                    cancel(futures);
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+
+        if (failure instanceof IOException)
+            throw (IOException) failure;
+        if (failure instanceof RuntimeException)
+            throw (RuntimeException) failure;
+        if (failure instanceof Error)
+            throw (Error) failure;
+        if (failure != null)
+            throw new IOException(failure);
+    }
+
+    private static void cancel(Collection<? extends Future<?>> futures) {
+        for (Future<?> future : futures)
+            future.cancel(true);
+    }
+
+    @Override
+    public void close() {
+        this.executor.shutdownNow();
+    }
+
+    private static final class HostLimit {
+
+        private final int maxConcurrentTasks;
+        private final Semaphore slots;
+
+        private HostLimit(int maxConcurrentTasks) {
+            this.maxConcurrentTasks = maxConcurrentTasks;
+            this.slots = new Semaphore(maxConcurrentTasks, true);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.timetablegenerator.scraper.concurrent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket rate limiter. Tokens are added at a fixed rate up to the size of the bucket, and each permit taken
+ * removes one, waiting for it to be added if the bucket is empty.
+ *
+ * Permits are reserved in the order they are asked for, so a caller that has to wait does not hold up callers asking
+ * after it for any longer than their own share of the rate. A caller that must not block can reserve a permit with
+ * {@link #reserve()} and wait out the time it is given however it likes.
+ */
+public final class TokenBucket {
+
+    private final double permitsPerSecond;
+    private final int capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param permitsPerSecond The rate at which tokens are added.
+     * @param capacity The number of tokens the bucket holds, i.e. the largest burst of permits taken without waiting.
+     */
+    public TokenBucket(double permitsPerSecond, int capacity) {
+
+        if (!(permitsPerSecond > 0))
+            throw new IllegalArgumentException("Invalid rate: " + permitsPerSecond + " permits per second");
+        if (capacity < 1)
+            throw new IllegalArgumentException("Invalid bucket capacity: " + capacity);
+
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = capacity;
+        this.tokensPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public double getPermitsPerSecond() {
+        return this.permitsPerSecond;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Takes a permit, waiting for one to become available if need be.
+     *
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+
+        long wait = this.reserve();
+
+        if (wait > 0)
+            TimeUnit.NANOSECONDS.sleep(wait);
+    }
+
+    /**
+     * Takes a permit without waiting for it.
+     *
+     * @return How long, in nanoseconds, until the permit may be used, which is zero if it may be used straight away.
+     */
+    public synchronized long reserve() {
+
+        long now = System.nanoTime();
+
+        this.tokens = Math.min(this.capacity, this.tokens + (now - this.lastRefill) * this.tokensPerNano);
+        this.lastRefill = now;
+
+        // The token is taken now even if it has yet to be added; the bucket then stays in debt until it is.
+        this.tokens -= 1;
+
+        return this.tokens >= 0 ? 0 : (long) Math.ceil(-this.tokens / this.tokensPerNano);
+    }
+}
@@ -0,0 +1,31 @@
+package com.timetablegenerator.scraper.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * A value that only ever goes up, such as a number of requests or of seconds spent on something. It can be added to
+ * from any number of threads at once without them contending.
+ */
+public final class Counter {
+
+    private final DoubleAdder value = new DoubleAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        this.value.add(1);
+    }
+
+    public void add(double amount) {
+
+        if (amount < 0)
+            throw new IllegalArgumentException("Counters cannot go down: " + amount);
+
+        this.value.add(amount);
+    }
+
+    public double get() {
+        return this.value.sum();
+    }
+}
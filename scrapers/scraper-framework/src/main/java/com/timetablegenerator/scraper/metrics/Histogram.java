@@ -0,0 +1,101 @@
+package com.timetablegenerator.scraper.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts observed values, such as request latencies, into buckets with fixed upper bounds, along with their sum. It
+ * can be observed into from any number of threads at once without them contending.
+ */
+public final class Histogram {
+
+    private final double[] bounds;
+
+    // The number of values in each bucket alone, with the last bucket holding those above every bound.
+    private final LongAdder[] buckets;
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram(double[] bounds) {
+
+        this.bounds = bounds;
+        this.buckets = new LongAdder[bounds.length + 1];
+
+        for (int i = 0; i < this.buckets.length; i++)
+            this.buckets[i] = new LongAdder();
+    }
+
+    public void observe(double value) {
+
+        int i = 0;
+
+        while (i < this.bounds.length && value > this.bounds[i])
+            i++;
+
+        this.buckets[i].increment();
+        this.sum.add(value);
+    }
+
+    /**
+     * @return The upper bounds of the buckets, in ascending order, not counting the last bucket, which has none.
+     */
+    public double[] getBounds() {
+        return this.bounds.clone();
+    }
+
+    /**
+     * @return The number of values at or below each bound, followed by the number of values in all.
+     */
+    public long[] getCumulativeCounts() {
+
+        long[] counts = new long[this.buckets.length];
+        long total = 0;
+
+        for (int i = 0; i < counts.length; i++)
+            counts[i] = total += this.buckets[i].sum();
+
+        return counts;
+    }
+
+    public long getCount() {
+        return this.getCumulativeCounts()[this.buckets.length - 1];
+    }
+
+    public double getSum() {
+        return this.sum.sum();
+    }
+
+    /**
+     * Estimates a quantile of the values observed by assuming they are spread evenly within their bucket. Values
+     * above the last bound are taken to be at it.
+     *
+     * @param quantile The quantile, between 0 and 1.
+     * @return The estimate, or zero if nothing has been observed.
+     */
+    public double getQuantile(double quantile) {
+
+        if (quantile < 0 || quantile > 1)
+            throw new IllegalArgumentException("Invalid quantile: " + quantile);
+
+        long[] counts = this.getCumulativeCounts();
+        long total = counts[counts.length - 1];
+
+        if (total == 0)
+            return 0;
+
+        double rank = quantile * total;
+
+        for (int i = 0; i < this.bounds.length; i++) {
+
+            if (counts[i] < rank)
+                continue;
+
+            double lower = i == 0 ? 0 : this.bounds[i - 1];
+            long below = i == 0 ? 0 : counts[i - 1];
+            long inBucket = counts[i] - below;
+
+            return inBucket == 0 ? lower : lower + (this.bounds[i] - lower) * (rank - below) / inBucket;
+        }
+
+        return this.bounds.length == 0 ? 0 : this.bounds[this.bounds.length - 1];
+    }
+}
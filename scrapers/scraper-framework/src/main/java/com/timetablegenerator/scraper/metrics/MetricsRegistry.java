@@ -0,0 +1,267 @@
+package com.timetablegenerator.scraper.metrics;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * A set of named metrics, each made up of a counter or histogram per combination of the values of its labels, which
+ * can be written out in the Prometheus text format or as JSON.
+ *
+ * Metrics are declared once, up front, and then recorded into from anywhere:
+ *
+ * <pre>
+ * Family&lt;Counter&gt; retries = registry.counter("http_retries_total", "Requests retried.", "host");
+ * ...
+ * retries.labels(host).increment();
+ * </pre>
+ */
+public final class MetricsRegistry {
+
+    private static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z_][a-zA-Z0-9_]*");
+
+    /**
+     * A metric, holding a counter or histogram for every combination of label values it has been recorded under.
+     *
+     * @param <T> The type of the metric, {@link Counter} or {@link Histogram}.
+     */
+    public static final class Family<T> {
+
+        private final String name;
+        private final String help;
+        private final String type;
+        private final List<String> labelNames;
+        private final Supplier<T> factory;
+
+        private final Map<List<String>, T> children = new ConcurrentHashMap<>();
+
+        private Family(String name, String help, String type, String[] labelNames, Supplier<T> factory) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+            this.labelNames = Collections.unmodifiableList(Arrays.asList(labelNames.clone()));
+            this.factory = factory;
+        }
+
+        /**
+         * @param labelValues The value of each label, in the order the labels were declared in. A null value is
+         *                    taken to be empty.
+         * @return The counter or histogram for the values, which is created on first use.
+         */
+        public T labels(String... labelValues) {
+
+            if (labelValues.length != this.labelNames.size())
+                throw new IllegalArgumentException("Expected values for the labels " + this.labelNames + " of \""
+                        + this.name + "\", got " + Arrays.toString(labelValues));
+
+            String[] values = labelValues.clone();
+
+            for (int i = 0; i < values.length; i++)
+                if (values[i] == null)
+                    values[i] = "";
+
+            List<String> key = Arrays.asList(values);
+            T child = this.children.get(key);
+
+            return child != null ? child : this.children.computeIfAbsent(key, x -> this.factory.get());
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public List<String> getLabelNames() {
+            return this.labelNames;
+        }
+
+        /**
+         * @return The counter or histogram for every combination of label values recorded so far, keyed by the label
+         * values.
+         */
+        public Map<List<String>, T> getChildren() {
+            return Collections.unmodifiableMap(this.children);
+        }
+    }
+
+    private final Map<String, Family<?>> families = new LinkedHashMap<>();
+
+    public Family<Counter> counter(String name, String help, String... labelNames) {
+        return this.register(new Family<>(name, help, "counter", labelNames, Counter::new));
+    }
+
+    /**
+     * @param bounds The upper bounds of the histogram's buckets, in ascending order.
+     */
+    public Family<Histogram> histogram(String name, String help, double[] bounds, String... labelNames) {
+
+        for (int i = 1; i < bounds.length; i++)
+            if (!(bounds[i] > bounds[i - 1]))
+                throw new IllegalArgumentException("Bucket bounds are not in ascending order: "
+                        + Arrays.toString(bounds));
+
+        double[] copy = bounds.clone();
+
+        return this.register(new Family<>(name, help, "histogram", labelNames, () -> new Histogram(copy)));
+    }
+
+    private synchronized <T> Family<T> register(Family<T> family) {
+
+        if (!NAME_PATTERN.matcher(family.name).matches())
+            throw new IllegalArgumentException("Invalid metric name: \"" + family.name + "\"");
+
+        for (String labelName : family.labelNames)
+            if (!NAME_PATTERN.matcher(labelName).matches() || labelName.equals("le"))
+                throw new IllegalArgumentException("Invalid label name \"" + labelName + "\" of metric \""
+                        + family.name + "\"");
+
+        if (this.families.containsKey(family.name))
+            throw new IllegalArgumentException("The metric \"" + family.name + "\" already exists");
+
+        this.families.put(family.name, family);
+        return family;
+    }
+
+    public synchronized Collection<Family<?>> getFamilies() {
+        return new ArrayList<>(this.families.values());
+    }
+
+    /**
+     * @return Every metric in the Prometheus text exposition format, as read by the node exporter's textfile
+     * collector among others.
+     */
+    public String toPrometheusText() {
+
+        StringBuilder sb = new StringBuilder();
+
+        for (Family<?> family : this.getFamilies()) {
+
+            sb.append("# HELP ").append(family.name).append(' ')
+                    .append(family.help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            sb.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+
+            for (Map.Entry<List<String>, ?> child : family.children.entrySet()) {
+
+                String labels = formatLabels(family.labelNames, child.getKey());
+
+                if (child.getValue() instanceof Counter) {
+                    appendSample(sb, family.name, labels, null, ((Counter) child.getValue()).get());
+                    continue;
+                }
+
+                Histogram histogram = (Histogram) child.getValue();
+
+                double[] bounds = histogram.getBounds();
+                long[] counts = histogram.getCumulativeCounts();
+
+                for (int i = 0; i < bounds.length; i++)
+                    appendSample(sb, family.name + "_bucket", labels, formatValue(bounds[i]), counts[i]);
+
+                appendSample(sb, family.name + "_bucket", labels, "+Inf", counts[bounds.length]);
+                appendSample(sb, family.name + "_sum", labels, null, histogram.getSum());
+                appendSample(sb, family.name + "_count", labels, null, counts[bounds.length]);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private static String formatLabels(List<String> names, List<String> values) {
+
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < names.size(); i++) {
+
+            if (sb.length() > 0)
+                sb.append(',');
+
+            sb.append(names.get(i)).append("=\"").append(values.get(i).replace("\\", "\\\\")
+                    .replace("\"", "\\\"").replace("\n", "\\n")).append('"');
+        }
+
+        return sb.toString();
+    }
+
+    private static void appendSample(StringBuilder sb, String name, String labels, String le, double value) {
+
+        sb.append(name);
+
+        if (!labels.isEmpty() || le != null) {
+
+            sb.append('{').append(labels);
+
+            if (le != null)
+                sb.append(labels.isEmpty() ? "" : ",").append("le=\"").append(le).append('"');
+
+            sb.append('}');
+        }
+
+        sb.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static String formatValue(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? Long.toString((long) value)
+                : Double.toString(value);
+    }
+
+    /**
+     * @return Every metric as a JSON object keyed by name. Histograms are given as their count, sum, mean and
+     * estimated median, 95th and 99th percentiles rather than their buckets.
+     */
+    public JsonObject toJson() {
+
+        JsonObject rootJson = new JsonObject();
+
+        for (Family<?> family : this.getFamilies()) {
+
+            JsonArray seriesJson = new JsonArray();
+
+            for (Map.Entry<List<String>, ?> child : family.children.entrySet()) {
+
+                JsonObject labelsJson = new JsonObject();
+
+                for (int i = 0; i < family.labelNames.size(); i++)
+                    labelsJson.addProperty(family.labelNames.get(i), child.getKey().get(i));
+
+                JsonObject childJson = new JsonObject();
+                childJson.add("labels", labelsJson);
+
+                if (child.getValue() instanceof Counter) {
+                    childJson.addProperty("value", ((Counter) child.getValue()).get());
+                } else {
+
+                    Histogram histogram = (Histogram) child.getValue();
+                    long count = histogram.getCount();
+
+                    childJson.addProperty("count", count);
+                    childJson.addProperty("sum", histogram.getSum());
+                    childJson.addProperty("mean", count == 0 ? 0 : histogram.getSum() / count);
+                    childJson.addProperty("p50", histogram.getQuantile(0.5));
+                    childJson.addProperty("p95", histogram.getQuantile(0.95));
+                    childJson.addProperty("p99", histogram.getQuantile(0.99));
+                }
+
+                seriesJson.add(childJson);
+            }
+
+            JsonObject familyJson = new JsonObject();
+            familyJson.addProperty("type", family.type);
+            familyJson.addProperty("help", family.help);
+            familyJson.add("series", seriesJson);
+
+            rootJson.add(family.name, familyJson);
+        }
+
+        return rootJson;
+    }
+}
@@ -0,0 +1,547 @@
+package com.timetablegenerator.scraper.metrics;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.timetablegenerator.jfr.FlightEvent;
+import com.timetablegenerator.jfr.FlightEventType;
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.Department;
+import com.timetablegenerator.model.Term;
+import com.timetablegenerator.scraper.metrics.MetricsRegistry.Family;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * The metrics of the scrapes run by this process: how long attempts at requests take, how long is spent backing off
+ * before retrying them and how much they download per school and host, how long each department takes and how much
+ * of that is spent parsing, the courses and sections produced, and how long each term takes as a whole.
+ *
+ * Metrics are labelled with the school and term being scraped on the thread recording them, which is set around each
+ * scrape with {@link #scrape(String, Term)}. Work handed to other threads takes the labels along with
+ * {@link Context#current()} and {@link Context#bind()}:
+ *
+ * <pre>
+ * ScrapeMetrics.Binding binding = ScrapeMetrics.scrape(schoolId, term);
+ *
+ * try {
+ *     timeTable = scraper.retrieveTimetable(term);
+ * } finally {
+ *     binding.close();
+ * }
+ * </pre>
+ *
+ * Scrapers time each department they scrape, and the parsing of its pages, with:
+ *
+ * <pre>
+ * ScrapeMetrics.Binding binding = ScrapeMetrics.department(department);
+ *
+ * try {
+ *     Document page = fetch(department);
+ *     courses = ScrapeMetrics.parse(department, () -&gt; parseCourses(department, page));
+ * } finally {
+ *     binding.close();
+ * }
+ * </pre>
+ *
+ * Departments whose pages are fetched asynchronously are timed until the future of their work completes, with
+ * {@link #department(Department, Supplier)}.
+ *
+ * At the end of a run the metrics are written with {@link #write(Path)}, both in the Prometheus text format and as a
+ * JSON summary that totals them up per school, slowest school first.
+ *
+ * The same points are also recorded as {@link FlightEventType Flight Recorder events}, carrying the school, term and
+ * department being scraped, so that a recording shows which of them the time, allocations and garbage collections of
+ * a run went to.
+ */
+public final class ScrapeMetrics {
+
+    public static final String PROMETHEUS_FILE_NAME = "scrape-metrics.prom";
+    public static final String JSON_FILE_NAME = "scrape-metrics.json";
+
+    private static final double[] ATTEMPT_SECONDS_BOUNDS = {0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120};
+    private static final int SLOWEST_DEPARTMENTS = 5;
+
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    public static final Family<Histogram> ATTEMPT_SECONDS = REGISTRY.histogram("ttg_http_attempt_seconds",
+            "Time taken by each attempt at a request, from being sent until its response was read.",
+            ATTEMPT_SECONDS_BOUNDS, "school", "host");
+    public static final Family<Counter> RESPONSE_BYTES = REGISTRY.counter("ttg_http_response_bytes_total",
+            "Bytes of response bodies downloaded.", "school", "host");
+    public static final Family<Counter> ATTEMPTS = REGISTRY.counter("ttg_http_attempts_total",
+            "Attempts at requests that were sent, whether they succeeded or failed.", "school", "host");
+    public static final Family<Counter> ATTEMPT_FAILURES = REGISTRY.counter("ttg_http_attempt_failures_total",
+            "Attempts at requests that failed, whether they were retried or not.", "school", "host");
+    public static final Family<Counter> RETRIES = REGISTRY.counter("ttg_http_retries_total",
+            "Attempts at requests that failed and were retried.", "school", "host");
+    public static final Family<Counter> BACKOFF_SECONDS = REGISTRY.counter("ttg_http_backoff_seconds_total",
+            "Time spent waiting before retrying attempts at requests.", "school", "host");
+    public static final Family<Counter> CIRCUIT_REJECTIONS = REGISTRY.counter("ttg_http_circuit_rejections_total",
+            "Requests refused without being sent, as the circuit of their host was open.", "school", "host");
+    public static final Family<Counter> REQUEST_FAILURES = REGISTRY.counter("ttg_http_request_failures_total",
+            "Requests given up on without a response.", "school", "host");
+    public static final Family<Counter> POOL_HITS = REGISTRY.counter("ttg_http_pool_hits_total",
+            "Requests sent on a kept-alive connection that was already open.", "school", "host");
+    public static final Family<Counter> POOL_MISSES = REGISTRY.counter("ttg_http_pool_misses_total",
+            "Requests that had to open a new connection.", "school", "host");
+
+    private static final Family<Counter> DEPARTMENT_SECONDS = REGISTRY.counter("ttg_department_seconds_total",
+            "Time taken to scrape departments, from their first request until their courses were parsed.",
+            "school", "term", "department");
+    private static final Family<Counter> PARSE_SECONDS = REGISTRY.counter("ttg_department_parse_seconds_total",
+            "Time taken to pick the courses of departments out of their pages.", "school", "term", "department");
+    private static final Family<Counter> COURSES = REGISTRY.counter("ttg_courses_total",
+            "Courses parsed.", "school", "term", "department");
+    private static final Family<Counter> SECTIONS = REGISTRY.counter("ttg_sections_total",
+            "Sections of the courses parsed.", "school", "term", "department");
+
+    private static final Family<Counter> SCRAPE_SECONDS = REGISTRY.counter("ttg_scrape_seconds_total",
+            "Time taken to scrape terms as a whole.", "school", "term");
+    public static final Family<Counter> SCRAPE_FAILURES = REGISTRY.counter("ttg_scrape_failures_total",
+            "Terms, or lookups of the terms of a school, that failed.", "school");
+
+    private static final FlightEventType SCRAPE_EVENT = FlightEventType
+            .builder("com.timetablegenerator.Scrape", "Scrape")
+            .withDescription("A term of a school being scraped.")
+            .withSubcategory("Scraper")
+            .withStringField("school", "School")
+            .withStringField("term", "Term")
+            .build();
+    private static final FlightEventType DEPARTMENT_EVENT = FlightEventType
+            .builder("com.timetablegenerator.Department", "Department")
+            .withDescription("A department being fetched and parsed.")
+            .withSubcategory("Scraper")
+            .withStringField("school", "School")
+            .withStringField("term", "Term")
+            .withStringField("department", "Department")
+            .build();
+    private static final FlightEventType PARSE_EVENT = FlightEventType
+            .builder("com.timetablegenerator.DepartmentParse", "Department Parse")
+            .withDescription("The courses of a department being picked out of its pages.")
+            .withSubcategory("Scraper")
+            .withStringField("school", "School")
+            .withStringField("term", "Term")
+            .withStringField("department", "Department")
+            .withLongField("courses", "Courses")
+            .withLongField("sections", "Sections")
+            .build();
+
+    public static final FlightEventType REQUEST_EVENT = FlightEventType
+            .builder("com.timetablegenerator.Request", "HTTP Request")
+            .withDescription("A request, retries included, until its body was read.")
+            .withSubcategory("Scraper")
+            .withStringField("school", "School")
+            .withStringField("term", "Term")
+            .withStringField("department", "Department")
+            .withStringField("host", "Host")
+            .withStringField("uri", "URI")
+            .withLongField("status", "Status")
+            .withBytesField("bytes", "Response Size")
+            .build();
+    public static final FlightEventType JSON_EVENT = FlightEventType
+            .builder("com.timetablegenerator.JsonGeneration", "JSON Generation")
+            .withDescription("The JSON of scraped timetables being generated.")
+            .withSubcategory("Scraper")
+            .withStringField("school", "School")
+            .withStringField("term", "Term")
+            .withStringField("format", "Format")
+            .withLongField("courses", "Courses")
+            .build();
+
+    private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(() -> Context.NONE);
+
+    /**
+     * The school, term and department being scraped on a thread.
+     */
+    public static final class Context {
+
+        private static final Context NONE = new Context("", "", "");
+
+        private final String school;
+        private final String term;
+        private final String department;
+
+        private Context(String school, String term, String department) {
+            this.school = school;
+            this.term = term;
+            this.department = department;
+        }
+
+        /**
+         * @return The school, term and department being scraped on this thread, each of which is empty if there is
+         * none.
+         */
+        public static Context current() {
+            return CONTEXT.get();
+        }
+
+        public String getSchool() {
+            return this.school;
+        }
+
+        public String getTerm() {
+            return this.term;
+        }
+
+        public String getDepartment() {
+            return this.department;
+        }
+
+        /**
+         * Labels what is recorded on this thread with this school, term and department until the binding is closed.
+         *
+         * @return The binding, which puts back whatever was being scraped on this thread before when it is closed.
+         */
+        public Binding bind() {
+
+            Context previous = CONTEXT.get();
+            CONTEXT.set(this);
+
+            return new Binding(previous, null, FlightEvent.DISABLED);
+        }
+    }
+
+    public static final class Binding implements AutoCloseable {
+
+        private final Context previous;
+        private final Timer timer;
+        private final FlightEvent event;
+
+        private Binding(Context previous, Timer timer, FlightEvent event) {
+            this.previous = previous;
+            this.timer = timer;
+            this.event = event;
+        }
+
+        @Override
+        public void close() {
+            this.record();
+            CONTEXT.set(this.previous);
+        }
+
+        private void record() {
+
+            if (this.timer != null)
+                this.timer.close();
+
+            this.event.commit();
+        }
+    }
+
+    private ScrapeMetrics() {
+    }
+
+    public static MetricsRegistry getRegistry() {
+        return REGISTRY;
+    }
+
+    /**
+     * Labels what is recorded on this thread with a school, for work done outside the scrape of any one term.
+     *
+     * @param schoolId The ID of the school.
+     * @return The binding, to be closed once the work is done.
+     */
+    public static Binding school(String schoolId) {
+        return new Context(schoolId, "", "").bind();
+    }
+
+    /**
+     * Labels what is recorded on this thread with a school and term, and times the scrape of the term.
+     *
+     * @param schoolId The ID of the school.
+     * @param term The term.
+     * @return The binding, to be closed once the term has been scraped.
+     */
+    public static Binding scrape(String schoolId, Term term) {
+
+        String termLabel = getTermLabel(term);
+
+        FlightEvent event = SCRAPE_EVENT.begin();
+
+        if (event.isRecorded())
+            event.set("school", schoolId).set("term", termLabel);
+
+        Timer timer = Timer.start(SCRAPE_SECONDS.labels(schoolId, termLabel)::add);
+
+        Context previous = CONTEXT.get();
+        CONTEXT.set(new Context(schoolId, termLabel, ""));
+
+        return new Binding(previous, timer, event);
+    }
+
+    /**
+     * @param term A term.
+     * @return The label metrics and events are given for the term, e.g. <code>2016_fall</code>.
+     */
+    public static String getTermLabel(Term term) {
+        return term.getYear() + "_" + term.getTermId().name().toLowerCase();
+    }
+
+    /**
+     * Labels what is recorded on this thread with a department, and times the scrape of the department.
+     *
+     * @param department The department about to be scraped.
+     * @return The binding, to be closed once the department has been scraped.
+     */
+    public static Binding department(Department department) {
+
+        Context previous = CONTEXT.get();
+        Context context = new Context(previous.school, previous.term, department.getCode());
+
+        FlightEvent event = DEPARTMENT_EVENT.begin();
+
+        if (event.isRecorded())
+            event.set("school", context.school).set("term", context.term).set("department", context.department);
+
+        Timer timer = Timer.start(DEPARTMENT_SECONDS.labels(context.school, context.term, context.department)::add);
+
+        CONTEXT.set(context);
+
+        return new Binding(previous, timer, event);
+    }
+
+    /**
+     * Times the scrape of a department whose pages are fetched asynchronously. The work is started with the
+     * department labelling what is recorded on this thread, so that the requests it sends take the label along, and
+     * the department is timed until the future of the work completes, including any time its requests spend waiting
+     * for their turn at the host.
+     *
+     * @param department The department about to be scraped.
+     * @param work Starts scraping the department.
+     * @return The future of the work.
+     */
+    public static <T> CompletableFuture<T> department(Department department, Supplier<CompletableFuture<T>> work) {
+
+        Binding binding = department(department);
+        CompletableFuture<T> future;
+
+        try {
+            future = work.get();
+        } catch (RuntimeException e) {
+            binding.close();
+            throw e;
+        }
+
+        CONTEXT.set(binding.previous);
+
+        return future.whenComplete((x, e) -> binding.record());
+    }
+
+    /**
+     * Times the parsing of a department's courses out of its pages, and counts the courses and sections parsed.
+     *
+     * @param department The department.
+     * @param parser Parses the courses.
+     * @return The courses parsed.
+     */
+    public static Collection<Course> parse(Department department, Supplier<Collection<Course>> parser) {
+
+        Context context = CONTEXT.get();
+        String[] labels = {context.school, context.term, department.getCode()};
+
+        Collection<Course> courses;
+
+        FlightEvent event = PARSE_EVENT.begin();
+
+        Timer timer = Timer.start(PARSE_SECONDS.labels(labels)::add);
+
+        try {
+            courses = parser.get();
+        } finally {
+            timer.close();
+        }
+
+        int sections = 0;
+
+        for (Course course : courses)
+            for (String sectionType : course.getSectionTypes())
+                sections += course.getSectionType(sectionType).getSectionKeys().size();
+
+        COURSES.labels(labels).add(courses.size());
+        SECTIONS.labels(labels).add(sections);
+
+        if (event.isRecorded())
+            event.set("school", labels[0]).set("term", labels[1]).set("department", labels[2])
+                    .set("courses", courses.size()).set("sections", sections).commit();
+
+        return courses;
+    }
+
+    private static final class SchoolSummary {
+
+        private final String school;
+
+        private int terms;
+        private double scrapeSeconds;
+        private int scrapeFailures;
+
+        private double attemptSeconds;
+        private double backoffSeconds;
+        private long responseBytes;
+        private long attempts;
+        private int retries;
+        private int circuitRejections;
+        private int requestFailures;
+        private long poolHits;
+        private long poolMisses;
+
+        private final List<JsonObject> departments = new ArrayList<>();
+        private double departmentSeconds;
+        private double parseSeconds;
+        private int courses;
+        private int sections;
+
+        private SchoolSummary(String school) {
+            this.school = school;
+        }
+
+        private JsonObject toJson() {
+
+            JsonObject requestsJson = new JsonObject();
+            requestsJson.addProperty("attempts", this.attempts);
+            requestsJson.addProperty("attemptSeconds", this.attemptSeconds);
+            requestsJson.addProperty("bytes", this.responseBytes);
+            requestsJson.addProperty("retries", this.retries);
+            requestsJson.addProperty("backoffSeconds", this.backoffSeconds);
+            requestsJson.addProperty("circuitRejections", this.circuitRejections);
+            requestsJson.addProperty("failures", this.requestFailures);
+            requestsJson.addProperty("connectionsReused", this.poolHits);
+            requestsJson.addProperty("connectionsOpened", this.poolMisses);
+
+            this.departments.sort(Comparator.comparingDouble(x -> -x.get("seconds").getAsDouble()));
+
+            JsonArray slowestJson = new JsonArray();
+            this.departments.stream().limit(SLOWEST_DEPARTMENTS).forEach(slowestJson::add);
+
+            JsonObject departmentsJson = new JsonObject();
+            departmentsJson.addProperty("count", this.departments.size());
+            departmentsJson.addProperty("seconds", this.departmentSeconds);
+            departmentsJson.addProperty("parseSeconds", this.parseSeconds);
+            departmentsJson.addProperty("courses", this.courses);
+            departmentsJson.addProperty("sections", this.sections);
+            departmentsJson.add("slowest", slowestJson);
+
+            JsonObject schoolJson = new JsonObject();
+            schoolJson.addProperty("school", this.school);
+            schoolJson.addProperty("terms", this.terms);
+            schoolJson.addProperty("seconds", this.scrapeSeconds);
+            schoolJson.addProperty("failures", this.scrapeFailures);
+            schoolJson.add("requests", requestsJson);
+            schoolJson.add("departments", departmentsJson);
+
+            return schoolJson;
+        }
+    }
+
+    /**
+     * Totals the metrics up per school. Attempt and department times are summed over every thread, so they can add
+     * up to more than the time the school took when it was scraped in parallel.
+     *
+     * @return The summary, with the schools ordered from the slowest to scrape to the fastest, followed by every
+     * metric as given by {@link MetricsRegistry#toJson()}.
+     */
+    public static JsonObject toJsonSummary() {
+
+        Map<String, SchoolSummary> schools = new TreeMap<>();
+
+        for (Map.Entry<List<String>, Counter> child : SCRAPE_SECONDS.getChildren().entrySet()) {
+            SchoolSummary school = summary(schools, child.getKey());
+            school.terms++;
+            school.scrapeSeconds += child.getValue().get();
+        }
+
+        SCRAPE_FAILURES.getChildren().forEach((x, y) -> summary(schools, x).scrapeFailures += y.get());
+
+        ATTEMPT_SECONDS.getChildren().forEach((x, y) -> summary(schools, x).attemptSeconds += y.getSum());
+        RESPONSE_BYTES.getChildren().forEach((x, y) -> summary(schools, x).responseBytes += y.get());
+        ATTEMPTS.getChildren().forEach((x, y) -> summary(schools, x).attempts += y.get());
+        RETRIES.getChildren().forEach((x, y) -> summary(schools, x).retries += y.get());
+        BACKOFF_SECONDS.getChildren().forEach((x, y) -> summary(schools, x).backoffSeconds += y.get());
+        CIRCUIT_REJECTIONS.getChildren().forEach((x, y) -> summary(schools, x).circuitRejections += y.get());
+        REQUEST_FAILURES.getChildren().forEach((x, y) -> summary(schools, x).requestFailures += y.get());
+        POOL_HITS.getChildren().forEach((x, y) -> summary(schools, x).poolHits += y.get());
+        POOL_MISSES.getChildren().forEach((x, y) -> summary(schools, x).poolMisses += y.get());
+
+        for (Map.Entry<List<String>, Counter> child : DEPARTMENT_SECONDS.getChildren().entrySet()) {
+
+            List<String> labels = child.getKey();
+            SchoolSummary school = summary(schools, labels);
+
+            Counter parseSeconds = PARSE_SECONDS.getChildren().get(labels);
+
+            JsonObject departmentJson = new JsonObject();
+            departmentJson.addProperty("term", labels.get(1));
+            departmentJson.addProperty("department", labels.get(2));
+            departmentJson.addProperty("seconds", child.getValue().get());
+            departmentJson.addProperty("parseSeconds", parseSeconds == null ? 0 : parseSeconds.get());
+
+            school.departments.add(departmentJson);
+            school.departmentSeconds += child.getValue().get();
+        }
+
+        PARSE_SECONDS.getChildren().forEach((x, y) -> summary(schools, x).parseSeconds += y.get());
+        COURSES.getChildren().forEach((x, y) -> summary(schools, x).courses += y.get());
+        SECTIONS.getChildren().forEach((x, y) -> summary(schools, x).sections += y.get());
+
+        JsonArray schoolsJson = new JsonArray();
+
+        schools.values().stream()
+                .sorted(Comparator.comparingDouble(x -> -x.scrapeSeconds))
+                .map(SchoolSummary::toJson)
+                .forEach(schoolsJson::add);
+
+        JsonObject rootJson = new JsonObject();
+        rootJson.addProperty("generated", Instant.now().toString());
+        rootJson.add("schools", schoolsJson);
+        rootJson.add("metrics", REGISTRY.toJson());
+
+        return rootJson;
+    }
+
+    private static SchoolSummary summary(Map<String, SchoolSummary> schools, List<String> labels) {
+        return schools.computeIfAbsent(labels.get(0), SchoolSummary::new);
+    }
+
+    /**
+     * Writes the metrics recorded so far to {@value #PROMETHEUS_FILE_NAME}, in the Prometheus text format, and to
+     * {@value #JSON_FILE_NAME}, as given by {@link #toJsonSummary()}. Each file is replaced whole, so that a collector
+     * reading it never sees it half written.
+     *
+     * @param directory The directory to write the files to.
+     * @throws IOException If either file could not be written.
+     */
+    public static void write(Path directory) throws IOException {
+
+        Files.createDirectories(directory);
+
+        writeAtomically(directory.resolve(PROMETHEUS_FILE_NAME), REGISTRY.toPrometheusText());
+        writeAtomically(directory.resolve(JSON_FILE_NAME),
+                new GsonBuilder().setPrettyPrinting().create().toJson(toJsonSummary()));
+    }
+
+    private static void writeAtomically(Path path, String content) throws IOException {
+
+        Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+        try {
+            Files.write(temporary, content.getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.timetablegenerator.scraper.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Times something from when it is started until it is closed, then hands the seconds taken to a counter or
+ * histogram:
+ *
+ * <pre>
+ * Timer timer = Timer.start(histogram::observe);
+ *
+ * try {
+ *     ...
+ * } finally {
+ *     timer.close();
+ * }
+ * </pre>
+ */
+public final class Timer implements AutoCloseable {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final DoubleConsumer sink;
+    private final long started = System.nanoTime();
+
+    private boolean stopped = false;
+
+    private Timer(DoubleConsumer sink) {
+        this.sink = sink;
+    }
+
+    public static Timer start(DoubleConsumer sink) {
+        return new Timer(sink);
+    }
+
+    /**
+     * Stops the timer and records the time taken. Closing a timer that has already been stopped does nothing.
+     */
+    @Override
+    public void close() {
+
+        if (this.stopped)
+            return;
+
+        this.stopped = true;
+        this.sink.accept((System.nanoTime() - this.started) / NANOS_PER_SECOND);
+    }
+}
@@ -3,14 +3,17 @@ package com.timetablegenerator.scraper.serialize;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.timetablegenerator.jfr.FlightEvent;
 import com.timetablegenerator.model.*;
 import com.timetablegenerator.model.period.OneTimePeriod;
 import com.timetablegenerator.model.period.Period;
 import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
 
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.Collection;
+import java.util.stream.Collectors;
 
 public enum JsonGenerator {
 
@@ -166,6 +169,8 @@ public enum JsonGenerator {
 
     public JsonObject toJson(School school, Collection<TimeTable> timeTables) {
 
+        FlightEvent event = ScrapeMetrics.JSON_EVENT.begin();
+
         JsonObject schoolObject = new JsonObject();
 
         schoolObject.addProperty("name", school.getSchoolName());
@@ -213,6 +218,14 @@ public enum JsonGenerator {
             }
         }
 
+        if (event.isRecorded())
+            event.set("school", school.getSchoolId())
+                    .set("term", timeTables.stream().map(x -> ScrapeMetrics.getTermLabel(x.getTerm()))
+                            .collect(Collectors.joining(",")))
+                    .set("format", "v2")
+                    .set("courses", timeTables.stream().mapToInt(x -> x.getCourses().size()).sum())
+                    .commit();
+
         return schoolObject;
     }
 }
\ No newline at end of file
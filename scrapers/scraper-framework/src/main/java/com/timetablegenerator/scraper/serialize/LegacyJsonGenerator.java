@@ -1,10 +1,12 @@
 package com.timetablegenerator.scraper.serialize;
 
 import com.google.gson.*;
+import com.timetablegenerator.jfr.FlightEvent;
 import com.timetablegenerator.model.*;
 import com.timetablegenerator.model.period.RepeatingPeriod;
 import com.timetablegenerator.scraper.annotation.LegacyMapping;
 import com.timetablegenerator.scraper.annotation.LegacySchool;
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
 
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
@@ -154,6 +156,8 @@ public enum LegacyJsonGenerator {
 
     public JsonObject toJson(School school, LegacySchool legacyConfig, TimeTable tt) {
 
+        FlightEvent event = ScrapeMetrics.JSON_EVENT.begin();
+
         JsonObject rootJson = new JsonObject();
 
         rootJson.addProperty("last_update", tt.getLastUpdate().format(UPDATE_TIME_FORMAT));
@@ -184,6 +188,13 @@ public enum LegacyJsonGenerator {
         tt.getCourses().stream().map(Course::getDepartment).distinct()
                 .forEach(x -> departmentsJson.add(x.getName(), new JsonPrimitive(x.getCode())));
 
+        if (event.isRecorded())
+            event.set("school", school.getSchoolId())
+                    .set("term", ScrapeMetrics.getTermLabel(tt.getTerm()))
+                    .set("format", "legacy")
+                    .set("courses", tt.getCourses().size())
+                    .commit();
+
         return rootJson;
     }
 }
\ No newline at end of file
@@ -0,0 +1,241 @@
+package com.timetablegenerator.scraper.benchmark;
+
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.model.Department;
+import com.timetablegenerator.model.Term;
+import com.timetablegenerator.model.TermClassifier;
+import com.timetablegenerator.scraper.DepartmentPageParser;
+import com.timetablegenerator.scraper.Scraper;
+import com.timetablegenerator.scraper.ScraperFactory;
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs saved department pages through the parsers of the schools they came from, with no network involved, and
+ * reports how quickly each school's pages are parsed and how much each allocates.
+ *
+ * No pages are checked in. They are saved from the schools' sites, as they are served, into a directory given with
+ * <code>-f</code>.
+ *
+ * Each school's pages are kept under a directory named after its ID, along with a <code>fixture.properties</code>
+ * giving the term they are for:
+ *
+ * <pre>
+ * &lt;fixtures&gt;/&lt;school ID&gt;/fixture.properties   term=FALL, year=2018 and optionally key=... and name.&lt;code&gt;=...
+ * &lt;fixtures&gt;/&lt;school ID&gt;/&lt;department code&gt;.html
+ * &lt;fixtures&gt;/&lt;school ID&gt;/&lt;department code&gt;.&lt;n&gt;.html   for departments of more than one page
+ * </pre>
+ *
+ * Every page is read into memory up front, so only parsing is measured. Allocation is measured on the parsing thread
+ * and so does not count whatever the JVM allocates elsewhere.
+ */
+public class ParserBenchmark {
+
+    private static final Pattern PAGE_PATTERN = Pattern.compile("^(?<department>[^.]+)(\\.(?<page>[0-9]+))?\\.html$");
+
+    @SuppressWarnings("unused")
+    @Option(name = "-f", aliases = "-fixtures", required = true,
+            usage = "The directory of saved pages, with a directory for each school.")
+    private String fixtures;
+
+    @SuppressWarnings("unused")
+    @Option(name = "-s", aliases = "-school", required = false,
+            usage = "A school to benchmark. May be given more than once. All schools with pages by default.")
+    private List<String> schools = new ArrayList<>();
+
+    @SuppressWarnings("unused")
+    @Option(name = "-w", aliases = "-warmup", required = false,
+            usage = "The number of passes over each school's pages before measuring.")
+    private int warmupPasses = 20;
+
+    @SuppressWarnings("unused")
+    @Option(name = "-i", aliases = "-iterations", required = false,
+            usage = "The number of passes over each school's pages to measure.")
+    private int measuredPasses = 50;
+
+    @SuppressWarnings("unused")
+    @Option(name = "-h", aliases = "--help", help = true)
+    private boolean help;
+
+    private static final class Fixture {
+
+        private final Term term;
+        private final Department department;
+        private final List<byte[]> pages = new ArrayList<>();
+
+        private Fixture(Term term, Department department) {
+            this.term = term;
+            this.department = department;
+        }
+
+        private List<InputStream> open() {
+
+            List<InputStream> streams = new ArrayList<>(this.pages.size());
+
+            for (byte[] page : this.pages)
+                streams.add(new ByteArrayInputStream(page));
+
+            return streams;
+        }
+    }
+
+    public static void main(String[] args) throws Throwable {
+
+        ParserBenchmark benchmark = new ParserBenchmark();
+        CmdLineParser parser = new CmdLineParser(benchmark);
+
+        try {
+            parser.parseArgument(args);
+        } catch (CmdLineException cle) {
+            System.err.println(cle.getMessage());
+            parser.printUsage(System.err);
+            System.exit(1);
+        }
+
+        if (benchmark.help) {
+            parser.printUsage(System.out);
+            return;
+        }
+
+        if (benchmark.measuredPasses < 1)
+            throw new IllegalArgumentException("Invalid number of passes: " + benchmark.measuredPasses);
+
+        benchmark.run();
+    }
+
+    private void run() throws Exception {
+
+        ScraperFactory scraperFactory =
+                (ScraperFactory) Class.forName(ScraperFactory.class.getCanonicalName() + "Impl").newInstance();
+
+        Path root = Paths.get(this.fixtures);
+        SortedSet<String> schoolIds = new TreeSet<>(this.schools);
+
+        if (schoolIds.isEmpty())
+            try (DirectoryStream<Path> directories = Files.newDirectoryStream(root, Files::isDirectory)) {
+                directories.forEach(x -> schoolIds.add(x.getFileName().toString()));
+            }
+
+        System.out.println(String.format("%-10s %6s %8s %10s %12s %14s",
+                "school", "pages", "courses", "pages/s", "courses/s", "alloc/page"));
+
+        for (String schoolId : schoolIds) {
+
+            Scraper scraper = scraperFactory.getScraper(schoolId)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown school \"" + schoolId + "\""));
+
+            if (!(scraper instanceof DepartmentPageParser))
+                throw new IllegalArgumentException("The scraper of \"" + schoolId + "\" cannot parse saved pages.");
+
+            this.measure(schoolId, (DepartmentPageParser) scraper, load(root.resolve(schoolId)));
+        }
+    }
+
+    private static Collection<Fixture> load(Path directory) throws IOException {
+
+        Properties properties = new Properties();
+
+        try (Reader reader = Files.newBufferedReader(directory.resolve("fixture.properties"))) {
+            properties.load(reader);
+        }
+
+        Term term = new Term(TermClassifier.valueOf(properties.getProperty("term")),
+                Integer.parseInt(properties.getProperty("year")), properties.getProperty("key"));
+
+        // Pages are ordered by their number within each department.
+        SortedMap<String, SortedMap<Integer, Path>> departments = new TreeMap<>();
+
+        try (DirectoryStream<Path> pages = Files.newDirectoryStream(directory, "*.html")) {
+            for (Path page : pages) {
+
+                Matcher m = PAGE_PATTERN.matcher(page.getFileName().toString());
+
+                if (!m.find())
+                    throw new IllegalArgumentException("Unrecognized page name [" + page + "]");
+
+                departments.computeIfAbsent(m.group("department"), x -> new TreeMap<>())
+                        .put(m.group("page") == null ? 0 : Integer.parseInt(m.group("page")), page);
+            }
+        }
+
+        if (departments.isEmpty())
+            throw new IllegalArgumentException("No pages under [" + directory + "]");
+
+        Collection<Fixture> fixtures = new ArrayList<>();
+
+        for (Map.Entry<String, SortedMap<Integer, Path>> department : departments.entrySet()) {
+
+            String code = department.getKey();
+            Fixture fixture = new Fixture(term,
+                    new Department(code, properties.getProperty("name." + code, code)));
+
+            for (Path page : department.getValue().values())
+                fixture.pages.add(Files.readAllBytes(page));
+
+            fixtures.add(fixture);
+        }
+
+        return fixtures;
+    }
+
+    private void measure(String schoolId, DepartmentPageParser parser, Collection<Fixture> fixtures)
+            throws IOException {
+
+        int pages = fixtures.stream().mapToInt(x -> x.pages.size()).sum();
+        int courses = pass(parser, fixtures);
+
+        if (courses == 0)
+            throw new IllegalStateException("No courses were parsed from the pages of \"" + schoolId + "\".");
+
+        for (int i = 1; i < this.warmupPasses; i++)
+            pass(parser, fixtures);
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < this.measuredPasses; i++)
+            pass(parser, fixtures);
+
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        double seconds = elapsed / 1e9;
+
+        System.out.println(String.format("%-10s %6d %8d %10.1f %12.1f %11.1f KiB",
+                schoolId, pages, courses,
+                pages * (double) this.measuredPasses / seconds,
+                courses * (double) this.measuredPasses / seconds,
+                allocated / ((double) pages * this.measuredPasses) / 1024));
+    }
+
+    // Parses every page once, returning the number of courses found.
+    private static int pass(DepartmentPageParser parser, Collection<Fixture> fixtures) throws IOException {
+
+        int courses = 0;
+
+        for (Fixture fixture : fixtures) {
+            Collection<Course> parsed = parser.parseDepartmentPages(fixture.term, fixture.department, fixture.open());
+            courses += parsed.size();
+        }
+
+        return courses;
+    }
+}
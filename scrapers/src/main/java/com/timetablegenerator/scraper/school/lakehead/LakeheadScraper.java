@@ -30,7 +30,7 @@ public class LakeheadScraper {
         String timetableUrl = (c == Campus.ORILLIA) ? TERM_URL_ORILLIA : TERM_URL_THBAY;
 
         Elements listingBlocks = Jsoup.parse(
-                RestRequest.get(timetableUrl).run().getResponseString()
+                RestRequest.get(timetableUrl).setConditional(true).run().getResponseString()
             ).select("#copy > div > ul");
 
         for (Element listingBlock : listingBlocks)
@@ -0,0 +1,191 @@
+package com.timetablegenerator.scraper.school.mcmaster;
+
+import com.timetablegenerator.model.Course;
+import com.timetablegenerator.scraper.utility.CdataStrippingInputStream;
+import com.timetablegenerator.scraper.utility.HtmlTokenizer;
+import org.jsoup.nodes.Attributes;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.parser.Tag;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Reads the courses from a page of MOSAIC's search results as the page is tokenized, rather than building a document
+ * of the whole page.
+ *
+ * Each course has a title, under <code>win0divDERIVED_CLSRCH_DESCR200$&lt;n&gt;</code>, and a table of its sections,
+ * under <code>ACE_$ICField106$&lt;n&gt;</code>. Only these elements are built, along with what they hold, and they are
+ * handed to the parser as soon as both have been read, so that no more than one course is held at a time.
+ *
+ * PeopleSoft sends the markup of the page inside CDATA sections, whose markers are dropped as it is read.
+ */
+final class McMasterResultsReader implements HtmlTokenizer.Handler {
+
+    private static final String RESULTS_ID = "ACE_$ICField102$0";
+    private static final String TITLE_PREFIX = "win0divDERIVED_CLSRCH_DESCR200$";
+    private static final String SECTIONS_PREFIX = "ACE_$ICField106$";
+
+    private static final String SEARCH_BLOCKING_MESSAGE =
+            "Your search will return over 50 classes, would you like to continue?";
+
+    private final BiFunction<Element, Element, Collection<Course>> parser;
+    private final List<Course> courses = new ArrayList<>();
+
+    // The tags open at the point the page has been read to, along with the element being built for each, which is
+    // null for those outside of a course.
+    private final List<String> openTags = new ArrayList<>();
+    private final List<Element> openElements = new ArrayList<>();
+
+    // The titles and section tables read but not yet parsed, by the number of their course.
+    private final Map<String, Element> titles = new HashMap<>();
+    private final Map<String, Element> sections = new HashMap<>();
+
+    private boolean results = false;
+    private boolean searchBlocked = false;
+
+    /**
+     * @param parser Parses the courses of a title and table of sections.
+     */
+    McMasterResultsReader(BiFunction<Element, Element, Collection<Course>> parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Reads a page through to its end, parsing the courses in it.
+     *
+     * @param page The page, which is closed once read.
+     * @throws IOException If the page could not be read.
+     */
+    void read(InputStream page) throws IOException {
+
+        InputStreamReader in = new InputStreamReader(new CdataStrippingInputStream(page), StandardCharsets.UTF_8);
+
+        try {
+            HtmlTokenizer.tokenize(in, this);
+        } finally {
+            in.close();
+        }
+
+        // Whatever is left open is closed by the end of the page.
+        this.close(0);
+    }
+
+    /**
+     * @return Whether the page holds search results, even if there were no courses in them.
+     */
+    boolean hasResults() {
+        return this.results;
+    }
+
+    /**
+     * @return Whether the page is the warning that the search will return a lot of results, which has to be passed
+     * over before the results can be seen.
+     */
+    boolean isSearchBlocked() {
+        return this.searchBlocked;
+    }
+
+    /**
+     * @return The courses parsed from the page.
+     */
+    Collection<Course> getCourses() {
+        return this.courses;
+    }
+
+    @Override
+    public void startTag(String name, Attributes attributes, boolean selfClosing) {
+
+        String id = attributes.get("id");
+
+        if (id.equals(RESULTS_ID))
+            this.results = true;
+
+        Element parent = this.openElements.isEmpty() ? null : this.openElements.get(this.openElements.size() - 1);
+        Element element = null;
+
+        if (parent != null || id.startsWith(TITLE_PREFIX) || id.startsWith(SECTIONS_PREFIX)) {
+
+            Tag tag = Tag.valueOf(name);
+            element = new Element(tag, "", attributes);
+
+            if (parent != null)
+                parent.appendChild(element);
+
+            if (id.startsWith(TITLE_PREFIX))
+                this.titles.put(id.substring(TITLE_PREFIX.length()), element);
+            else if (id.startsWith(SECTIONS_PREFIX))
+                this.sections.put(id.substring(SECTIONS_PREFIX.length()), element);
+
+            if (selfClosing || tag.isEmpty())
+                return;
+
+        } else if (selfClosing || Tag.valueOf(name).isEmpty())
+            return;
+
+        this.openTags.add(name);
+        this.openElements.add(element);
+    }
+
+    @Override
+    public void endTag(String name) {
+
+        int index = this.openTags.lastIndexOf(name);
+
+        // Tags that were never opened are passed over, while those left open within this one are closed by it.
+        if (index >= 0)
+            this.close(index);
+    }
+
+    @Override
+    public void text(String text) {
+
+        Element parent = this.openElements.isEmpty() ? null : this.openElements.get(this.openElements.size() - 1);
+
+        if (parent != null)
+            parent.appendChild(new TextNode(text, ""));
+
+        if (!this.results && text.contains(SEARCH_BLOCKING_MESSAGE))
+            this.searchBlocked = true;
+    }
+
+    // Closes the tags open from the given depth on, parsing every course that is complete once they are.
+    private void close(int depth) {
+
+        boolean completed = false;
+
+        while (this.openTags.size() > depth) {
+
+            this.openTags.remove(this.openTags.size() - 1);
+            Element element = this.openElements.remove(this.openElements.size() - 1);
+
+            if (element != null && element.parent() == null)
+                completed = true;
+        }
+
+        if (!completed)
+            return;
+
+        for (Iterator<Map.Entry<String, Element>> i = this.titles.entrySet().iterator(); i.hasNext(); ) {
+
+            Map.Entry<String, Element> title = i.next();
+            Element courseSections = this.sections.remove(title.getKey());
+
+            if (courseSections == null)
+                continue;
+
+            i.remove();
+            this.courses.addAll(this.parser.apply(title.getValue(), courseSections));
+        }
+    }
+}
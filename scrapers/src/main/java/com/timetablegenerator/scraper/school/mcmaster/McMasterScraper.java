@@ -5,6 +5,8 @@ import com.timetablegenerator.model.period.Period;
 import com.timetablegenerator.model.period.RepeatingPeriod;
 
 import com.timetablegenerator.scraper.*;
+import com.timetablegenerator.scraper.checkpoint.CheckpointJournal;
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
 import static com.timetablegenerator.scraper.annotation.LegacyMapping.LegacyType.*;
 
 import com.timetablegenerator.scraper.annotation.LegacyConfig;
@@ -20,6 +22,8 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Element;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.*;
@@ -43,7 +47,7 @@ import java.util.stream.Collectors;
                 }
         )
 )
-public class McMasterScraper extends Scraper {
+public class McMasterScraper extends Scraper implements DepartmentPageParser {
 
     private static final Logger LOGGER = LogManager.getLogger();
 
@@ -53,9 +57,6 @@ public class McMasterScraper extends Scraper {
     private static final Pattern SECTION_CODE_PATTERN = Pattern.compile(
             "^(?<name>[A-Z0-9]+)-(?<type>[A-Z]+)\\((?<serial>[0-9]+)\\)$");
 
-    private static final String SEARCH_BLOCKING_METHOD =
-            "Your search will return over 50 classes, would you like to continue?";
-
     RestResponse performAuthentication() throws IOException {
 
         LOGGER.info("Initializing scrape to McMaster University timetable data...");
@@ -89,8 +90,20 @@ public class McMasterScraper extends Scraper {
         if (components.length > 1) {
             if (components.length == 2 && term.getTermId() == TermClassifier.FULL_SCHOOL_YEAR) {
 
-                loadSubTimetable(timeTable, new Term(TermClassifier.FALL, term.getYear(), components[0]));
-                loadSubTimetable(timeTable, new Term(TermClassifier.SPRING, term.getYear() + 1, components[1]));
+                Term fall = new Term(TermClassifier.FALL, term.getYear(), components[0]);
+                Term spring = new Term(TermClassifier.SPRING, term.getYear() + 1, components[1]);
+
+                // Neither half is finished with until both are, so that a scrape dying in the second does not redo
+                // the first.
+                try (CheckpointJournal fallJournal = CheckpointJournal.open(getSchool(), fall, term);
+                     CheckpointJournal springJournal = CheckpointJournal.open(getSchool(), spring, term)) {
+
+                    loadSubTimetable(timeTable, fall, fallJournal);
+                    loadSubTimetable(timeTable, spring, springJournal);
+
+                    fallJournal.finish();
+                    springJournal.finish();
+                }
 
                 Collection<Course> toAdd = new ArrayList<>();
                 Collection<Course> toRemove = new ArrayList<>();
@@ -200,13 +213,17 @@ public class McMasterScraper extends Scraper {
             } else
                 throw new UnsupportedOperationException("Unsure how to subdivide term type \""
                         + term.getTermId() + "\" into " + components.length + " parts");
-        } else
-            loadSubTimetable(timeTable, term);
+        } else {
+            try (CheckpointJournal journal = CheckpointJournal.open(getSchool(), term)) {
+                loadSubTimetable(timeTable, term, journal);
+                journal.finish();
+            }
+        }
 
         return timeTable;
     }
 
-    private void loadSubTimetable(TimeTable timeTable, Term term) throws IOException {
+    private void loadSubTimetable(TimeTable timeTable, Term term, CheckpointJournal journal) throws IOException {
 
         LOGGER.info("Initiating extraction for McMaster University term: " + term.toString() + "...");
 
@@ -223,273 +240,337 @@ public class McMasterScraper extends Scraper {
                     + department.getCode() + " -> "
                     + department.getName() + "] {" + i++ + "/" + departments.size() + "}...");
 
-            RestRequest req =
-                    rr.nextPost("https://csprd.mcmaster.ca/psc/prcsprd/EMPLOYEE/"
-                            + "HRMS_LS/c/SA_LEARNER_SERVICES.CLASS_SEARCH.GBL")
-                            .setFormParameter("ICAction", "CLASS_SRCH_WRK2_SSR_PB_CLASS_SRCH")
-                            .setFormParameter("ICActionPrompt", "false")
-                            .setFormParameter("ICFind", "")
-                            .setFormParameter("ICAddCount", "")
-                            .setFormParameter("ICAPPCLSDATA", "")
-                            .setFormParameter("CLASS_SRCH_WRK2_INSTITUTION$31$", "MCMST")
-                            .setFormParameter("MCM_DERIVED_CE_ACAD_CAREER", "UGRD")
-                            .setFormParameter("CLASS_SRCH_WRK2_STRM$35$", term.getKey())
-                            .setFormParameter("SSR_CLSRCH_WRK_SUBJECT$7$$0", department.getCode())
-                            .setFormParameter("SSR_CLSRCH_WRK_SSR_EXACT_MATCH1$1", "E")
-                            .setFormParameter("SSR_CLSRCH_WRK_CATALOG_NBR$1", "")
-                            .setFormParameter("SSR_CLSRCH_WRK_SSR_OPEN_ONLY$chk$3", "N")
-                            .setFormParameter("SSR_CLSRCH_WRK_CLASS_NBR$4", "")
-                            .setFormParameter("DERIVED_SSTSNAV_SSTS_MAIN_GOTO$7$", "9999")
-                            .setFormParameter("DERIVED_SSTSNAV_SSTS_MAIN_GOTO$8$", "9999");
-
-            rr = req.run();
-
-            // Handle the situation where a warning message about search returning a lot fromName results comes up.
-            if (rr.getResponseString().contains(SEARCH_BLOCKING_METHOD)) {
-
-                LOGGER.info("Navigating through the large result set screen...");
-
-                rr = rr.nextPost("https://csprd.mcmaster.ca/psc/prcsprd/EMPLOYEE/HRMS_LS/c/SA_LEARNER_SERVICES.CLASS_SEARCH.GBL")
-                        .setFormParameter("ICAction", "#ICSave").run();
-            }
+            if (journal.restore(department, timeTable::addCourse))
+                continue;
 
-            Element resultsData = Jsoup.parse(rr.getResponseString().replace("<![CDATA[", "").replace("]]>", ""));
+            ScrapeMetrics.Binding binding = ScrapeMetrics.department(department);
 
-            if (resultsData.getElementById("ACE_$ICField102$0") != null) {
+            try {
+                rr = this.retrieveDepartment(rr, term, department, timeTable, journal);
+            } finally {
+                binding.close();
+            }
+        }
+    }
 
-                LOGGER.info("Pulling course data...");
+    // Searches for the courses of a department, returning the response to go on from for the next one.
+    private RestResponse retrieveDepartment(RestResponse rr, Term term, Department department, TimeTable timeTable,
+                                            CheckpointJournal journal) throws IOException {
+
+        RestRequest req =
+                rr.nextPost("https://csprd.mcmaster.ca/psc/prcsprd/EMPLOYEE/"
+                        + "HRMS_LS/c/SA_LEARNER_SERVICES.CLASS_SEARCH.GBL")
+                        .setFormParameter("ICAction", "CLASS_SRCH_WRK2_SSR_PB_CLASS_SRCH")
+                        .setFormParameter("ICActionPrompt", "false")
+                        .setFormParameter("ICFind", "")
+                        .setFormParameter("ICAddCount", "")
+                        .setFormParameter("ICAPPCLSDATA", "")
+                        .setFormParameter("CLASS_SRCH_WRK2_INSTITUTION$31$", "MCMST")
+                        .setFormParameter("MCM_DERIVED_CE_ACAD_CAREER", "UGRD")
+                        .setFormParameter("CLASS_SRCH_WRK2_STRM$35$", term.getKey())
+                        .setFormParameter("SSR_CLSRCH_WRK_SUBJECT$7$$0", department.getCode())
+                        .setFormParameter("SSR_CLSRCH_WRK_SSR_EXACT_MATCH1$1", "E")
+                        .setFormParameter("SSR_CLSRCH_WRK_CATALOG_NBR$1", "")
+                        .setFormParameter("SSR_CLSRCH_WRK_SSR_OPEN_ONLY$chk$3", "N")
+                        .setFormParameter("SSR_CLSRCH_WRK_CLASS_NBR$4", "")
+                        .setFormParameter("DERIVED_SSTSNAV_SSTS_MAIN_GOTO$7$", "9999")
+                        .setFormParameter("DERIVED_SSTSNAV_SSTS_MAIN_GOTO$8$", "9999");
 
-                Collection<Course> courses = parseCourses(term, department, resultsData);
-                courses.forEach(timeTable::addCourse);
+        rr = req.run();
+        McMasterResultsReader results = this.readResults(rr, term, department);
 
-                LOGGER.info("Discovered [" + courses.size() + "] courses.");
+        // Handle the situation where a warning message about search returning a lot fromName results comes up.
+        if (!results.hasResults() && results.isSearchBlocked()) {
 
-                // Go back to the search page.
-                rr = rr.nextPost("https://csprd.mcmaster.ca/psc/prcsprd/EMPLOYEE/HRMS_LS/c/SA_LEARNER_SERVICES.CLASS_SEARCH.GBL")
-                        .setFormParameter("ICAction", "CLASS_SRCH_WRK2_SSR_PB_NEW_SEARCH")
-                        .setFormParameter("DERIVED_SSTSNAV_SSTS_MAIN_GOTO$7$", "9999")
-                        .setFormParameter("DERIVED_SSTSNAV_SSTS_MAIN_GOTO$8$", "9999").run();
+            LOGGER.info("Navigating through the large result set screen...");
 
-            } else {
-                LOGGER.info("No courses listed under this department.");
-            }
+            rr = rr.nextPost("https://csprd.mcmaster.ca/psc/prcsprd/EMPLOYEE/HRMS_LS/c/SA_LEARNER_SERVICES.CLASS_SEARCH.GBL")
+                    .setFormParameter("ICAction", "#ICSave").run();
+            results = this.readResults(rr, term, department);
         }
-    }
 
-    private Collection<Course> parseCourses(Term containingTerm, Department department, Element departmentSchedule) {
+        if (results.hasResults()) {
 
-        List<Course> courses = new ArrayList<>();
+            LOGGER.info("Pulling course data...");
 
-        Element courseTitle;
+            Collection<Course> courses = results.getCourses();
+            courses.forEach(timeTable::addCourse);
 
-        for (int i = 0; (courseTitle = departmentSchedule.getElementById("win0divDERIVED_CLSRCH_DESCR200$" + i)) != null; i++) {
+            LOGGER.info("Discovered [" + courses.size() + "] courses.");
 
-            TermClassifier currentSectionTerm = null;
+            // Go back to the search page.
+            rr = rr.nextPost("https://csprd.mcmaster.ca/psc/prcsprd/EMPLOYEE/HRMS_LS/c/SA_LEARNER_SERVICES.CLASS_SEARCH.GBL")
+                    .setFormParameter("ICAction", "CLASS_SRCH_WRK2_SSR_PB_NEW_SEARCH")
+                    .setFormParameter("DERIVED_SSTSNAV_SSTS_MAIN_GOTO$7$", "9999")
+                    .setFormParameter("DERIVED_SSTSNAV_SSTS_MAIN_GOTO$8$", "9999").run();
 
-            Section currentSection = null;
+            journal.complete(department, courses);
 
-            String courseTitleString = ParsingTools.sanitize(courseTitle.text());
+        } else {
+            LOGGER.info("No courses listed under this department.");
+            journal.complete(department, Collections.emptyList());
+        }
 
-            // Parse the standard course information.
-            Matcher courseData = COURSE_INFO_PATTERN.matcher(courseTitleString);
+        return rr;
+    }
 
-            String currentSectionTitle = null;
-            Boolean currentSectionFull = null;
-            Boolean currentSectionWaitList = null;
+    // Result pages hold every class of a department, so their courses are parsed as the page is tokenized rather than
+    // from a document of the whole page.
+    private McMasterResultsReader readResults(RestResponse rr, Term term, Department department) {
 
-            final Map<TermClassifier, Course> currentCourseMultiplexer = new EnumMap<>(TermClassifier.class);
+        McMasterResultsReader results = new McMasterResultsReader(
+                (title, sections) -> this.parseCourse(term, department, title, sections));
 
-            String currentCourseName;
-            String currentCourseCode;
-            double currentCourseCredits;
+        InputStream body = rr.getResponseStream();
 
-            if (courseData.find()) {
+        if (body == null)
+            return results;
 
-                currentCourseName = courseData.group("name");
-                currentCourseCode = courseData.group("code").replaceAll("\\s\\s+", " ");
-                currentCourseCredits = Double.parseDouble(courseData.group("credits"));
+        ScrapeMetrics.parse(department, () -> {
 
-            } else {
-                LOGGER.warn(
-                        String.format("Strangely formatted course title detected (%s). Skipping this course...",
-                                courseTitleString)
-                );
-                continue;
+            try {
+                results.read(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
 
-            for (Element e : departmentSchedule.getElementById("ACE_$ICField106$" + i)
-                    .select("tr, span.PSEDITBOX_DISPONLY, span.PSHYPERLINK > a")) {
+            return results.getCourses();
+        });
 
-                String id = e.attr("id");
-                String tag = e.tag().toString();
+        return results;
+    }
 
-                if (id == null)
-                    continue;
+    // Pages without results, such as the warning about large result sets, are passed over.
+    @Override
+    public Collection<Course> parseDepartmentPages(Term term, Department department, List<InputStream> pages)
+            throws IOException {
 
-                switch (tag) {
+        Collection<Course> courses = new ArrayList<>();
 
-                    case "tr":
+        for (InputStream page : pages) {
 
-                        if (id.matches("trSSR_CLSRCH_MTG1\\$[0-9]+_row[1-9][0-9]*"))
-                            parseAndAddTemporalData(currentSection, currentSectionTerm, e);
-                        else
-                            // Check to see if there is a status div.
-                            for (Element subdiv : e.select("td > div")) {
+            McMasterResultsReader results = new McMasterResultsReader(
+                    (title, sections) -> this.parseCourse(term, department, title, sections));
 
-                                id = subdiv.id();
+            results.read(page);
 
-                                if (id.matches("win0divDERIVED_CLSRCH_SSR_STATUS_LONG\\$[0-9]+")) {
+            if (results.hasResults())
+                courses.addAll(results.getCourses());
+        }
 
-                                    String statusText = ParsingTools.sanitize(subdiv.select("img").first().attr("alt"));
+        return courses;
+    }
 
-                                    switch (statusText) {
-                                        case "Closed":
-                                            currentSectionFull = true;
-                                            break;
-                                        case "Wait List":
-                                            currentSectionFull = true;
-                                            currentSectionWaitList = true;
-                                            break;
-                                        case "Open":
-                                            currentSectionFull = false;
-                                            break;
+    // Parses the courses listed under a title, one for each term their sections are in.
+    private Collection<Course> parseCourse(Term containingTerm, Department department, Element courseTitle,
+                                           Element courseSections) {
 
-                                        default:
-                                            throw new IllegalArgumentException("Unknown course status \""
-                                                    + statusText + "\"");
-                                    }
+        List<Course> courses = new ArrayList<>();
 
-                                    break;
-                                }
-                            }
+        TermClassifier currentSectionTerm = null;
 
-                        break;
+        Section currentSection = null;
 
-                    case "a":
+        String courseTitleString = ParsingTools.sanitize(courseTitle.text());
 
-                        if (id.matches("DERIVED_CLSRCH_SSR_CLASSNAME_LONG\\$[0-9]+"))
-                            currentSectionTitle = ParsingTools.sanitize(e.text());
+        // Parse the standard course information.
+        Matcher courseData = COURSE_INFO_PATTERN.matcher(courseTitleString);
 
-                        break;
+        String currentSectionTitle = null;
+        Boolean currentSectionFull = null;
+        Boolean currentSectionWaitList = null;
 
-                    case "span":
+        final Map<TermClassifier, Course> currentCourseMultiplexer = new EnumMap<>(TermClassifier.class);
 
-                        if (id.matches("PSXLATITEM_XLATSHORTNAME\\$[0-9]+")) {
+        String currentCourseName;
+        String currentCourseCode;
+        double currentCourseCredits;
 
-                            String termString = ParsingTools.sanitize(e.text()).trim();
+        if (courseData.find()) {
 
-                            switch (termString) {
+            currentCourseName = courseData.group("name");
+            currentCourseCode = courseData.group("code").replaceAll("\\s\\s+", " ");
+            currentCourseCredits = Double.parseDouble(courseData.group("credits"));
 
-                                case "Spring":
-                                    currentSectionTerm = TermClassifier.SUMMER_ONE;
-                                    break;
-                                case "Summer":
-                                    currentSectionTerm = TermClassifier.SUMMER_TWO;
-                                    break;
-                                case "Winter":
-                                    currentSectionTerm = TermClassifier.SPRING;
-                                    break;
-                                case "Regular":
-                                case "MTA":
-                                case "MT End":
-                                    currentSectionTerm = containingTerm.getTermId();
-                                    break;
-                                default:
-                                    throw new IllegalArgumentException("Unknown term type \"" + termString + "\"");
-                            }
+        } else {
+            LOGGER.warn(
+                    String.format("Strangely formatted course title detected (%s). Skipping this course...",
+                            courseTitleString)
+            );
+            return Collections.emptyList();
+        }
 
-                            Matcher m = SECTION_CODE_PATTERN.matcher(currentSectionTitle);
+        for (Element e : courseSections.select("tr, span.PSEDITBOX_DISPONLY, span.PSHYPERLINK > a")) {
 
-                            String currentSectionType;
+            String id = e.attr("id");
+            String tag = e.tag().toString();
 
-                            if (m.find()) {
+            if (id == null)
+                continue;
 
-                                switch (m.group("type")) {
+            switch (tag) {
 
-                                    case "LEC":
-                                    case "FLD":
-                                    case "SEM":
-                                    case "WRK":
-                                    case "COP":
-                                    case "IND":
-                                    case "PRJ":
-                                    case "PLC":
-                                    case "EXC":
-                                    case "PRA":
-                                    case "THE":
+                case "tr":
 
-                                        currentSectionType = "C";
-                                        break;
+                    if (id.matches("trSSR_CLSRCH_MTG1\\$[0-9]+_row[1-9][0-9]*"))
+                        parseAndAddTemporalData(currentSection, currentSectionTerm, e);
+                    else
+                        // Check to see if there is a status div.
+                        for (Element subdiv : e.select("td > div")) {
 
-                                    case "LAB":
-                                    case "STO":
+                            id = subdiv.id();
 
-                                        currentSectionType = "L";
-                                        break;
+                            if (id.matches("win0divDERIVED_CLSRCH_SSR_STATUS_LONG\\$[0-9]+")) {
 
-                                    case "TUT":
+                                String statusText = ParsingTools.sanitize(subdiv.select("img").first().attr("alt"));
 
-                                        currentSectionType = "T";
+                                switch (statusText) {
+                                    case "Closed":
+                                        currentSectionFull = true;
+                                        break;
+                                    case "Wait List":
+                                        currentSectionFull = true;
+                                        currentSectionWaitList = true;
+                                        break;
+                                    case "Open":
+                                        currentSectionFull = false;
                                         break;
 
                                     default:
-                                        throw new IllegalArgumentException("Unknown section type \""
-                                                + m.group("type") + "\"");
+                                        throw new IllegalArgumentException("Unknown course status \""
+                                                + statusText + "\"");
                                 }
 
-                            } else
-                                throw new IllegalArgumentException("Unparsable section code pattern \""
-                                        + currentSectionTitle + "\"");
+                                break;
+                            }
+                        }
+
+                    break;
+
+                case "a":
 
-                            currentSection = Section.fromName(m.group("name")).setSerialNumber(m.group("serial"))
-                                    .setFull(currentSectionFull).setWaitingList(currentSectionWaitList);
+                    if (id.matches("DERIVED_CLSRCH_SSR_CLASSNAME_LONG\\$[0-9]+"))
+                        currentSectionTitle = ParsingTools.sanitize(e.text());
+
+                    break;
+
+                case "span":
+
+                    if (id.matches("PSXLATITEM_XLATSHORTNAME\\$[0-9]+")) {
+
+                        String termString = ParsingTools.sanitize(e.text()).trim();
+
+                        switch (termString) {
+
+                            case "Spring":
+                                currentSectionTerm = TermClassifier.SUMMER_ONE;
+                                break;
+                            case "Summer":
+                                currentSectionTerm = TermClassifier.SUMMER_TWO;
+                                break;
+                            case "Winter":
+                                currentSectionTerm = TermClassifier.SPRING;
+                                break;
+                            case "Regular":
+                            case "MTA":
+                            case "MT End":
+                                currentSectionTerm = containingTerm.getTermId();
+                                break;
+                            default:
+                                throw new IllegalArgumentException("Unknown term type \"" + termString + "\"");
+                        }
+
+                        Matcher m = SECTION_CODE_PATTERN.matcher(currentSectionTitle);
+
+                        String currentSectionType;
+
+                        if (m.find()) {
+
+                            switch (m.group("type")) {
+
+                                case "LEC":
+                                case "FLD":
+                                case "SEM":
+                                case "WRK":
+                                case "COP":
+                                case "IND":
+                                case "PRJ":
+                                case "PLC":
+                                case "EXC":
+                                case "PRA":
+                                case "THE":
+
+                                    currentSectionType = "C";
+                                    break;
 
-                            currentSectionTitle = null;
-                            currentSectionFull = null;
+                                case "LAB":
+                                case "STO":
 
-                            // Check if the course it should go into exists
-                            Course parentCourse = currentCourseMultiplexer.get(currentSectionTerm);
+                                    currentSectionType = "L";
+                                    break;
 
-                            if (parentCourse == null) {
+                                case "TUT":
 
-                                parentCourse = new Course(getSchool(), currentSectionTerm, department,
-                                        currentCourseCode, currentCourseName, currentCourseCredits);
+                                    currentSectionType = "T";
+                                    break;
 
-                                currentCourseMultiplexer.put(currentSectionTerm, parentCourse);
-                                courses.add(parentCourse);
+                                default:
+                                    throw new IllegalArgumentException("Unknown section type \""
+                                            + m.group("type") + "\"");
                             }
 
-                            parentCourse.addSection(currentSectionType, currentSection);
+                        } else
+                            throw new IllegalArgumentException("Unparsable section code pattern \""
+                                    + currentSectionTitle + "\"");
+
+                        currentSection = Section.fromName(m.group("name")).setSerialNumber(m.group("serial"))
+                                .setFull(currentSectionFull).setWaitingList(currentSectionWaitList);
+
+                        currentSectionTitle = null;
+                        currentSectionFull = null;
+
+                        // Check if the course it should go into exists
+                        Course parentCourse = currentCourseMultiplexer.get(currentSectionTerm);
+
+                        if (parentCourse == null) {
+
+                            parentCourse = new Course(getSchool(), currentSectionTerm, department,
+                                    currentCourseCode, currentCourseName, currentCourseCredits);
+
+                            currentCourseMultiplexer.put(currentSectionTerm, parentCourse);
+                            courses.add(parentCourse);
                         }
 
-                        break;
+                        parentCourse.addSection(currentSectionType, currentSection);
+                    }
 
-                    default:
-                        throw new IllegalArgumentException("Unknown tag '" + tag + "'");
-                }
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Unknown tag '" + tag + "'");
             }
+        }
 
-            // Check if the course is a candidate for alternation.
-            // Our rule will be, if the course has more than 2 lab/tutorial sections with the same suffix.
-            // TODO: Keep a lookout for actual information source.
+        // Check if the course is a candidate for alternation.
+        // Our rule will be, if the course has more than 2 lab/tutorial sections with the same suffix.
+        // TODO: Keep a lookout for actual information source.
 
-            for (Course c : currentCourseMultiplexer.values()) {
+        for (Course c : currentCourseMultiplexer.values()) {
 
-                // Skip Engineering 1D04 as a special case
-                if (c.getCode().equals("1D04") && c.getDepartment().getCode().equals("ENGINEER")){
-                    LOGGER.warn("Skipping special case in alternating search (ENGINEER 1D04)");
-                    continue;
-                }
+            // Skip Engineering 1D04 as a special case
+            if (c.getCode().equals("1D04") && c.getDepartment().getCode().equals("ENGINEER")){
+                LOGGER.warn("Skipping special case in alternating search (ENGINEER 1D04)");
+                continue;
+            }
 
-                SectionType labs = c.getSectionType("L");
-                SectionType tutorials = c.getSectionType("T");
+            SectionType labs = c.getSectionType("L");
+            SectionType tutorials = c.getSectionType("T");
 
-                if (labs != null && tutorials != null && (labs.getSectionKeys().size() > 2
-                        && labs.getSectionKeys().size() == tutorials.getSectionKeys().size())) {
+            if (labs != null && tutorials != null && (labs.getSectionKeys().size() > 2
+                    && labs.getSectionKeys().size() == tutorials.getSectionKeys().size())) {
 
-                    labs.getSectionKeys().forEach(x -> labs.getSection(x).setAlternating(true));
-                    tutorials.getSectionKeys().forEach(x -> tutorials.getSection(x).setAlternating(true));
-                }
+                labs.getSectionKeys().forEach(x -> labs.getSection(x).setAlternating(true));
+                tutorials.getSectionKeys().forEach(x -> tutorials.getSection(x).setAlternating(true));
             }
         }
 
@@ -9,9 +9,12 @@ import com.timetablegenerator.scraper.annotation.LegacyMapping;
 import com.timetablegenerator.scraper.annotation.SchoolConfig;
 import com.timetablegenerator.scraper.annotation.SectionMapping;
 import com.timetablegenerator.scraper.utility.ParsingTools;
+import com.timetablegenerator.scraper.utility.network.ConnectionPool;
 import com.timetablegenerator.scraper.utility.network.RestRequest;
 import com.timetablegenerator.scraper.utility.network.RestResponse;
 import com.timetablegenerator.scraper.*;
+import com.timetablegenerator.scraper.concurrent.DepartmentExecutor;
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jsoup.Jsoup;
@@ -20,6 +23,8 @@ import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.*;
@@ -43,7 +48,7 @@ import java.util.stream.Collectors;
                 }
         )
 )
-public class UofTScarboroughScraper extends Scraper {
+public class UofTScarboroughScraper extends Scraper implements DepartmentPageParser {
 
     private static final Logger LOGGER = LogManager.getLogger();
     private static final Pattern COURSE_CODE_DEP_MATCHER =
@@ -51,10 +56,11 @@ public class UofTScarboroughScraper extends Scraper {
 
     private static final String ROOT_URL = "https://www.utsc.utoronto.ca/";
     private static final String TIMETABLE_URL = ROOT_URL + "regoffice/timetable/timetable.php";
+    private static final String HOST = "www.utsc.utoronto.ca";
 
     private Collection<Department> getDepartments() throws IOException {
 
-        Document d = Jsoup.parse(RestRequest.get(TIMETABLE_URL).run().getResponseString());
+        Document d = Jsoup.parse(RestRequest.get(TIMETABLE_URL).setConditional(true).run().getResponseString());
 
         Collection<Department> departmentsMap = new ArrayList<>();
 
@@ -76,33 +82,42 @@ public class UofTScarboroughScraper extends Scraper {
 
         TimeTable tt = new TimeTable(getSchool(), term);
 
-        // Get the
-        int i = 0;
-
         LOGGER.info("Extracting departments...");
 
         Collection<Department> departments = this.getDepartments();
 
-        // Iterate over the departments.
-        for (Department department : departments) {
+        // Departments are fetched a few at a time, so the requests sent for them are held to a polite rate.
+        ConnectionPool.current().setMaxRequestRate(HOST, 2, 1);
+
+        try (DepartmentExecutor executor = DepartmentExecutor.builder().build()) {
 
-            LOGGER.info("Retrieving data for department ["
-                    + department.getCode() + " -> "
-                    + department.getName() + "] {" + ++i + "/" + departments.size() + "}...");
+            for (Department department : departments)
+                executor.submit(HOST, () -> {
 
-            Collection<Course> courses = retrieveCourses(term, department);
+                    Collection<Course> courses;
 
-            if (courses.isEmpty())
-                LOGGER.info("No course data discovered for this department.");
-            else {
+                    ScrapeMetrics.Binding binding = ScrapeMetrics.department(department);
+
+                    try {
+                        courses = retrieveCourses(term, department);
+                    } finally {
+                        binding.close();
+                    }
 
-                LOGGER.info("Discovered " + courses.size() + " courses.");
+                    if (courses.isEmpty())
+                        LOGGER.info("No course data discovered for department [" + department.getCode() + " -> "
+                                + department.getName() + "].");
+                    else {
 
-                courses.forEach(c -> {
-                    if (tt.getCourse(c.getUniqueId()) == null)
-                        tt.addCourse(c);
+                        LOGGER.info("Discovered " + courses.size() + " courses for department ["
+                                + department.getCode() + " -> " + department.getName() + "].");
+
+                        // Cross-listed courses are listed under every one of their departments.
+                        courses.forEach(tt::addCourseIfAbsent);
+                    }
                 });
-            }
+
+            executor.await();
         }
 
         return tt;
@@ -110,10 +125,6 @@ public class UofTScarboroughScraper extends Scraper {
 
     private Collection<Course> retrieveCourses(Term term, Department department) throws IOException {
 
-        boolean isSummer = term.getTermId() == TermClassifier.FULL_SUMMER;
-
-        Collection<Course> courses = new ArrayList<>();
-
         RestResponse response = RestRequest.post(TIMETABLE_URL)
                 .setFormParameter("sess", term.getKey())
                 .setFormParameter("course", department.getCode())
@@ -121,6 +132,27 @@ public class UofTScarboroughScraper extends Scraper {
                 .setFormParameter("submit", "Display by Discipline").run();
         Document doc = Jsoup.parse(response.getResponseString());
 
+        return ScrapeMetrics.parse(department, () -> parseCourses(term, department, doc));
+    }
+
+    @Override
+    public Collection<Course> parseDepartmentPages(Term term, Department department, List<InputStream> pages)
+            throws IOException {
+
+        Collection<Course> courses = new ArrayList<>();
+
+        for (InputStream page : pages)
+            courses.addAll(parseCourses(term, department, Jsoup.parse(page, StandardCharsets.UTF_8.name(), "")));
+
+        return courses;
+    }
+
+    private Collection<Course> parseCourses(Term term, Department department, Document doc) {
+
+        boolean isSummer = term.getTermId() == TermClassifier.FULL_SUMMER;
+
+        Collection<Course> courses = new ArrayList<>();
+
         Elements courseTable = doc.getElementById("timetable_section").select("tr");
 
         // A single row implies no course information.
@@ -343,7 +375,7 @@ public class UofTScarboroughScraper extends Scraper {
     @Override
     public Set<Term> findAvailableTerms() throws IOException {
 
-        Elements sessionInputs = Jsoup.parse(RestRequest.get(TIMETABLE_URL).run()
+        Elements sessionInputs = Jsoup.parse(RestRequest.get(TIMETABLE_URL).setConditional(true).run()
                 .getResponseString()).select("input[name=sess]");
 
         Set<Term> terms = new HashSet<>();
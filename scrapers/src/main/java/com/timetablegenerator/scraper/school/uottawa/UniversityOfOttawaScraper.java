@@ -3,8 +3,10 @@ package com.timetablegenerator.scraper.school.uottawa;
 import com.timetablegenerator.model.*;
 import com.timetablegenerator.model.period.RepeatingPeriod;
 import com.timetablegenerator.scraper.annotation.SchoolConfig;
+import com.timetablegenerator.scraper.DepartmentPageParser;
 import com.timetablegenerator.scraper.Scraper;
 import com.timetablegenerator.scraper.annotation.SectionMapping;
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
 import com.timetablegenerator.scraper.utility.network.RestRequest;
 import com.timetablegenerator.scraper.utility.network.RestResponse;
 import org.apache.logging.log4j.LogManager;
@@ -13,6 +15,8 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Element;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.*;
@@ -37,7 +41,7 @@ import java.util.stream.Collectors;
                 @SectionMapping(name = "Audioconference course", code = "AUC")
         }
 )
-public class UniversityOfOttawaScraper extends Scraper {
+public class UniversityOfOttawaScraper extends Scraper implements DepartmentPageParser {
 
     private static final Logger LOGGER = LogManager.getLogger();
 
@@ -84,32 +88,64 @@ public class UniversityOfOttawaScraper extends Scraper {
 
             LOGGER.info("Retrieving courses under department " + d + " [" + ++i + "/" + departments.size() + "]...");
 
-            rr = addState(searchPageElement, rr.nextPost(TIMETABLE_ROOT)
-                    .setFormParameter("ctl00$MainContentPlaceHolder$Basic_TermDropDown", term.getKey())
-                    .setFormParameter("ctl00$MainContentPlaceHolder$Basic_SubjectDropDown", d.getCode())
-                    .setFormParameter("ctl00$MainContentPlaceHolder$Advance_CampusChoice", "UOTTA")
-                    .setFormParameter("ctl00$MainContentPlaceHolder$Basic_Button", "Search")
-            ).run();
+            Collection<Course> discoveredCourses;
 
-            // Parse the course data referenced by this page.
-            Element schedulingElements = Jsoup.parse(rr.nextGet(PRINT_ROOT).run().getResponseString());
+            ScrapeMetrics.Binding binding = ScrapeMetrics.department(d);
 
-            Map<String, String> courseNameMap = this.getCourseNames(rr);
-            Map<String, Course> discoveredCourses = new HashMap<>();
+            try {
 
-            for (Element schedulingElement : schedulingElements.select("#main-content div.schedule")) {
-                parseCourseData(term, d, courseNameMap, discoveredCourses, schedulingElement);
+                rr = addState(searchPageElement, rr.nextPost(TIMETABLE_ROOT)
+                        .setFormParameter("ctl00$MainContentPlaceHolder$Basic_TermDropDown", term.getKey())
+                        .setFormParameter("ctl00$MainContentPlaceHolder$Basic_SubjectDropDown", d.getCode())
+                        .setFormParameter("ctl00$MainContentPlaceHolder$Advance_CampusChoice", "UOTTA")
+                        .setFormParameter("ctl00$MainContentPlaceHolder$Basic_Button", "Search")
+                ).run();
+
+                // Parse the course data referenced by this page.
+                Element schedulingElements = Jsoup.parse(rr.nextGet(PRINT_ROOT).run().getResponseString());
+
+                Map<String, String> courseNameMap = this.getCourseNames(rr);
+                discoveredCourses = ScrapeMetrics.parse(d,
+                        () -> parseSchedule(term, d, courseNameMap, schedulingElements));
+            } finally {
+                binding.close();
             }
 
             LOGGER.debug(" >> No more data for department " + d.getCode() + "!");
             LOGGER.info(" >> " + discoveredCourses.size() + " courses discovered.");
 
-            discoveredCourses.values().forEach(tt::addCourse);
+            discoveredCourses.forEach(tt::addCourse);
         }
 
         return tt;
     }
 
+    // The first page is the printable schedule, and the rest are the pages of search results naming its courses.
+    @Override
+    public Collection<Course> parseDepartmentPages(Term term, Department department, List<InputStream> pages)
+            throws IOException {
+
+        Element schedulingElements = Jsoup.parse(pages.get(0), StandardCharsets.UTF_8.name(), "");
+        Map<String, String> courseNameMap = new HashMap<>();
+
+        for (InputStream page : pages.subList(1, pages.size()))
+            readCourseNames(Jsoup.parse(page, StandardCharsets.UTF_8.name(), ""), courseNameMap);
+
+        return parseSchedule(term, department, courseNameMap, schedulingElements);
+    }
+
+    private Collection<Course> parseSchedule(Term term, Department department, Map<String, String> courseNameMap,
+                                             Element schedulingElements) {
+
+        Map<String, Course> discoveredCourses = new HashMap<>();
+
+        for (Element schedulingElement : schedulingElements.select("#main-content div.schedule")) {
+            parseCourseData(term, department, courseNameMap, discoveredCourses, schedulingElement);
+        }
+
+        return discoveredCourses.values();
+    }
+
     private Map<String, String> getCourseNames(RestResponse context) throws IOException {
 
         LOGGER.debug("Retrieving course names for department...");
@@ -126,8 +162,7 @@ public class UniversityOfOttawaScraper extends Scraper {
 
             hasMore = responseElement.select("a").stream().anyMatch(x -> x.text().equalsIgnoreCase("Next"));
 
-            responseElement.select("table.result-table > tbody > tr:not(.results-header)")
-                    .forEach(x -> courseNameMap.put(x.select(".CourseCode").text(), x.select(".CourseTitle").text()));
+            readCourseNames(responseElement, courseNameMap);
 
             if (!hasMore) {
                 break;
@@ -139,6 +174,11 @@ public class UniversityOfOttawaScraper extends Scraper {
         return courseNameMap;
     }
 
+    private void readCourseNames(Element responseElement, Map<String, String> courseNameMap) {
+        responseElement.select("table.result-table > tbody > tr:not(.results-header)")
+                .forEach(x -> courseNameMap.put(x.select(".CourseCode").text(), x.select(".CourseTitle").text()));
+    }
+
     private String[] parseCourseCodes(String courseCodeString) {
 
         courseCodeString = courseCodeString.trim();
@@ -4,9 +4,13 @@ import com.timetablegenerator.model.*;
 import com.timetablegenerator.model.period.RepeatingPeriod;
 import com.timetablegenerator.model.period.OneTimePeriod;
 import com.timetablegenerator.scraper.utility.ParsingTools;
+import com.timetablegenerator.scraper.utility.network.ConnectionPool;
 import com.timetablegenerator.scraper.utility.network.RestRequest;
 import com.timetablegenerator.scraper.annotation.SchoolConfig;
+import com.timetablegenerator.scraper.DepartmentPageParser;
 import com.timetablegenerator.scraper.Scraper;
+import com.timetablegenerator.scraper.concurrent.DepartmentExecutor;
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
 import com.timetablegenerator.scraper.annotation.SectionMapping;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -17,10 +21,13 @@ import org.jsoup.nodes.TextNode;
 import org.jsoup.select.Elements;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -50,12 +57,13 @@ import java.util.regex.Pattern;
                 @SectionMapping(code = "TST", name = "Test")
         }
 )
-public class WaterlooScraper extends Scraper {
+public class WaterlooScraper extends Scraper implements DepartmentPageParser {
 
     private final Logger LOGGER = LogManager.getLogger();
 
     private final static String TIMETABLE_URL = "http://www.adm.uwaterloo.ca/infocour/CIR/SA/under.html";
     private final static String COURSE_URL = "http://www.adm.uwaterloo.ca/cgi-bin/cgiwrap/infocour/salook.pl";
+    private final static String COURSE_HOST = "www.adm.uwaterloo.ca";
 
     private final static String DEPARTMENTS_URL = "http://ugradcalendar.uwaterloo.ca/page/Course-Descriptions-Index";
 
@@ -72,7 +80,7 @@ public class WaterlooScraper extends Scraper {
 
         Collection<Department> departments = new ArrayList<>();
 
-        Document d = Jsoup.parse(RestRequest.get(DEPARTMENTS_URL).run().getResponseString());
+        Document d = Jsoup.parse(RestRequest.get(DEPARTMENTS_URL).setConditional(true).run().getResponseString());
 
         Elements rows = d.select("a[name=A]").first().parent().parent().parent().parent().select("tr");
 
@@ -98,77 +106,122 @@ public class WaterlooScraper extends Scraper {
 
         Collection<Department> departments = getDepartments();
 
-        int i = 0;
+        LOGGER.info("Reading information for " + departments.size() + " departments ...");
+
+        // Every department is requested at once. The connection pool sends a few of the requests at a time, held to
+        // a polite rate, and the rest wait on it without taking up a thread.
+        ConnectionPool.current().setMaxRequestRate(COURSE_HOST, 2, 1);
 
         // Only check departments discovered. The others unlisted are typically empty or unimportant.
-        for (Department department : departments) {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
 
-            LOGGER.info("Reading information for department " + department.getName() + " [" + department.getCode()
-                    + "] (" + ++i + " of " + departments.size() +") ...");
+        for (Department department : departments)
+            futures.add(ScrapeMetrics.department(department, () -> retrieveDepartment(term, department, tt)));
 
-            Document dsd = Jsoup.parse(
-                    RestRequest.post(COURSE_URL)
-                            .setFormParameter("level", "under")
-                            .setFormParameter("sess", term.getKey())
-                            .setFormParameter("subject", department.getCode())
-                            .setFormParameter("cournum", "").run().getResponseString()
-            );
+        DepartmentExecutor.awaitAll(futures);
 
-            Elements courseRows = dsd.select("table");
+        return tt;
+    }
 
-            if (courseRows.isEmpty()) {
+    private CompletableFuture<Void> retrieveDepartment(Term term, Department department, TimeTable tt) {
 
-                LOGGER.info("\t-> No results");
-                continue;
-            }
+        ScrapeMetrics.Context context = ScrapeMetrics.Context.current();
 
-            courseRows = courseRows.first().select("tbody").first().children();
+        // Pages are parsed away from the I/O threads the responses arrive on.
+        return RestRequest.post(COURSE_URL)
+                .setFormParameter("level", "under")
+                .setFormParameter("sess", term.getKey())
+                .setFormParameter("subject", department.getCode())
+                .setFormParameter("cournum", "").runAsync()
+                .thenAcceptAsync(x -> {
 
-            Course c = null;
+                    ScrapeMetrics.Binding binding = context.bind();
 
-            int numberOfCourses = 0;
+                    try {
+                        addDepartment(term, department, Jsoup.parse(x.getResponseString()), tt);
+                    } finally {
+                        binding.close();
+                    }
+                });
+    }
 
-            for (Element courseRow : courseRows) {
+    private void addDepartment(Term term, Department department, Document dsd, TimeTable tt) {
 
-                // Ignore the header rows.
-                if (courseRow.children().first().tagName().equals("th"))
-                    continue;
+        Collection<Course> courses = ScrapeMetrics.parse(department, () -> parseDepartment(term, department, dsd));
+
+        if (courses.isEmpty()) {
 
-                Iterator<Element> columnCursor = courseRow.children().iterator();
+            LOGGER.info("No results for department " + department.getCode());
+            return;
+        }
 
-                String headerText = ParsingTools.sanitize(columnCursor.next().text());
+        courses.forEach(tt::addCourse);
 
-                // If the header is the ID fromName the department, it is a descriptor for a course.
-                if (headerText.equals(department.getCode())) {
+        LOGGER.info("Parsed " + courses.size() + " courses for department " + department.getName() + " ["
+                + department.getCode() + "]");
+    }
 
-                    String courseCode = ParsingTools.sanitize(columnCursor.next().ownText());
-                    double credits = Double.parseDouble(ParsingTools.sanitize(columnCursor.next().ownText()));
-                    String courseName = ParsingTools.sanitize(columnCursor.next().ownText());
+    @Override
+    public Collection<Course> parseDepartmentPages(Term term, Department department, List<InputStream> pages)
+            throws IOException {
 
-                    c = new Course(getSchool(), term.getTermId(), department, courseCode, courseName, credits);
+        Collection<Course> courses = new ArrayList<>();
 
-                    continue;
-                }
+        for (InputStream page : pages)
+            courses.addAll(parseDepartment(term, department, Jsoup.parse(page, StandardCharsets.UTF_8.name(), "")));
 
-                if (headerText.isEmpty()) {
+        return courses;
+    }
 
-                    // Skip if we're in between courses.
-                    if (c == null)
-                        continue;
+    private Collection<Course> parseDepartment(Term term, Department department, Document dsd) {
 
-                    populateCourse(term, c, columnCursor.next());
+        Collection<Course> courses = new ArrayList<>();
 
-                    numberOfCourses++;
-                    tt.addCourse(c);
+        Elements courseRows = dsd.select("table");
 
-                    c = null;
-                }
+        if (courseRows.isEmpty())
+            return courses;
+
+        courseRows = courseRows.first().select("tbody").first().children();
+
+        Course c = null;
+
+        for (Element courseRow : courseRows) {
+
+            // Ignore the header rows.
+            if (courseRow.children().first().tagName().equals("th"))
+                continue;
+
+            Iterator<Element> columnCursor = courseRow.children().iterator();
+
+            String headerText = ParsingTools.sanitize(columnCursor.next().text());
+
+            // If the header is the ID fromName the department, it is a descriptor for a course.
+            if (headerText.equals(department.getCode())) {
+
+                String courseCode = ParsingTools.sanitize(columnCursor.next().ownText());
+                double credits = Double.parseDouble(ParsingTools.sanitize(columnCursor.next().ownText()));
+                String courseName = ParsingTools.sanitize(columnCursor.next().ownText());
+
+                c = new Course(getSchool(), term.getTermId(), department, courseCode, courseName, credits);
+
+                continue;
             }
 
-            LOGGER.info("\t-> Parsed " + numberOfCourses + " courses.");
+            if (headerText.isEmpty()) {
+
+                // Skip if we're in between courses.
+                if (c == null)
+                    continue;
+
+                populateCourse(term, c, columnCursor.next());
+                courses.add(c);
+
+                c = null;
+            }
         }
 
-        return tt;
+        return courses;
     }
 
     private void populateCourse(Term t, Course c, Element courseElement) {
@@ -3,6 +3,8 @@ package com.timetablegenerator.scraper.school.western;
 import com.timetablegenerator.model.*;
 import com.timetablegenerator.model.period.Period;
 import com.timetablegenerator.model.period.RepeatingPeriod;
+import com.timetablegenerator.scraper.checkpoint.CheckpointJournal;
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
 import com.timetablegenerator.scraper.annotation.LegacyConfig;
 import com.timetablegenerator.scraper.annotation.LegacyMapping;
 import com.timetablegenerator.scraper.annotation.SchoolConfig;
@@ -10,6 +12,7 @@ import com.timetablegenerator.scraper.annotation.SectionMapping;
 import com.timetablegenerator.scraper.utility.ParsingTools;
 import com.timetablegenerator.scraper.utility.network.RestRequest;
 import com.timetablegenerator.scraper.utility.network.RestResponse;
+import com.timetablegenerator.scraper.utility.network.RetryPolicy;
 import com.timetablegenerator.scraper.*;
 
 import static com.timetablegenerator.scraper.annotation.LegacyMapping.LegacyType.*;
@@ -23,9 +26,12 @@ import org.jsoup.nodes.TextNode;
 import org.jsoup.select.Elements;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -49,7 +55,7 @@ import java.util.stream.Collectors;
                 }
         )
 )
-public class WesternScraper extends Scraper {
+public class WesternScraper extends Scraper implements DepartmentPageParser {
 
     private static final Logger LOGGER = LogManager.getLogger();
 
@@ -82,7 +88,10 @@ public class WesternScraper extends Scraper {
 
     private static final String UNSCHEDULED_TERM = "YZ";
 
-    private static final int COOL_DOWN_PAUSE = 10;
+    // CAPTCHAs are served with a 200, so they are backed off from here rather than by the requests themselves.
+    private static final RetryPolicy CAPTCHA_COOL_DOWN = RetryPolicy.builder()
+            .withBaseDelay(10, TimeUnit.SECONDS)
+            .withMaxDelay(2, TimeUnit.MINUTES).build();
 
     private Collection<Course> getCourses(Department department) throws IOException {
 
@@ -117,26 +126,37 @@ public class WesternScraper extends Scraper {
 
         Document d;
 
-        int i = COOL_DOWN_PAUSE;
+        int i = 0;
 
         while (true) {
 
             d = Jsoup.parse(request.run().getResponseString());
 
             if (d.select(".g-recaptcha").size() > 0)
-                LOGGER.warn(" >>> CAPTCHA detected, pausing for cool-down... [" + i + "s]");
+                LOGGER.warn(" >>> CAPTCHA detected, pausing for cool-down... [attempt " + ++i + "]");
             else
                 break;
 
-            try {
+            CAPTCHA_COOL_DOWN.backOff(i, null);
+        }
 
-                Thread.sleep(1000 * i);
-                i += 5;
+        Document page = d;
+        return ScrapeMetrics.parse(department, () -> parseCourses(department, page));
+    }
 
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }
+    @Override
+    public Collection<Course> parseDepartmentPages(Term term, Department department, List<InputStream> pages)
+            throws IOException {
+
+        Collection<Course> courses = new ArrayList<>();
+
+        for (InputStream page : pages)
+            courses.addAll(parseCourses(department, Jsoup.parse(page, StandardCharsets.UTF_8.name(), "")));
+
+        return courses;
+    }
+
+    private Collection<Course> parseCourses(Department department, Document d) {
 
         Collection<Course> courses = new ArrayList<>();
 
@@ -411,18 +431,38 @@ public class WesternScraper extends Scraper {
 
         int i = 0;
 
-        for (Department department : departments) {
+        // A scrape cut short by CAPTCHAs picks up from the departments it had not got to yet.
+        try (CheckpointJournal journal = CheckpointJournal.open(getSchool(), term)) {
 
-            LOGGER.info("Retrieving data under \"" + department.getName()
-                    + "\" (" + department.getCode() + ") [" + ++i + " of " + departments.size() + "]...");
+            for (Department department : departments) {
 
-            Collection<Course> courses = getCourses(department);
-            courses.forEach(tt::addCourse);
+                LOGGER.info("Retrieving data under \"" + department.getName()
+                        + "\" (" + department.getCode() + ") [" + ++i + " of " + departments.size() + "]...");
 
-            if (courses.isEmpty())
-                LOGGER.info("-> No courses discovered");
-            else
-                LOGGER.info("-> " + courses.size() + " courses discovered");
+                if (journal.restore(department, tt::addCourse))
+                    continue;
+
+                Collection<Course> courses;
+
+                ScrapeMetrics.Binding binding = ScrapeMetrics.department(department);
+
+                try {
+                    courses = getCourses(department);
+                } finally {
+                    binding.close();
+                }
+
+                courses.forEach(tt::addCourse);
+
+                journal.complete(department, courses);
+
+                if (courses.isEmpty())
+                    LOGGER.info("-> No courses discovered");
+                else
+                    LOGGER.info("-> " + courses.size() + " courses discovered");
+            }
+
+            journal.finish();
         }
 
         return tt;
@@ -438,13 +478,8 @@ public class WesternScraper extends Scraper {
 
         int i = 0;
         while (d.select(".g-recaptcha").size() > 0) {
-            int pause = COOL_DOWN_PAUSE + 5 * i++;
-            LOGGER.warn(" >>> CAPTCHA detected, pausing for cool-down... [" + pause + "s]");
-            try {
-                Thread.sleep(1000 * pause);
-            } catch (InterruptedException ie) {
-                System.out.println("Interrupted prematurely?");
-            }
+            LOGGER.warn(" >>> CAPTCHA detected, pausing for cool-down... [attempt " + ++i + "]");
+            CAPTCHA_COOL_DOWN.backOff(i, null);
             resp = RestRequest.get(TIMETABLE_ROOT).run();
             d = Jsoup.parse(resp.getResponseString());
         }
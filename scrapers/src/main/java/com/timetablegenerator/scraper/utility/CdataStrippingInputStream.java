@@ -0,0 +1,113 @@
+package com.timetablegenerator.scraper.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Drops every CDATA marker (<code>&lt;![CDATA[</code> and <code>]]&gt;</code>) from a stream as it is read, leaving
+ * what they wrapped in place, so that markup sent inside CDATA sections is parsed as markup.
+ *
+ * The markers are matched on bytes, which is safe for ASCII-compatible encodings such as UTF-8 as no byte of a
+ * multi-byte character is an ASCII one.
+ */
+public final class CdataStrippingInputStream extends InputStream {
+
+    private static final byte[] OPEN = "<![CDATA[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CLOSE = "]]>".getBytes(StandardCharsets.US_ASCII);
+
+    private final InputStream in;
+
+    // Bytes read from the stream but not handed on yet. At least the length of the longer marker is kept buffered,
+    // unless the stream has ended, so that a marker is always seen whole.
+    private final byte[] buffer = new byte[8192];
+    private int position = 0;
+    private int count = 0;
+    private boolean ended = false;
+
+    // Holds the byte read by read(), so that reading a byte at a time does not allocate.
+    private final byte[] single = new byte[1];
+
+    public CdataStrippingInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+
+        return this.read(this.single, 0, 1) == -1 ? -1 : this.single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+
+        if (len == 0)
+            return 0;
+
+        int n = 0;
+
+        while (n < len) {
+
+            if (this.count - this.position < OPEN.length && !this.ended) {
+
+                // Only wait on the stream for more if there is nothing to hand back yet.
+                if (n > 0 && this.in.available() <= 0)
+                    break;
+
+                this.fill();
+            }
+
+            if (this.position == this.count)
+                break;
+
+            byte c = this.buffer[this.position];
+
+            if (c == '<' && this.matches(OPEN)) {
+                this.position += OPEN.length;
+            } else if (c == ']' && this.matches(CLOSE)) {
+                this.position += CLOSE.length;
+            } else {
+                b[off + n++] = c;
+                this.position++;
+            }
+        }
+
+        return n == 0 ? -1 : n;
+    }
+
+    private boolean matches(byte[] marker) {
+
+        if (this.count - this.position < marker.length)
+            return false;
+
+        for (int i = 1; i < marker.length; i++)
+            if (this.buffer[this.position + i] != marker[i])
+                return false;
+
+        return true;
+    }
+
+    private void fill() throws IOException {
+
+        int remaining = this.count - this.position;
+
+        System.arraycopy(this.buffer, this.position, this.buffer, 0, remaining);
+        this.position = 0;
+        this.count = remaining;
+
+        while (this.count < OPEN.length && !this.ended) {
+
+            int read = this.in.read(this.buffer, this.count, this.buffer.length - this.count);
+
+            if (read == -1)
+                this.ended = true;
+            else
+                this.count += read;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.in.close();
+    }
+}
@@ -0,0 +1,304 @@
+package com.timetablegenerator.scraper.utility;
+
+import org.jsoup.nodes.Attributes;
+import org.jsoup.parser.Parser;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads HTML from a stream as a series of start tags, end tags and text, handing each to a {@link Handler} as soon as
+ * it has been read, so that a page can be picked apart without ever being held whole.
+ *
+ * Nothing is done to balance the tags, which are handed over as they appear. Tag and attribute names are lower-cased
+ * and entities are decoded, except within <code>script</code> and <code>style</code> elements, whose contents are
+ * handed over as they are. Comments, doctypes and processing instructions are dropped.
+ */
+public final class HtmlTokenizer {
+
+    /**
+     * Receives the tags and text of a page in the order they appear in it.
+     */
+    public interface Handler {
+
+        /**
+         * @param name The name of the tag.
+         * @param attributes The attributes of the tag.
+         * @param selfClosing Whether the tag was closed where it was opened, as in <code>&lt;br/&gt;</code>.
+         */
+        void startTag(String name, Attributes attributes, boolean selfClosing);
+
+        /**
+         * @param name The name of the tag.
+         */
+        void endTag(String name);
+
+        /**
+         * @param text The text between two tags.
+         */
+        void text(String text);
+    }
+
+    private final Reader in;
+    private final Handler handler;
+
+    private final char[] buffer = new char[8192];
+    private int position = 0;
+    private int count = 0;
+
+    private final StringBuilder token = new StringBuilder();
+
+    private HtmlTokenizer(Reader in, Handler handler) {
+        this.in = in;
+        this.handler = handler;
+    }
+
+    /**
+     * Reads a page through to its end.
+     *
+     * @param in The page.
+     * @param handler What to hand the tags and text of the page to.
+     * @throws IOException If the page could not be read.
+     */
+    public static void tokenize(Reader in, Handler handler) throws IOException {
+        new HtmlTokenizer(in, handler).run();
+    }
+
+    private void run() throws IOException {
+
+        int c;
+
+        while ((c = this.read()) != -1) {
+
+            if (c != '<') {
+                this.token.append((char) c);
+                continue;
+            }
+
+            int next = this.peek();
+
+            if (next == '/' || next == '!' || next == '?' || Character.isLetter(next)) {
+
+                this.flushText();
+
+                if (next == '/') {
+                    this.read();
+                    this.readEndTag();
+                } else if (next == '!' || next == '?')
+                    this.skipMarkup();
+                else
+                    this.readStartTag();
+
+            } else
+                this.token.append('<');
+        }
+
+        this.flushText();
+    }
+
+    private void flushText() {
+
+        if (this.token.length() == 0)
+            return;
+
+        String text = this.token.toString();
+        this.token.setLength(0);
+
+        this.handler.text(text.indexOf('&') < 0 ? text : Parser.unescapeEntities(text, false));
+    }
+
+    private void readStartTag() throws IOException {
+
+        String name = this.readName();
+        Attributes attributes = new Attributes();
+        boolean selfClosing = false;
+
+        int c;
+
+        while ((c = this.skipWhitespace()) != -1 && c != '>') {
+
+            if (c == '/') {
+                this.read();
+                selfClosing = this.peek() == '>';
+                continue;
+            }
+
+            String attribute = this.readName();
+
+            if (attribute.isEmpty()) {
+                this.read();
+                continue;
+            }
+
+            String value = "";
+
+            if (this.skipWhitespace() == '=') {
+                this.read();
+                value = this.readValue();
+            }
+
+            attributes.put(attribute, value.indexOf('&') < 0 ? value : Parser.unescapeEntities(value, true));
+        }
+
+        this.read();
+        this.handler.startTag(name, attributes, selfClosing);
+
+        if (!selfClosing && (name.equals("script") || name.equals("style")))
+            this.readRawText(name);
+    }
+
+    private void readEndTag() throws IOException {
+
+        String name = this.readName();
+        this.skipPast('>');
+
+        if (!name.isEmpty())
+            this.handler.endTag(name);
+    }
+
+    // Drops a comment, doctype or processing instruction.
+    private void skipMarkup() throws IOException {
+
+        int c = this.read();
+
+        if (c == '!' && this.peek() == '-') {
+
+            this.read();
+
+            if (this.peek() == '-') {
+
+                this.read();
+
+                // Comments run until "-->", whatever they hold.
+                int dashes = 0;
+
+                while ((c = this.read()) != -1 && !(c == '>' && dashes >= 2))
+                    dashes = c == '-' ? dashes + 1 : 0;
+
+                return;
+            }
+        }
+
+        if (c != '>')
+            this.skipPast('>');
+    }
+
+    // Hands over the contents of a script or style element up to its end tag, which is handed over after them.
+    private void readRawText(String name) throws IOException {
+
+        String end = "</" + name;
+        int c;
+
+        while ((c = this.read()) != -1) {
+
+            this.token.append((char) c);
+
+            int start = this.token.length() - end.length();
+
+            if (start < 0 || Character.toLowerCase((char) c) != name.charAt(name.length() - 1)
+                    || !this.token.substring(start).equalsIgnoreCase(end))
+                continue;
+
+            this.token.setLength(start);
+
+            if (start > 0)
+                this.handler.text(this.token.toString());
+
+            this.token.setLength(0);
+            this.skipPast('>');
+
+            this.handler.endTag(name);
+            return;
+        }
+
+        // The page ended within the element.
+        if (this.token.length() > 0)
+            this.handler.text(this.token.toString());
+
+        this.token.setLength(0);
+    }
+
+    private void skipPast(char end) throws IOException {
+
+        int c;
+
+        do
+            c = this.read();
+        while (c != -1 && c != end);
+    }
+
+    private String readName() throws IOException {
+
+        StringBuilder name = new StringBuilder();
+        int c;
+
+        while ((c = this.peek()) != -1 && !Character.isWhitespace(c) && c != '>' && c != '/' && c != '=') {
+            name.append(Character.toLowerCase((char) c));
+            this.read();
+        }
+
+        return name.toString();
+    }
+
+    private String readValue() throws IOException {
+
+        StringBuilder value = new StringBuilder();
+        int c = this.skipWhitespace();
+
+        if (c == '"' || c == '\'') {
+
+            int quote = this.read();
+
+            while ((c = this.read()) != -1 && c != quote)
+                value.append((char) c);
+
+        } else
+            while ((c = this.peek()) != -1 && !Character.isWhitespace(c) && c != '>') {
+                value.append((char) c);
+                this.read();
+            }
+
+        return value.toString();
+    }
+
+    // Skips whitespace, returning the character after it without reading it.
+    private int skipWhitespace() throws IOException {
+
+        int c;
+
+        while ((c = this.peek()) != -1 && Character.isWhitespace(c))
+            this.read();
+
+        return c;
+    }
+
+    private int peek() throws IOException {
+
+        if (this.position == this.count && !this.fill())
+            return -1;
+
+        return this.buffer[this.position];
+    }
+
+    private int read() throws IOException {
+
+        if (this.position == this.count && !this.fill())
+            return -1;
+
+        return this.buffer[this.position++];
+    }
+
+    private boolean fill() throws IOException {
+
+        int read;
+
+        do
+            read = this.in.read(this.buffer, 0, this.buffer.length);
+        while (read == 0);
+
+        this.position = 0;
+        this.count = Math.max(read, 0);
+
+        return read > 0;
+    }
+}
@@ -0,0 +1,557 @@
+package com.timetablegenerator.scraper.utility.network;
+
+import com.timetablegenerator.scraper.concurrent.TokenBucket;
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLContextBuilder;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.LaxRedirectStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.NHttpClientConnection;
+import org.apache.http.nio.client.HttpAsyncClient;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.ConnPoolControl;
+
+import javax.net.ssl.SSLContext;
+import java.io.Closeable;
+import java.io.IOException;
+import java.security.KeyManagementException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A set of kept-alive connections shared by every {@link RestRequest} that uses it, so that requests to a host reuse
+ * an open connection instead of each making a new one.
+ *
+ * Requests use the pool of the school being scraped on the thread that creates them, as told by
+ * {@link ScrapeMetrics.Context#current()}, or the default pool outside of a scrape, unless given another. Cookies are
+ * not shared through the pool: they stay with the chain of requests that set them, as each chain started by
+ * {@link RestRequest#get(String)} and the like has a context of its own.
+ *
+ * Requests to a host can be held to a rate with {@link #setMaxRequestRate(String, double, int)}. Every attempt at a
+ * request takes a token from the host's bucket before it is sent, retries included, so a scraper that fetches many
+ * pages per department is held to the rate just the same as one that fetches a single page.
+ *
+ * Each request is counted in {@link ScrapeMetrics#POOL_HITS} if the connection it was given was already open, and in
+ * {@link ScrapeMetrics#POOL_MISSES} if one had to be opened for it.
+ *
+ * Requests run asynchronously are sent through a non-blocking client of the pool's own, whose connections are read
+ * and written by a few I/O threads however many requests are in flight. No more of them are in flight to a host at
+ * once than the pool has connections to it: the rest wait in a queue per host, taking up no thread, and are started
+ * from the pool's timer thread as those before them complete. Waits before retries and for a host's rate are kept on
+ * the timer too, rather than on a sleeping thread.
+ */
+public final class ConnectionPool implements Closeable {
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 20;
+    private static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 2;
+
+    // Servers tend to drop idle connections without saying so, after which the first request on them fails.
+    private static final long CONNECTION_TIME_TO_LIVE_SECONDS = 60;
+
+    private static final RequestConfig DEFAULT_REQUEST_CONFIG = RequestConfig.custom()
+            .setConnectTimeout(10000)
+            .setSocketTimeout(10000).build();
+
+    // Starts the asynchronous requests waiting on a host, and those waiting to be retried or for a host's rate.
+    static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor(daemonThreads("http-timer"));
+
+    private static final ConnectionPool DEFAULT_POOL = new ConnectionPool();
+    private static final Map<String, ConnectionPool> SCHOOL_POOLS = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> hostLimits = new ConcurrentHashMap<>();
+    private final Map<String, HostQueue> hostQueues = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> hostRates = new ConcurrentHashMap<>();
+
+    private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+    private volatile int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+    private CountingConnectionManager secureManager;
+    private CountingConnectionManager insecureManager;
+
+    private HttpClient secureClient;
+    private HttpClient insecureClient;
+
+    private CountingAsyncConnectionManager secureAsyncManager;
+    private CountingAsyncConnectionManager insecureAsyncManager;
+
+    private CloseableHttpAsyncClient secureAsyncClient;
+    private CloseableHttpAsyncClient insecureAsyncClient;
+
+    private ConnectionPool() {
+    }
+
+    public static ConnectionPool getDefault() {
+        return DEFAULT_POOL;
+    }
+
+    /**
+     * @param schoolId The ID of a school.
+     * @return The pool for the school, which is the same every time it is asked for.
+     */
+    public static ConnectionPool forSchool(String schoolId) {
+        return SCHOOL_POOLS.computeIfAbsent(schoolId, x -> new ConnectionPool());
+    }
+
+    /**
+     * @return The pool for the school being scraped on this thread, or the default pool if there is none.
+     */
+    public static ConnectionPool current() {
+
+        String school = ScrapeMetrics.Context.current().getSchool();
+        return school.isEmpty() ? DEFAULT_POOL : forSchool(school);
+    }
+
+    public synchronized ConnectionPool setMaxConnections(int maxConnections) {
+
+        if (maxConnections < 1)
+            throw new IllegalArgumentException("Invalid maximum number of connections: " + maxConnections);
+
+        this.maxConnections = maxConnections;
+
+        for (ConnPoolControl<HttpRoute> manager : this.managers())
+            manager.setMaxTotal(maxConnections);
+
+        return this;
+    }
+
+    public synchronized ConnectionPool setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+
+        if (maxConnectionsPerHost < 1)
+            throw new IllegalArgumentException("Invalid maximum number of connections per host: "
+                    + maxConnectionsPerHost);
+
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+
+        for (ConnPoolControl<HttpRoute> manager : this.managers())
+            manager.setDefaultMaxPerRoute(maxConnectionsPerHost);
+
+        return this;
+    }
+
+    /**
+     * Overrides the maximum number of connections per host for a single host.
+     *
+     * @param host The host name, e.g. "www.example.com".
+     * @param maxConnections The maximum number of connections to the host.
+     * @return This pool.
+     */
+    public ConnectionPool setMaxConnectionsPerHost(String host, int maxConnections) {
+
+        if (maxConnections < 1)
+            throw new IllegalArgumentException("Invalid maximum number of connections to " + host + ": "
+                    + maxConnections);
+
+        this.hostLimits.put(host.toLowerCase(), maxConnections);
+        return this;
+    }
+
+    /**
+     * Holds the requests sent to a host through the pool to a rate. Requests to other hosts are not held to any.
+     * Setting the rate a host is already held to again leaves it be, along with the requests waiting on it.
+     *
+     * @param host The host name, e.g. "www.example.com".
+     * @param requestsPerSecond The rate at which requests are sent to the host.
+     * @param burst The number of requests that may be sent to the host at once before the rate applies.
+     * @return This pool.
+     */
+    public ConnectionPool setMaxRequestRate(String host, double requestsPerSecond, int burst) {
+
+        TokenBucket bucket = new TokenBucket(requestsPerSecond, burst);
+
+        this.hostRates.merge(host.toLowerCase(), bucket, (x, y) ->
+                x.getPermitsPerSecond() == requestsPerSecond && x.getCapacity() == burst ? x : y);
+        return this;
+    }
+
+    /**
+     * @param host The host name.
+     * @return The bucket requests to the host take a token from before they are sent, or null if they are not held to
+     * a rate.
+     */
+    TokenBucket getRequestRate(String host) {
+        return host == null ? null : this.hostRates.get(host.toLowerCase());
+    }
+
+    synchronized HttpClient getClient(boolean allowInvalidCertificates) {
+
+        if (allowInvalidCertificates) {
+
+            if (this.insecureClient == null) {
+                this.insecureManager = this.buildConnectionManager(true);
+                this.insecureClient = buildHttpClient(this.insecureManager);
+            }
+
+            return this.insecureClient;
+        }
+
+        if (this.secureClient == null) {
+            this.secureManager = this.buildConnectionManager(false);
+            this.secureClient = buildHttpClient(this.secureManager);
+        }
+
+        return this.secureClient;
+    }
+
+    synchronized HttpAsyncClient getAsyncClient(boolean allowInvalidCertificates) {
+
+        if (allowInvalidCertificates) {
+
+            if (this.insecureAsyncClient == null) {
+                this.insecureAsyncManager = this.buildAsyncConnectionManager(true);
+                this.insecureAsyncClient = buildHttpAsyncClient(this.insecureAsyncManager);
+            }
+
+            return this.insecureAsyncClient;
+        }
+
+        if (this.secureAsyncClient == null) {
+            this.secureAsyncManager = this.buildAsyncConnectionManager(false);
+            this.secureAsyncClient = buildHttpAsyncClient(this.secureAsyncManager);
+        }
+
+        return this.secureAsyncClient;
+    }
+
+    /**
+     * Starts an asynchronous request once fewer requests to its host are in flight than the pool has connections to
+     * it, and keeps its place until the future of its response completes.
+     *
+     * @param host The host the request is sent to.
+     * @param request Sends the request.
+     * @return A future completed as the future of the request is.
+     */
+    <T> CompletableFuture<T> submit(String host, Supplier<CompletableFuture<T>> request) {
+
+        String key = host.toLowerCase();
+        HostQueue queue = this.hostQueues.computeIfAbsent(key, x -> new HostQueue());
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Runnable start = () -> {
+
+            CompletableFuture<T> sent;
+
+            try {
+                sent = request.get();
+            } catch (RuntimeException e) {
+                sent = new CompletableFuture<>();
+                sent.completeExceptionally(e);
+            }
+
+            sent.whenComplete((x, e) -> {
+
+                this.startNext(queue);
+
+                if (e == null)
+                    result.complete(x);
+                else
+                    result.completeExceptionally(e);
+            });
+        };
+
+        synchronized (queue) {
+
+            if (queue.running >= this.hostLimits.getOrDefault(key, this.maxConnectionsPerHost)) {
+                queue.waiting.add(start);
+                return result;
+            }
+
+            queue.running++;
+        }
+
+        start.run();
+        return result;
+    }
+
+    // Hands the place of a request that has completed to the next one waiting on the same host, if there is one. It
+    // is started from the timer rather than here, so that requests failing straight away do not start one another on
+    // an ever deeper stack, and the I/O thread completing the request is not kept from its other connections.
+    private void startNext(HostQueue queue) {
+
+        Runnable next;
+
+        synchronized (queue) {
+
+            next = queue.waiting.poll();
+
+            if (next == null) {
+                queue.running--;
+                return;
+            }
+        }
+
+        TIMER.execute(next);
+    }
+
+    private List<ConnPoolControl<HttpRoute>> managers() {
+
+        List<ConnPoolControl<HttpRoute>> managers = new ArrayList<>();
+
+        if (this.secureManager != null)
+            managers.add(this.secureManager);
+        if (this.insecureManager != null)
+            managers.add(this.insecureManager);
+        if (this.secureAsyncManager != null)
+            managers.add(this.secureAsyncManager);
+        if (this.insecureAsyncManager != null)
+            managers.add(this.insecureAsyncManager);
+
+        return managers;
+    }
+
+    // Accepts self-signed certificates as valid.
+    private static SSLContext buildTrustingSslContext() {
+        try {
+            return new SSLContextBuilder()
+                    .loadTrustMaterial(null, new TrustSelfSignedStrategy())
+                    .build();
+        } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
+            throw new IllegalStateException("Problem creating certificate-ignoring HTTP client: " + e.getMessage());
+        }
+    }
+
+    private CountingConnectionManager buildConnectionManager(boolean allowInvalidCertificates) {
+
+        SSLConnectionSocketFactory sslSocketFactory = allowInvalidCertificates
+                ? new SSLConnectionSocketFactory(buildTrustingSslContext())
+                : SSLConnectionSocketFactory.getSocketFactory();
+
+        Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", sslSocketFactory)
+                .build();
+
+        CountingConnectionManager manager = new CountingConnectionManager(registry);
+        manager.setMaxTotal(this.maxConnections);
+        manager.setDefaultMaxPerRoute(this.maxConnectionsPerHost);
+
+        return manager;
+    }
+
+    private static HttpClient buildHttpClient(PoolingHttpClientConnectionManager manager) {
+        return HttpClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(DEFAULT_REQUEST_CONFIG)
+                .setRedirectStrategy(new LaxRedirectStrategy())
+                .build();
+    }
+
+    private CountingAsyncConnectionManager buildAsyncConnectionManager(boolean allowInvalidCertificates) {
+
+        SSLIOSessionStrategy sslStrategy = allowInvalidCertificates
+                ? new SSLIOSessionStrategy(buildTrustingSslContext())
+                : SSLIOSessionStrategy.getDefaultStrategy();
+
+        Registry<SchemeIOSessionStrategy> registry = RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", sslStrategy)
+                .build();
+
+        DefaultConnectingIOReactor reactor;
+
+        try {
+            reactor = new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT, daemonThreads("http-io"));
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("Problem creating asynchronous HTTP client: " + e.getMessage());
+        }
+
+        CountingAsyncConnectionManager manager = new CountingAsyncConnectionManager(reactor, registry);
+        manager.setMaxTotal(this.maxConnections);
+        manager.setDefaultMaxPerRoute(this.maxConnectionsPerHost);
+
+        return manager;
+    }
+
+    private static CloseableHttpAsyncClient buildHttpAsyncClient(PoolingNHttpClientConnectionManager manager) {
+
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(DEFAULT_REQUEST_CONFIG)
+                .setRedirectStrategy(new LaxRedirectStrategy())
+                .setThreadFactory(daemonThreads("http-reactor"))
+                .build();
+
+        client.start();
+        return client;
+    }
+
+    // Threads of the pool never keep the process running once the scrape is done.
+    private static ThreadFactory daemonThreads(String name) {
+
+        AtomicInteger threadCount = new AtomicInteger();
+
+        return x -> {
+            Thread thread = new Thread(x, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Closes every connection of the pool. Requests using the pool afterwards open new ones. Asynchronous requests in
+     * flight fail, while those still waiting on their host are sent on new connections once it is their turn.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+
+        if (this.secureManager != null)
+            this.secureManager.shutdown();
+        if (this.insecureManager != null)
+            this.insecureManager.shutdown();
+
+        // Closing an asynchronous client stops its I/O threads and shuts its connection manager down along with them.
+        if (this.secureAsyncClient != null)
+            this.secureAsyncClient.close();
+        if (this.insecureAsyncClient != null)
+            this.insecureAsyncClient.close();
+
+        this.secureManager = null;
+        this.insecureManager = null;
+        this.secureClient = null;
+        this.insecureClient = null;
+
+        this.secureAsyncManager = null;
+        this.insecureAsyncManager = null;
+        this.secureAsyncClient = null;
+        this.insecureAsyncClient = null;
+    }
+
+    // Limits for particular hosts are applied to their routes as they are first asked for.
+    private void applyHostLimit(ConnPoolControl<HttpRoute> manager, HttpRoute route) {
+
+        Integer limit = this.hostLimits.get(route.getTargetHost().getHostName().toLowerCase());
+
+        if (limit != null && manager.getMaxPerRoute(route) != limit)
+            manager.setMaxPerRoute(route, limit);
+    }
+
+    private static final class HostQueue {
+
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        private int running = 0;
+    }
+
+    // A connection leased closed is connected by the client before it is used, which is what tells a miss from a hit.
+    private final class CountingConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private CountingConnectionManager(Registry<ConnectionSocketFactory> registry) {
+            super(registry, null, null, null, CONNECTION_TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+
+            applyHostLimit(this, route);
+
+            ConnectionRequest request = super.requestConnection(route, state);
+
+            String school = ScrapeMetrics.Context.current().getSchool();
+            String host = route.getTargetHost().getHostName();
+
+            return new ConnectionRequest() {
+
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                        throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+
+                    HttpClientConnection connection = request.get(timeout, timeUnit);
+
+                    (connection.isOpen() ? ScrapeMetrics.POOL_HITS : ScrapeMetrics.POOL_MISSES)
+                            .labels(school, host).increment();
+
+                    return connection;
+                }
+
+                @Override
+                public boolean cancel() {
+                    return request.cancel();
+                }
+            };
+        }
+    }
+
+    // Asynchronous connections are only leased once connected, so a miss is told from a hit by the connection not
+    // having carried a request yet.
+    private final class CountingAsyncConnectionManager extends PoolingNHttpClientConnectionManager {
+
+        private CountingAsyncConnectionManager(DefaultConnectingIOReactor reactor,
+                                               Registry<SchemeIOSessionStrategy> registry) {
+            super(reactor, null, registry, null, null, CONNECTION_TIME_TO_LIVE_SECONDS, TimeUnit.SECONDS);
+        }
+
+        @Override
+        public Future<NHttpClientConnection> requestConnection(HttpRoute route, Object state, long connectTimeout,
+                                                               long leaseTimeout, TimeUnit timeUnit,
+                                                               FutureCallback<NHttpClientConnection> callback) {
+
+            applyHostLimit(this, route);
+
+            String school = ScrapeMetrics.Context.current().getSchool();
+            String host = route.getTargetHost().getHostName();
+
+            return super.requestConnection(route, state, connectTimeout, leaseTimeout, timeUnit,
+                    new FutureCallback<NHttpClientConnection>() {
+
+                        @Override
+                        public void completed(NHttpClientConnection connection) {
+
+                            (connection.getMetrics().getRequestCount() > 0
+                                    ? ScrapeMetrics.POOL_HITS : ScrapeMetrics.POOL_MISSES)
+                                    .labels(school, host).increment();
+
+                            if (callback != null)
+                                callback.completed(connection);
+                        }
+
+                        @Override
+                        public void failed(Exception e) {
+                            if (callback != null)
+                                callback.failed(e);
+                        }
+
+                        @Override
+                        public void cancelled() {
+                            if (callback != null)
+                                callback.cancelled();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.timetablegenerator.scraper.utility.network;
+
+import org.apache.http.protocol.HttpContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An on-disk store of responses, so that scrapes can be re-run against responses captured from an earlier scrape
+ * without going to the network.
+ *
+ * Responses are stored under a hash of what identifies their request: its method, URL, query and form parameters and
+ * any cookies set on it by hand. Cookies picked up from earlier responses are left out, as session cookies differ
+ * from one scrape to the next. A request made in a chain is only identified by its own values, so a chain replays
+ * correctly so long as its requests differ in them.
+ *
+ * The cache is off unless configured, either with {@link #configure(Mode, Path)} or with the system properties
+ * <code>ttg.http.cache</code> (<code>record</code> or <code>replay</code>) and <code>ttg.http.cache.directory</code>.
+ *
+ * An entry is laid out as follows, with strings in modified UTF-8 as written by {@link DataOutputStream}:
+ *
+ * <pre>
+ * entry  := int32(magic) int32(status code) pairs(headers) pairs(cookies) int32(body length) bytes | int32(-1)
+ * pairs  := int32(count) (string(name) string(value))*
+ * </pre>
+ */
+public final class ResponseCache {
+
+    public enum Mode {
+
+        /** Requests go to the network and nothing is stored. */
+        OFF,
+
+        /** Requests go to the network and their responses are stored, replacing any stored before. */
+        RECORD,
+
+        /** Requests never go to the network. A request without a stored response fails. */
+        REPLAY
+    }
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private static final int MAGIC = 0x54544743;
+    private static final String DEFAULT_DIRECTORY = ".http-cache";
+
+    private static volatile ResponseCache instance = fromSystemProperties();
+
+    private final Mode mode;
+    private final Path directory;
+
+    ResponseCache(Mode mode, Path directory) {
+        this.mode = mode;
+        this.directory = directory;
+    }
+
+    private static ResponseCache fromSystemProperties() {
+
+        String mode = System.getProperty("ttg.http.cache");
+        String directory = System.getProperty("ttg.http.cache.directory", DEFAULT_DIRECTORY);
+
+        return new ResponseCache(mode == null ? Mode.OFF : Mode.valueOf(mode.toUpperCase()), Paths.get(directory));
+    }
+
+    /**
+     * Sets the cache used by every request from now on.
+     *
+     * @param mode What to do with responses.
+     * @param directory The directory the responses are stored in.
+     */
+    public static void configure(Mode mode, Path directory) {
+        instance = new ResponseCache(mode, directory);
+    }
+
+    static ResponseCache getInstance() {
+        return instance;
+    }
+
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    private Path getPath(String key) {
+
+        String hash = hash(key);
+        return this.directory.resolve(hash.substring(0, 2)).resolve(hash + ".bin");
+    }
+
+    void record(String key, RestResponse response) throws IOException {
+        this.store(key, new Entry(response.getResponseCode(), response.getHeaderValues(), response.getCookieValues(),
+                response.getResponseBytes()));
+        LOGGER.debug("Recorded response to " + key.replace('\n', ' ') + " at [" + this.getPath(key) + "]");
+    }
+
+    /**
+     * @param key The identity of a request.
+     * @param connectionPool The pool that requests chained from the response are to be sent from.
+     * @param allowInvalidCertificates Whether requests chained from the response allow invalid certificates.
+     * @param context The context that requests chained from the response are to use.
+     * @param uri The URI of the request.
+     * @return The stored response.
+     * @throws IOException If there is no stored response to the request, or it could not be read.
+     */
+    RestResponse replay(String key, ConnectionPool connectionPool, boolean allowInvalidCertificates,
+                        HttpContext context, String uri) throws IOException {
+
+        Entry entry = this.load(key);
+
+        if (entry == null)
+            throw new IOException("No response has been recorded for " + key.replace('\n', ' '));
+
+        return new RestResponse(connectionPool, allowInvalidCertificates, context, uri, entry.responseCode,
+                entry.headers, entry.cookies, entry.body);
+    }
+
+    static final class Entry {
+
+        final int responseCode;
+        final Map<String, String> headers;
+        final Map<String, String> cookies;
+        final byte[] body;
+
+        Entry(int responseCode, Map<String, String> headers, Map<String, String> cookies, byte[] body) {
+            this.responseCode = responseCode;
+            this.headers = headers;
+            this.cookies = cookies;
+            this.body = body;
+        }
+    }
+
+    void store(String key, Entry entry) throws IOException {
+
+        Path path = this.getPath(key);
+        Files.createDirectories(path.getParent());
+
+        // Entries are written aside and moved into place, so that an interrupted scrape never leaves half of one.
+        Path temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+
+        try {
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temporary)))) {
+
+                out.writeInt(MAGIC);
+                out.writeInt(entry.responseCode);
+                writePairs(out, entry.headers);
+                writePairs(out, entry.cookies);
+
+                if (entry.body == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(entry.body.length);
+                    out.write(entry.body);
+                }
+            }
+
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @param key The identity of a request.
+     * @return The entry stored for the request, or null if there is none.
+     * @throws IOException If the entry could not be read.
+     */
+    Entry load(String key) throws IOException {
+
+        Path path = this.getPath(key);
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+
+            if (in.readInt() != MAGIC)
+                throw new IOException("Stored response [" + path + "] is corrupt.");
+
+            int responseCode = in.readInt();
+            Map<String, String> headers = readPairs(in);
+            Map<String, String> cookies = readPairs(in);
+
+            byte[] body = null;
+            int length = in.readInt();
+
+            if (length >= 0) {
+                body = new byte[length];
+                in.readFully(body);
+            }
+
+            return new Entry(responseCode, headers, cookies, body);
+
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static void writePairs(DataOutputStream out, Map<String, String> pairs) throws IOException {
+
+        out.writeInt(pairs.size());
+
+        for (Map.Entry<String, String> pair : pairs.entrySet()) {
+            out.writeUTF(pair.getKey());
+            out.writeUTF(pair.getValue());
+        }
+    }
+
+    private static Map<String, String> readPairs(DataInputStream in) throws IOException {
+
+        Map<String, String> pairs = new TreeMap<>();
+
+        for (int count = in.readInt(); count > 0; count--)
+            pairs.put(in.readUTF(), in.readUTF());
+
+        return pairs;
+    }
+
+    private static String hash(String key) {
+
+        try {
+
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+
+            for (byte b : digest)
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+
+            return sb.toString();
+
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available: " + e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package com.timetablegenerator.scraper.utility.network;
 
+import org.apache.http.HttpStatus;
 import org.apache.http.client.CookieStore;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpGet;
@@ -9,14 +9,8 @@ import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.protocol.HttpClientContext;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.SSLContextBuilder;
-import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
 import org.apache.http.cookie.Cookie;
 import org.apache.http.impl.client.BasicCookieStore;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.client.LaxRedirectStrategy;
 import org.apache.http.impl.cookie.BasicClientCookie;
 import org.apache.http.message.BasicHeader;
 import org.apache.http.message.BasicNameValuePair;
@@ -25,15 +19,14 @@ import org.apache.http.protocol.HttpContext;
 
 import java.io.IOException;
 import java.net.URLEncoder;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
 import java.util.Map;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 public final class RestRequest {
@@ -50,7 +43,9 @@ public final class RestRequest {
     private final Map<String, String> queryValues = new TreeMap<>();
 
     private CookieStore cookieValues = new BasicCookieStore();
+    private final Map<String, String> requestCookies = new TreeMap<>();
 
+    private boolean conditional = false;
     private boolean followRedirects = true;
     private boolean allowInvalidCertificates = false;
 
@@ -63,40 +58,11 @@ public final class RestRequest {
             .setSocketTimeout(10000).setConnectTimeout(10000).setConnectionRequestTimeout(10000).build();
 
     private int retryCount = DEFAULT_RETRY_COUNT;
+    private RetryPolicy retryPolicy = RetryPolicy.getDefault();
 
-    private HttpClient httpClient;
-    private HttpContext httpContext;
-
-    private HttpClient buildHttpClient(boolean secure) {
-
-        int ten_seconds = 10000;
-        RequestConfig rcb = RequestConfig.custom()
-                .setConnectTimeout(ten_seconds)
-                .setSocketTimeout(ten_seconds).build();
-
-        HttpClientBuilder htb = HttpClients.custom();
-        htb.setDefaultRequestConfig(rcb);
-
-        if (!secure) {
-            try {
+    private ConnectionPool connectionPool = ConnectionPool.current();
 
-                // Build an HttpClient that accepts self-signed certificates as valid.
-                htb.setSSLSocketFactory(
-                        new SSLConnectionSocketFactory(
-                                new SSLContextBuilder()
-                                        .loadTrustMaterial(null, new TrustSelfSignedStrategy())
-                                        .build()
-                        )
-                );
-
-            } catch (NoSuchAlgorithmException | KeyManagementException | KeyStoreException e) {
-                throw new IllegalStateException("Problem creating certificate-ignoring HTTP client: "
-                        + e.getMessage());
-            }
-        }
-
-        return htb.setRedirectStrategy(new LaxRedirectStrategy()).build();
-    }
+    private HttpContext httpContext;
 
     private RestRequest(String url, Operation operation) {
 
@@ -127,6 +93,7 @@ public final class RestRequest {
     public RestRequest setCookie(String name, String value) {
 
         cookieValues.addCookie(new BasicClientCookie(name, value));
+        requestCookies.put(name, value);
         return this;
     }
 
@@ -170,7 +137,36 @@ public final class RestRequest {
 
     public RestRequest allowInvalidCertificates(boolean allowInvalidCertificates) {
         this.allowInvalidCertificates = allowInvalidCertificates;
-        this.httpClient = null;
+        return this;
+    }
+
+    /**
+     * Sends the request, and any chained from it, on connections from a pool other than that of the school being
+     * scraped.
+     *
+     * @param connectionPool The pool to use.
+     * @return This request.
+     */
+    public RestRequest useConnectionPool(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        return this;
+    }
+
+    /**
+     * Makes the request conditional on its response having changed since it was last made, as told by the validators
+     * kept in the {@link ValidatorStore}. If it has not, the response stored from last time is returned and
+     * {@link RestResponse#isNotModified()} is true.
+     *
+     * @param conditional Whether the request is conditional.
+     * @return This request.
+     */
+    public RestRequest setConditional(boolean conditional) {
+
+        if (conditional && this.operation != Operation.GET)
+            throw new IllegalArgumentException("Tried to make a " + this.operation.name()
+                    + " request conditional.");
+
+        this.conditional = conditional;
         return this;
     }
 
@@ -186,9 +182,17 @@ public final class RestRequest {
         return this;
     }
 
-    RestRequest recycleConnection(HttpClient httpClient, HttpContext httpContext) {
+    public RestRequest setRetryPolicy(RetryPolicy retryPolicy) {
+
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    RestRequest recycleConnection(ConnectionPool connectionPool, boolean allowInvalidCertificates,
+                                  HttpContext httpContext) {
 
-        this.httpClient = httpClient;
+        this.connectionPool = connectionPool;
+        this.allowInvalidCertificates = allowInvalidCertificates;
         this.httpContext = httpContext;
         this.cookieValues = (CookieStore) httpContext.getAttribute(HttpClientContext.COOKIE_STORE);
 
@@ -198,9 +202,160 @@ public final class RestRequest {
     /**
      * Performs a call to a REST interface and returns a response object.
      *
-     * @return A response object.
+     * @return A response object, with its body read in full.
      */
     public RestResponse run() throws IOException {
+        return this.execute();
+    }
+
+    /**
+     * Performs a call to a REST interface through the non-blocking client of the request's connection pool, so that
+     * many requests can be in flight at once without a thread waiting on any of them. Responses are chained from as
+     * usual once the future completes:
+     *
+     * <pre>
+     * CompletableFuture&lt;RestResponse&gt; details = RestRequest.get(url).runAsync()
+     *         .thenCompose(x -&gt; x.nextGet(detailsUrl).runAsync());
+     * </pre>
+     *
+     * The future completes on one of the few I/O threads the pool's connections are served by, so work of any length
+     * done with the response, such as parsing it, belongs in a stage run elsewhere, e.g. with
+     * {@link CompletableFuture#thenApplyAsync}.
+     *
+     * @return A future of a response object, with its body read in full. It completes exceptionally with an
+     * {@link IOException} if the call fails.
+     */
+    public CompletableFuture<RestResponse> runAsync() {
+
+        HttpRequestBase request;
+        String key;
+        ResponseCache.Entry stored;
+
+        ResponseCache cache = ResponseCache.getInstance();
+
+        try {
+
+            request = this.buildRequest();
+            key = this.getCacheKey();
+
+            if (cache.getMode() == ResponseCache.Mode.REPLAY)
+                return CompletableFuture.completedFuture(this.replay(cache, key, request));
+
+            stored = this.addConditions(request, key);
+
+        } catch (IOException | RuntimeException e) {
+
+            CompletableFuture<RestResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+
+        CompletableFuture<RestResponse> sent = RestResponse.sendAsync(this.connectionPool,
+                this.allowInvalidCertificates, this.httpContext, request, this.retryCount, this.retryPolicy);
+
+        if (!this.conditional && cache.getMode() != ResponseCache.Mode.RECORD)
+            return sent;
+
+        // Responses are stored to disk off the I/O thread they arrive on.
+        CompletableFuture<RestResponse> future = new CompletableFuture<>();
+
+        sent.whenCompleteAsync((x, e) -> {
+
+            if (e != null) {
+                future.completeExceptionally(e);
+                return;
+            }
+
+            try {
+                future.complete(this.store(cache, key, stored, x));
+            } catch (IOException | RuntimeException f) {
+                future.completeExceptionally(f);
+            }
+        });
+
+        return future;
+    }
+
+    private RestResponse execute() throws IOException {
+
+        HttpRequestBase request = this.buildRequest();
+        String key = this.getCacheKey();
+
+        ResponseCache cache = ResponseCache.getInstance();
+
+        if (cache.getMode() == ResponseCache.Mode.REPLAY)
+            return this.replay(cache, key, request);
+
+        ResponseCache.Entry stored = this.addConditions(request, key);
+
+        RestResponse response = new RestResponse(this.connectionPool, this.allowInvalidCertificates, this.httpContext,
+                request, retryCount, retryPolicy);
+
+        return this.store(cache, key, stored, response);
+    }
+
+    private RestResponse replay(ResponseCache cache, String key, HttpRequestBase request) throws IOException {
+        return cache.replay(key, this.connectionPool, this.allowInvalidCertificates, this.httpContext,
+                request.getURI().toString());
+    }
+
+    // Makes a conditional request conditional on the response stored for it, which is returned, if there is one.
+    private ResponseCache.Entry addConditions(HttpRequestBase request, String key) throws IOException {
+
+        if (!this.conditional)
+            return null;
+
+        ResponseCache.Entry stored = ValidatorStore.getInstance().load(key);
+
+        if (stored != null)
+            ValidatorStore.addConditions(request, stored);
+
+        return stored;
+    }
+
+    // Turns the answer to a conditional request into the stored response if it has not changed, or stores it if it
+    // has, then records the response if the cache is recording.
+    private RestResponse store(ResponseCache cache, String key, ResponseCache.Entry stored, RestResponse response)
+            throws IOException {
+
+        if (this.conditional) {
+            if (stored != null && response.getResponseCode() == HttpStatus.SC_NOT_MODIFIED)
+                response.revalidate(stored);
+            else
+                ValidatorStore.getInstance().update(key, response);
+        }
+
+        if (cache.getMode() == ResponseCache.Mode.RECORD)
+            cache.record(key, response);
+
+        return response;
+    }
+
+    // What identifies the request to a ResponseCache. Every map involved is sorted, and so are form values.
+    private String getCacheKey() {
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(this.operation).append('\n').append(this.url).append('\n');
+
+        for (Map.Entry<String, String> query : this.queryValues.entrySet())
+            sb.append(query.getKey()).append('=').append(query.getValue()).append('&');
+
+        sb.append('\n');
+
+        for (Map.Entry<String, Set<String>> form : this.formValues.entrySet())
+            for (String value : new TreeSet<>(form.getValue()))
+                sb.append(form.getKey()).append('=').append(value).append('&');
+
+        sb.append('\n');
+
+        for (Map.Entry<String, String> cookie : this.requestCookies.entrySet())
+            sb.append(cookie.getKey()).append('=').append(cookie.getValue()).append(';');
+
+        return sb.toString();
+    }
+
+    private HttpRequestBase buildRequest() throws IOException {
 
         RequestConfig currentRedirectsConfig = (followRedirects) ? redirectsConfig : noRedirectsConfig;
 
@@ -265,10 +420,7 @@ public final class RestRequest {
             ((HttpPost) request).setEntity(new UrlEncodedFormEntity(formParameters));
         }
 
-        if (this.httpClient == null)
-            this.httpClient = buildHttpClient(this.allowInvalidCertificates);
-
-        return new RestResponse(this.httpClient, this.httpContext, request, retryCount);
+        return request;
     }
 
     @Override
@@ -1,42 +1,97 @@
 package com.timetablegenerator.scraper.utility.network;
 
+import com.timetablegenerator.jfr.FlightEvent;
+import com.timetablegenerator.scraper.concurrent.TokenBucket;
+import com.timetablegenerator.scraper.metrics.Counter;
+import com.timetablegenerator.scraper.metrics.Histogram;
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
+import com.timetablegenerator.scraper.metrics.Timer;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.CookieStore;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
 import org.apache.http.cookie.Cookie;
 import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.cookie.BasicClientCookie;
+import org.apache.http.nio.client.HttpAsyncClient;
 import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.SocketTimeoutException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The response to a {@link RestRequest}.
+ *
+ * The body is read in full before the response is returned, into a buffer sized from its Content-Length so that it
+ * is not copied again once read, and the connection is released. Jsoup (1.7.3) reads any stream it is given into a
+ * buffer and a string of the whole page before parsing, so documents are parsed from the body already read rather
+ * than from the connection.
+ *
+ * Requests run asynchronously are sent through the non-blocking client of their {@link ConnectionPool}, which reads
+ * the body in full before the response is built, and are retried in the same way without holding a thread while
+ * they wait.
+ *
+ * The time taken by each attempt, the time spent backing off before retries, the bytes downloaded and any failure are
+ * recorded in {@link ScrapeMetrics} under the host and the school being scraped, and each request is recorded as a
+ * Flight Recorder event.
+ */
 public final class RestResponse {
 
     private static final Logger LOGGER = LogManager.getLogger();
 
+    private static final int CHUNK_SIZE = 8192;
+
+    // Larger Content-Length values are not trusted for sizing the body up front.
+    private static final int MAX_PRESIZED_LENGTH = 64 * 1024 * 1024;
+
+    // Bodies are copied through a chunk owned by the reading thread, so reading one does not allocate any.
+    private static final ThreadLocal<byte[]> CHUNKS = ThreadLocal.withInitial(() -> new byte[CHUNK_SIZE]);
+
     private final Map<String, String> headerValues = new TreeMap<>();
     private final Map<String, String> cookieValues = new TreeMap<>();
 
     private byte[] responseBytes = null;
     private int responseCode;
 
-    private HttpClient httpClient;
-    private HttpContext httpContext;
+    private String responseString = null;
+    private Charset responseCharset = null;
+
+    private boolean notModified = false;
+
+    private final String uri;
+
+    // Where the bytes of the body are counted as it is read. Responses rebuilt from a ResponseCache download nothing.
+    private final Counter downloadedBytes;
+
+    // Where requests chained from the response are sent from.
+    private final ConnectionPool connectionPool;
+    private final boolean allowInvalidCertificates;
+    private final HttpContext httpContext;
 
     public final Set<String> getCookies() {
         return cookieValues.keySet();
@@ -58,49 +113,238 @@ public final class RestResponse {
         return this.responseCode;
     }
 
+    /**
+     * @return Whether the server answered a conditional request by saying that the response stored from an earlier
+     * request is still current, in which case this is that response and its body is unchanged.
+     */
+    public final boolean isNotModified() {
+        return this.notModified;
+    }
+
     public final String getResponseString() {
-        return new String(this.responseBytes, StandardCharsets.UTF_8);
+        return this.getResponseString(StandardCharsets.UTF_8);
     }
 
+    /**
+     * @param charset The charset to decode the body with.
+     * @return The body as a string. The last string decoded is kept, so asking for it again is free.
+     */
     public final String getResponseString(Charset charset) {
-        return new String(this.responseBytes, charset);
+
+        byte[] bytes = this.getResponseBytes();
+
+        if (bytes == null)
+            return null;
+
+        if (!charset.equals(this.responseCharset)) {
+            this.responseString = new String(bytes, charset);
+            this.responseCharset = charset;
+        }
+
+        return this.responseString;
     }
 
     public final byte[] getResponseBytes() {
         return this.responseBytes;
     }
 
+    /**
+     * @return A stream over the body, or null if the response has none.
+     */
     public final InputStream getResponseStream() {
+        return this.responseBytes == null ? null : new ByteArrayInputStream(this.responseBytes);
+    }
 
-        if (this.responseBytes == null)
-            return null;
+    /**
+     * Parses the body as UTF-8 HTML, from the string it decodes to, which is kept for later calls as usual.
+     *
+     * @return The parsed document, which is empty if the response has no body.
+     */
+    public final Document getResponseDocument() {
 
-        return new ByteArrayInputStream(this.responseBytes);
+        String body = this.getResponseString();
+        return Jsoup.parse(body == null ? "" : body, this.uri);
     }
 
-    RestResponse(HttpClient client, HttpContext context, HttpRequestBase request, final int retryCount) throws IOException {
+    RestResponse(ConnectionPool connectionPool, boolean allowInvalidCertificates, HttpContext context,
+                 HttpRequestBase request, final int retryCount, RetryPolicy retryPolicy) throws IOException {
 
-        this.httpClient = client;
+        this.connectionPool = connectionPool;
+        this.allowInvalidCertificates = allowInvalidCertificates;
         this.httpContext = context;
+        this.uri = request.getURI().toString();
 
-        HttpResponse response = null;
+        String host = request.getURI().getHost();
+
+        ScrapeMetrics.Context metricsContext = ScrapeMetrics.Context.current();
+        String school = metricsContext.getSchool();
+
+        this.downloadedBytes = ScrapeMetrics.RESPONSE_BYTES.labels(school, host);
+
+        HttpClient client = connectionPool.getClient(allowInvalidCertificates);
+        TokenBucket rate = connectionPool.getRequestRate(host);
+
+        FlightEvent event = ScrapeMetrics.REQUEST_EVENT.begin();
+
+        try {
+            this.awaitResponse(client, request, retryCount, retryPolicy, rate, host, school);
+        } catch (IOException | RuntimeException e) {
+            ScrapeMetrics.REQUEST_FAILURES.labels(school, host).increment();
+            throw e;
+        } finally {
+            commit(event, metricsContext, host, this.uri, this.responseCode,
+                    this.responseBytes != null ? this.responseBytes.length : 0);
+        }
+    }
+
+    // Builds the response to a request sent asynchronously from the last response the server gave it.
+    private RestResponse(AsyncExchange exchange, HttpResponse response) throws IOException {
+
+        this.connectionPool = exchange.connectionPool;
+        this.allowInvalidCertificates = exchange.allowInvalidCertificates;
+        this.httpContext = exchange.httpContext;
+        this.uri = exchange.uri;
+        this.downloadedBytes = ScrapeMetrics.RESPONSE_BYTES.labels(exchange.metricsContext.getSchool(), exchange.host);
+
+        this.receive(response);
+    }
+
+    /**
+     * Sends a request through the asynchronous client of a pool, once the pool lets it through to its host.
+     *
+     * @return A future of the response, with its body read in full. It completes on an I/O thread of the client, and
+     * exceptionally with an {@link IOException} if the request fails.
+     */
+    static CompletableFuture<RestResponse> sendAsync(ConnectionPool connectionPool, boolean allowInvalidCertificates,
+                                                     HttpContext context, HttpRequestBase request, int retryCount,
+                                                     RetryPolicy retryPolicy) {
+
+        AsyncExchange exchange = new AsyncExchange(connectionPool, allowInvalidCertificates, context, request,
+                retryCount, retryPolicy);
+
+        return connectionPool.submit(exchange.host == null ? "" : exchange.host, exchange::start);
+    }
+
+    // Fills in the event of a request, whether it succeeded or not, and records it.
+    private static void commit(FlightEvent event, ScrapeMetrics.Context metricsContext, String host, String uri,
+                               int status, int bytes) {
+        if (!event.isRecorded())
+            return;
+
+        event.set("school", metricsContext.getSchool())
+                .set("term", metricsContext.getTerm())
+                .set("department", metricsContext.getDepartment())
+                .set("host", host)
+                .set("uri", uri)
+                .set("status", status)
+                .set("bytes", bytes)
+                .commit();
+    }
+
+    // Sends a request until it is answered with a response that is not worth retrying, or the retries run out, and
+    // reads that response in. Each attempt is timed on its own, apart from the waits between them.
+    private void awaitResponse(HttpClient client, HttpRequestBase request, int retryCount, RetryPolicy retryPolicy,
+                               TokenBucket rate, String host, String school) throws IOException {
+
+        Histogram attemptSeconds = ScrapeMetrics.ATTEMPT_SECONDS.labels(school, host);
+        Counter backoffSeconds = ScrapeMetrics.BACKOFF_SECONDS.labels(school, host);
 
         int attempts = 0;
 
-        while (attempts <= retryCount) {
+        while (true) {
+
+            retryPolicy.beforeAttempt(host);
+            attempts++;
+
+            if (rate != null) {
+                try {
+                    rate.acquire();
+                } catch (InterruptedException e) {
+                    retryPolicy.afterUnsent(host);
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting to send a request to " + host);
+                }
+            }
+
+            long delay;
+            Timer timer = Timer.start(attemptSeconds::observe);
+
             try {
-                response = client.execute(request, context);
-                break;
-            } catch (SocketTimeoutException | ConnectTimeoutException | NoHttpResponseException e) {
-                LOGGER.warn("Server failed to respond [attempt " + ++attempts + " of " + retryCount + "]");
+                delay = this.attempt(client, request, attempts, retryCount, retryPolicy, host);
+            } finally {
+                timer.close();
             }
+
+            if (delay < 0)
+                return;
+
+            backoffSeconds.add(delay / 1000.0);
+            retryPolicy.backOff(delay);
+        }
+    }
+
+    // Makes a single attempt at a request, returning how long to wait before retrying it, or -1 once the response to
+    // it has been read in.
+    private long attempt(HttpClient client, HttpRequestBase request, int attempts, int retryCount,
+                         RetryPolicy retryPolicy, String host) throws IOException {
+
+        HttpResponse response;
+
+        try {
+            response = client.execute(request, this.httpContext);
+        } catch (ConnectionPoolTimeoutException e) {
+
+            // No connection came free in our own pool in time, so the request never reached the host: this says
+            // nothing about the host and is neither retried nor held against its circuit.
+            retryPolicy.afterUnsent(host);
+            throw e;
+
+        } catch (SocketTimeoutException | ConnectTimeoutException | NoHttpResponseException e) {
+
+            boolean retrying = attempts <= retryCount;
+            retryPolicy.afterFailure(host, retrying);
+
+            LOGGER.warn("Server failed to respond [attempt " + attempts + " of " + (retryCount + 1) + "]");
+
+            if (!retrying)
+                throw new IOException("Failed to yield a response from the server after "
+                        + attempts + " attempt" + (attempts > 1 ? "s" : ""), e);
+
+            return retryPolicy.getDelay(attempts, null);
+
+        } catch (IOException | RuntimeException e) {
+            retryPolicy.afterFailure(host, false);
+            throw e;
+        }
+
+        int statusCode = response.getStatusLine().getStatusCode();
+
+        if (!retryPolicy.isRetryable(statusCode)) {
+            retryPolicy.afterSuccess(host);
+            this.receive(response);
+            return -1;
         }
 
-        if (response == null) {
-            throw new IOException("Failed to yield a response from the server after "
-                    + attempts + " attempt" + (retryCount > 0 ? "s" : ""));
+        boolean retrying = attempts <= retryCount;
+        retryPolicy.afterFailure(host, retrying);
+
+        if (!retrying) {
+            this.receive(response);
+            return -1;
         }
 
+        LOGGER.warn("Server responded with status " + statusCode + " [attempt " + attempts + " of "
+                + (retryCount + 1) + "]");
+
+        Header retryAfter = response.getFirstHeader("Retry-After");
+
+        // The connection is only released once the body has been read.
+        EntityUtils.consumeQuietly(response.getEntity());
+        return retryPolicy.getDelay(attempts, retryAfter == null ? null : retryAfter.getValue());
+    }
+
+    private void receive(HttpResponse response) throws IOException {
+
         // Get the HTTP status code.
         this.responseCode = response.getStatusLine().getStatusCode();
 
@@ -109,28 +353,93 @@ public final class RestResponse {
             headerValues.put(h.getName(), h.getValue());
 
         // Read in the cookies.
-        for (Cookie c : ((BasicCookieStore) context.getAttribute(HttpClientContext.COOKIE_STORE)).getCookies())
+        for (Cookie c : ((BasicCookieStore) this.httpContext.getAttribute(HttpClientContext.COOKIE_STORE)).getCookies())
             cookieValues.put(c.getName(), c.getValue());
 
         HttpEntity responseEntity = response.getEntity();
 
-        if (responseEntity == null)
-            return;
+        if (responseEntity != null)
+            this.responseBytes = this.readBody(responseEntity);
+    }
+
+    // Reads a body in chunks into a buffer sized from its Content-Length, when known, and closes it.
+    private byte[] readBody(HttpEntity entity) throws IOException {
+
+        long length = entity.getContentLength();
 
-        ByteArrayOutputStream bos = new ByteArrayOutputStream();
-        InputStream responseStream = responseEntity.getContent();
+        BodyBuffer buffer = new BodyBuffer(length >= 0 && length <= MAX_PRESIZED_LENGTH ? (int) length : CHUNK_SIZE);
+        byte[] chunk = CHUNKS.get();
 
-        int b;
-        while ((b = responseStream.read()) != -1)
-            bos.write(b);
+        try (InputStream in = entity.getContent()) {
+
+            int read;
+            while ((read = in.read(chunk)) != -1)
+                buffer.write(chunk, 0, read);
+        }
+
+        this.downloadedBytes.add(buffer.size());
+
+        return buffer.getBytes();
+    }
+
+    private static final class BodyBuffer extends ByteArrayOutputStream {
+
+        BodyBuffer(int size) {
+            super(size);
+        }
+
+        // The buffer is exactly full whenever Content-Length was right, in which case it is handed over uncopied.
+        byte[] getBytes() {
+            return this.count == this.buf.length ? this.buf : this.toByteArray();
+        }
+    }
+
+    // Rebuilds a response stored by a ResponseCache. Its cookies are put back into the context, as they would have
+    // been by the client, so that chained requests see them.
+    RestResponse(ConnectionPool connectionPool, boolean allowInvalidCertificates, HttpContext context, String uri,
+                 int responseCode, Map<String, String> headers, Map<String, String> cookies, byte[] body) {
+
+        this.connectionPool = connectionPool;
+        this.allowInvalidCertificates = allowInvalidCertificates;
+        this.httpContext = context;
+        this.uri = uri;
+        this.downloadedBytes = null;
+
+        this.responseCode = responseCode;
+        this.headerValues.putAll(headers);
+        this.cookieValues.putAll(cookies);
+        this.responseBytes = body;
+
+        CookieStore cookieStore = (CookieStore) context.getAttribute(HttpClientContext.COOKIE_STORE);
+
+        for (Map.Entry<String, String> cookie : cookies.entrySet())
+            cookieStore.addCookie(new BasicClientCookie(cookie.getKey(), cookie.getValue()));
+    }
+
+    // Turns a 304 response into the stored response it confirmed. Headers sent with the 304 replace the stored ones.
+    void revalidate(ResponseCache.Entry entry) {
+
+        Map<String, String> headers = new TreeMap<>(entry.headers);
+        headers.putAll(this.headerValues);
+
+        this.headerValues.clear();
+        this.headerValues.putAll(headers);
+
+        this.responseCode = entry.responseCode;
+        this.responseBytes = entry.body;
+        this.notModified = true;
+    }
 
-        responseStream.close();
+    Map<String, String> getHeaderValues() {
+        return this.headerValues;
+    }
 
-        this.responseBytes = bos.toByteArray();
+    Map<String, String> getCookieValues() {
+        return this.cookieValues;
     }
 
     private RestRequest load(RestRequest req) {
-        return req.recycleConnection(this.httpClient, this.httpContext);
+        return req.recycleConnection(this.connectionPool, this.allowInvalidCertificates, this.httpContext);
     }
 
     public RestRequest nextDelete(String url) {
@@ -153,6 +462,241 @@ public final class RestResponse {
         return this.load(RestRequest.head(url));
     }
 
+    /**
+     * A request sent through the asynchronous client of a pool, attempted as many times as one sent from the
+     * constructor would be. No thread waits on it: attempts complete on the I/O threads of the client, and are started
+     * again from the pool's timer once a back off, or a wait for the host's rate, is over.
+     */
+    private static final class AsyncExchange implements FutureCallback<HttpResponse> {
+
+        private final ConnectionPool connectionPool;
+        private final boolean allowInvalidCertificates;
+        private final HttpContext httpContext;
+        private final HttpRequestBase request;
+        private final int retryCount;
+        private final RetryPolicy retryPolicy;
+
+        private final String uri;
+        private final String host;
+        private final ScrapeMetrics.Context metricsContext;
+        private final TokenBucket rate;
+
+        private final CompletableFuture<RestResponse> future = new CompletableFuture<>();
+
+        private HttpAsyncClient client;
+        private FlightEvent event;
+
+        // Times the attempt in flight.
+        private Timer timer;
+
+        private int attempts = 0;
+
+        private AsyncExchange(ConnectionPool connectionPool, boolean allowInvalidCertificates, HttpContext context,
+                              HttpRequestBase request, int retryCount, RetryPolicy retryPolicy) {
+
+            this.connectionPool = connectionPool;
+            this.allowInvalidCertificates = allowInvalidCertificates;
+            this.httpContext = context;
+            this.request = request;
+            this.retryCount = retryCount;
+            this.retryPolicy = retryPolicy;
+
+            this.uri = request.getURI().toString();
+            this.host = request.getURI().getHost();
+
+            // The request is recorded under the school being scraped by the caller rather than by the pool's threads.
+            this.metricsContext = ScrapeMetrics.Context.current();
+            this.rate = connectionPool.getRequestRate(this.host);
+        }
+
+        private CompletableFuture<RestResponse> start() {
+
+            this.event = ScrapeMetrics.REQUEST_EVENT.begin();
+
+            try {
+                this.client = this.connectionPool.getAsyncClient(this.allowInvalidCertificates);
+            } catch (RuntimeException e) {
+                this.fail(e);
+                return this.future;
+            }
+
+            this.attempt();
+            return this.future;
+        }
+
+        // Asks the host's circuit to let an attempt through, and sends it as soon as the host's rate allows.
+        private void attempt() {
+
+            ScrapeMetrics.Binding binding = this.metricsContext.bind();
+
+            try {
+
+                this.retryPolicy.beforeAttempt(this.host);
+                this.attempts++;
+
+                long wait = this.rate == null ? 0 : this.rate.reserve();
+
+                if (wait > 0)
+                    ConnectionPool.TIMER.schedule(this::send, wait, TimeUnit.NANOSECONDS);
+                else
+                    this.send();
+
+            } catch (IOException e) {
+                this.fail(e);
+            } finally {
+                binding.close();
+            }
+        }
+
+        private void send() {
+
+            ScrapeMetrics.Binding binding = this.metricsContext.bind();
+
+            this.timer = Timer.start(ScrapeMetrics.ATTEMPT_SECONDS
+                    .labels(this.metricsContext.getSchool(), this.host)::observe);
+
+            try {
+                this.client.execute(this.request, this.httpContext, this);
+            } catch (RuntimeException e) {
+
+                // The client was closed, so the attempt never left.
+                this.retryPolicy.afterUnsent(this.host);
+                this.fail(e);
+
+            } finally {
+                binding.close();
+            }
+        }
+
+        private void retry(long delayMillis) {
+
+            ScrapeMetrics.BACKOFF_SECONDS.labels(this.metricsContext.getSchool(), this.host).add(delayMillis / 1000.0);
+            ConnectionPool.TIMER.schedule(this::attempt, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void completed(HttpResponse response) {
+
+            this.timer.close();
+
+            ScrapeMetrics.Binding binding = this.metricsContext.bind();
+
+            try {
+
+                int statusCode = response.getStatusLine().getStatusCode();
+
+                if (!this.retryPolicy.isRetryable(statusCode)) {
+                    this.retryPolicy.afterSuccess(this.host);
+                    this.finish(response);
+                    return;
+                }
+
+                boolean retrying = this.attempts <= this.retryCount;
+                this.retryPolicy.afterFailure(this.host, retrying);
+
+                if (!retrying) {
+                    this.finish(response);
+                    return;
+                }
+
+                LOGGER.warn("Server responded with status " + statusCode + " [attempt " + this.attempts + " of "
+                        + (this.retryCount + 1) + "]");
+
+                Header retryAfter = response.getFirstHeader("Retry-After");
+
+                // The client has read the body in full already, so there is no connection to release first.
+                this.retry(this.retryPolicy.getDelay(this.attempts, retryAfter == null ? null : retryAfter.getValue()));
+
+            } finally {
+                binding.close();
+            }
+        }
+
+        @Override
+        public void failed(Exception e) {
+
+            this.timer.close();
+
+            ScrapeMetrics.Binding binding = this.metricsContext.bind();
+
+            try {
+
+                if (e instanceof TimeoutException) {
+
+                    // No connection came free in our own pool in time, as with the blocking client.
+                    this.retryPolicy.afterUnsent(this.host);
+                    this.fail(new ConnectionPoolTimeoutException("Timeout waiting for connection from pool"));
+
+                } else if (e instanceof SocketTimeoutException || e instanceof ConnectTimeoutException
+                        || e instanceof NoHttpResponseException) {
+
+                    boolean retrying = this.attempts <= this.retryCount;
+                    this.retryPolicy.afterFailure(this.host, retrying);
+
+                    LOGGER.warn("Server failed to respond [attempt " + this.attempts + " of " + (this.retryCount + 1)
+                            + "]");
+
+                    if (retrying)
+                        this.retry(this.retryPolicy.getDelay(this.attempts, null));
+                    else
+                        this.fail(new IOException("Failed to yield a response from the server after "
+                                + this.attempts + " attempt" + (this.attempts > 1 ? "s" : ""), e));
+
+                } else {
+                    this.retryPolicy.afterFailure(this.host, false);
+                    this.fail(e instanceof IOException || e instanceof RuntimeException
+                            ? e : new ClientProtocolException(e));
+                }
+
+            } finally {
+                binding.close();
+            }
+        }
+
+        @Override
+        public void cancelled() {
+
+            this.timer.close();
+
+            ScrapeMetrics.Binding binding = this.metricsContext.bind();
+
+            try {
+                this.retryPolicy.afterUnsent(this.host);
+                this.fail(new InterruptedIOException("Request to " + this.host + " was cancelled"));
+            } finally {
+                binding.close();
+            }
+        }
+
+        private void finish(HttpResponse response) {
+
+            RestResponse restResponse;
+
+            try {
+                restResponse = new RestResponse(this, response);
+            } catch (IOException | RuntimeException e) {
+                this.fail(e);
+                return;
+            }
+
+            commit(this.event, this.metricsContext, this.host, this.uri, restResponse.responseCode,
+                    restResponse.responseBytes != null ? restResponse.responseBytes.length : 0);
+
+            this.future.complete(restResponse);
+        }
+
+        private void fail(Exception e) {
+
+            if (this.timer != null)
+                this.timer.close();
+
+            ScrapeMetrics.REQUEST_FAILURES.labels(this.metricsContext.getSchool(), this.host).increment();
+            commit(this.event, this.metricsContext, this.host, this.uri, 0, 0);
+
+            this.future.completeExceptionally(e);
+        }
+    }
+
     @Override
     public final String toString() {
 
@@ -182,7 +726,6 @@ public final class RestResponse {
 
         sb.append("\nBody:\n");
         sb.append("----\n");
-
         sb.append(this.getResponseString(Charset.defaultCharset()));
 
         sb.append("\n\n------------------\n");
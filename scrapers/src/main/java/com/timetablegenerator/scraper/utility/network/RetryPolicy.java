@@ -0,0 +1,270 @@
+package com.timetablegenerator.scraper.utility.network;
+
+import com.timetablegenerator.scraper.metrics.ScrapeMetrics;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.utils.DateUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides how long to wait between attempts at a request, and when to stop sending requests to a host altogether.
+ *
+ * The wait doubles with every attempt, from a base delay up to a maximum, and is then jittered by up to half so that
+ * requests held back together do not all retry together. A server asking for a longer wait with Retry-After is given
+ * it, up to the maximum delay.
+ *
+ * Each host has a circuit breaker. Once a set number of attempts in a row have failed, the circuit opens and requests
+ * to the host fail straight away for a while. After that a single request is let through: the circuit closes again
+ * if it succeeds, and stays open for another while if it fails.
+ *
+ * Timeouts, 429 (Too Many Requests) and 5xx responses are failures worth retrying. The attempts sent, failed and
+ * retried, and the requests refused by an open circuit, are counted in {@link ScrapeMetrics} under the school being
+ * scraped and the host.
+ */
+public final class RetryPolicy {
+
+    private static final RetryPolicy DEFAULT_POLICY = builder().build();
+
+    public static class Builder {
+
+        private long baseDelayMillis = 500;
+        private long maxDelayMillis = TimeUnit.SECONDS.toMillis(30);
+        private int failureThreshold = 10;
+        private long openMillis = TimeUnit.SECONDS.toMillis(60);
+
+        private Builder() {
+        }
+
+        public Builder withBaseDelay(long delay, TimeUnit unit) {
+
+            if (delay < 0)
+                throw new IllegalArgumentException("Invalid base delay: " + delay);
+
+            this.baseDelayMillis = unit.toMillis(delay);
+            return this;
+        }
+
+        public Builder withMaxDelay(long delay, TimeUnit unit) {
+
+            if (delay < 0)
+                throw new IllegalArgumentException("Invalid maximum delay: " + delay);
+
+            this.maxDelayMillis = unit.toMillis(delay);
+            return this;
+        }
+
+        /**
+         * @param failureThreshold The number of failed attempts in a row after which a host's circuit opens.
+         * @param openTime How long the circuit stays open for.
+         * @param unit The unit of the time the circuit stays open for.
+         * @return This builder.
+         */
+        public Builder withCircuitBreaker(int failureThreshold, long openTime, TimeUnit unit) {
+
+            if (failureThreshold < 1)
+                throw new IllegalArgumentException("Invalid failure threshold: " + failureThreshold);
+            if (openTime < 0)
+                throw new IllegalArgumentException("Invalid circuit open time: " + openTime);
+
+            this.failureThreshold = failureThreshold;
+            this.openMillis = unit.toMillis(openTime);
+            return this;
+        }
+
+        public RetryPolicy build() {
+
+            if (this.baseDelayMillis > this.maxDelayMillis)
+                throw new IllegalStateException("The base delay " + this.baseDelayMillis
+                        + "ms is greater than the maximum delay " + this.maxDelayMillis + "ms");
+
+            return new RetryPolicy(this);
+        }
+    }
+
+    private static final class Host {
+
+        private int consecutiveFailures = 0;
+        private long openUntil = 0;
+        private boolean probing = false;
+    }
+
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+
+    private RetryPolicy(Builder builder) {
+        this.baseDelayMillis = builder.baseDelayMillis;
+        this.maxDelayMillis = builder.maxDelayMillis;
+        this.failureThreshold = builder.failureThreshold;
+        this.openMillis = builder.openMillis;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static RetryPolicy getDefault() {
+        return DEFAULT_POLICY;
+    }
+
+    /**
+     * @param statusCode The status code of a response.
+     * @return Whether the request is worth retrying.
+     */
+    public boolean isRetryable(int statusCode) {
+        return statusCode == 429 || (statusCode >= 500 && statusCode != HttpStatus.SC_NOT_IMPLEMENTED
+                && statusCode < 600);
+    }
+
+    /**
+     * @param attempt The number of the attempt about to be retried, starting from 1.
+     * @param retryAfter The value of the Retry-After header of the response to the attempt, or null if there is none.
+     * @return How long to wait for, in milliseconds, before the next attempt.
+     */
+    public long getDelay(int attempt, String retryAfter) {
+
+        long delay = this.baseDelayMillis << Math.min(attempt - 1, 30);
+
+        if (delay > this.maxDelayMillis || delay < 0)
+            delay = this.maxDelayMillis;
+
+        delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+
+        return Math.max(delay, Math.min(parseRetryAfter(retryAfter), this.maxDelayMillis));
+    }
+
+    /**
+     * Waits before retrying an attempt.
+     *
+     * @param attempt The number of the attempt about to be retried, starting from 1.
+     * @param retryAfter The value of the Retry-After header of the response to the attempt, or null if there is none.
+     * @throws InterruptedIOException If the thread is interrupted while waiting.
+     */
+    public void backOff(int attempt, String retryAfter) throws InterruptedIOException {
+        this.backOff(this.getDelay(attempt, retryAfter));
+    }
+
+    /**
+     * Waits before retrying an attempt.
+     *
+     * @param delayMillis How long to wait for, as given by {@link #getDelay(int, String)}.
+     * @throws InterruptedIOException If the thread is interrupted while waiting.
+     */
+    public void backOff(long delayMillis) throws InterruptedIOException {
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off for " + delayMillis + "ms");
+        }
+    }
+
+    // Retry-After is either a number of seconds or an HTTP date.
+    private static long parseRetryAfter(String retryAfter) {
+
+        if (retryAfter == null)
+            return 0;
+
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            Date date = DateUtils.parseDate(retryAfter);
+            return date == null ? 0 : Math.max(0, date.getTime() - System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Asks to send an attempt to a host.
+     *
+     * @param host The host.
+     * @throws IOException If the host's circuit is open.
+     */
+    void beforeAttempt(String host) throws IOException {
+
+        Host state = this.getHost(host);
+
+        synchronized (state) {
+
+            long now = System.currentTimeMillis();
+
+            if (state.openUntil > now || (state.openUntil > 0 && state.probing)) {
+                ScrapeMetrics.CIRCUIT_REJECTIONS.labels(school(), host).increment();
+                throw new IOException("Not sending a request to " + host + " after "
+                        + state.consecutiveFailures + " failed attempts in a row; its circuit is open.");
+            }
+
+            // The circuit has been open for long enough: let this attempt through to see if the host is back.
+            if (state.openUntil > 0)
+                state.probing = true;
+        }
+    }
+
+    /**
+     * Records an attempt that failed in a way that is worth retrying.
+     *
+     * @param retrying Whether the attempt is going to be retried.
+     */
+    void afterFailure(String host, boolean retrying) {
+
+        Host state = this.getHost(host);
+        String school = school();
+
+        ScrapeMetrics.ATTEMPTS.labels(school, host).increment();
+        ScrapeMetrics.ATTEMPT_FAILURES.labels(school, host).increment();
+
+        if (retrying)
+            ScrapeMetrics.RETRIES.labels(school, host).increment();
+
+        synchronized (state) {
+
+            state.probing = false;
+
+            if (++state.consecutiveFailures >= this.failureThreshold)
+                state.openUntil = System.currentTimeMillis() + this.openMillis;
+        }
+    }
+
+    /**
+     * Records an attempt that was let through but never sent, such as one that could not get a connection from the
+     * pool in time. It counts as neither a success nor a failure, but frees the circuit for another attempt if it was
+     * the one let through to see whether the host is back.
+     */
+    void afterUnsent(String host) {
+
+        Host state = this.getHost(host);
+
+        synchronized (state) {
+            state.probing = false;
+        }
+    }
+
+    void afterSuccess(String host) {
+
+        Host state = this.getHost(host);
+
+        ScrapeMetrics.ATTEMPTS.labels(school(), host).increment();
+
+        synchronized (state) {
+            state.consecutiveFailures = 0;
+            state.openUntil = 0;
+            state.probing = false;
+        }
+    }
+
+    private Host getHost(String host) {
+        return this.hosts.computeIfAbsent(host, x -> new Host());
+    }
+
+    private static String school() {
+        return ScrapeMetrics.Context.current().getSchool();
+    }
+}
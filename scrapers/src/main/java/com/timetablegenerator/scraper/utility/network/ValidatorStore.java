@@ -0,0 +1,98 @@
+package com.timetablegenerator.scraper.utility.network;
+
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpRequestBase;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * An on-disk store of the last response to each conditional request, kept along with its validators (its ETag and
+ * Last-Modified headers) so that the next request for it can ask the server whether it has changed. When it has not,
+ * the stored body is served in place of the empty 304 response.
+ *
+ * Responses are stored in a directory of their own, in the same layout as a {@link ResponseCache}, which defaults to
+ * <code>.http-validators</code> and can be set with {@link #configure(Path)} or the system property
+ * <code>ttg.http.validators.directory</code>.
+ */
+public final class ValidatorStore {
+
+    private static final String DEFAULT_DIRECTORY = ".http-validators";
+
+    private static volatile ValidatorStore instance = new ValidatorStore(
+            Paths.get(System.getProperty("ttg.http.validators.directory", DEFAULT_DIRECTORY)));
+
+    private final ResponseCache responses;
+
+    private ValidatorStore(Path directory) {
+        this.responses = new ResponseCache(ResponseCache.Mode.RECORD, directory);
+    }
+
+    /**
+     * Sets the store used by every conditional request from now on.
+     *
+     * @param directory The directory the responses are stored in.
+     */
+    public static void configure(Path directory) {
+        instance = new ValidatorStore(directory);
+    }
+
+    static ValidatorStore getInstance() {
+        return instance;
+    }
+
+    /**
+     * @param key The identity of a request.
+     * @return The response stored for the request, or null if there is none with validators.
+     */
+    ResponseCache.Entry load(String key) throws IOException {
+
+        ResponseCache.Entry entry = this.responses.load(key);
+
+        if (entry == null || entry.body == null)
+            return null;
+
+        return getHeader(entry.headers, "ETag") != null || getHeader(entry.headers, "Last-Modified") != null
+                ? entry : null;
+    }
+
+    /**
+     * Makes a request conditional on the stored response having changed.
+     */
+    static void addConditions(HttpRequestBase request, ResponseCache.Entry entry) {
+
+        String eTag = getHeader(entry.headers, "ETag");
+        String lastModified = getHeader(entry.headers, "Last-Modified");
+
+        if (eTag != null)
+            request.setHeader("If-None-Match", eTag);
+        if (lastModified != null)
+            request.setHeader("If-Modified-Since", lastModified);
+    }
+
+    /**
+     * Stores a full response to a request if it has validators, replacing any response stored before.
+     */
+    void update(String key, RestResponse response) throws IOException {
+
+        if (response.getResponseCode() != HttpStatus.SC_OK || response.getResponseBytes() == null)
+            return;
+
+        Map<String, String> headers = response.getHeaderValues();
+
+        if (getHeader(headers, "ETag") != null || getHeader(headers, "Last-Modified") != null)
+            this.responses.record(key, response);
+    }
+
+    // Header names are not case sensitive, but are stored as the server sent them.
+    private static String getHeader(Map<String, String> headers, String name) {
+
+        for (Map.Entry<String, String> header : headers.entrySet())
+            if (header.getKey().equalsIgnoreCase(name))
+                return header.getValue();
+
+        return null;
+    }
+}
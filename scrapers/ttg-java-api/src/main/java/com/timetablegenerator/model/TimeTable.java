@@ -48,6 +48,16 @@ public class TimeTable implements Comparable<TimeTable>, Diffable<TimeTable> {
             throw new IllegalStateException("Attempted to insert multiple courses with the ID \"" + id + "\".");
     }
 
+    /**
+     * Adds a course unless one with the same ID has already been added, as a single step that is safe to race with
+     * other threads adding courses.
+     *
+     * @return Whether the course was added.
+     */
+    public boolean addCourseIfAbsent(Course c) {
+        return this.courses.putIfAbsent(c.getUniqueId(), c) == null;
+    }
+
     public ZonedDateTime getLastUpdate() {
         return this.lastUpdate;
     }